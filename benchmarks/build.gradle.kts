@@ -0,0 +1,34 @@
+// JMH microbenchmarks for core analyses.  Run all of them with `./gradlew :benchmarks:jmh`, or
+// select some with a regular expression, e.g. `./gradlew :benchmarks:jmh -Pjmh.includes=IntSet`.
+
+plugins {
+  id("com.ibm.wala.gradle.java")
+  alias(libs.plugins.jmh)
+}
+
+val coreBenchmarkResources: Configuration by
+    configurations.creating {
+      isCanBeConsumed = false
+      isTransitive = false
+    }
+
+dependencies {
+  coreBenchmarkResources(
+      project(mapOf("path" to ":core", "configuration" to "benchmarkResources")))
+
+  jmh(libs.jmh.core)
+  jmh(projects.core)
+  jmh(projects.shrike)
+  jmh(projects.util)
+  jmh(testFixtures(projects.core)) { because("scope files of the test subjects") }
+  jmhAnnotationProcessor(libs.jmh.generator.annprocess)
+}
+
+jmh {
+  jmhVersion = libs.versions.jmh
+  project.findProperty("jmh.includes")?.let { includes.add(it as String) }
+  resultFormat = "JSON"
+}
+
+// "JLex.jar", which the scope file "JLex.txt" refers to as a resource
+tasks.named<Copy>("processJmhResources") { from(coreBenchmarkResources) }
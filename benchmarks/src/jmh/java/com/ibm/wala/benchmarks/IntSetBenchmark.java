@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.benchmarks;
+
+import com.ibm.wala.util.intset.IntIterator;
+import com.ibm.wala.util.intset.MutableIntSet;
+import com.ibm.wala.util.intset.MutableSharedBitVectorIntSet;
+import com.ibm.wala.util.intset.MutableSparseIntSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The operations of the int sets that back points-to sets and dataflow facts, on sets of random
+ * elements of a given density.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntSetBenchmark {
+
+  @Param({"sharedBitVector", "sparse"})
+  public String kind;
+
+  /** number of elements of each set */
+  @Param({"64", "4096"})
+  public int size;
+
+  /** the elements are drawn from [0, size * spread) */
+  @Param({"4"})
+  public int spread;
+
+  private int[] elements;
+
+  private int[] probes;
+
+  private MutableIntSet a;
+
+  private MutableIntSet b;
+
+  private MutableIntSet make() {
+    switch (kind) {
+      case "sharedBitVector":
+        return new MutableSharedBitVectorIntSet();
+      case "sparse":
+        return MutableSparseIntSet.makeEmpty();
+      default:
+        throw new IllegalArgumentException("unknown int set kind: " + kind);
+    }
+  }
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    int max = size * spread;
+    elements = new int[size];
+    probes = new int[size];
+    a = make();
+    b = make();
+    for (int i = 0; i < size; i++) {
+      elements[i] = random.nextInt(max);
+      probes[i] = random.nextInt(max);
+      a.add(elements[i]);
+      b.add(random.nextInt(max));
+    }
+  }
+
+  @Benchmark
+  public MutableIntSet add() {
+    MutableIntSet s = make();
+    for (int e : elements) {
+      s.add(e);
+    }
+    return s;
+  }
+
+  @Benchmark
+  public int contains() {
+    int count = 0;
+    for (int p : probes) {
+      if (a.contains(p)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  public MutableIntSet addAll() {
+    MutableIntSet s = make();
+    s.addAll(a);
+    s.addAll(b);
+    return s;
+  }
+
+  @Benchmark
+  public MutableIntSet intersectWith() {
+    MutableIntSet s = make();
+    s.addAll(a);
+    s.intersectWith(b);
+    return s;
+  }
+
+  @Benchmark
+  public void iterate(Blackhole bh) {
+    for (IntIterator it = a.intIterator(); it.hasNext(); ) {
+      bh.consume(it.next());
+    }
+  }
+}
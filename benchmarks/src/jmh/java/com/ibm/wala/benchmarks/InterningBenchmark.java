@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.benchmarks;
+
+import com.ibm.wala.types.ClassLoaderReference;
+import com.ibm.wala.types.MethodReference;
+import com.ibm.wala.types.TypeReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Looking up type and method references that are already interned, from one thread and from
+ * several threads at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterningBenchmark {
+
+  private static final int N_NAMES = 5000;
+
+  private List<MethodReference> refs;
+
+  @Setup
+  public void setUp() {
+    // create all names up front, so that we measure the lookups in the interning tables
+    refs = new ArrayList<>(N_NAMES);
+    for (int i = 0; i < N_NAMES; i++) {
+      TypeReference t =
+          TypeReference.findOrCreate(ClassLoaderReference.Application, "Linterning/C" + i);
+      refs.add(MethodReference.findOrCreate(t, "m" + i, "()Ljava/lang/Object;"));
+    }
+  }
+
+  private void lookup(Blackhole bh) {
+    for (MethodReference m : refs) {
+      TypeReference t = m.getDeclaringClass();
+      bh.consume(TypeReference.findOrCreate(t.getClassLoader(), t.getName()));
+      bh.consume(MethodReference.findOrCreate(t, m.getName(), m.getDescriptor()));
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void lookupOneThread(Blackhole bh) {
+    lookup(bh);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void lookupFourThreads(Blackhole bh) {
+    lookup(bh);
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.benchmarks;
+
+import com.ibm.wala.classLoader.IClass;
+import com.ibm.wala.classLoader.IMethod;
+import com.ibm.wala.core.tests.callGraph.CallGraphTestUtil;
+import com.ibm.wala.core.tests.util.TestConstants;
+import com.ibm.wala.ipa.callgraph.AnalysisOptions;
+import com.ibm.wala.ipa.callgraph.AnalysisScope;
+import com.ibm.wala.ipa.callgraph.Entrypoint;
+import com.ibm.wala.ipa.callgraph.impl.Util;
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.ipa.cha.ClassHierarchyFactory;
+import com.ibm.wala.ipa.cha.IClassHierarchy;
+import com.ibm.wala.types.ClassLoaderReference;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The fixed test subject of the analysis benchmarks: JLex, with the exclusions of the regression
+ * tests, as in {@code CallGraphTest.testJLex}.
+ */
+final class JLexSubject {
+
+  private JLexSubject() {}
+
+  static AnalysisScope makeScope() throws IOException {
+    return CallGraphTestUtil.makeJ2SEAnalysisScope(
+        TestConstants.JLEX, CallGraphTestUtil.REGRESSION_EXCLUSIONS);
+  }
+
+  static IClassHierarchy makeClassHierarchy(AnalysisScope scope) throws ClassHierarchyException {
+    return ClassHierarchyFactory.make(scope);
+  }
+
+  static AnalysisOptions makeOptions(AnalysisScope scope, IClassHierarchy cha) {
+    Iterable<Entrypoint> entrypoints = Util.makeMainEntrypoints(cha, TestConstants.JLEX_MAIN);
+    return CallGraphTestUtil.makeAnalysisOptions(scope, entrypoints);
+  }
+
+  /**
+   * @return the concrete methods of the application classes, in a fixed order
+   */
+  static List<IMethod> applicationMethods(IClassHierarchy cha) {
+    List<IMethod> result = new ArrayList<>();
+    for (IClass klass : cha) {
+      if (klass.getClassLoader().getReference().equals(ClassLoaderReference.Application)) {
+        for (IMethod m : klass.getDeclaredMethods()) {
+          if (!m.isAbstract() && !m.isNative()) {
+            result.add(m);
+          }
+        }
+      }
+    }
+    result.sort((a, b) -> a.getSignature().compareTo(b.getSignature()));
+    return result;
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.benchmarks;
+
+import com.ibm.wala.classLoader.Language;
+import com.ibm.wala.ipa.callgraph.AnalysisCacheImpl;
+import com.ibm.wala.ipa.callgraph.AnalysisOptions;
+import com.ibm.wala.ipa.callgraph.AnalysisScope;
+import com.ibm.wala.ipa.callgraph.CallGraph;
+import com.ibm.wala.ipa.callgraph.impl.Util;
+import com.ibm.wala.ipa.callgraph.propagation.InstanceKey;
+import com.ibm.wala.ipa.callgraph.propagation.PointerAnalysis;
+import com.ibm.wala.ipa.callgraph.propagation.SSAPropagationCallGraphBuilder;
+import com.ibm.wala.ipa.callgraph.util.CallGraphSearchUtil;
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.ipa.cha.IClassHierarchy;
+import com.ibm.wala.ipa.slicer.Slicer;
+import com.ibm.wala.ipa.slicer.Slicer.ControlDependenceOptions;
+import com.ibm.wala.ipa.slicer.Slicer.DataDependenceOptions;
+import com.ibm.wala.ipa.slicer.SlicerUtil;
+import com.ibm.wala.ipa.slicer.Statement;
+import com.ibm.wala.util.CancelException;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Backward slicing of JLex from a call to {@code println} in {@code main}, which is solved by the
+ * {@link com.ibm.wala.dataflow.IFDS.TabulationSolver}. The call graph is built once; each
+ * invocation builds a new SDG and slices it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SlicerBenchmark {
+
+  @Param({"NO_HEAP", "FULL"})
+  public DataDependenceOptions dataDependence;
+
+  private CallGraph cg;
+
+  private PointerAnalysis<InstanceKey> pointerAnalysis;
+
+  private Statement seed;
+
+  @Setup
+  public void setUp() throws IOException, ClassHierarchyException, CancelException {
+    AnalysisScope scope = JLexSubject.makeScope();
+    IClassHierarchy cha = JLexSubject.makeClassHierarchy(scope);
+    AnalysisOptions options = JLexSubject.makeOptions(scope, cha);
+    SSAPropagationCallGraphBuilder builder =
+        Util.makeZeroCFABuilder(Language.JAVA, options, new AnalysisCacheImpl(), cha);
+    cg = builder.makeCallGraph(options, null);
+    pointerAnalysis = builder.getPointerAnalysis();
+    seed = SlicerUtil.findCallTo(CallGraphSearchUtil.findMainMethod(cg), "println");
+  }
+
+  @Benchmark
+  public Collection<Statement> backwardSlice() throws CancelException {
+    return Slicer.computeBackwardSlice(
+        seed, cg, pointerAnalysis, dataDependence, ControlDependenceOptions.NONE);
+  }
+}
@@ -388,3 +388,7 @@ listOf(
         extractBcel,
     )
     .forEach { artifacts.add(dalvikTestResources.name, it) }
+
+val benchmarkResources: Configuration by configurations.creating { isCanBeResolved = false }
+
+artifacts.add(benchmarkResources.name, collectJLex)
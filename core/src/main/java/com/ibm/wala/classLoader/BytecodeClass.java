@@ -306,6 +306,7 @@ public abstract class BytecodeClass<T extends IClassLoader> implements IClass {
 
   @Override
   public Collection<IField> getDeclaredInstanceFields() {
+    computeFieldsIfNeeded();
     if (instanceFields == null) {
       return Collections.emptySet();
     } else {
@@ -315,6 +316,7 @@ public abstract class BytecodeClass<T extends IClassLoader> implements IClass {
 
   @Override
   public Collection<IField> getDeclaredStaticFields() {
+    computeFieldsIfNeeded();
     return Collections.unmodifiableList(Arrays.asList(staticFields));
   }
 
@@ -489,6 +491,7 @@ public abstract class BytecodeClass<T extends IClassLoader> implements IClass {
   }
 
   protected List<IField> findDeclaredField(Atom name) {
+    computeFieldsIfNeeded();
 
     List<IField> result = new ArrayList<>(1);
 
@@ -511,6 +514,12 @@ public abstract class BytecodeClass<T extends IClassLoader> implements IClass {
     return result;
   }
 
+  /**
+   * Set up {@link #instanceFields} and {@link #staticFields}, if that has not been done yet. By
+   * default, subclasses set them up when the class is created, so there is nothing to do.
+   */
+  protected void computeFieldsIfNeeded() {}
+
   protected void addFieldToList(
       List<FieldImpl> L,
       Atom name,
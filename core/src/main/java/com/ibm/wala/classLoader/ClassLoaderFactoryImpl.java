@@ -13,6 +13,7 @@ package com.ibm.wala.classLoader;
 import com.ibm.wala.core.util.warnings.Warning;
 import com.ibm.wala.core.util.warnings.Warnings;
 import com.ibm.wala.ipa.callgraph.AnalysisScope;
+import com.ibm.wala.ipa.cha.ClassHierarchySnapshot;
 import com.ibm.wala.ipa.cha.IClassHierarchy;
 import com.ibm.wala.types.ClassLoaderReference;
 import com.ibm.wala.util.collections.HashMapFactory;
@@ -33,11 +34,64 @@ public class ClassLoaderFactoryImpl implements ClassLoaderFactory {
   /** A Mapping from ClassLoaderReference to IClassLoader */
   private final HashMap<ClassLoaderReference, IClassLoader> map = HashMapFactory.make(3);
 
+  /** Number of threads each {@link ClassLoaderImpl} uses to parse class files */
+  private final int numberOfThreads;
+
+  /** Snapshot from which each {@link ClassLoaderImpl} creates unchanged classes, or null */
+  private final ClassHierarchySnapshot snapshot;
+
+  /** Whether each {@link ClassLoaderImpl} reads only the headers of class files up front */
+  private final boolean lazy;
+
   /**
    * @param exclusions A set of classes that class loaders should pretend don't exist.
    */
   public ClassLoaderFactoryImpl(SetOfClasses exclusions) {
+    this(exclusions, 1);
+  }
+
+  /**
+   * @param exclusions A set of classes that class loaders should pretend don't exist.
+   * @param numberOfThreads number of threads each {@link ClassLoaderImpl} uses to parse class files
+   * @throws IllegalArgumentException if numberOfThreads &lt; 1
+   */
+  public ClassLoaderFactoryImpl(SetOfClasses exclusions, int numberOfThreads) {
+    this(exclusions, numberOfThreads, null);
+  }
+
+  /**
+   * @param exclusions A set of classes that class loaders should pretend don't exist.
+   * @param numberOfThreads number of threads each {@link ClassLoaderImpl} uses to parse class files
+   * @param snapshot snapshot from which each {@link ClassLoaderImpl} creates the classes of
+   *     unchanged modules, or null
+   * @throws IllegalArgumentException if numberOfThreads &lt; 1
+   */
+  public ClassLoaderFactoryImpl(
+      SetOfClasses exclusions, int numberOfThreads, ClassHierarchySnapshot snapshot) {
+    this(exclusions, numberOfThreads, snapshot, false);
+  }
+
+  /**
+   * @param exclusions A set of classes that class loaders should pretend don't exist.
+   * @param numberOfThreads number of threads each {@link ClassLoaderImpl} uses to parse class files
+   * @param snapshot snapshot from which each {@link ClassLoaderImpl} creates the classes of
+   *     unchanged modules, or null
+   * @param lazy whether each {@link ClassLoaderImpl} reads only the headers of class files up
+   *     front, see {@link ClassLoaderImpl#setLazy(boolean)}
+   * @throws IllegalArgumentException if numberOfThreads &lt; 1
+   */
+  public ClassLoaderFactoryImpl(
+      SetOfClasses exclusions,
+      int numberOfThreads,
+      ClassHierarchySnapshot snapshot,
+      boolean lazy) {
+    if (numberOfThreads < 1) {
+      throw new IllegalArgumentException("invalid number of threads: " + numberOfThreads);
+    }
     this.exclusions = exclusions;
+    this.numberOfThreads = numberOfThreads;
+    this.snapshot = snapshot;
+    this.lazy = lazy;
   }
 
   /**
@@ -130,6 +184,11 @@ public class ClassLoaderFactoryImpl implements ClassLoaderFactory {
                   classLoaderReference, scope.getArrayClassLoader(), parent, exclusions, cha);
         }
       }
+    if (cl instanceof ClassLoaderImpl) {
+      ((ClassLoaderImpl) cl).setNumberOfThreads(numberOfThreads);
+      ((ClassLoaderImpl) cl).setSnapshot(snapshot);
+      ((ClassLoaderImpl) cl).setLazy(lazy);
+    }
     cl.init(scope.getModules(classLoaderReference));
     return cl;
   }
@@ -160,4 +219,8 @@ public class ClassLoaderFactoryImpl implements ClassLoaderFactory {
   public SetOfClasses getExclusions() {
     return exclusions;
   }
+
+  public int getNumberOfThreads() {
+    return numberOfThreads;
+  }
 }
@@ -16,31 +16,40 @@ import com.ibm.wala.core.util.shrike.ShrikeClassReaderHandle;
 import com.ibm.wala.core.util.strings.Atom;
 import com.ibm.wala.core.util.warnings.Warning;
 import com.ibm.wala.core.util.warnings.Warnings;
+import com.ibm.wala.ipa.cha.ClassHierarchySnapshot;
 import com.ibm.wala.ipa.cha.IClassHierarchy;
+import com.ibm.wala.shrike.shrikeCT.ClassHeaderReader;
 import com.ibm.wala.shrike.shrikeCT.ClassReader;
 import com.ibm.wala.shrike.shrikeCT.InvalidClassFileException;
 import com.ibm.wala.ssa.SSAInstructionFactory;
 import com.ibm.wala.types.ClassLoaderReference;
 import com.ibm.wala.types.TypeName;
+import com.ibm.wala.util.WalaRuntimeException;
 import com.ibm.wala.util.collections.HashMapFactory;
 import com.ibm.wala.util.collections.HashSetFactory;
 import com.ibm.wala.util.collections.Iterator2Iterable;
 import com.ibm.wala.util.config.SetOfClasses;
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.JarInputStream;
@@ -72,6 +81,18 @@ public class ClassLoaderImpl implements IClassLoader {
   /** an object to delegate to for loading of array classes */
   private final ArrayClassLoader arrayClassLoader;
 
+  /** number of threads used to parse class files in {@link #init(List)} */
+  private int numberOfThreads = 1;
+
+  /** a snapshot of the classes of the modules, or null if there is none */
+  private ClassHierarchySnapshot snapshot;
+
+  /** whether {@link #init(List)} reads only the headers of class files */
+  private boolean lazy = false;
+
+  /** A mapping from each module given to {@link #init(List)} to the names of its classes */
+  private final Map<Module, List<TypeName>> moduleClasses = HashMapFactory.make();
+
   /**
    * @param loader class loader reference identifying this loader
    * @param parent parent loader for delegation
@@ -100,6 +121,64 @@ public class ClassLoaderImpl implements IClassLoader {
     }
   }
 
+  /**
+   * Set the number of threads used to parse class files when this loader is initialized. With more
+   * than one thread, class files are parsed in parallel, but the loader ends up with the same
+   * classes as when parsing them sequentially.
+   *
+   * @throws IllegalArgumentException if numberOfThreads &lt; 1
+   */
+  public void setNumberOfThreads(int numberOfThreads) {
+    if (numberOfThreads < 1) {
+      throw new IllegalArgumentException("invalid number of threads: " + numberOfThreads);
+    }
+    this.numberOfThreads = numberOfThreads;
+  }
+
+  public int getNumberOfThreads() {
+    return numberOfThreads;
+  }
+
+  /**
+   * Set a snapshot from which {@link #init(List)} creates the classes of the modules whose
+   * contents are unchanged since the snapshot was written, instead of parsing their class files.
+   *
+   * @param snapshot the snapshot, or null to parse all class files
+   */
+  public void setSnapshot(ClassHierarchySnapshot snapshot) {
+    this.snapshot = snapshot;
+  }
+
+  /**
+   * Set whether {@link #init(List)} reads only the header of each class file: its name, modifiers
+   * and supertypes. The fields and methods of a class are then read from its class file when first
+   * asked for, so analyses that touch a small part of a large library start faster and keep less in
+   * memory. A class file that is corrupt past its header is then not reported by a warning, but
+   * fails when its members are read.
+   */
+  public void setLazy(boolean lazy) {
+    this.lazy = lazy;
+  }
+
+  public boolean isLazy() {
+    return lazy;
+  }
+
+  /**
+   * @param module one of the modules this loader was initialized with
+   * @return the classes this loader loaded from module
+   */
+  public Collection<IClass> getClasses(Module module) {
+    List<IClass> result = new ArrayList<>();
+    for (TypeName name : moduleClasses.getOrDefault(module, Collections.emptyList())) {
+      IClass klass = loadedClasses.get(name);
+      if (klass != null) {
+        result.add(klass);
+      }
+    }
+    return result;
+  }
+
   /**
    * Return the Set of (ModuleEntry) source files found in a module.
    *
@@ -205,10 +284,22 @@ public class ClassLoaderImpl implements IClassLoader {
     }
   }
 
-  /** Set up the set of classes loaded by this object. */
+  /**
+   * Set up the set of classes loaded by this object.
+   *
+   * @param moduleSnapshot classes recorded for the module, or null
+   * @return the names of the classes loaded
+   */
   @SuppressWarnings("unused")
-  private void loadAllClasses(
-      Collection<ModuleEntry> moduleEntries, Map<String, Object> fileContents, boolean isJMODType) {
+  private List<TypeName> loadAllClasses(
+      Collection<ModuleEntry> moduleEntries,
+      Map<String, Object> fileContents,
+      boolean isJMODType,
+      ClassHierarchySnapshot.ModuleSnapshot moduleSnapshot,
+      ExecutorService pool) {
+    List<TypeName> result = new ArrayList<>();
+    List<ModuleEntry> entries = new ArrayList<>(moduleEntries.size());
+    List<String> classNames = new ArrayList<>(moduleEntries.size());
     for (ModuleEntry entry : moduleEntries) {
       // java11 support for jmod files
       if (!entry.isClassFile()
@@ -235,9 +326,31 @@ public class ClassLoaderImpl implements IClassLoader {
         continue;
       }
 
-      ShrikeClassReaderHandle entryReader = new ShrikeClassReaderHandle(entry);
+      entries.add(entry);
+      classNames.add('L' + className);
+    }
 
-      className = 'L' + className;
+    // when parsing in parallel, parse all the class files up front; the results are then entered
+    // in the same order as when parsing sequentially, so we end up with the same classes
+    List<Future<ShrikeClass>> parsed = null;
+    if (pool != null && entries.size() > 1) {
+      List<Callable<ShrikeClass>> tasks = new ArrayList<>(entries.size());
+      for (int i = 0; i < entries.size(); i++) {
+        ModuleEntry entry = entries.get(i);
+        String className = classNames.get(i);
+        tasks.add(() -> parseClass(entry, className, fileContents, moduleSnapshot));
+      }
+      try {
+        parsed = pool.invokeAll(tasks);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new WalaRuntimeException("interrupted while parsing class files", e);
+      }
+    }
+
+    for (int i = 0; i < entries.size(); i++) {
+      ModuleEntry entry = entries.get(i);
+      String className = classNames.get(i);
       if (DEBUG_LEVEL > 0) {
         System.err.println("Load class " + className);
       }
@@ -248,20 +361,13 @@ public class ClassLoaderImpl implements IClassLoader {
         } else if (parent != null && parent.lookupClass(T) != null) {
           Warnings.add(MultipleImplementationsWarning.create(className));
         } else {
-          // try to read from memory
-          ShrikeClassReaderHandle reader = entryReader;
-          if (fileContents != null) {
-            final Object contents = fileContents.get(entry.getName());
-            if (contents != null) {
-              // reader that uses the in-memory bytes
-              reader = new ByteArrayReaderHandle(entry, (byte[]) contents);
-            }
-          }
-          ShrikeClass tmpKlass = new ShrikeClass(reader, this, cha);
-          if (tmpKlass.getReference().getName().equals(T)) {
-            // always used the reader based on the entry after this point,
-            // so we can null out and re-read class file contents
-            loadedClasses.put(T, new ShrikeClass(entryReader, this, cha));
+          ShrikeClass klass =
+              parsed == null
+                  ? parseClass(entry, className, fileContents, moduleSnapshot)
+                  : getParsedClass(parsed.get(i));
+          if (klass != null) {
+            loadedClasses.put(T, klass);
+            result.add(T);
             if (DEBUG_LEVEL > 1) {
               System.err.println("put " + T + ' ');
             }
@@ -276,6 +382,92 @@ public class ClassLoaderImpl implements IClassLoader {
         Warnings.add(InvalidClassFile.create(className));
       }
     }
+    return result;
+  }
+
+  /**
+   * Read the class defined by a class file. This does not touch the state of this loader, so it
+   * may be called from several threads at once.
+   *
+   * @param className the expected name of the class, in bytecode format
+   * @param moduleSnapshot classes recorded for the module of entry, or null
+   * @return the class, or null if the class file defines a class other than className
+   */
+  private ShrikeClass parseClass(
+      ModuleEntry entry,
+      String className,
+      Map<String, Object> fileContents,
+      ClassHierarchySnapshot.ModuleSnapshot moduleSnapshot)
+      throws InvalidClassFileException {
+    ShrikeClassReaderHandle entryReader = new ShrikeClassReaderHandle(entry);
+    ClassHierarchySnapshot.ClassRecord record =
+        moduleSnapshot == null ? null : moduleSnapshot.getClass(className.substring(1));
+    if (record != null) {
+      // no need to read the class file yet
+      return new ShrikeClass(
+          entryReader,
+          this,
+          cha,
+          record.getName(),
+          record.getModifiers(),
+          record.getSuperName(),
+          record.getInterfaceNames());
+    }
+    if (lazy && fileContents == null) {
+      // index the class by its header; its members are read when first asked for
+      ClassHeaderReader header = entryReader.getHeader();
+      if (!TypeName.string2TypeName('L' + header.getName())
+          .equals(TypeName.string2TypeName(className))) {
+        return null;
+      }
+      return new ShrikeClass(
+          entryReader,
+          this,
+          cha,
+          header.getName(),
+          header.getAccessFlags(),
+          header.getSuperName(),
+          header.getInterfaceNames());
+    }
+    // try to read from memory
+    ShrikeClassReaderHandle reader = entryReader;
+    if (fileContents != null) {
+      final Object contents = fileContents.get(entry.getName());
+      if (contents != null) {
+        // reader that uses the in-memory bytes
+        reader = new ByteArrayReaderHandle(entry, (byte[]) contents);
+      }
+    }
+    ShrikeClass tmpKlass = new ShrikeClass(reader, this, cha);
+    if (tmpKlass.getReference().getName().equals(TypeName.string2TypeName(className))) {
+      // always used the reader based on the entry after this point,
+      // so we can null out and re-read class file contents
+      return reader == entryReader ? tmpKlass : new ShrikeClass(entryReader, this, cha);
+    } else {
+      return null;
+    }
+  }
+
+  /** Get the result of a parallel {@link #parseClass}, rethrowing whatever it threw. */
+  private static ShrikeClass getParsedClass(Future<ShrikeClass> f)
+      throws InvalidClassFileException {
+    try {
+      return f.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new WalaRuntimeException("interrupted while parsing class files", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof InvalidClassFileException) {
+        throw (InvalidClassFileException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      } else {
+        throw new WalaRuntimeException("failed to parse class file", cause);
+      }
+    }
   }
 
   @SuppressWarnings("unused")
@@ -324,18 +516,12 @@ public class ClassLoaderImpl implements IClassLoader {
     if (size == null) {
       return null;
     }
-    ByteArrayOutputStream S = new ByteArrayOutputStream();
-    int n = 0;
-    long count = 0;
-    byte[] buffer = new byte[1024];
-    while (n > -1 && count < size) {
-      n = is.read(buffer, 0, 1024);
-      if (n > -1) {
-        S.write(buffer, 0, n);
-        count += n;
-      }
+    if (size < 0 || size > Integer.MAX_VALUE) {
+      // unknown or too large for a single array
+      return is.readAllBytes();
     }
-    return S.toByteArray();
+    // read straight into an array of the right size
+    return is.readNBytes(size.intValue());
   }
 
   /** A warning when we find more than one implementation of a given class name */
@@ -458,54 +644,69 @@ public class ClassLoaderImpl implements IClassLoader {
     // module are loaded according to the given order (same as in Java VM)
     Set<ModuleEntry> classModuleEntries = HashSetFactory.make();
     Set<ModuleEntry> sourceModuleEntries = HashSetFactory.make();
-    for (Module archive : modules) {
-      boolean isJMODType = false;
-      if (archive instanceof JarFileModule) {
-        JarFile jarFile = ((JarFileModule) archive).getJarFile();
-        isJMODType = (jarFile != null) && jarFile.getName().endsWith(".jmod");
-      }
-      if (DEBUG_LEVEL > 0) {
-        System.err.println("add archive: " + archive);
-      }
-      // byte[] jarFileContents = null;
-      if (OPTIMIZE_JAR_FILE_IO && archive instanceof JarFileModule) {
-        // if we have a jar file, we read the whole thing into memory and operate on that; enables
-        // more
-        // efficient sequential I/O
-        // this is work in progress; for now, we read the file into memory and throw away the
-        // contents, which
-        // still gives a speedup for large jar files since it reads sequentially and warms up the FS
-        // cache. we get a small slowdown
-        // for smaller jar files or for jar files already in the FS cache. eventually, we should
-        // actually use the bytes read and eliminate the slowdown
-        // 11/22/10: I can't figure out a way to actually use the bytes without hurting performance.
-        //  Apparently,
-        // extracting files from a jar stored in memory via a JarInputStream is really slow compared
-        // to using
-        // a JarFile.  Will leave this as is for now.  --MS
-        // jarFileContents = archive instanceof JarFileModule ? getJarFileContents((JarFileModule)
-        // archive) : null;
-        getJarFileContents((JarFileModule) archive);
+    ExecutorService pool =
+        numberOfThreads > 1 ? Executors.newFixedThreadPool(numberOfThreads) : null;
+    try {
+      for (Module archive : modules) {
+        boolean isJMODType = false;
+        if (archive instanceof JarFileModule) {
+          JarFile jarFile = ((JarFileModule) archive).getJarFile();
+          isJMODType = (jarFile != null) && jarFile.getName().endsWith(".jmod");
+        }
+        if (DEBUG_LEVEL > 0) {
+          System.err.println("add archive: " + archive);
+        }
+        // byte[] jarFileContents = null;
+        if (OPTIMIZE_JAR_FILE_IO
+            && archive instanceof JarFileModule
+            && !(archive instanceof MappedJarFileModule)) {
+          // if we have a jar file, we read the whole thing into memory and operate on that; enables
+          // more
+          // efficient sequential I/O
+          // this is work in progress; for now, we read the file into memory and throw away the
+          // contents, which
+          // still gives a speedup for large jar files since it reads sequentially and warms up the
+          // FS cache. we get a small slowdown
+          // for smaller jar files or for jar files already in the FS cache. eventually, we should
+          // actually use the bytes read and eliminate the slowdown
+          // 11/22/10: I can't figure out a way to actually use the bytes without hurting
+          // performance. Apparently,
+          // extracting files from a jar stored in memory via a JarInputStream is really slow
+          // compared to using
+          // a JarFile.  Will leave this as is for now.  --MS
+          // jarFileContents = archive instanceof JarFileModule ? getJarFileContents((JarFileModule)
+          // archive) : null;
+          getJarFileContents((JarFileModule) archive);
+        }
+        Set<ModuleEntry> classFiles = getClassFiles(archive);
+        removeClassFiles(classFiles, classModuleEntries);
+        Set<ModuleEntry> sourceFiles = getSourceFiles(archive);
+        Map<String, Object> allClassAndSourceFileContents = null;
+        if (OPTIMIZE_JAR_FILE_IO) {
+          // work in progress --MS
+          // if (archive instanceof JarFileModule) {
+          // final JarFileModule jfModule = (JarFileModule) archive;
+          // final String name = jfModule.getJarFile().getName();
+          // Map<String, Map<String, Long>> entrySizes = getEntrySizes(jfModule, name);
+          // allClassAndSourceFileContents = getAllClassAndSourceFileContents(jarFileContents, name,
+          // entrySizes);
+          // }
+          // jarFileContents = null;
+        }
+        ClassHierarchySnapshot.ModuleSnapshot moduleSnapshot =
+            snapshot == null ? null : snapshot.getModule(loader, archive);
+        moduleClasses.put(
+            archive,
+            loadAllClasses(
+                classFiles, allClassAndSourceFileContents, isJMODType, moduleSnapshot, pool));
+        loadAllSources(sourceFiles);
+        classModuleEntries.addAll(classFiles);
+        sourceModuleEntries.addAll(sourceFiles);
       }
-      Set<ModuleEntry> classFiles = getClassFiles(archive);
-      removeClassFiles(classFiles, classModuleEntries);
-      Set<ModuleEntry> sourceFiles = getSourceFiles(archive);
-      Map<String, Object> allClassAndSourceFileContents = null;
-      if (OPTIMIZE_JAR_FILE_IO) {
-        // work in progress --MS
-        // if (archive instanceof JarFileModule) {
-        // final JarFileModule jfModule = (JarFileModule) archive;
-        // final String name = jfModule.getJarFile().getName();
-        // Map<String, Map<String, Long>> entrySizes = getEntrySizes(jfModule, name);
-        // allClassAndSourceFileContents = getAllClassAndSourceFileContents(jarFileContents, name,
-        // entrySizes);
-        // }
-        // jarFileContents = null;
+    } finally {
+      if (pool != null) {
+        pool.shutdownNow();
       }
-      loadAllClasses(classFiles, allClassAndSourceFileContents, isJMODType);
-      loadAllSources(sourceFiles);
-      classModuleEntries.addAll(classFiles);
-      sourceModuleEntries.addAll(sourceFiles);
     }
   }
 
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.classLoader;
+
+import com.ibm.wala.util.debug.Assertions;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.jar.JarFile;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A {@link JarFileModule} that reads the jar file through a read-only memory mapping, rather than
+ * through {@link JarFile#getInputStream(ZipEntry)}. The central directory is parsed from the
+ * mapping when the module is created; the contents of an entry are copied, or inflated, straight
+ * from the mapping into an array of the right size, with {@link Inflater}s that are reused across
+ * entries. {@link com.ibm.wala.core.util.shrike.ShrikeClassReaderHandle} hands that array to the
+ * class reader as is.
+ *
+ * <p>Only stored and deflated entries are supported, and not the ZIP64 format; the mapping, like
+ * any other, keeps the file open until it is garbage collected.
+ */
+public class MappedJarFileModule extends JarFileModule {
+
+  private static final int END_SIGNATURE = 0x06054b50;
+
+  private static final int CENTRAL_SIGNATURE = 0x02014b50;
+
+  private static final int LOCAL_SIGNATURE = 0x04034b50;
+
+  private static final int END_HEADER_SIZE = 22;
+
+  private static final int CENTRAL_HEADER_SIZE = 46;
+
+  private static final int LOCAL_HEADER_SIZE = 30;
+
+  /** the whole file, little-endian */
+  private final ByteBuffer buffer;
+
+  /** entry name -&gt; entry, in the order of the central directory */
+  private final Map<String, Entry> entries;
+
+  /** inflaters not in use */
+  private final Queue<Inflater> inflaters = new ConcurrentLinkedQueue<>();
+
+  /**
+   * @throws IOException if the file cannot be mapped, or is not a jar file this class can read
+   */
+  public MappedJarFileModule(JarFile f) throws IOException {
+    super(f);
+    try (FileChannel channel = FileChannel.open(Paths.get(f.getName()), StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("too large to map: " + f.getName());
+      }
+      buffer = channel.map(MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    entries = readCentralDirectory();
+  }
+
+  private Map<String, Entry> readCentralDirectory() throws IOException {
+    int end = buffer.limit() - END_HEADER_SIZE;
+    int stop = Math.max(0, end - 0xffff);
+    while (end >= stop && buffer.getInt(end) != END_SIGNATURE) {
+      end--;
+    }
+    if (end < stop) {
+      throw new ZipException("no end of central directory in " + getAbsolutePath());
+    }
+    int count = Short.toUnsignedInt(buffer.getShort(end + 10));
+    long size = Integer.toUnsignedLong(buffer.getInt(end + 12));
+    long offset = Integer.toUnsignedLong(buffer.getInt(end + 16));
+    if (count == 0xffff || size == 0xffffffffL || offset == 0xffffffffL) {
+      throw new ZipException("ZIP64 is not supported: " + getAbsolutePath());
+    }
+    int central = end - (int) size;
+    // offsets are relative to the start of the archive, which need not be the start of the file,
+    // e.g. in a jmod file
+    int base = central - (int) offset;
+    if (central < 0 || base < 0) {
+      throw new ZipException("invalid central directory in " + getAbsolutePath());
+    }
+    Map<String, Entry> result = new LinkedHashMap<>(2 * count);
+    for (int p = central; p < end; ) {
+      if (buffer.getInt(p) != CENTRAL_SIGNATURE) {
+        throw new ZipException("invalid central directory header in " + getAbsolutePath());
+      }
+      int method = Short.toUnsignedInt(buffer.getShort(p + 10));
+      int compressedSize = buffer.getInt(p + 20);
+      int uncompressedSize = buffer.getInt(p + 24);
+      int nameLength = Short.toUnsignedInt(buffer.getShort(p + 28));
+      int extraLength = Short.toUnsignedInt(buffer.getShort(p + 30));
+      int commentLength = Short.toUnsignedInt(buffer.getShort(p + 32));
+      int localHeader = base + buffer.getInt(p + 42);
+      byte[] name = new byte[nameLength];
+      buffer.duplicate().position(p + CENTRAL_HEADER_SIZE).get(name);
+      String entryName = new String(name, StandardCharsets.UTF_8);
+      result.putIfAbsent(
+          entryName,
+          new Entry(entryName, this, method, localHeader, compressedSize, uncompressedSize));
+      p += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "MappedJarFileModule:" + getAbsolutePath();
+  }
+
+  @Override
+  public Iterator<ModuleEntry> getEntries() {
+    return Collections.<ModuleEntry>unmodifiableCollection(entries.values()).iterator();
+  }
+
+  /**
+   * @return the entry with the given name, or null if there is none
+   */
+  public @Nullable Entry getEntry(String name) {
+    return entries.get(name);
+  }
+
+  /** reads the contents from the mapping; they are not cached, since reading them again is cheap */
+  @Override
+  public byte[] getContents(ZipEntry entry) {
+    Entry e = entries.get(entry.getName());
+    if (e == null) {
+      return super.getContents(entry);
+    }
+    try {
+      return e.getContents();
+    } catch (IOException x) {
+      x.printStackTrace();
+      Assertions.UNREACHABLE();
+      return null;
+    }
+  }
+
+  /** An entry of a {@link MappedJarFileModule} */
+  public static final class Entry extends JarFileEntry {
+
+    private final MappedJarFileModule module;
+
+    private final int method;
+
+    /** the position of the local file header in the mapping */
+    private final int localHeader;
+
+    private final int compressedSize;
+
+    private final int size;
+
+    Entry(
+        String entryName,
+        MappedJarFileModule module,
+        int method,
+        int localHeader,
+        int compressedSize,
+        int size) {
+      super(entryName, module);
+      this.module = module;
+      this.method = method;
+      this.localHeader = localHeader;
+      this.compressedSize = compressedSize;
+      this.size = size;
+    }
+
+    /** a read-only view of the stored, possibly compressed, data of this entry in the mapping */
+    private ByteBuffer getData() throws ZipException {
+      ByteBuffer buffer = module.buffer;
+      if (localHeader < 0
+          || localHeader > buffer.limit() - LOCAL_HEADER_SIZE
+          || buffer.getInt(localHeader) != LOCAL_SIGNATURE) {
+        throw new ZipException("invalid local header for " + this);
+      }
+      int start =
+          localHeader
+              + LOCAL_HEADER_SIZE
+              + Short.toUnsignedInt(buffer.getShort(localHeader + 26))
+              + Short.toUnsignedInt(buffer.getShort(localHeader + 28));
+      if (compressedSize < 0 || start > buffer.limit() - compressedSize) {
+        throw new ZipException("entry extends past the end of the file: " + this);
+      }
+      ByteBuffer data = buffer.asReadOnlyBuffer();
+      data.position(start).limit(start + compressedSize);
+      return data.slice();
+    }
+
+    /**
+     * @return the uncompressed contents of this entry, in an array of their size
+     * @throws IOException if the entry is corrupt or uses an unsupported compression method
+     */
+    public byte[] getContents() throws IOException {
+      if (size < 0) {
+        throw new ZipException("entry too large: " + this);
+      }
+      ByteBuffer data = getData();
+      byte[] result = new byte[size];
+      switch (method) {
+        case ZipEntry.STORED:
+          if (compressedSize != size) {
+            throw new ZipException("invalid size of stored entry " + this);
+          }
+          data.get(result);
+          return result;
+        case ZipEntry.DEFLATED:
+          Inflater inflater = module.inflaters.poll();
+          if (inflater == null) {
+            inflater = new Inflater(true);
+          }
+          try {
+            inflater.setInput(data);
+            int n = 0;
+            while (n < size) {
+              int k = inflater.inflate(result, n, size - n);
+              if (k == 0 && (inflater.finished() || inflater.needsInput())) {
+                throw new ZipException("truncated entry " + this);
+              }
+              n += k;
+            }
+          } catch (DataFormatException e) {
+            throw new ZipException("invalid compressed data in " + this + ": " + e.getMessage());
+          } finally {
+            inflater.reset();
+            module.inflaters.add(inflater);
+          }
+          return result;
+        default:
+          throw new ZipException("unsupported compression method " + method + " in " + this);
+      }
+    }
+
+    /**
+     * @return the uncompressed contents of this entry; a read-only view of the mapping if the
+     *     entry is stored, so that nothing is copied
+     * @throws IOException if the entry is corrupt or uses an unsupported compression method
+     */
+    public ByteBuffer getByteBuffer() throws IOException {
+      if (method == ZipEntry.STORED && compressedSize == size) {
+        return getData();
+      }
+      return ByteBuffer.wrap(getContents()).asReadOnlyBuffer();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+      try {
+        return new ByteArrayInputStream(getContents());
+      } catch (IOException e) {
+        e.printStackTrace();
+        Assertions.UNREACHABLE();
+        return null;
+      }
+    }
+
+    @Override
+    public long getSize() {
+      return Integer.toUnsignedLong(size);
+    }
+  }
+}
@@ -47,6 +47,9 @@ public final class ShrikeClass extends JVMClass<IClassLoader> {
   /** The Shrike object that knows how to read the class file */
   private final ShrikeClassReaderHandle reader;
 
+  /** have the declared fields been read from the class file yet? */
+  private volatile boolean fieldsComputed = false;
+
   /**
    * @throws IllegalArgumentException if reader is null
    */
@@ -57,7 +60,7 @@ public final class ShrikeClass extends JVMClass<IClassLoader> {
       throw new IllegalArgumentException("reader is null");
     }
     this.reader = reader;
-    computeTypeReference();
+    computeTypeReference(reader.get().getName());
     this.hashCode = 2161 * getReference().hashCode();
     // as long as the reader is around, pull more data out
     // of it before the soft reference to it disappears
@@ -67,6 +70,37 @@ public final class ShrikeClass extends JVMClass<IClassLoader> {
     computeFields();
   }
 
+  /**
+   * Create a class whose name, modifiers and supertypes are already known, e.g. from a {@link
+   * com.ibm.wala.ipa.cha.ClassHierarchySnapshot}. The class file is not read until more about the
+   * class is asked for. Names are in class file format, e.g. java/lang/Object.
+   *
+   * @param superName name of the superclass, or null if there is none
+   * @throws IllegalArgumentException if reader is null
+   */
+  public ShrikeClass(
+      ShrikeClassReaderHandle reader,
+      IClassLoader loader,
+      IClassHierarchy cha,
+      String name,
+      int modifiers,
+      String superName,
+      String[] interfaceNames) {
+    super(loader, cha);
+    if (reader == null) {
+      throw new IllegalArgumentException("reader is null");
+    }
+    this.reader = reader;
+    computeTypeReference(name);
+    this.hashCode = 2161 * getReference().hashCode();
+    this.modifiers = modifiers;
+    if (superName != null) {
+      this.superName = ImmutableByteArray.make('L' + superName);
+    }
+    this.interfaceNames = new ImmutableByteArray[interfaceNames.length];
+    Arrays.setAll(this.interfaceNames, i -> ImmutableByteArray.make('L' + interfaceNames[i]));
+  }
+
   /**
    * Compute the fields declared by this class
    *
@@ -109,6 +143,7 @@ public final class ShrikeClass extends JVMClass<IClassLoader> {
       }
       instanceFields = instanceList.toArray(new IField[0]);
       staticFields = staticList.toArray(new IField[0]);
+      fieldsComputed = true;
 
     } catch (InvalidClassFileException e) {
       e.printStackTrace();
@@ -116,6 +151,22 @@ public final class ShrikeClass extends JVMClass<IClassLoader> {
     }
   }
 
+  @Override
+  protected void computeFieldsIfNeeded() {
+    if (!fieldsComputed) {
+      synchronized (this) {
+        if (!fieldsComputed) {
+          try {
+            computeFields();
+          } catch (InvalidClassFileException e) {
+            e.printStackTrace();
+            Assertions.UNREACHABLE();
+          }
+        }
+      }
+    }
+  }
+
   private void computeModifiers() throws InvalidClassFileException {
     modifiers = reader.get().getAccessFlags();
   }
@@ -169,10 +220,10 @@ public final class ShrikeClass extends JVMClass<IClassLoader> {
   /**
    * initialize the TypeReference field for this instance
    *
-   * @throws InvalidClassFileException iff Shrike can't read this class
+   * @param classFileName the name of this class, in class file format
    */
-  private void computeTypeReference() throws InvalidClassFileException {
-    String className = 'L' + reader.get().getName();
+  private void computeTypeReference(String classFileName) {
+    String className = 'L' + classFileName;
     ImmutableByteArray name = ImmutableByteArray.make(className);
 
     typeReference =
@@ -215,6 +215,9 @@ public class AnalysisScopeReader {
     } else if ("jarFile".equals(entryType)) {
       Module M = fp.getJarFileModule(entryPathname, javaLoader);
       scope.addToScope(walaLoader, M);
+    } else if ("mappedJarFile".equals(entryType)) {
+      File jar = fp.getFile(entryPathname, javaLoader);
+      scope.addMappedJarToScope(walaLoader, new JarFile(jar, false));
     } else if ("loaderImpl".equals(entryType)) {
       scope.setLoaderImpl(walaLoader, entryPathname);
     } else if ("stdlib".equals(entryType)) {
@@ -10,8 +10,10 @@
  */
 package com.ibm.wala.core.util.shrike;
 
+import com.ibm.wala.classLoader.MappedJarFileModule;
 import com.ibm.wala.classLoader.ModuleEntry;
 import com.ibm.wala.core.util.ref.CacheReference;
+import com.ibm.wala.shrike.shrikeCT.ClassHeaderReader;
 import com.ibm.wala.shrike.shrikeCT.ClassReader;
 import com.ibm.wala.shrike.shrikeCT.InvalidClassFileException;
 import com.ibm.wala.util.debug.Assertions;
@@ -62,19 +64,40 @@ public class ShrikeClassReaderHandle {
           }
         }
       }
-      ByteArrayOutputStream S = new ByteArrayOutputStream();
-      try {
+      result = new ClassReader(readContents());
+      reader = CacheReference.make(result);
+    }
+    return result;
+  }
+
+  /**
+   * Read just the header of the class file, without creating a class reader if there is none
+   *
+   * @throws InvalidClassFileException iff the header of the class file is corrupt
+   */
+  public ClassHeaderReader getHeader() throws InvalidClassFileException {
+    ClassReader cached = (ClassReader) CacheReference.get(reader);
+    return new ClassHeaderReader(cached != null ? cached.getBytes() : readContents());
+  }
+
+  /** the contents of the class file */
+  private byte[] readContents() {
+    try {
+      if (entry instanceof MappedJarFileModule.Entry) {
+        // already the right size, so no need to copy
+        return ((MappedJarFileModule.Entry) entry).getContents();
+      } else {
+        ByteArrayOutputStream S = new ByteArrayOutputStream();
         InputStream s = entry.getInputStream();
         readBytes(s, S);
         s.close();
-      } catch (IOException e) {
-        e.printStackTrace();
-        Assertions.UNREACHABLE();
+        return S.toByteArray();
       }
-      result = new ClassReader(S.toByteArray());
-      reader = CacheReference.make(result);
+    } catch (IOException e) {
+      e.printStackTrace();
+      Assertions.UNREACHABLE();
+      return null;
     }
-    return result;
   }
 
   /** Read is into bytes */
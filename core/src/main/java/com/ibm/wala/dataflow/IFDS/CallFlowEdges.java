@@ -33,7 +33,7 @@ public class CallFlowEdges {
    * <p>TODO: more representation optimization. A special representation for triples? sparse
    * representations for CFG? exploit shorts for ints?
    */
-  private final SparseVector<IBinaryNaturalRelation> edges = new SparseVector<>(1, 1.1f);
+  private final SparseVector<IBinaryNaturalRelation> edges;
 
   /**
    * a map from integer d1 -&gt; int set.
@@ -41,9 +41,20 @@ public class CallFlowEdges {
    * <p>for fact d1, identityPaths[d1] gives the set of block numbers C s.t. for c \in C, &lt;c,
    * d1&gt; -&gt; &lt;s_p, d1&gt; is an edge.
    */
-  private final SparseVector<IntSet> identityEdges = new SparseVector<>(1, 1.1f);
+  private final SparseVector<IntSet> identityEdges;
 
-  public CallFlowEdges() {}
+  public CallFlowEdges() {
+    this(true);
+  }
+
+  /**
+   * @param allocate false for subclasses with a different representation, which override all
+   *     public methods; then the vectors of this class are not allocated
+   */
+  protected CallFlowEdges(boolean allocate) {
+    edges = allocate ? new SparseVector<>(1, 1.1f) : null;
+    identityEdges = allocate ? new SparseVector<>(1, 1.1f) : null;
+  }
 
   /**
    * Record that we've discovered a call edge &lt;c,d1&gt; -&gt; &lt;s_p, d2&gt;
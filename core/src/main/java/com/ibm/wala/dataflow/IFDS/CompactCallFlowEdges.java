@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.dataflow.IFDS;
+
+import com.ibm.wala.util.intset.IntIterator;
+import com.ibm.wala.util.intset.IntSet;
+import com.ibm.wala.util.intset.MutableSparseIntSet;
+
+/**
+ * A set of call flow edges which lead to a particular procedure entry s_p, in a representation
+ * that favors space over time.
+ *
+ * <p>The edges are kept in one hash map from a fact pair (d1, d2), packed into a long, to the set
+ * of call nodes c s.t. &lt;c, d1&gt; -&gt; &lt;s_p, d2&gt; was recorded. For edges with d1 != d2,
+ * an index from d2 to d1 is kept as well. See {@link CompactLocalPathEdges}.
+ */
+public class CompactCallFlowEdges extends CallFlowEdges {
+
+  /** (d1, d2) -&gt; set of global numbers c s.t. &lt;c, d1&gt; -&gt; &lt;s_p, d2&gt; */
+  private final PackedFactPairMap<MutableSparseIntSet> edges = new PackedFactPairMap<>();
+
+  /**
+   * d2 -&gt; set of d1 != d2 s.t. &lt;c, d1&gt; -&gt; &lt;s_p, d2&gt; for some c; null until
+   * there is such an edge
+   */
+  private PackedFactPairMap<MutableSparseIntSet> sources;
+
+  public CompactCallFlowEdges() {
+    super(false);
+  }
+
+  private IntSet getSources(int d2) {
+    return sources == null ? null : sources.get(PackedFactPairMap.pack(0, d2));
+  }
+
+  @Override
+  public void addCallEdge(int c, int d1, int d2) {
+    long key = PackedFactPairMap.pack(d1, d2);
+    MutableSparseIntSet s = edges.get(key);
+    if (s == null) {
+      s = MutableSparseIntSet.makeEmpty();
+      edges.put(key, s);
+      if (d1 != d2) {
+        if (sources == null) {
+          sources = new PackedFactPairMap<>();
+        }
+        long k = PackedFactPairMap.pack(0, d2);
+        MutableSparseIntSet d1s = sources.get(k);
+        if (d1s == null) {
+          d1s = MutableSparseIntSet.makeEmpty();
+          sources.put(k, d1s);
+        }
+        d1s.add(d1);
+      }
+    }
+    s.add(c);
+  }
+
+  @Override
+  public IntSet getCallFlowSources(int c, int d2) {
+    if (c < 0) {
+      throw new IllegalArgumentException("invalid c : " + c);
+    }
+    if (d2 < 0) {
+      throw new IllegalArgumentException("invalid d2: " + d2);
+    }
+    MutableSparseIntSet result = null;
+    IntSet identity = edges.get(PackedFactPairMap.pack(d2, d2));
+    if (identity != null && identity.contains(c)) {
+      result = MutableSparseIntSet.makeEmpty();
+      result.add(d2);
+    }
+    IntSet others = getSources(d2);
+    if (others != null) {
+      for (IntIterator it = others.intIterator(); it.hasNext(); ) {
+        int d1 = it.next();
+        if (edges.get(PackedFactPairMap.pack(d1, d2)).contains(c)) {
+          if (result == null) {
+            result = MutableSparseIntSet.makeEmpty();
+          }
+          result.add(d1);
+        }
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public IntSet getCallFlowSourceNodes(int d2) {
+    IntSet identity = edges.get(PackedFactPairMap.pack(d2, d2));
+    IntSet others = getSources(d2);
+    if (others == null) {
+      return identity;
+    }
+    MutableSparseIntSet result =
+        identity == null ? MutableSparseIntSet.makeEmpty() : MutableSparseIntSet.make(identity);
+    for (IntIterator it = others.intIterator(); it.hasNext(); ) {
+      result.addAll(edges.get(PackedFactPairMap.pack(it.next(), d2)));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.dataflow.IFDS;
+
+import com.ibm.wala.util.intset.IntIterator;
+import com.ibm.wala.util.intset.IntSet;
+import com.ibm.wala.util.intset.MutableSparseIntSet;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A set of path edges for a particular procedure entry s_p, in a representation that favors space
+ * over time.
+ *
+ * <p>The edges are kept in one hash map from a fact pair (d1, d2), packed into a long, to the bits
+ * of the local block numbers n s.t. &lt;s_p, d1&gt; -&gt; &lt;n, d2&gt; is a path edge. Nothing
+ * else is allocated for the common edges with d1 == 0 or d1 == d2; for other edges an index from
+ * d2 to d1 supports {@link #getInverse(int, int)}. {@link LocalPathEdges} instead keeps several
+ * sparse vectors of relations and sets per entry, whose fixed cost dominates when most procedures
+ * see few facts, as in slicing.
+ */
+public class CompactLocalPathEdges extends LocalPathEdges {
+
+  /** a rough estimate of the bytes needed for each pair of facts, beyond its bits */
+  static final int PAIR_BYTES = 48;
+
+  /** a rough estimate of the bytes needed for an empty instance */
+  static final int BASE_BYTES = 96;
+
+  /** (d1, d2) -&gt; bits of the block numbers n s.t. &lt;s_p, d1&gt; -&gt; &lt;n, d2&gt; */
+  private final PackedFactPairMap<long[]> edges = new PackedFactPairMap<>();
+
+  /**
+   * d2 -&gt; set of d1 s.t. d1 != 0, d1 != d2, and &lt;s_p, d1&gt; -&gt; &lt;n, d2&gt; for some
+   * n. null until there is such an edge.
+   */
+  private PackedFactPairMap<MutableSparseIntSet> sources;
+
+  /**
+   * d1 -&gt; set of d2 s.t. &lt;s_p, d1&gt; -&gt; &lt;n, d2&gt; for some n; null unless fast merges
+   * were requested
+   */
+  private final PackedFactPairMap<MutableSparseIntSet> targets;
+
+  /**
+   * @param fastMerge if true, the representation uses extra space in order to support faster merge
+   *     operations
+   */
+  public CompactLocalPathEdges(boolean fastMerge) {
+    targets = fastMerge ? new PackedFactPairMap<>() : null;
+  }
+
+  private static boolean contains(long[] bits, int n) {
+    return bits != null && (n >>> 6) < bits.length && (bits[n >>> 6] & (1L << n)) != 0;
+  }
+
+  private static void addTo(PackedFactPairMap<MutableSparseIntSet> index, int key, int value) {
+    long k = PackedFactPairMap.pack(0, key);
+    MutableSparseIntSet s = index.get(k);
+    if (s == null) {
+      s = MutableSparseIntSet.makeEmpty();
+      index.put(k, s);
+    }
+    s.add(value);
+  }
+
+  private static IntSet get(PackedFactPairMap<MutableSparseIntSet> index, int key) {
+    return index == null ? null : index.get(PackedFactPairMap.pack(0, key));
+  }
+
+  @Override
+  public void addPathEdge(int i, int n, int j) {
+    add(i, n, j);
+  }
+
+  /**
+   * Record the path edge &lt;s_p, i&gt; -&gt; &lt;n, j&gt;
+   *
+   * @return a rough estimate of the number of bytes by which this representation grew
+   */
+  int add(int i, int n, int j) {
+    if (n < 0) {
+      throw new IllegalArgumentException("invalid n: " + n);
+    }
+    long key = PackedFactPairMap.pack(i, j);
+    long[] bits = edges.get(key);
+    int word = n >>> 6;
+    int growth = 0;
+    if (bits == null) {
+      // the first edge for this pair of facts
+      bits = new long[word + 1];
+      putPair(i, j, bits);
+      growth = PAIR_BYTES + 8 * bits.length;
+    } else if (word >= bits.length) {
+      growth = 8 * (word + 1 - bits.length);
+      bits = Arrays.copyOf(bits, word + 1);
+      edges.put(key, bits);
+    }
+    bits[word] |= 1L << n;
+    return growth;
+  }
+
+  /** record the bits for a pair of facts that has none yet */
+  private void putPair(int i, int j, long[] bits) {
+    edges.put(PackedFactPairMap.pack(i, j), bits);
+    if (i != 0 && i != j) {
+      if (sources == null) {
+        sources = new PackedFactPairMap<>();
+      }
+      addTo(sources, j, i);
+    }
+    if (targets != null) {
+      addTo(targets, i, j);
+    }
+  }
+
+  /**
+   * @return a rough estimate of the number of bytes this representation uses
+   */
+  long estimateSize() {
+    long result = BASE_BYTES;
+    for (int s = 0; s < edges.capacity(); s++) {
+      if (edges.keyAt(s) >= 0) {
+        result += PAIR_BYTES + 8L * edges.valueAt(s).length;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return the number of bytes {@link #writeTo(ByteBuffer)} writes
+   */
+  int serializedSize() {
+    int result = 4;
+    for (int s = 0; s < edges.capacity(); s++) {
+      if (edges.keyAt(s) >= 0) {
+        result += 12 + 8 * edges.valueAt(s).length;
+      }
+    }
+    return result;
+  }
+
+  /** write the edges to b, to be read back by {@link #readFrom(ByteBuffer)} */
+  void writeTo(ByteBuffer b) {
+    b.putInt(edges.size());
+    for (int s = 0; s < edges.capacity(); s++) {
+      long key = edges.keyAt(s);
+      if (key >= 0) {
+        long[] bits = edges.valueAt(s);
+        b.putLong(key);
+        b.putInt(bits.length);
+        for (long word : bits) {
+          b.putLong(word);
+        }
+      }
+    }
+  }
+
+  /** add the edges written by {@link #writeTo(ByteBuffer)} to this, which must be empty */
+  void readFrom(ByteBuffer b) {
+    assert edges.size() == 0;
+    int pairs = b.getInt();
+    for (int p = 0; p < pairs; p++) {
+      long key = b.getLong();
+      long[] bits = new long[b.getInt()];
+      for (int w = 0; w < bits.length; w++) {
+        bits[w] = b.getLong();
+      }
+      putPair(PackedFactPairMap.first(key), PackedFactPairMap.second(key), bits);
+    }
+  }
+
+  @Override
+  public boolean contains(int i, int n, int j) {
+    if (n < 0) {
+      throw new IllegalArgumentException("invalid n: " + n);
+    }
+    return contains(edges.get(PackedFactPairMap.pack(i, j)), n);
+  }
+
+  @Override
+  public IntSet getInverse(int n, int d2) {
+    MutableSparseIntSet result = null;
+    if (contains(edges.get(PackedFactPairMap.pack(0, d2)), n)) {
+      result = MutableSparseIntSet.makeEmpty();
+      result.add(0);
+    }
+    if (d2 != 0 && contains(edges.get(PackedFactPairMap.pack(d2, d2)), n)) {
+      if (result == null) {
+        result = MutableSparseIntSet.makeEmpty();
+      }
+      result.add(d2);
+    }
+    IntSet others = get(sources, d2);
+    if (others != null) {
+      for (IntIterator it = others.intIterator(); it.hasNext(); ) {
+        int d1 = it.next();
+        if (contains(edges.get(PackedFactPairMap.pack(d1, d2)), n)) {
+          if (result == null) {
+            result = MutableSparseIntSet.makeEmpty();
+          }
+          result.add(d1);
+        }
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public IntSet getReachable(int n, int d1) {
+    MutableSparseIntSet result = MutableSparseIntSet.makeEmpty();
+    if (targets != null) {
+      IntSet d2s = get(targets, d1);
+      if (d2s != null) {
+        d2s.foreach(
+            d2 -> {
+              if (contains(edges.get(PackedFactPairMap.pack(d1, d2)), n)) {
+                result.add(d2);
+              }
+            });
+      }
+    } else {
+      for (int s = 0; s < edges.capacity(); s++) {
+        long key = edges.keyAt(s);
+        if (key >= 0 && PackedFactPairMap.first(key) == d1 && contains(edges.valueAt(s), n)) {
+          result.add(PackedFactPairMap.second(key));
+        }
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public IntSet getReachable(int n) {
+    MutableSparseIntSet result = MutableSparseIntSet.makeEmpty();
+    for (int s = 0; s < edges.capacity(); s++) {
+      long key = edges.keyAt(s);
+      if (key >= 0 && contains(edges.valueAt(s), n)) {
+        result.add(PackedFactPairMap.second(key));
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public IntSet getReachedNodeNumbers() {
+    long[] union = new long[0];
+    for (int s = 0; s < edges.capacity(); s++) {
+      if (edges.keyAt(s) >= 0) {
+        long[] bits = edges.valueAt(s);
+        if (bits.length > union.length) {
+          union = Arrays.copyOf(union, bits.length);
+        }
+        for (int w = 0; w < bits.length; w++) {
+          union[w] |= bits[w];
+        }
+      }
+    }
+    MutableSparseIntSet result = MutableSparseIntSet.makeEmpty();
+    for (int w = 0; w < union.length; w++) {
+      for (long word = union[w]; word != 0; word &= word - 1) {
+        result.add((w << 6) + Long.numberOfTrailingZeros(word));
+      }
+    }
+    return result;
+  }
+}
@@ -47,7 +47,7 @@ public class LocalPathEdges {
    * <p>TODO: more representation optimization. A special representation for triples? sparse
    * representations for CFG? exploit shorts for ints?
    */
-  private final SparseVector<IBinaryNaturalRelation> paths = new SparseVector<>(1, 1.1f);
+  private final SparseVector<IBinaryNaturalRelation> paths;
 
   /**
    * If this is non-null, it holds a redundant representation of the paths information, designed to
@@ -75,7 +75,7 @@ public class LocalPathEdges {
    * <p>for fact d1, identityPaths[d1] gives the set of block numbers N s.t. for n \in N, &lt;s_p,
    * d1&gt; -&gt; &lt;n, d1&gt; is a path edge.
    */
-  private final SparseVector<IntSet> identityPaths = new SparseVector<>(1, 1.1f);
+  private final SparseVector<IntSet> identityPaths;
 
   /**
    * a map from integer d2 -&gt; int set
@@ -83,14 +83,28 @@ public class LocalPathEdges {
    * <p>for fact d2, zeroPaths[d2] gives the set of block numbers N s.t. for n \in N, &lt;s_p, 0&gt;
    * -&gt; &lt;n, d2&gt; is a path edge.
    */
-  private final SparseVector<IntSet> zeroPaths = new SparseVector<>(1, 1.1f);
+  private final SparseVector<IntSet> zeroPaths;
 
   /**
    * @param fastMerge if true, the representation uses extra space in order to support faster merge
    *     operations
    */
   public LocalPathEdges(boolean fastMerge) {
+    paths = new SparseVector<>(1, 1.1f);
     altPaths = fastMerge ? new SparseVector<>(1, 1.1f) : null;
+    identityPaths = new SparseVector<>(1, 1.1f);
+    zeroPaths = new SparseVector<>(1, 1.1f);
+  }
+
+  /**
+   * For subclasses with a different representation, which override all public methods; the
+   * vectors of this class are not allocated.
+   */
+  protected LocalPathEdges() {
+    paths = null;
+    altPaths = null;
+    identityPaths = null;
+    zeroPaths = null;
   }
 
   /**
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.dataflow.IFDS;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map from pairs of non-negative ints, packed into one long, to values. A
+ * single entry is held in fields, and more in two arrays, which makes it much smaller than nested
+ * maps when there are few pairs.
+ */
+final class PackedFactPairMap<V> {
+
+  /** marks a free slot; packed pairs of non-negative ints are never negative */
+  private static final long FREE = -1L;
+
+  /** the key of the only entry, while there is at most one */
+  private long onlyKey = FREE;
+
+  private Object onlyValue;
+
+  /** the slots of the hash table, once there are two entries or more */
+  private long[] keys;
+
+  private Object[] values;
+
+  private int size;
+
+  /**
+   * @return the key for the pair (i, j)
+   */
+  static long pack(int i, int j) {
+    return ((long) i << 32) | j;
+  }
+
+  /**
+   * @return the first int of a packed pair
+   */
+  static int first(long key) {
+    return (int) (key >>> 32);
+  }
+
+  /**
+   * @return the second int of a packed pair
+   */
+  static int second(long key) {
+    return (int) key;
+  }
+
+  private static int hash(long key) {
+    int h = (int) (key ^ (key >>> 32)) * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * @return the slot holding key, or the free slot where it belongs
+   */
+  private int slot(long key) {
+    int mask = keys.length - 1;
+    int i = hash(key) & mask;
+    while (keys[i] != FREE && keys[i] != key) {
+      i = (i + 1) & mask;
+    }
+    return i;
+  }
+
+  @SuppressWarnings("unchecked")
+  V get(long key) {
+    if (keys == null) {
+      return key == onlyKey ? (V) onlyValue : null;
+    }
+    return (V) values[slot(key)];
+  }
+
+  void put(long key, V value) {
+    assert key >= 0;
+    if (keys == null) {
+      if (onlyKey == FREE || onlyKey == key) {
+        onlyKey = key;
+        onlyValue = value;
+        size = 1;
+        return;
+      }
+      keys = new long[4];
+      Arrays.fill(keys, FREE);
+      values = new Object[4];
+      int i = slot(onlyKey);
+      keys[i] = onlyKey;
+      values[i] = onlyValue;
+      onlyKey = FREE;
+      onlyValue = null;
+    }
+    int i = slot(key);
+    if (keys[i] == FREE) {
+      if (4 * (size + 1) > 3 * keys.length) {
+        grow();
+        i = slot(key);
+      }
+      keys[i] = key;
+      size++;
+    }
+    values[i] = value;
+  }
+
+  private void grow() {
+    long[] oldKeys = keys;
+    Object[] oldValues = values;
+    keys = new long[2 * oldKeys.length];
+    Arrays.fill(keys, FREE);
+    values = new Object[keys.length];
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != FREE) {
+        int j = slot(oldKeys[i]);
+        keys[j] = oldKeys[i];
+        values[j] = oldValues[i];
+      }
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * @return the number of slots; iterate over slots 0 .. capacity()-1 with {@link #keyAt(int)} and
+   *     {@link #valueAt(int)}
+   */
+  int capacity() {
+    return keys == null ? 1 : keys.length;
+  }
+
+  /**
+   * @return the key in slot i, or a negative number if slot i is free
+   */
+  long keyAt(int i) {
+    return keys == null ? onlyKey : keys[i];
+  }
+
+  @SuppressWarnings("unchecked")
+  V valueAt(int i) {
+    return (V) (keys == null ? onlyValue : values[i]);
+  }
+}
@@ -18,6 +18,7 @@ import com.ibm.wala.util.debug.Assertions;
 import com.ibm.wala.util.intset.IntIterator;
 import com.ibm.wala.util.intset.IntSet;
 import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utilities for dealing with tabulation with partially balanced parentheses.
@@ -34,11 +35,32 @@ public class PartiallyBalancedTabulationSolver<T, P, F> extends TabulationSolver
     return new PartiallyBalancedTabulationSolver<>(p, monitor);
   }
 
-  private final Collection<Pair<T, Integer>> unbalancedSeeds = HashSetFactory.make();
+  /**
+   * @param numberOfThreads number of threads that process path edges, see {@link
+   *     TabulationSolver#TabulationSolver(TabulationProblem, IProgressMonitor, int)}
+   */
+  public static <T, P, F>
+      PartiallyBalancedTabulationSolver<T, P, F> createPartiallyBalancedTabulationSolver(
+          PartiallyBalancedTabulationProblem<T, P, F> p,
+          IProgressMonitor monitor,
+          int numberOfThreads) {
+    return new PartiallyBalancedTabulationSolver<>(p, monitor, numberOfThreads);
+  }
+
+  private final Collection<Pair<T, Integer>> unbalancedSeeds;
 
   protected PartiallyBalancedTabulationSolver(
       PartiallyBalancedTabulationProblem<T, P, F> p, IProgressMonitor monitor) {
-    super(p, monitor);
+    this(p, monitor, 1);
+  }
+
+  protected PartiallyBalancedTabulationSolver(
+      PartiallyBalancedTabulationProblem<T, P, F> p,
+      IProgressMonitor monitor,
+      int numberOfThreads) {
+    super(p, monitor, numberOfThreads);
+    unbalancedSeeds =
+        numberOfThreads > 1 ? ConcurrentHashMap.newKeySet() : HashSetFactory.make();
   }
 
   @Override
@@ -76,7 +98,7 @@ public class PartiallyBalancedTabulationSolver<T, P, F> extends TabulationSolver
   }
 
   @Override
-  public void addSeed(PathEdge<T> seed) {
+  public synchronized void addSeed(PathEdge<T> seed) {
     if (getSeeds().contains(seed)) {
       return;
     }
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.dataflow.IFDS;
+
+import com.ibm.wala.util.WalaRuntimeException;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the path edges of {@link SpillingLocalPathEdges} within a memory budget, by writing those
+ * of the least recently used procedure entries to a memory-mapped file, and reading them back when
+ * they are used again.
+ *
+ * <p>The file is mapped in chunks. The edges of a procedure entry occupy one segment of a chunk,
+ * which is reused when they are spilled again and still fit; edges that did not change since they
+ * were read back are not written again. The file lives as long as the edges may be used, so that
+ * results can be read from it too. It is deleted by {@link #close()}, or once the store is no
+ * longer reachable.
+ */
+final class PathEdgeSpillStore {
+
+  private static final Cleaner cleaner = Cleaner.create();
+
+  /** size of the chunks in which the file is mapped */
+  private static final int CHUNK_SIZE = 1 << 24;
+
+  /** rough number of bytes of path edges to keep in memory */
+  private final long budget;
+
+  private final FileChannel channel;
+
+  /** closes, and so deletes, the file */
+  private final Cleaner.Cleanable cleanable;
+
+  /** was the file deleted? */
+  private boolean closed = false;
+
+  private final List<MappedByteBuffer> chunks = new ArrayList<>();
+
+  /** the size of the mapped part of the file */
+  private long fileSize = 0;
+
+  /** the chunk in which small segments are allocated, or -1 before the first one */
+  private int currentChunk = -1;
+
+  /** start of the free space in the current chunk */
+  private int chunkFree = CHUNK_SIZE;
+
+  /** rough number of bytes of path edges in memory */
+  private long residentBytes = 0;
+
+  private long bytesSpilled = 0;
+
+  /** the most and least recently used entries whose edges are in memory */
+  private SpillingLocalPathEdges head, tail;
+
+  /** the action that deletes the file, which must not refer to the store */
+  private static final class CloseChannel implements Runnable {
+    private final FileChannel channel;
+
+    private CloseChannel(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public void run() {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        throw new WalaRuntimeException("failed to delete spilled path edges", e);
+      }
+    }
+  }
+
+  /**
+   * @param budget rough number of bytes of path edges to keep in memory
+   * @param directory where to create the file; null for the default temporary-file directory
+   */
+  PathEdgeSpillStore(long budget, File directory) throws IOException {
+    this.budget = budget;
+    Path file =
+        directory == null
+            ? Files.createTempFile("pathEdges", ".spill")
+            : Files.createTempFile(directory.toPath(), "pathEdges", ".spill");
+    channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.DELETE_ON_CLOSE);
+    cleanable = cleaner.register(this, new CloseChannel(channel));
+  }
+
+  /**
+   * Close, and so delete, the file. Edges that are in memory stay there from now on; those that
+   * were spilled are lost.
+   */
+  void close() {
+    closed = true;
+    chunks.clear();
+    cleanable.clean();
+  }
+
+  /**
+   * @return the total number of bytes written to the file
+   */
+  long getBytesSpilled() {
+    return bytesSpilled;
+  }
+
+  /** start keeping track of the edges of a new entry, which are in memory */
+  void admit(SpillingLocalPathEdges e) {
+    link(e);
+    grew(e, e.edges.estimateSize());
+  }
+
+  /**
+   * @return the edges of e, after reading them back if they were spilled
+   * @throws IllegalStateException if the edges of e were spilled, and the file was closed since
+   */
+  CompactLocalPathEdges use(SpillingLocalPathEdges e) {
+    if (e.edges == null) {
+      if (closed) {
+        throw new IllegalStateException("the spilled path edges were deleted");
+      }
+      readBack(e);
+      grew(e, 0);
+    } else if (e != head) {
+      unlink(e);
+      link(e);
+    }
+    return e.edges;
+  }
+
+  /** read the spilled edges of e into memory */
+  private void readBack(SpillingLocalPathEdges e) {
+    CompactLocalPathEdges edges = new CompactLocalPathEdges(e.fastMerge);
+    ByteBuffer b = chunks.get(e.segmentChunk).duplicate();
+    b.position(e.segmentOffset);
+    edges.readFrom(b);
+    e.edges = edges;
+    link(e);
+    long bytes = edges.estimateSize();
+    e.bytes += bytes;
+    residentBytes += bytes;
+  }
+
+  /** record that the edges of e, which are in memory, grew by a number of bytes */
+  void grew(SpillingLocalPathEdges e, long bytes) {
+    e.bytes += bytes;
+    residentBytes += bytes;
+    while (!closed && residentBytes > budget && tail != null && tail != e) {
+      spill(tail);
+    }
+  }
+
+  private void spill(SpillingLocalPathEdges e) {
+    if (e.dirty) {
+      int size = e.edges.serializedSize();
+      if (e.segmentChunk < 0 || size > e.segmentCapacity) {
+        allocate(e, size);
+      }
+      ByteBuffer b = chunks.get(e.segmentChunk).duplicate();
+      b.position(e.segmentOffset);
+      e.edges.writeTo(b);
+      bytesSpilled += size;
+      e.dirty = false;
+    }
+    unlink(e);
+    residentBytes -= e.bytes;
+    e.edges = null;
+    e.bytes = 0;
+  }
+
+  /** find a new segment of at least size bytes for the edges of e */
+  private void allocate(SpillingLocalPathEdges e, int size) {
+    try {
+      if (size > CHUNK_SIZE) {
+        // a chunk of its own
+        chunks.add(channel.map(FileChannel.MapMode.READ_WRITE, fileSize, size));
+        fileSize += size;
+        e.segmentChunk = chunks.size() - 1;
+        e.segmentOffset = 0;
+      } else {
+        if (chunkFree + size > CHUNK_SIZE) {
+          chunks.add(channel.map(FileChannel.MapMode.READ_WRITE, fileSize, CHUNK_SIZE));
+          fileSize += CHUNK_SIZE;
+          currentChunk = chunks.size() - 1;
+          chunkFree = 0;
+        }
+        e.segmentChunk = currentChunk;
+        e.segmentOffset = chunkFree;
+        chunkFree += size;
+      }
+      e.segmentCapacity = size;
+    } catch (IOException ex) {
+      throw new WalaRuntimeException("failed to spill path edges", ex);
+    }
+  }
+
+  /** make e the most recently used entry */
+  private void link(SpillingLocalPathEdges e) {
+    e.prev = null;
+    e.next = head;
+    if (head != null) {
+      head.prev = e;
+    }
+    head = e;
+    if (tail == null) {
+      tail = e;
+    }
+  }
+
+  private void unlink(SpillingLocalPathEdges e) {
+    if (e.prev == null) {
+      head = e.next;
+    } else {
+      e.prev.next = e.next;
+    }
+    if (e.next == null) {
+      tail = e.prev;
+    } else {
+      e.next.prev = e.prev;
+    }
+    e.prev = null;
+    e.next = null;
+  }
+}
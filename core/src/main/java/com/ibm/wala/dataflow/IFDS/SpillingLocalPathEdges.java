@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.dataflow.IFDS;
+
+import com.ibm.wala.util.intset.IntSet;
+
+/**
+ * A set of path edges for a particular procedure entry s_p, in the representation of {@link
+ * CompactLocalPathEdges}, which a {@link PathEdgeSpillStore} may write to disk while the entry is
+ * not used, and reads back when it is.
+ */
+final class SpillingLocalPathEdges extends LocalPathEdges {
+
+  private final PathEdgeSpillStore store;
+
+  final boolean fastMerge;
+
+  /** the edges, or null while they are spilled */
+  CompactLocalPathEdges edges;
+
+  /** rough number of bytes of the edges in memory */
+  long bytes;
+
+  /** did the edges change since they were last spilled? */
+  boolean dirty = true;
+
+  /** neighbors in the store's list of entries in memory, from most to least recently used */
+  SpillingLocalPathEdges prev, next;
+
+  /** where the edges were last spilled; segmentChunk is -1 if they never were */
+  int segmentChunk = -1;
+
+  int segmentOffset;
+
+  int segmentCapacity;
+
+  SpillingLocalPathEdges(boolean fastMerge, PathEdgeSpillStore store) {
+    this.fastMerge = fastMerge;
+    this.store = store;
+    this.edges = new CompactLocalPathEdges(fastMerge);
+    store.admit(this);
+  }
+
+  @Override
+  public void addPathEdge(int i, int n, int j) {
+    int growth = store.use(this).add(i, n, j);
+    dirty = true;
+    if (growth > 0) {
+      store.grew(this, growth);
+    }
+  }
+
+  @Override
+  public boolean contains(int i, int n, int j) {
+    return store.use(this).contains(i, n, j);
+  }
+
+  @Override
+  public IntSet getInverse(int n, int d2) {
+    return store.use(this).getInverse(n, d2);
+  }
+
+  @Override
+  public IntSet getReachable(int n, int d1) {
+    return store.use(this).getReachable(n, d1);
+  }
+
+  @Override
+  public IntSet getReachable(int n) {
+    return store.use(this).getReachable(n);
+  }
+
+  @Override
+  public IntSet getReachedNodeNumbers() {
+    return store.use(this).getReachedNodeNumbers();
+  }
+}
@@ -22,22 +22,35 @@ import com.ibm.wala.util.collections.Heap;
 import com.ibm.wala.util.collections.Iterator2Collection;
 import com.ibm.wala.util.collections.Iterator2Iterable;
 import com.ibm.wala.util.collections.MapUtil;
+import com.ibm.wala.util.collections.Pair;
 import com.ibm.wala.util.collections.ToStringComparator;
 import com.ibm.wala.util.heapTrace.HeapTracer;
 import com.ibm.wala.util.intset.IntIterator;
 import com.ibm.wala.util.intset.IntSet;
 import com.ibm.wala.util.intset.IntSetAction;
+import com.ibm.wala.util.intset.IntSetUtil;
 import com.ibm.wala.util.intset.MutableIntSet;
 import com.ibm.wala.util.intset.MutableSparseIntSet;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * A precise interprocedural tabulation solver.
@@ -53,7 +66,10 @@ import java.util.TreeSet;
  *   <li>it stores summary edges at each callee instead of at each call site.
  * </ul>
  *
- * <p>
+ * <p>The solver can process path edges from several threads, see {@link
+ * #TabulationSolver(TabulationProblem, IProgressMonitor, int)}. The result is the same as with one
+ * thread, unless the problem has a merge function whose result depends on the order in which facts
+ * arrive.
  *
  * @param <T> type of node in the supergraph
  * @param <P> type of a procedure (like a box in an RSM)
@@ -109,7 +125,7 @@ public class TabulationSolver<T, P, F> {
    * <p>Logically, this represents a set of edges (s_p,d_i) -&gt; (n, d_j). The data structure is
    * chosen to attempt to save space over representing each edge explicitly.
    */
-  private final Map<T, LocalPathEdges> pathEdges = HashMapFactory.make();
+  private final Map<T, LocalPathEdges> pathEdges;
 
   /**
    * A map from Object (entry node in supergraph) -&gt; CallFlowEdges.
@@ -117,10 +133,10 @@ public class TabulationSolver<T, P, F> {
    * <p>Logically, this represents a set of edges (c,d_i) -&gt; (s_p, d_j). The data structure is
    * chosen to attempt to save space over representing each edge explicitly.
    */
-  private final Map<T, CallFlowEdges> callFlowEdges = HashMapFactory.make();
+  private final Map<T, CallFlowEdges> callFlowEdges;
 
   /** A map from Object (procedure) -&gt; LocalSummaryEdges. */
-  protected final Map<P, LocalSummaryEdges> summaryEdges = HashMapFactory.make();
+  protected final Map<P, LocalSummaryEdges> summaryEdges;
 
   /**
    * the set of all {@link PathEdge}s that were used as seeds during the tabulation, grouped by
@@ -137,6 +153,53 @@ public class TabulationSolver<T, P, F> {
   /** A progress monitor. can be null. */
   protected final IProgressMonitor progressMonitor;
 
+  /** number of threads that process path edges */
+  private final int numberOfThreads;
+
+  /** use {@link CompactLocalPathEdges} and {@link CompactCallFlowEdges}? */
+  private boolean compactEdges = false;
+
+  /** if non-null, keeps path edges within a memory budget by spilling some to disk */
+  private PathEdgeSpillStore spillStore = null;
+
+  /** if non-null, summaries kept across runs; see {@link #setSummaryStore} */
+  private TabulationSummaryStore<T> summaryStore = null;
+
+  /** pairs (s_p, d1) that a call reached first, and that were tabulated rather than reused */
+  private Set<Pair<T, Integer>> enteredContexts;
+
+  /** pairs (s_p, d1) whose tabulation was taken from {@link #summaryStore} */
+  private Set<Pair<T, Integer>> reusedContexts;
+
+  /** (s_p, d1) -&gt; the calls made along the path edges from &lt;s_p, d1&gt; */
+  private Map<Pair<T, Integer>, List<TabulationSummaryStore.Call<T>>> contextCalls;
+
+  /**
+   * true iff path edges are processed by several threads. Then the local path edges, summary edges
+   * and call flow edges are locked while they are read or updated, and sets read from them are
+   * copied, since other threads may update them while they are iterated.
+   */
+  private final boolean concurrent;
+
+  /** guards the worklist and the worker state below, when tabulating with several threads */
+  private final Object worklistLock = new Object();
+
+  /** number of threads that are processing a path edge */
+  private int busyWorkers = 0;
+
+  /** set when a thread failed, so that the others should stop */
+  private boolean stopWorkers = false;
+
+  /** the path edge and summary edge each thread is working on, when using several threads */
+  private final ThreadLocal<CurrentEdges<T>> currentEdges;
+
+  /** the path edge and summary edge one thread is working on */
+  private static final class CurrentEdges<T> {
+    PathEdge<T> pathEdge;
+
+    PathEdge<T> summaryEdge;
+  }
+
   /**
    * the path edge currently being processed in the main loop of {@link #forwardTabulateSLRPs()};
    * {@code null} if {@link #forwardTabulateSLRPs()} is not currently running. Note that if we are
@@ -157,13 +220,46 @@ public class TabulationSolver<T, P, F> {
    * @throws IllegalArgumentException if p is null
    */
   protected TabulationSolver(TabulationProblem<T, P, F> p, IProgressMonitor monitor) {
+    this(p, monitor, 1);
+  }
+
+  /**
+   * A solver that processes path edges from several threads. The supergraph, the flow function
+   * map, the flow functions and the domain of the problem must then allow concurrent calls. Many
+   * supergraphs are built lazily, as they are queried, and do not; solving the same problem once
+   * with one thread builds everything the solver will query. The {@code new...} and {@link
+   * #recordCall} hooks are called from all threads too, so overrides of them must allow that.
+   *
+   * @param p a description of the dataflow problem to solve
+   * @param numberOfThreads number of threads that process path edges; 1 to solve the problem in
+   *     the calling thread
+   * @throws IllegalArgumentException if p is null, or numberOfThreads is not positive
+   */
+  protected TabulationSolver(
+      TabulationProblem<T, P, F> p, IProgressMonitor monitor, int numberOfThreads) {
     if (p == null) {
       throw new IllegalArgumentException("p is null");
     }
+    if (numberOfThreads < 1) {
+      throw new IllegalArgumentException("invalid numberOfThreads: " + numberOfThreads);
+    }
     this.supergraph = p.getSupergraph();
     this.flowFunctionMap = p.getFunctionMap();
     this.problem = p;
     this.progressMonitor = monitor;
+    this.numberOfThreads = numberOfThreads;
+    this.concurrent = numberOfThreads > 1;
+    if (concurrent) {
+      pathEdges = new ConcurrentHashMap<>();
+      callFlowEdges = new ConcurrentHashMap<>();
+      summaryEdges = new ConcurrentHashMap<>();
+      currentEdges = ThreadLocal.withInitial(CurrentEdges::new);
+    } else {
+      pathEdges = HashMapFactory.make();
+      callFlowEdges = HashMapFactory.make();
+      summaryEdges = HashMapFactory.make();
+      currentEdges = null;
+    }
   }
 
   /** Subclasses can override this to plug in a different worklist implementation. */
@@ -179,6 +275,141 @@ public class TabulationSolver<T, P, F> {
     return new TabulationSolver<>(p, null);
   }
 
+  /**
+   * @param p a description of the dataflow problem to solve
+   * @param numberOfThreads number of threads that process path edges, see {@link
+   *     #TabulationSolver(TabulationProblem, IProgressMonitor, int)}
+   * @throws IllegalArgumentException if p is null, or numberOfThreads is not positive
+   */
+  public static <T, P, F> TabulationSolver<T, P, F> make(
+      TabulationProblem<T, P, F> p, IProgressMonitor monitor, int numberOfThreads) {
+    return new TabulationSolver<>(p, monitor, numberOfThreads);
+  }
+
+  /**
+   * @return the number of threads that process path edges
+   */
+  public int getNumberOfThreads() {
+    return numberOfThreads;
+  }
+
+  /**
+   * Choose the representation of path edges and call flow edges. The compact one takes much less
+   * space when most procedures see few facts, as in slicing, but queries that the solver only
+   * makes with a merge function are slower. This must be chosen before solving.
+   *
+   * @param compactEdges true to store edges in {@link CompactLocalPathEdges} and {@link
+   *     CompactCallFlowEdges}
+   * @throws IllegalStateException if tabulation has already started
+   */
+  public void setCompactEdges(boolean compactEdges) {
+    if (!pathEdges.isEmpty()) {
+      throw new IllegalStateException("tabulation has already started");
+    }
+    this.compactEdges = compactEdges;
+  }
+
+  /**
+   * @return true if path edges and call flow edges are stored in the compact representation
+   */
+  public boolean isCompactEdges() {
+    return compactEdges;
+  }
+
+  /**
+   * Keep path edges within a memory budget. The path edges of the procedure entries used least
+   * recently are written to a memory-mapped file when the budget is exceeded, and read back when
+   * they are used again. In memory, they are stored as by {@link #setCompactEdges(boolean)}. This
+   * must be chosen before solving, and only works with one thread. The file outlives {@link
+   * #solve()}, since the result is computed from the edges in it, within the same budget. It is
+   * deleted by {@link #closePathEdgeSpilling()}, or once this solver and its results are no longer
+   * reachable.
+   *
+   * @param memoryBudget rough number of bytes of path edges to keep in memory
+   * @param directory where to create the file; null for the default temporary-file directory
+   * @throws IllegalStateException if tabulation has already started, or the solver uses several
+   *     threads
+   * @throws IOException if the file cannot be created
+   */
+  public void setPathEdgeSpilling(long memoryBudget, File directory) throws IOException {
+    if (!pathEdges.isEmpty()) {
+      throw new IllegalStateException("tabulation has already started");
+    }
+    if (concurrent) {
+      throw new IllegalStateException("cannot spill path edges with several threads");
+    }
+    if (memoryBudget < 0) {
+      throw new IllegalArgumentException("invalid memoryBudget: " + memoryBudget);
+    }
+    spillStore = new PathEdgeSpillStore(memoryBudget, directory);
+  }
+
+  /**
+   * Delete the file of spilled path edges, see {@link #setPathEdgeSpilling(long, File)}. After
+   * this, the results of this solver may throw an {@link IllegalStateException} when they need path
+   * edges that were spilled. Does nothing if path edges are not spilled.
+   */
+  public void closePathEdgeSpilling() {
+    if (spillStore != null) {
+      spillStore.close();
+    }
+  }
+
+  /**
+   * @return the number of bytes of path edges written to disk so far; 0 unless {@link
+   *     #setPathEdgeSpilling(long, File)} was called
+   */
+  public long getPathEdgeBytesSpilled() {
+    return spillStore == null ? 0 : spillStore.getBytesSpilled();
+  }
+
+  /**
+   * Reuse the tabulation of procedure entries across runs. When a call reaches a procedure entry
+   * with a fact for which the store holds a complete tabulation, the path edges, summary edges
+   * and call flow edges of that tabulation are added at once, and those of the procedures it
+   * calls, instead of being computed again. After a run completes, the store is updated with the
+   * procedure entries it tabulated. The {@code new...} and {@link #recordCall} hooks are not
+   * called for the reused edges.
+   *
+   * <p>The store must only be shared by solvers for the same supergraph and flow functions, see
+   * {@link TabulationSummaryStore}. This must be chosen before solving, and only works with one
+   * thread and without a merge function, since with one the result depends on the order in which
+   * edges are processed.
+   *
+   * @param store the summaries to use and update; null to compute everything
+   * @throws IllegalStateException if tabulation has already started, the solver uses several
+   *     threads, or the problem has a merge function
+   */
+  public void setSummaryStore(TabulationSummaryStore<T> store) {
+    if (!pathEdges.isEmpty()) {
+      throw new IllegalStateException("tabulation has already started");
+    }
+    if (store != null) {
+      if (concurrent) {
+        throw new IllegalStateException("cannot reuse summaries with several threads");
+      }
+      if (problem.getMergeFunction() != null) {
+        throw new IllegalStateException("cannot reuse summaries with a merge function");
+      }
+      enteredContexts = HashSetFactory.make();
+      reusedContexts = HashSetFactory.make();
+      contextCalls = HashMapFactory.make();
+    } else {
+      enteredContexts = null;
+      reusedContexts = null;
+      contextCalls = null;
+    }
+    summaryStore = store;
+  }
+
+  /**
+   * @return the number of pairs of procedure entries and entry facts whose tabulation was reused
+   *     from the {@link TabulationSummaryStore}
+   */
+  public int getNumberOfReusedSummaries() {
+    return reusedContexts == null ? 0 : reusedContexts.size();
+  }
+
   /**
    * Solve the dataflow problem.
    *
@@ -189,6 +420,9 @@ public class TabulationSolver<T, P, F> {
     try {
       initialize();
       forwardTabulateSLRPs();
+      if (summaryStore != null) {
+        storeSummaries();
+      }
       Result r = new Result();
       return r;
     } catch (CancelException | CancelRuntimeException e) {
@@ -205,8 +439,11 @@ public class TabulationSolver<T, P, F> {
     }
   }
 
-  /** Restart tabulation from a particular path edge. Use with care. */
-  public void addSeed(PathEdge<T> seed) {
+  /**
+   * Restart tabulation from a particular path edge. Use with care. This may be called from the
+   * threads processing path edges.
+   */
+  public synchronized void addSeed(PathEdge<T> seed) {
     Set<PathEdge<T>> s = MapUtil.findOrCreateSet(seeds, supergraph.getProcOf(seed.entry));
     s.add(seed);
     allSeeds.add(seed);
@@ -216,10 +453,14 @@ public class TabulationSolver<T, P, F> {
   /** See POPL 95 paper for this algorithm, Figure 3 */
   @SuppressWarnings("unused")
   private void forwardTabulateSLRPs() throws CancelException {
-    assert curPathEdge == null : "curPathEdge should not be non-null here";
+    assert getCurPathEdge() == null : "curPathEdge should not be non-null here";
     if (worklist == null) {
       worklist = makeWorklist();
     }
+    if (concurrent) {
+      forwardTabulateSLRPsInParallel();
+      return;
+    }
     while (worklist.size() > 0) {
       MonitorUtil.throwExceptionIfCanceled(progressMonitor);
       if (verbose) {
@@ -229,39 +470,137 @@ public class TabulationSolver<T, P, F> {
         tendToSoftCaches();
       }
 
-      final PathEdge<T> edge = popFromWorkList();
-      if (DEBUG_LEVEL > 0) {
-        System.err.println("TABULATE " + edge);
+      processPathEdge(popFromWorkList());
+    }
+    setCurPathEdge(null);
+  }
+
+  /**
+   * Run the main loop of the algorithm on {@link #numberOfThreads} threads. Each thread takes path
+   * edges from the worklist until it is empty and no other thread is processing an edge, since
+   * that one might add more.
+   */
+  private void forwardTabulateSLRPsInParallel() throws CancelException {
+    busyWorkers = 0;
+    stopWorkers = false;
+    ExecutorService pool = Executors.newFixedThreadPool(numberOfThreads);
+    try {
+      List<Future<?>> workers = new ArrayList<>(numberOfThreads);
+      for (int i = 0; i < numberOfThreads; i++) {
+        workers.add(
+            pool.submit(
+                () -> {
+                  try {
+                    runWorker();
+                  } catch (CancelException e) {
+                    stopAllWorkers();
+                    throw new CancelRuntimeException(e);
+                  } catch (RuntimeException | Error e) {
+                    stopAllWorkers();
+                    throw e;
+                  }
+                }));
       }
-      curPathEdge = edge;
-      int j = merge(edge.entry, edge.d1, edge.target, edge.d2);
-      if (j == -1 && DEBUG_LEVEL > 0) {
-        System.err.println("merge -1: DROPPING");
+      for (Future<?> worker : workers) {
+        try {
+          worker.get();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw CancelException.make("interrupted while tabulating");
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof CancelRuntimeException
+              && cause.getCause() instanceof CancelException) {
+            throw (CancelException) cause.getCause();
+          } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          } else if (cause instanceof Error) {
+            throw (Error) cause;
+          } else {
+            throw new RuntimeException(cause);
+          }
+        }
       }
-      if (j != -1) {
-        if (j != edge.d2) {
-          // this means that we don't want to push the edge. instead,
-          // we'll push the merged fact. a little tricky, but i think should
-          // work.
-          if (DEBUG_LEVEL > 0) {
-            System.err.println("propagating merged fact " + j);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /** make the threads processing path edges stop, after some thread failed */
+  private void stopAllWorkers() {
+    synchronized (worklistLock) {
+      stopWorkers = true;
+      worklistLock.notifyAll();
+    }
+  }
+
+  /** the main loop of one thread processing path edges */
+  private void runWorker() throws CancelException {
+    while (true) {
+      PathEdge<T> edge;
+      synchronized (worklistLock) {
+        while (!stopWorkers && worklist.size() == 0 && busyWorkers > 0) {
+          try {
+            worklistLock.wait();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopWorkers = true;
           }
-          propagate(edge.entry, edge.d1, edge.target, j);
+        }
+        if (stopWorkers || worklist.size() == 0) {
+          // either some thread failed, or all work is done; wake up the others so they notice
+          worklistLock.notifyAll();
+          return;
+        }
+        edge = popFromWorkList();
+        busyWorkers++;
+      }
+      try {
+        MonitorUtil.throwExceptionIfCanceled(progressMonitor);
+        processPathEdge(edge);
+      } finally {
+        setCurPathEdge(null);
+        synchronized (worklistLock) {
+          busyWorkers--;
+          worklistLock.notifyAll();
+        }
+      }
+    }
+  }
+
+  /** Handle lines [11 - 37] of the algorithm for one path edge taken from the worklist */
+  @SuppressWarnings("unused")
+  private void processPathEdge(final PathEdge<T> edge) {
+    if (DEBUG_LEVEL > 0) {
+      System.err.println("TABULATE " + edge);
+    }
+    setCurPathEdge(edge);
+    int j = merge(edge.entry, edge.d1, edge.target, edge.d2);
+    if (j == -1 && DEBUG_LEVEL > 0) {
+      System.err.println("merge -1: DROPPING");
+    }
+    if (j != -1) {
+      if (j != edge.d2) {
+        // this means that we don't want to push the edge. instead,
+        // we'll push the merged fact. a little tricky, but i think should
+        // work.
+        if (DEBUG_LEVEL > 0) {
+          System.err.println("propagating merged fact " + j);
+        }
+        propagate(edge.entry, edge.d1, edge.target, j);
+      } else {
+        if (supergraph.isCall(edge.target)) {
+          // [13]
+          processCall(edge);
+        } else if (supergraph.isExit(edge.target)) {
+          // [21]
+          processExit(edge);
         } else {
-          if (supergraph.isCall(edge.target)) {
-            // [13]
-            processCall(edge);
-          } else if (supergraph.isExit(edge.target)) {
-            // [21]
-            processExit(edge);
-          } else {
-            // [33]
-            processNormal(edge);
-          }
+          // [33]
+          processNormal(edge);
         }
       }
     }
-    curPathEdge = null;
   }
 
   /**
@@ -334,27 +673,50 @@ public class TabulationSolver<T, P, F> {
         findOrCreateLocalSummaryEdges(supergraph.getProcOf(edge.target));
     int s_p_n = supergraph.getLocalBlockNumber(edge.entry);
     int x = supergraph.getLocalBlockNumber(edge.target);
-    if (!summaries.contains(s_p_n, x, edge.d1, edge.d2)) {
+    if (concurrent) {
+      // insert the summary edge before reading the call flow edges; processParticularCallee()
+      // adds a call flow edge before reading the summary edges, so each edge is seen by at least
+      // one of them
+      synchronized (summaries) {
+        if (!summaries.contains(s_p_n, x, edge.d1, edge.d2)) {
+          summaries.insertSummaryEdge(s_p_n, x, edge.d1, edge.d2);
+        }
+      }
+    } else if (!summaries.contains(s_p_n, x, edge.d1, edge.d2)) {
       summaries.insertSummaryEdge(s_p_n, x, edge.d1, edge.d2);
     }
-    assert curSummaryEdge == null : "curSummaryEdge should be null here";
-    curSummaryEdge = edge;
+    assert getCurSummaryEdge() == null : "curSummaryEdge should be null here";
+    setCurSummaryEdge(edge);
 
     final CallFlowEdges callFlow = findOrCreateCallFlowEdges(edge.entry);
 
     // [22] for each c /in callers(p)
-    IntSet callFlowSourceNodes = callFlow.getCallFlowSourceNodes(edge.d1);
+    IntSet callFlowSourceNodes;
+    if (concurrent) {
+      synchronized (callFlow) {
+        callFlowSourceNodes = copy(callFlow.getCallFlowSourceNodes(edge.d1));
+      }
+    } else {
+      callFlowSourceNodes = callFlow.getCallFlowSourceNodes(edge.d1);
+    }
     if (callFlowSourceNodes != null) {
       for (IntIterator it = callFlowSourceNodes.intIterator(); it.hasNext(); ) {
         // [23] for each d4 s.t. <c,d4> -> <s_p,d1> occurred earlier
         int globalC = it.next();
-        final IntSet D4 = callFlow.getCallFlowSources(globalC, edge.d1);
+        final IntSet D4;
+        if (concurrent) {
+          synchronized (callFlow) {
+            D4 = copy(callFlow.getCallFlowSources(globalC, edge.d1));
+          }
+        } else {
+          D4 = callFlow.getCallFlowSources(globalC, edge.d1);
+        }
 
         // [23] for each d5 s.t. <e_p,d2> -> <returnSite(c),d5> ...
         propagateToReturnSites(edge, supergraph.getNode(globalC), D4);
       }
     }
-    curSummaryEdge = null;
+    setCurSummaryEdge(null);
   }
 
   /**
@@ -478,8 +840,9 @@ public class TabulationSolver<T, P, F> {
                     d3 -> {
                       // set curPathEdge to be consistent with its setting in processCall() when
                       // applying a summary edge
-                      curPathEdge = PathEdge.createPathEdge(s_p, d3, c, d4);
-                      newSummaryEdge(curPathEdge, edge, retSite, d5);
+                      PathEdge<T> callEdge = PathEdge.createPathEdge(s_p, d3, c, d4);
+                      setCurPathEdge(callEdge);
+                      newSummaryEdge(callEdge, edge, retSite, d5);
                       propagate(s_p, d3, retSite, d5);
                     });
               }
@@ -498,6 +861,11 @@ public class TabulationSolver<T, P, F> {
     if (lp == null) {
       return null;
     }
+    if (concurrent) {
+      synchronized (lp) {
+        return copy(lp.getInverse(number, d2));
+      }
+    }
     return lp.getInverse(number, d2);
   }
 
@@ -617,25 +985,36 @@ public class TabulationSolver<T, P, F> {
       System.err.println(" reached: " + reached);
     }
     if (reached != null) {
-      final LocalSummaryEdges summaries = summaryEdges.get(supergraph.getProcOf(calleeEntry));
+      final P calleeProc = supergraph.getProcOf(calleeEntry);
       final CallFlowEdges callFlow = findOrCreateCallFlowEdges(calleeEntry);
       final int s_p_num = supergraph.getLocalBlockNumber(calleeEntry);
 
       reached.foreach(
           d1 -> {
             // we get reuse if we _don't_ propagate a new fact to the callee entry
-            final boolean gotReuse = !propagate(calleeEntry, d1, calleeEntry, d1);
+            final boolean gotReuse = !enterCallee(calleeEntry, d1);
             recordCall(edge.target, calleeEntry, d1, gotReuse);
             newCallExplodedEdge(edge, calleeEntry, d1);
+            if (contextCalls != null) {
+              contextCalls
+                  .computeIfAbsent(Pair.make(edge.entry, edge.d1), k -> new ArrayList<>())
+                  .add(new TabulationSummaryStore.Call<>(callNodeNum, edge.d2, calleeEntry, d1));
+            }
             // cache the fact that we've flowed <c, d2> -> <callee, d1> by a
             // call flow
-            callFlow.addCallEdge(callNodeNum, edge.d2, d1);
+            if (concurrent) {
+              synchronized (callFlow) {
+                callFlow.addCallEdge(callNodeNum, edge.d2, d1);
+              }
+            } else {
+              callFlow.addCallEdge(callNodeNum, edge.d2, d1);
+            }
             // handle summary edges now as well. this is different from the PoPL
-            // 95 paper.
+            // 95 paper. look the summaries up only after adding the call edge, see processExit()
+            final LocalSummaryEdges summaries = summaryEdges.get(calleeProc);
             if (summaries != null) {
               // for each exit from the callee
-              P p = supergraph.getProcOf(calleeEntry);
-              T[] exits = supergraph.getExitsForProcedure(p);
+              T[] exits = supergraph.getExitsForProcedure(calleeProc);
               for (final T exit : exits) {
                 if (DEBUG_LEVEL > 0) {
                   assert supergraph.containsNode(exit);
@@ -643,7 +1022,14 @@ public class TabulationSolver<T, P, F> {
                 int x_num = supergraph.getLocalBlockNumber(exit);
                 // reachedBySummary := {d2} s.t. <callee,d1> -> <exit,d2>
                 // was recorded as a summary edge
-                IntSet reachedBySummary = summaries.getSummaryEdges(s_p_num, x_num, d1);
+                IntSet reachedBySummary;
+                if (concurrent) {
+                  synchronized (summaries) {
+                    reachedBySummary = copy(summaries.getSummaryEdges(s_p_num, x_num, d1));
+                  }
+                } else {
+                  reachedBySummary = summaries.getSummaryEdges(s_p_num, x_num, d1);
+                }
                 if (reachedBySummary != null) {
                   for (final T returnSite : returnSitesForCallee) {
                     // if "exit" is a valid exit from the callee to the return
@@ -653,15 +1039,18 @@ public class TabulationSolver<T, P, F> {
                           flowFunctionMap.getReturnFlowFunction(edge.target, exit, returnSite);
                       reachedBySummary.foreach(
                           d2 -> {
-                            assert curSummaryEdge == null : "curSummaryEdge should be null here";
-                            curSummaryEdge = PathEdge.createPathEdge(calleeEntry, d1, exit, d2);
+                            assert getCurSummaryEdge() == null
+                                : "curSummaryEdge should be null here";
+                            final PathEdge<T> summaryEdge =
+                                PathEdge.createPathEdge(calleeEntry, d1, exit, d2);
+                            setCurSummaryEdge(summaryEdge);
                             if (retf instanceof IBinaryReturnFlowFunction) {
                               final IntSet D51 =
                                   computeBinaryFlow(edge.d2, d2, (IBinaryReturnFlowFunction) retf);
                               if (D51 != null) {
                                 D51.foreach(
                                     d5 -> {
-                                      newSummaryEdge(edge, curSummaryEdge, returnSite, d5);
+                                      newSummaryEdge(edge, summaryEdge, returnSite, d5);
                                       propagate(edge.entry, edge.d1, returnSite, d5);
                                     });
                               }
@@ -670,12 +1059,12 @@ public class TabulationSolver<T, P, F> {
                               if (D52 != null) {
                                 D52.foreach(
                                     d5 -> {
-                                      newSummaryEdge(edge, curSummaryEdge, returnSite, d5);
+                                      newSummaryEdge(edge, summaryEdge, returnSite, d5);
                                       propagate(edge.entry, edge.d1, returnSite, d5);
                                     });
                               }
                             }
-                            curSummaryEdge = null;
+                            setCurSummaryEdge(null);
                           });
                     }
                   }
@@ -766,6 +1155,16 @@ public class TabulationSolver<T, P, F> {
 
     assert j >= 0;
 
+    if (concurrent) {
+      synchronized (pLocal) {
+        if (pLocal.contains(i, number, j)) {
+          return false;
+        }
+        pLocal.addPathEdge(i, number, j);
+      }
+      addToWorkList(s_p, i, n, j);
+      return true;
+    }
     if (!pLocal.contains(i, number, j)) {
       if (DEBUG_LEVEL > 0) {
         System.err.println("propagate " + s_p + "  " + i + ' ' + number + ' ' + j);
@@ -796,7 +1195,14 @@ public class TabulationSolver<T, P, F> {
     IMergeFunction alpha = problem.getMergeFunction();
     if (alpha != null) {
       LocalPathEdges lp = pathEdges.get(s_p);
-      IntSet preExistFacts = lp.getReachable(supergraph.getLocalBlockNumber(n), i);
+      IntSet preExistFacts;
+      if (concurrent) {
+        synchronized (lp) {
+          preExistFacts = copy(lp.getReachable(supergraph.getLocalBlockNumber(n), i));
+        }
+      } else {
+        preExistFacts = lp.getReachable(supergraph.getLocalBlockNumber(n), i);
+      }
       if (preExistFacts == null) {
         return j;
       } else {
@@ -815,6 +1221,16 @@ public class TabulationSolver<T, P, F> {
 
   @SuppressWarnings("unused")
   protected void addToWorkList(T s_p, int i, T n, int j) {
+    if (concurrent) {
+      synchronized (worklistLock) {
+        if (worklist == null) {
+          worklist = makeWorklist();
+        }
+        worklist.insert(PathEdge.createPathEdge(s_p, i, n, j));
+        worklistLock.notify();
+      }
+      return;
+    }
     if (worklist == null) {
       worklist = makeWorklist();
     }
@@ -825,36 +1241,191 @@ public class TabulationSolver<T, P, F> {
   }
 
   protected LocalPathEdges findOrCreateLocalPathEdges(T s_p) {
-    LocalPathEdges result = pathEdges.get(s_p);
-    if (result == null) {
-      result = makeLocalPathEdges();
-      pathEdges.put(s_p, result);
-    }
-    return result;
+    return pathEdges.computeIfAbsent(s_p, k -> makeLocalPathEdges());
   }
 
   private LocalPathEdges makeLocalPathEdges() {
-    return problem.getMergeFunction() == null
-        ? new LocalPathEdges(false)
-        : new LocalPathEdges(true);
+    boolean fastMerge = problem.getMergeFunction() != null;
+    if (spillStore != null) {
+      return new SpillingLocalPathEdges(fastMerge, spillStore);
+    }
+    return compactEdges ? new CompactLocalPathEdges(fastMerge) : new LocalPathEdges(fastMerge);
   }
 
   protected LocalSummaryEdges findOrCreateLocalSummaryEdges(P proc) {
-    LocalSummaryEdges result = summaryEdges.get(proc);
-    if (result == null) {
-      result = new LocalSummaryEdges();
-      summaryEdges.put(proc, result);
-    }
-    return result;
+    return summaryEdges.computeIfAbsent(proc, k -> new LocalSummaryEdges());
   }
 
   protected CallFlowEdges findOrCreateCallFlowEdges(T s_p) {
-    CallFlowEdges result = callFlowEdges.get(s_p);
-    if (result == null) {
-      result = new CallFlowEdges();
-      callFlowEdges.put(s_p, result);
+    return callFlowEdges.computeIfAbsent(
+        s_p, k -> compactEdges ? new CompactCallFlowEdges() : new CallFlowEdges());
+  }
+
+  /**
+   * Propagate &lt;s_p, d1&gt; -&gt; &lt;s_p, d1&gt; for a call that reaches the entry s_p with d1,
+   * or reuse the tabulation from there if the summary store holds it.
+   *
+   * @return true iff the path edge was not previously observed
+   */
+  private boolean enterCallee(T s_p, int d1) {
+    if (summaryStore == null) {
+      return propagate(s_p, d1, s_p, d1);
     }
-    return result;
+    LocalPathEdges pLocal = pathEdges.get(s_p);
+    if (pLocal != null && pLocal.contains(d1, supergraph.getLocalBlockNumber(s_p), d1)) {
+      return false;
+    }
+    if (summaryStore.get(s_p, d1) != null && !isSeeded(s_p, d1)) {
+      reuseSummaries(s_p, d1);
+      return true;
+    }
+    enteredContexts.add(Pair.make(s_p, d1));
+    return propagate(s_p, d1, s_p, d1);
+  }
+
+  /**
+   * Add the path edges, summary edges and call flow edges of the stored tabulation of s_p entered
+   * with d1, and those of the procedures entered along it, none of which was entered yet. The
+   * path edges are not added to the worklist, since all edges they lead to are added as well.
+   */
+  private void reuseSummaries(T s_p, int d1) {
+    ArrayDeque<Pair<T, Integer>> todo = new ArrayDeque<>();
+    Pair<T, Integer> first = Pair.make(s_p, d1);
+    reusedContexts.add(first);
+    todo.add(first);
+    while (!todo.isEmpty()) {
+      Pair<T, Integer> context = todo.pop();
+      T entry = context.fst;
+      int i = context.snd;
+      TabulationSummaryStore.Summary<T> summary = summaryStore.get(entry, i);
+      LocalPathEdges pLocal = findOrCreateLocalPathEdges(entry);
+      for (int k = 0; k < summary.pathEdges.length; k += 2) {
+        pLocal.addPathEdge(i, summary.pathEdges[k], summary.pathEdges[k + 1]);
+      }
+      if (summary.exitEdges.length > 0) {
+        LocalSummaryEdges summaries = findOrCreateLocalSummaryEdges(supergraph.getProcOf(entry));
+        int s_p_n = supergraph.getLocalBlockNumber(entry);
+        for (int k = 0; k < summary.exitEdges.length; k += 2) {
+          int x = summary.exitEdges[k];
+          int d2 = summary.exitEdges[k + 1];
+          if (!summaries.contains(s_p_n, x, i, d2)) {
+            summaries.insertSummaryEdge(s_p_n, x, i, d2);
+          }
+        }
+      }
+      for (TabulationSummaryStore.Call<T> call : summary.calls) {
+        T callee = call.calleeEntry;
+        int d = call.calleeFact;
+        findOrCreateCallFlowEdges(callee).addCallEdge(call.callNode, call.d, d);
+        LocalPathEdges calleeLocal = pathEdges.get(callee);
+        if (calleeLocal == null
+            || !calleeLocal.contains(d, supergraph.getLocalBlockNumber(callee), d)) {
+          if (summaryStore.get(callee, d) != null && !isSeeded(callee, d)) {
+            Pair<T, Integer> calleeContext = Pair.make(callee, d);
+            if (reusedContexts.add(calleeContext)) {
+              todo.add(calleeContext);
+            }
+          } else {
+            // tabulate it; its exits reach the return sites along the call flow edge above
+            enteredContexts.add(Pair.make(callee, d));
+            propagate(callee, d, callee, d);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Record in the summary store the tabulation of the procedure entries that calls reached in this
+   * run, except for those that were seeds or that reach one through calls.
+   */
+  private void storeSummaries() {
+    Set<Pair<T, Integer>> complete = HashSetFactory.make();
+    for (Pair<T, Integer> context : enteredContexts) {
+      if (!isSeeded(context.fst, context.snd)) {
+        complete.add(context);
+      }
+    }
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (Iterator<Pair<T, Integer>> it = complete.iterator(); it.hasNext(); ) {
+        List<TabulationSummaryStore.Call<T>> calls = contextCalls.get(it.next());
+        if (calls != null) {
+          for (TabulationSummaryStore.Call<T> call : calls) {
+            Pair<T, Integer> callee = Pair.make(call.calleeEntry, call.calleeFact);
+            if (!complete.contains(callee)
+                && (!reusedContexts.contains(callee) || isSeeded(callee.fst, callee.snd))) {
+              it.remove();
+              changed = true;
+              break;
+            }
+          }
+        }
+      }
+    }
+    for (Pair<T, Integer> context : complete) {
+      T s_p = context.fst;
+      int d1 = context.snd;
+      LocalPathEdges lp = pathEdges.get(s_p);
+      MutableSparseIntSet exits = MutableSparseIntSet.makeEmpty();
+      for (T exit : supergraph.getExitsForProcedure(supergraph.getProcOf(s_p))) {
+        exits.add(supergraph.getLocalBlockNumber(exit));
+      }
+      List<TabulationSummaryStore.Call<T>> calls = contextCalls.get(context);
+      summaryStore.put(
+          s_p,
+          d1,
+          new TabulationSummaryStore.Summary<>(
+              getEdgesFrom(lp, d1, lp.getReachedNodeNumbers()),
+              getEdgesFrom(lp, d1, exits),
+              calls == null ? Collections.emptyList() : calls));
+    }
+  }
+
+  /**
+   * @return pairs (n, d2) s.t. &lt;s_p, d1&gt; -&gt; &lt;n, d2&gt; is a path edge in lp and n is
+   *     in nodes
+   */
+  private static int[] getEdgesFrom(LocalPathEdges lp, int d1, IntSet nodes) {
+    int[] result = new int[2 * nodes.size()];
+    int size = 0;
+    for (IntIterator it = nodes.intIterator(); it.hasNext(); ) {
+      int n = it.next();
+      IntSet d2s = lp.getReachable(n, d1);
+      if (d2s != null) {
+        for (IntIterator it2 = d2s.intIterator(); it2.hasNext(); ) {
+          if (size == result.length) {
+            result = Arrays.copyOf(result, 2 * result.length + 2);
+          }
+          result[size++] = n;
+          result[size++] = it2.next();
+        }
+      }
+    }
+    return Arrays.copyOf(result, size);
+  }
+
+  /**
+   * @return true iff a seed starts from &lt;s_p, d1&gt;
+   */
+  private boolean isSeeded(T s_p, int d1) {
+    Set<PathEdge<T>> pSeeds = seeds.get(supergraph.getProcOf(s_p));
+    if (pSeeds != null) {
+      for (PathEdge<T> seed : pSeeds) {
+        if (seed.d1 == d1 && seed.entry.equals(s_p)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return a copy of s, or null if s is null; used to read sets that other threads may update
+   */
+  private static IntSet copy(IntSet s) {
+    return s == null ? null : IntSetUtil.makeMutableCopy(s);
   }
 
   /**
@@ -1017,12 +1588,34 @@ public class TabulationSolver<T, P, F> {
     return progressMonitor;
   }
 
+  /**
+   * @return the path edge the calling thread is processing, see {@link #curPathEdge}
+   */
   protected PathEdge<T> getCurPathEdge() {
-    return curPathEdge;
+    return concurrent ? currentEdges.get().pathEdge : curPathEdge;
   }
 
+  /**
+   * @return the summary edge the calling thread is applying, see {@link #curSummaryEdge}
+   */
   protected PathEdge<T> getCurSummaryEdge() {
-    return curSummaryEdge;
+    return concurrent ? currentEdges.get().summaryEdge : curSummaryEdge;
+  }
+
+  private void setCurPathEdge(PathEdge<T> edge) {
+    if (concurrent) {
+      currentEdges.get().pathEdge = edge;
+    } else {
+      curPathEdge = edge;
+    }
+  }
+
+  private void setCurSummaryEdge(PathEdge<T> edge) {
+    if (concurrent) {
+      currentEdges.get().summaryEdge = edge;
+    } else {
+      curSummaryEdge = edge;
+    }
   }
 
   /**
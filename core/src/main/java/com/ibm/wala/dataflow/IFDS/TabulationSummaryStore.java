@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.dataflow.IFDS;
+
+import com.ibm.wala.util.collections.HashMapFactory;
+import com.ibm.wala.util.collections.Pair;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The tabulation of procedure entries, kept across runs of {@link TabulationSolver}s on the same
+ * supergraph and flow functions, so that a later run applies the summaries of a procedure entered
+ * with a fact that an earlier run explored completely, instead of exploring it again.
+ *
+ * <p>For each entry s_p and fact d1 it holds the path edges &lt;s_p, d1&gt; -&gt; &lt;n, d2&gt;
+ * and the calls made along them, which an earlier run computed from &lt;s_p, d1&gt; alone. Pairs
+ * that were seeds, or that reach one through a call, are not kept, since their path edges need
+ * not be same-level realizable from the entry.
+ *
+ * <p>A store must only be passed to solvers for problems with the same supergraph, numbering of
+ * nodes, flow functions and domain, e.g. slices in the same direction over the same {@link
+ * com.ibm.wala.ipa.slicer.SDG}. It is not thread-safe.
+ *
+ * @param <T> type of node in the supergraph
+ * @see TabulationSolver#setSummaryStore(TabulationSummaryStore)
+ */
+public class TabulationSummaryStore<T> {
+
+  /** the complete tabulation of one procedure entry for one entry fact */
+  static final class Summary<T> {
+
+    /** pairs (n, d2) s.t. &lt;s_p, d1&gt; -&gt; &lt;n, d2&gt; is a path edge */
+    final int[] pathEdges;
+
+    /** pairs (x, d2) as in {@link #pathEdges}, for the exits x of the procedure */
+    final int[] exitEdges;
+
+    /** the calls made along the path edges */
+    final List<Call<T>> calls;
+
+    Summary(int[] pathEdges, int[] exitEdges, List<Call<T>> calls) {
+      this.pathEdges = pathEdges;
+      this.exitEdges = exitEdges;
+      this.calls = calls;
+    }
+  }
+
+  /** a call flow edge &lt;c, d&gt; -&gt; &lt;calleeEntry, calleeFact&gt; */
+  static final class Call<T> {
+
+    /** the global number of the call node c */
+    final int callNode;
+
+    final int d;
+
+    final T calleeEntry;
+
+    final int calleeFact;
+
+    Call(int callNode, int d, T calleeEntry, int calleeFact) {
+      this.callNode = callNode;
+      this.d = d;
+      this.calleeEntry = calleeEntry;
+      this.calleeFact = calleeFact;
+    }
+  }
+
+  /** (s_p, d1) -&gt; the tabulation of s_p entered with d1 */
+  private final Map<Pair<T, Integer>, Summary<T>> summaries = HashMapFactory.make();
+
+  Summary<T> get(T s_p, int d1) {
+    return summaries.get(Pair.make(s_p, d1));
+  }
+
+  void put(T s_p, int d1, Summary<T> summary) {
+    summaries.put(Pair.make(s_p, d1), summary);
+  }
+
+  /**
+   * @return the number of pairs of procedure entries and entry facts whose tabulation is kept
+   */
+  public int size() {
+    return summaries.size();
+  }
+
+  /** forget all summaries, e.g. after the supergraph changed */
+  public void clear() {
+    summaries.clear();
+  }
+}
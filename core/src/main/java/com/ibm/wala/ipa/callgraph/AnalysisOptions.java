@@ -54,6 +54,24 @@ public class AnalysisOptions {
    */
   private int maxEvalBetweenTopo = 1000000000;
 
+  /**
+   * How many threads may the pointer analysis solver use to evaluate assignment constraints? A
+   * value of 1 (the default) keeps the purely sequential solver.
+   */
+  private int numberOfSolverThreads = 1;
+
+  /**
+   * Should the pointer analysis solver propagate only the instance keys newly added to a points-to
+   * set along assignments, rather than the whole set?
+   */
+  private boolean useDifferencePropagation = false;
+
+  /**
+   * Should the pointer analysis solver unify variables that lie on a cycle of assignments, since
+   * they must end up with the same points-to set?
+   */
+  private boolean useCycleElimination = false;
+
   /** options for handling reflection during call graph construction */
   public enum ReflectionOptions {
     FULL("full", Integer.MAX_VALUE, false, false, false),
@@ -301,6 +319,58 @@ public class AnalysisOptions {
     topologicalGrowthFactor = d;
   }
 
+  /**
+   * @return the number of threads the pointer analysis solver may use to evaluate assignment
+   *     constraints
+   */
+  public int getNumberOfSolverThreads() {
+    return numberOfSolverThreads;
+  }
+
+  /**
+   * @param n the number of threads the pointer analysis solver may use to evaluate assignment
+   *     constraints; 1 means sequential solving. The solution computed does not depend on n.
+   * @throws IllegalArgumentException if n &lt; 1
+   */
+  public void setNumberOfSolverThreads(int n) {
+    if (n < 1) {
+      throw new IllegalArgumentException("invalid number of solver threads: " + n);
+    }
+    numberOfSolverThreads = n;
+  }
+
+  /**
+   * Should the pointer analysis solver propagate only the instance keys newly added to a points-to
+   * set along assignments, rather than the whole set?
+   */
+  public boolean getUseDifferencePropagation() {
+    return useDifferencePropagation;
+  }
+
+  /**
+   * Should the pointer analysis solver propagate only the instance keys newly added to a points-to
+   * set along assignments, rather than the whole set?
+   */
+  public void setUseDifferencePropagation(boolean useDifferencePropagation) {
+    this.useDifferencePropagation = useDifferencePropagation;
+  }
+
+  /**
+   * Should the pointer analysis solver unify variables that lie on a cycle of assignments, since
+   * they must end up with the same points-to set?
+   */
+  public boolean getUseCycleElimination() {
+    return useCycleElimination;
+  }
+
+  /**
+   * Should the pointer analysis solver unify variables that lie on a cycle of assignments, since
+   * they must end up with the same points-to set?
+   */
+  public void setUseCycleElimination(boolean useCycleElimination) {
+    this.useCycleElimination = useCycleElimination;
+  }
+
   /**
    * @return options governing SSA construction
    */
@@ -15,6 +15,7 @@ import com.ibm.wala.classLoader.BinaryDirectoryTreeModule;
 import com.ibm.wala.classLoader.ClassFileModule;
 import com.ibm.wala.classLoader.IClassLoader;
 import com.ibm.wala.classLoader.JarFileModule;
+import com.ibm.wala.classLoader.MappedJarFileModule;
 import com.ibm.wala.classLoader.JarStreamModule;
 import com.ibm.wala.classLoader.Language;
 import com.ibm.wala.classLoader.Module;
@@ -233,6 +234,16 @@ public class AnalysisScope {
     s.add(new JarFileModule(file));
   }
 
+  /**
+   * Add a jar file to the scope for a loader, to be read through a memory mapping
+   *
+   * @throws IOException if the file cannot be mapped
+   * @see MappedJarFileModule
+   */
+  public void addMappedJarToScope(ClassLoaderReference loader, JarFile file) throws IOException {
+    MapUtil.findOrCreateList(moduleMap, loader).add(new MappedJarFileModule(file));
+  }
+
   /** Add a module to the scope for a loader */
   @SuppressWarnings("unused")
   public void addToScope(ClassLoaderReference loader, Module m) {
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.ipa.callgraph;
+
+import com.ibm.wala.classLoader.IMethod;
+import com.ibm.wala.ssa.BoundedAuxiliaryCache;
+import com.ibm.wala.ssa.DefaultIRFactory;
+import com.ibm.wala.ssa.IRFactory;
+import com.ibm.wala.ssa.SSACache;
+import com.ibm.wala.ssa.SSAOptions;
+
+/**
+ * An analysis cache that keeps the IRs and {@link com.ibm.wala.ssa.DefUse}s it builds within a
+ * budget of estimated bytes, evicting the least recently used ones. Evicted entries are rebuilt on
+ * demand by the {@link IRFactory}.
+ *
+ * @see BoundedAuxiliaryCache
+ */
+public class BoundedAnalysisCacheImpl extends AnalysisCache {
+
+  private final BoundedAuxiliaryCache irCache;
+
+  private final BoundedAuxiliaryCache duCache;
+
+  /**
+   * @param irBudget budget of estimated bytes for IRs
+   * @param duBudget budget of estimated bytes for {@link com.ibm.wala.ssa.DefUse}s
+   */
+  public BoundedAnalysisCacheImpl(
+      IRFactory<IMethod> irFactory, SSAOptions ssaOptions, long irBudget, long duBudget) {
+    this(
+        irFactory,
+        ssaOptions,
+        new BoundedAuxiliaryCache(irBudget),
+        new BoundedAuxiliaryCache(duBudget));
+  }
+
+  private BoundedAnalysisCacheImpl(
+      IRFactory<IMethod> irFactory,
+      SSAOptions ssaOptions,
+      BoundedAuxiliaryCache irCache,
+      BoundedAuxiliaryCache duCache) {
+    super(irFactory, ssaOptions, new SSACache(irFactory, irCache, duCache));
+    this.irCache = irCache;
+    this.duCache = duCache;
+  }
+
+  /**
+   * @param irBudget budget of estimated bytes for IRs
+   * @param duBudget budget of estimated bytes for {@link com.ibm.wala.ssa.DefUse}s
+   */
+  public BoundedAnalysisCacheImpl(long irBudget, long duBudget) {
+    this(new DefaultIRFactory(), new AnalysisOptions().getSSAOptions(), irBudget, duBudget);
+  }
+
+  /** The cache of IRs, e.g. to read its hit, miss and eviction counters */
+  public BoundedAuxiliaryCache getIRCache() {
+    return irCache;
+  }
+
+  /** The cache of {@link com.ibm.wala.ssa.DefUse}s */
+  public BoundedAuxiliaryCache getDefUseCache() {
+    return duCache;
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.ipa.callgraph;
+
+import com.ibm.wala.classLoader.IClass;
+import com.ibm.wala.classLoader.IMethod;
+import com.ibm.wala.ipa.cha.IClassHierarchy;
+import com.ibm.wala.ssa.ConcurrentAuxiliaryCache;
+import com.ibm.wala.ssa.DefaultIRFactory;
+import com.ibm.wala.ssa.IRFactory;
+import com.ibm.wala.ssa.SSACache;
+import com.ibm.wala.ssa.SSAOptions;
+import com.ibm.wala.util.WalaRuntimeException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+/**
+ * An analysis cache that may be used from several threads at once. IRs and {@link
+ * com.ibm.wala.ssa.DefUse}s for different methods are built in parallel, while concurrent requests
+ * for the same method wait for a single construction.
+ */
+public class ConcurrentAnalysisCacheImpl extends AnalysisCache {
+
+  public ConcurrentAnalysisCacheImpl(IRFactory<IMethod> irFactory, SSAOptions ssaOptions) {
+    super(
+        irFactory,
+        ssaOptions,
+        new SSACache(irFactory, new ConcurrentAuxiliaryCache(), new ConcurrentAuxiliaryCache()));
+  }
+
+  public ConcurrentAnalysisCacheImpl(SSAOptions ssaOptions) {
+    this(new DefaultIRFactory(), ssaOptions);
+  }
+
+  public ConcurrentAnalysisCacheImpl(IRFactory<IMethod> irFactory) {
+    this(irFactory, new AnalysisOptions().getSSAOptions());
+  }
+
+  public ConcurrentAnalysisCacheImpl() {
+    this(new DefaultIRFactory());
+  }
+
+  /**
+   * Build, in the {@link com.ibm.wala.ipa.callgraph.impl.Everywhere} context, the IR of each
+   * concrete method declared by a class of cha that satisfies filter.
+   *
+   * @param nThreads number of threads used to build the IRs
+   * @return the number of IRs built
+   * @throws IllegalArgumentException if nThreads &lt; 1
+   */
+  public int prewarmIRs(IClassHierarchy cha, Predicate<IMethod> filter, int nThreads)
+      throws InterruptedException {
+    if (cha == null) {
+      throw new IllegalArgumentException("cha is null");
+    }
+    if (nThreads < 1) {
+      throw new IllegalArgumentException("invalid number of threads: " + nThreads);
+    }
+    List<Callable<Integer>> tasks = new ArrayList<>();
+    for (IClass klass : cha) {
+      tasks.add(
+          () -> {
+            int count = 0;
+            for (IMethod m : klass.getDeclaredMethods()) {
+              if (!m.isAbstract() && !m.isNative() && filter.test(m) && getIR(m) != null) {
+                count++;
+              }
+            }
+            return count;
+          });
+    }
+
+    ExecutorService pool = Executors.newFixedThreadPool(nThreads);
+    try {
+      int result = 0;
+      for (Future<Integer> f : pool.invokeAll(tasks)) {
+        try {
+          result += f.get();
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          } else if (cause instanceof Error) {
+            throw (Error) cause;
+          } else {
+            throw new WalaRuntimeException("failed to build IR", cause);
+          }
+        }
+      }
+      return result;
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+}
@@ -160,8 +160,11 @@ public abstract class BasicCallGraph<T> extends AbstractNumberedGraph<CGNode> im
   /** A class that represents the a normal node in a call graph. */
   public abstract static class NodeImpl extends NodeWithNumber implements CGNode {
 
-    /** The method this node represents. */
-    protected final IMethod method;
+    /**
+     * The method this node represents. Only ever replaced by an equal method, e.g. one of a class
+     * that was loaded again after its code changed.
+     */
+    protected IMethod method;
 
     /** The context this node represents. */
     private final Context context;
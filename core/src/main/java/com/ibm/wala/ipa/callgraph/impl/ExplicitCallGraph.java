@@ -27,6 +27,7 @@ import com.ibm.wala.ssa.ISSABasicBlock;
 import com.ibm.wala.ssa.SSAInstruction;
 import com.ibm.wala.util.CancelException;
 import com.ibm.wala.util.collections.FilterIterator;
+import com.ibm.wala.util.collections.HashMapFactory;
 import com.ibm.wala.util.collections.HashSetFactory;
 import com.ibm.wala.util.collections.IntMapIterator;
 import com.ibm.wala.util.collections.SparseVector;
@@ -41,6 +42,7 @@ import java.lang.ref.WeakReference;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 
 /** A call graph which explicitly holds the target for each call site in each node. */
@@ -60,6 +62,9 @@ public class ExplicitCallGraph extends BasicCallGraph<SSAContextInterpreter>
   /** special object to track call graph edges */
   private final ExplicitEdgeManager edgeManager = makeEdgeManger();
 
+  /** new versions of methods of the class hierarchy, see {@link #replaceMethod(IMethod)} */
+  private final Map<IMethod, IMethod> replacedMethods = HashMapFactory.make();
+
   public ExplicitCallGraph(
       IMethod fakeRootMethod, AnalysisOptions options, IAnalysisCacheView cache) {
     super();
@@ -108,7 +113,7 @@ public class ExplicitCallGraph extends BasicCallGraph<SSAContextInterpreter>
     CGNode result = getNode(k);
     if (result == null) {
       if (maxNumberOfNodes == -1 || getNumberOfNodes() < maxNumberOfNodes) {
-        result = makeNode(method, context);
+        result = makeNode(replacedMethods.getOrDefault(method, method), context);
         registerNode(k, result);
       } else {
         throw CancelException.make("Too many nodes");
@@ -117,6 +122,30 @@ public class ExplicitCallGraph extends BasicCallGraph<SSAContextInterpreter>
     return result;
   }
 
+  /**
+   * Use a new version of a method from now on, e.g. one of a class that was loaded again after its
+   * code changed. The nodes of the method are pointed at the new version and forget their cached
+   * IRs, and nodes created later for the method use the new version too. Call targets are kept;
+   * see {@link ExplicitNode#clearAllTargets()}.
+   *
+   * @param method a method equal to one of the class hierarchy of this call graph
+   * @return the nodes of the method
+   */
+  public Set<CGNode> replaceMethod(IMethod method) {
+    if (method == null) {
+      throw new IllegalArgumentException("null method");
+    }
+    replacedMethods.put(method, method);
+    Set<CGNode> result = HashSetFactory.make();
+    for (CGNode node : getNodes(method.getReference())) {
+      if (node.getMethod().equals(method)) {
+        ((ExplicitNode) node).setMethod(method);
+        result.add(node);
+      }
+    }
+    return result;
+  }
+
   public class ExplicitNode extends NodeImpl {
 
     /**
@@ -274,10 +303,21 @@ public class ExplicitCallGraph extends BasicCallGraph<SSAContextInterpreter>
     }
 
     public void clearAllTargets() {
+      for (IntIterator it = allTargets.intIterator(); it.hasNext(); ) {
+        getCallGraph().getEdgeManager().removeEdge(this, getCallGraph().getNode(it.next()));
+      }
       targets.clear();
       allTargets.clear();
     }
 
+    /** Point this node at a new version of its method, see {@link #replaceMethod(IMethod)} */
+    protected void setMethod(IMethod method) {
+      assert method.equals(this.method) : method + " replaces " + this.method;
+      this.method = method;
+      ir = new WeakReference<>(null);
+      du = new WeakReference<>(null);
+    }
+
     @Override
     public IR getIR() {
       if (getMethod().isWalaSynthetic()) {
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.ipa.callgraph.propagation;
+
+import com.ibm.wala.classLoader.IMethod;
+import com.ibm.wala.ipa.callgraph.AnalysisOptions;
+import com.ibm.wala.ipa.callgraph.CallGraph;
+import com.ibm.wala.ipa.callgraph.CallGraphBuilderCancelException;
+import com.ibm.wala.util.MonitorUtil.IProgressMonitor;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a call graph up to date while the code it was built from changes. When the changes only
+ * add code, the call graph and points-to sets of the current builder are updated in place, see
+ * {@link SSAPropagationCallGraphBuilder#updateCallGraph(Collection, IProgressMonitor)}. Otherwise,
+ * they are rebuilt from scratch by a new builder.
+ *
+ * <p>The builders must share the analysis cache in which the IRs of changed methods are
+ * invalidated, or a rebuild may see stale IRs. When classes are loaded again into a new class
+ * hierarchy, their changed methods may be passed to an update as they are, but the builder factory
+ * must make builders for the new class hierarchy, for when the call graph is rebuilt.
+ */
+public class IncrementalCallGraphUpdater {
+
+  private final Supplier<? extends SSAPropagationCallGraphBuilder> builderFactory;
+
+  private final AnalysisOptions options;
+
+  private SSAPropagationCallGraphBuilder builder;
+
+  private CallGraph callGraph;
+
+  private boolean lastUpdateIncremental;
+
+  /**
+   * @param builderFactory makes a new builder for a full (re)build
+   * @param options options for the call graph; entrypoints may be changed between updates
+   */
+  public IncrementalCallGraphUpdater(
+      Supplier<? extends SSAPropagationCallGraphBuilder> builderFactory, AnalysisOptions options) {
+    if (builderFactory == null) {
+      throw new IllegalArgumentException("builderFactory is null");
+    }
+    if (options == null) {
+      throw new IllegalArgumentException("options is null");
+    }
+    this.builderFactory = builderFactory;
+    this.options = options;
+  }
+
+  /** Build the call graph from scratch */
+  public CallGraph build(IProgressMonitor monitor) throws CallGraphBuilderCancelException {
+    builder = builderFactory.get();
+    builder.setIncrementalMode(true);
+    callGraph = builder.makeCallGraph(options, monitor);
+    lastUpdateIncremental = false;
+    return callGraph;
+  }
+
+  /**
+   * Update the call graph after the code of some methods changed. Methods whose instructions were
+   * only added to are handled incrementally; if any instruction was removed or changed, or the new
+   * code needs classes, methods or fields that the current call graph does not know, the call graph
+   * is rebuilt.
+   *
+   * @param changedMethods methods whose code changed since the last build or update
+   */
+  public CallGraph update(Collection<? extends IMethod> changedMethods, IProgressMonitor monitor)
+      throws CallGraphBuilderCancelException {
+    if (builder == null) {
+      return build(monitor);
+    }
+    if (builder.updateCallGraph(changedMethods, monitor)) {
+      lastUpdateIncremental = true;
+      return callGraph;
+    } else {
+      return build(monitor);
+    }
+  }
+
+  /**
+   * @return the builder of the current call graph, or null if none was built yet
+   */
+  public SSAPropagationCallGraphBuilder getBuilder() {
+    return builder;
+  }
+
+  /**
+   * @return the current call graph, or null if none was built yet
+   */
+  public CallGraph getCallGraph() {
+    return callGraph;
+  }
+
+  /**
+   * @return the points-to sets for the current call graph, or null if none was built yet
+   */
+  public PointerAnalysis<InstanceKey> getPointerAnalysis() {
+    return builder == null ? null : builder.getPointerAnalysis();
+  }
+
+  /**
+   * @return true if the last call to {@link #update(Collection, IProgressMonitor)} updated the call
+   *     graph in place, false if it rebuilt it
+   */
+  public boolean wasLastUpdateIncremental() {
+    return lastUpdateIncremental;
+  }
+}
@@ -120,6 +120,23 @@ public class PointsToMap {
     pointsToSets.set(i, v);
   }
 
+  /**
+   * forget a pointer key and its points-to set. The key must not be unified with another; if it is
+   * used again later, it gets a new number.
+   */
+  public void remove(PointerKey key) {
+    if (key == null) {
+      throw new IllegalArgumentException("null key");
+    }
+    int i = pointerKeys.getMappedIndex(key);
+    if (i != -1) {
+      assert pointsToSets.get(i) != UNIFIED : "cannot remove unified key " + key;
+      pointsToSets.set(i, null);
+      transitiveRoots.clear(i);
+      pointerKeys.deleteMappedObject(key);
+    }
+  }
+
   private int findOrCreateIndex(PointerKey key) {
     int result = pointerKeys.getMappedIndex(key);
     if (result == -1) {
@@ -19,6 +19,8 @@ import com.ibm.wala.ssa.IR;
 import com.ibm.wala.types.TypeReference;
 import com.ibm.wala.util.debug.Assertions;
 import com.ibm.wala.util.intset.IntSet;
+import com.ibm.wala.util.intset.IntSetUtil;
+import com.ibm.wala.util.intset.MutableIntSet;
 import com.ibm.wala.util.intset.MutableMapping;
 import com.ibm.wala.util.intset.MutableSparseIntSet;
 
@@ -46,6 +48,15 @@ public class PointsToSetVariable extends IntSetVariable<PointsToSetVariable> {
 
   private PointerKey pointerKey;
 
+  /** should this variable remember which instance keys were added since the last propagation? */
+  private boolean trackDelta = false;
+
+  /**
+   * when tracking, the instance keys added since the last call to {@link #takeDelta()}, or null if
+   * there are none
+   */
+  private MutableIntSet delta;
+
   public PointsToSetVariable(PointerKey key) {
     super();
     if (key == null) {
@@ -77,6 +88,61 @@ public class PointsToSetVariable extends IntSetVariable<PointsToSetVariable> {
     }
   }
 
+  /**
+   * Start or stop remembering the instance keys added to this variable, for difference
+   * propagation. Changes are only recorded while the variable is part of the flow graph, since no
+   * statement could consume them otherwise.
+   */
+  void setTrackDelta(boolean trackDelta) {
+    this.trackDelta = trackDelta;
+    if (!trackDelta) {
+      delta = null;
+    }
+  }
+
+  private boolean isTrackingDelta() {
+    return trackDelta && getGraphNodeId() > -1;
+  }
+
+  /**
+   * @return the instance keys added since the last call to this method, or null if there are none.
+   *     The caller owns the returned set.
+   */
+  MutableIntSet takeDelta() {
+    MutableIntSet result = delta;
+    delta = null;
+    return result;
+  }
+
+  boolean hasDelta() {
+    return delta != null;
+  }
+
+  private void recordDelta(IntSet added) {
+    if (delta == null) {
+      delta = IntSetUtil.getDefaultIntSetFactory().makeCopy(added);
+    } else {
+      delta.addAll(added);
+    }
+  }
+
+  /**
+   * Add to the delta the elements of B that are also in filter, or all of them if filter is null,
+   * and that are not yet in this non-empty variable. Call this before adding B in bulk; the bulk
+   * add then adds exactly these elements.
+   */
+  private void recordNewElements(IntSet B, IntSet filter) {
+    MutableIntSet d = delta == null ? IntSetUtil.getDefaultIntSetFactory().make() : delta;
+    B.foreachExcluding(
+        getValue(),
+        x -> {
+          if (filter == null || filter.contains(x)) {
+            d.add(x);
+          }
+        });
+    delta = d.isEmpty() ? null : d;
+  }
+
   @Override
   public boolean add(int b) {
     if (PARANOID) {
@@ -85,6 +151,12 @@ public class PointsToSetVariable extends IntSetVariable<PointsToSetVariable> {
       checkTypes(m);
     }
     final boolean result = super.add(b);
+    if (result && isTrackingDelta()) {
+      if (delta == null) {
+        delta = IntSetUtil.getDefaultIntSetFactory().make();
+      }
+      delta.add(b);
+    }
     cryIfTooBig();
     return result;
   }
@@ -94,11 +166,62 @@ public class PointsToSetVariable extends IntSetVariable<PointsToSetVariable> {
     if (PARANOID) {
       checkTypes(B);
     }
+    boolean wasEmpty = getValue() == null;
+    if (isTrackingDelta() && !wasEmpty) {
+      recordNewElements(B, null);
+    }
+    // add all of B at once, so that the underlying set can keep sharing bits with B
     boolean v = super.addAll(B);
+    if (v && wasEmpty && isTrackingDelta()) {
+      // this variable was empty, so all of B is new
+      recordDelta(getValue());
+    }
     cryIfTooBig();
     return v;
   }
 
+  @Override
+  public boolean addAllInIntersection(IntSet other, IntSet filter) {
+    boolean wasEmpty = getValue() == null;
+    if (isTrackingDelta() && !wasEmpty) {
+      recordNewElements(other, filter);
+    }
+    boolean v = super.addAllInIntersection(other, filter);
+    if (v && wasEmpty && isTrackingDelta()) {
+      recordDelta(getValue());
+    }
+    return v;
+  }
+
+  @Override
+  public boolean addAllInIntersection(PointsToSetVariable other, IntSet filter) {
+    // when this variable is empty, the superclass copies other's state directly; otherwise it
+    // delegates to addAllInIntersection(IntSet, IntSet), which records the change itself
+    boolean wasEmpty = getValue() == null;
+    boolean v = super.addAllInIntersection(other, filter);
+    if (v && wasEmpty && isTrackingDelta()) {
+      recordDelta(getValue());
+    }
+    return v;
+  }
+
+  @Override
+  public void remove(int i) {
+    super.remove(i);
+    if (delta != null) {
+      delta.remove(i);
+      if (delta.isEmpty()) {
+        delta = null;
+      }
+    }
+  }
+
+  @Override
+  public void removeAll() {
+    super.removeAll();
+    delta = null;
+  }
+
   /** check that the types of all instance keys are assignable to declared type of pointer key */
   private void checkTypes(IntSet b) {
     assert PARANOID;
@@ -137,8 +260,13 @@ public class PointsToSetVariable extends IntSetVariable<PointsToSetVariable> {
     if (PARANOID) {
       checkTypes(other.getValue());
     }
-    // TODO Auto-generated method stub
+    // when this variable is empty, the superclass copies other's state directly; otherwise it
+    // delegates to addAll(IntSet), which records the change itself
+    boolean wasEmpty = getValue() == null;
     boolean v = super.addAll(other);
+    if (v && wasEmpty && isTrackingDelta()) {
+      recordDelta(getValue());
+    }
     cryIfTooBig();
     return v;
   }
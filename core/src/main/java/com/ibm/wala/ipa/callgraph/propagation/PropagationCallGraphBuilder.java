@@ -45,6 +45,7 @@ import com.ibm.wala.util.intset.IntSet;
 import com.ibm.wala.util.intset.IntSetAction;
 import com.ibm.wala.util.intset.IntSetUtil;
 import com.ibm.wala.util.intset.MutableIntSet;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -212,6 +213,9 @@ public abstract class PropagationCallGraphBuilder implements CallGraphBuilder<In
     system.setMinEquationsForTopSort(options.getMinEquationsForTopSort());
     system.setTopologicalGrowthFactor(options.getTopologicalGrowthFactor());
     system.setMaxEvalBetweenTopo(options.getMaxEvalBetweenTopo());
+    system.setNumberOfSolverThreads(options.getNumberOfSolverThreads());
+    system.setUseDifferencePropagation(options.getUseDifferencePropagation());
+    system.setUseCycleElimination(options.getUseCycleElimination());
 
     discoveredNodes = HashSetFactory.make();
     discoveredNodes.add(callGraph.getFakeRootNode());
@@ -246,6 +250,13 @@ public abstract class PropagationCallGraphBuilder implements CallGraphBuilder<In
     customInit();
 
     solver = makeSolver();
+    solve(monitor);
+
+    return callGraph;
+  }
+
+  /** Run the solver until the call graph and the points-to sets reach a fixed point */
+  private void solve(IProgressMonitor monitor) throws CallGraphBuilderCancelException {
     try {
       solver.solve(monitor);
     } catch (CancelException | CancelRuntimeException e) {
@@ -254,8 +265,25 @@ public abstract class PropagationCallGraphBuilder implements CallGraphBuilder<In
               e, callGraph, system.extractPointerAnalysis(this));
       throw c;
     }
+  }
 
-    return callGraph;
+  /**
+   * Update the call graph built by {@link #makeCallGraph(AnalysisOptions, IProgressMonitor)} after
+   * the interpretation of some nodes changed: add the constraints of the changed nodes again, and
+   * re-solve from the current solution. Constraints added before are kept, so the update only adds
+   * to the call graph and the points-to sets.
+   *
+   * @throws IllegalStateException if no call graph has been built yet
+   */
+  protected void updateFromChangedNodes(Collection<CGNode> changedNodes, IProgressMonitor monitor)
+      throws CallGraphBuilderCancelException {
+    if (solver == null) {
+      throw new IllegalStateException("no call graph has been built yet");
+    }
+    for (CGNode node : changedNodes) {
+      markChanged(node);
+    }
+    solve(monitor);
   }
 
   protected PropagationSystem makeSystem(@SuppressWarnings("unused") AnalysisOptions options) {
@@ -228,6 +228,8 @@ public class PropagationGraph implements IFixedPointSystem<PointsToSetVariable>
     assert getNumberOfStatementsThatDef(p) == 0;
     assert getNumberOfStatementsThatUse(p) == 0;
     delegateGraph.removeNode(p);
+    // so that containsVariable(p) answers false rather than tripping over a stale number
+    p.setGraphNodeId(-1);
   }
 
   private void addImplicitStatement(UnaryStatement<PointsToSetVariable> eq) {
@@ -421,6 +423,17 @@ public class PropagationGraph implements IFixedPointSystem<PointsToSetVariable>
     }
   }
 
+  /**
+   * Rebuild the index of explicitly represented statements. This is needed when the hash code of a
+   * statement changes while it is in the system, as happens to a side effect when its fixed set is
+   * replaced after unification.
+   */
+  void rehashStatements() {
+    List<IFixedPointStatement<PointsToSetVariable>> all = new ArrayList<>(delegateStatements);
+    delegateStatements.clear();
+    delegateStatements.addAll(all);
+  }
+
   @Override
   public void reorder() {
     VariableGraphView graph = new VariableGraphView();
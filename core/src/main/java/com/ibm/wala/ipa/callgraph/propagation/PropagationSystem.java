@@ -21,17 +21,23 @@ import com.ibm.wala.fixpoint.IFixedPointSystem;
 import com.ibm.wala.fixpoint.IVariable;
 import com.ibm.wala.fixpoint.UnaryOperator;
 import com.ibm.wala.fixpoint.UnaryStatement;
+import com.ibm.wala.ipa.callgraph.CGNode;
 import com.ibm.wala.ipa.callgraph.CallGraph;
 import com.ibm.wala.ipa.callgraph.propagation.PropagationCallGraphBuilder.FilterOperator;
 import com.ibm.wala.types.TypeReference;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.MonitorUtil;
+import com.ibm.wala.util.MonitorUtil.IProgressMonitor;
 import com.ibm.wala.util.collections.HashMapFactory;
 import com.ibm.wala.util.collections.HashSetFactory;
 import com.ibm.wala.util.collections.Iterator2Collection;
+import com.ibm.wala.util.collections.Iterator2Iterable;
 import com.ibm.wala.util.collections.MapUtil;
 import com.ibm.wala.util.debug.Assertions;
 import com.ibm.wala.util.debug.VerboseAction;
 import com.ibm.wala.util.graph.Graph;
 import com.ibm.wala.util.graph.NumberedGraph;
+import com.ibm.wala.util.graph.traverse.SCCIterator;
 import com.ibm.wala.util.heapTrace.HeapTracer;
 import com.ibm.wala.util.intset.IntIterator;
 import com.ibm.wala.util.intset.IntSet;
@@ -47,6 +53,11 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /** System of constraints that define propagation for call graph construction */
 public class PropagationSystem extends DefaultFixedPointSolver<PointsToSetVariable> {
@@ -98,6 +109,24 @@ public class PropagationSystem extends DefaultFixedPointSolver<PointsToSetVariab
 
   private int periodicMaintainInterval = DEFAULT_PERIODIC_MAINTENANCE_INTERVAL;
 
+  /** number of threads used to evaluate assignment equations; 1 means sequential solving */
+  private int numberOfSolverThreads = 1;
+
+  /**
+   * minimum number of distinct left-hand sides in a batch of assignments before we bother handing
+   * the batch to the thread pool
+   */
+  private static final int MIN_PARALLEL_BATCH = 64;
+
+  /** should assignments propagate only the instance keys added since their last evaluation? */
+  private boolean differencePropagation = false;
+
+  /** variables whose recently added instance keys have not been propagated yet */
+  private final Set<PointsToSetVariable> pendingDeltas = HashSetFactory.make();
+
+  /** should cycles of assignments be collapsed into a single variable when the system reorders? */
+  private boolean cycleElimination = false;
+
   @SuppressWarnings("unused")
   public PropagationSystem(
       CallGraph cg, PointerKeyFactory pointerKeyFactory, InstanceKeyFactory instanceKeyFactory) {
@@ -255,6 +284,7 @@ public class PropagationSystem extends DefaultFixedPointSolver<PointsToSetVariab
     PointsToSetVariable result = pointsToMap.getPointsToSet(key);
     if (result == null) {
       result = new PointsToSetVariable(key);
+      result.setTrackDelta(differencePropagation);
       pointsToMap.put(key, result);
     } else {
       // check that the filter for this variable remains unique
@@ -355,8 +385,8 @@ public class PropagationSystem extends DefaultFixedPointSolver<PointsToSetVariab
     if (DEBUG) {
       System.err.println("Add constraint A: " + lhs + ' ' + op + ' ' + rhs);
     }
-    assert !pointsToMap.isUnified(lhs);
-    assert !pointsToMap.isUnified(rhs);
+    assert cycleElimination || !pointsToMap.isUnified(lhs);
+    assert cycleElimination || !pointsToMap.isUnified(rhs);
     PointsToSetVariable L = findOrCreatePointsToSet(lhs);
     PointsToSetVariable R = findOrCreatePointsToSet(rhs);
     return newStatement(L, op, new PointsToSetVariable[] {R}, true, true);
@@ -379,9 +409,9 @@ public class PropagationSystem extends DefaultFixedPointSolver<PointsToSetVariab
     if (DEBUG) {
       System.err.println("Add constraint A: " + lhs + ' ' + op + ' ' + rhs1 + ", " + rhs2);
     }
-    assert !pointsToMap.isUnified(lhs);
-    assert !pointsToMap.isUnified(rhs1);
-    assert !pointsToMap.isUnified(rhs2);
+    assert cycleElimination || !pointsToMap.isUnified(lhs);
+    assert cycleElimination || !pointsToMap.isUnified(rhs1);
+    assert cycleElimination || !pointsToMap.isUnified(rhs2);
     PointsToSetVariable L = findOrCreatePointsToSet(lhs);
     PointsToSetVariable R1 = findOrCreatePointsToSet(rhs1);
     PointsToSetVariable R2 = findOrCreatePointsToSet(rhs2);
@@ -548,7 +578,7 @@ public class PropagationSystem extends DefaultFixedPointSolver<PointsToSetVariab
     if (DEBUG) {
       System.err.println("add constraint D: " + op + ' ' + arg0);
     }
-    assert !pointsToMap.isUnified(arg0);
+    assert cycleElimination || !pointsToMap.isUnified(arg0);
     PointsToSetVariable v1 = findOrCreatePointsToSet(arg0);
     newStatement(null, op, v1, true, true);
   }
@@ -562,7 +592,7 @@ public class PropagationSystem extends DefaultFixedPointSolver<PointsToSetVariab
     }
     PointsToSetVariable[] vs = new PointsToSetVariable[arg0.length];
     for (int i = 0; i < arg0.length; i++) {
-      assert !pointsToMap.isUnified(arg0[i]);
+      assert cycleElimination || !pointsToMap.isUnified(arg0[i]);
       vs[i] = findOrCreatePointsToSet(arg0[i]);
     }
     newStatement(null, op, vs, true, true);
@@ -573,8 +603,8 @@ public class PropagationSystem extends DefaultFixedPointSolver<PointsToSetVariab
     if (DEBUG) {
       System.err.println("add constraint D: " + op + ' ' + arg0);
     }
-    assert !pointsToMap.isUnified(arg0);
-    assert !pointsToMap.isUnified(arg1);
+    assert cycleElimination || !pointsToMap.isUnified(arg0);
+    assert cycleElimination || !pointsToMap.isUnified(arg1);
     PointsToSetVariable v1 = findOrCreatePointsToSet(arg0);
     PointsToSetVariable v2 = findOrCreatePointsToSet(arg1);
     newStatement(null, op, v1, v2, true, true);
@@ -585,6 +615,446 @@ public class PropagationSystem extends DefaultFixedPointSolver<PointsToSetVariab
     addAllStatementsToWorkList();
   }
 
+  public int getNumberOfSolverThreads() {
+    return numberOfSolverThreads;
+  }
+
+  /**
+   * @param n number of threads used to evaluate assignment equations; 1 means sequential solving
+   */
+  public void setNumberOfSolverThreads(int n) {
+    if (n < 1) {
+      throw new IllegalArgumentException("invalid number of solver threads: " + n);
+    }
+    numberOfSolverThreads = n;
+  }
+
+  public boolean getUseDifferencePropagation() {
+    return differencePropagation;
+  }
+
+  /**
+   * This must be set before any constraint is added to the system.
+   *
+   * @param differencePropagation if true, an assignment statement whose right-hand side changes
+   *     only adds the instance keys that are new to the right-hand side, rather than all of them
+   */
+  public void setUseDifferencePropagation(boolean differencePropagation) {
+    this.differencePropagation = differencePropagation;
+  }
+
+  public boolean getUseCycleElimination() {
+    return cycleElimination;
+  }
+
+  /**
+   * @param cycleElimination if true, each time the system is re-ordered, variables that lie on a
+   *     cycle of assignments are unified, since they must end up with the same points-to set
+   */
+  public void setUseCycleElimination(boolean cycleElimination) {
+    this.cycleElimination = cycleElimination;
+  }
+
+  /**
+   * Forget the constraints generated from the code of a node, so that they can be generated again
+   * from new code, in which value numbers may have shifted. All statements that use a local of the
+   * node are removed, and so are the points-to sets of its locals other than the parameters, with
+   * the statements that define them. The parameters keep what the callers passed. Instance keys
+   * that flowed out of the node, e.g. into fields, are kept.
+   *
+   * @throws IllegalStateException if cycle elimination is used, since a local of the node may then
+   *     share its points-to set with variables of other nodes
+   */
+  @SuppressWarnings("unchecked")
+  public void removeLocalConstraints(CGNode node) {
+    if (node == null) {
+      throw new IllegalArgumentException("null node");
+    }
+    if (cycleElimination) {
+      throw new IllegalStateException("cannot remove constraints with cycle elimination");
+    }
+    List<LocalPointerKey> locals = new ArrayList<>();
+    for (PointerKey key : Iterator2Iterable.make(pointsToMap.iterateKeys())) {
+      if (key instanceof LocalPointerKey && ((LocalPointerKey) key).getNode().equals(node)) {
+        locals.add((LocalPointerKey) key);
+      }
+    }
+    Set<AbstractStatement> statements = HashSetFactory.make();
+    for (LocalPointerKey key : locals) {
+      if (!pointsToMap.isImplicit(key)) {
+        PointsToSetVariable v = pointsToMap.getPointsToSet(key);
+        statements.addAll(Iterator2Collection.toSet(getStatementsThatUse(v)));
+        if (!key.isParameter()) {
+          statements.addAll(Iterator2Collection.toSet(getStatementsThatDef(v)));
+        }
+      }
+    }
+    for (AbstractStatement s : statements) {
+      flowGraph.removeStatement(s);
+    }
+    for (LocalPointerKey key : locals) {
+      if (!pointsToMap.isImplicit(key)) {
+        PointsToSetVariable v = pointsToMap.getPointsToSet(key);
+        fixedSetMap.remove(v);
+        if (key.isParameter()) {
+          continue;
+        }
+        pendingDeltas.remove(v);
+        if (flowGraph.containsVariable(v)) {
+          flowGraph.removeVariable(v);
+        }
+      }
+      pointsToMap.remove(key);
+    }
+  }
+
+  @Override
+  public boolean emptyWorkList() {
+    return super.emptyWorkList() && pendingDeltas.isEmpty();
+  }
+
+  /**
+   * With difference propagation, assignments that use v are not put back on the worklist; instead
+   * v is queued so that only the instance keys added to v since it was last propagated are pushed
+   * along its outgoing assignments.
+   */
+  @Override
+  public void changedVariable(PointsToSetVariable v) {
+    if (!differencePropagation) {
+      super.changedVariable(v);
+      return;
+    }
+    for (AbstractStatement<?, ?> s : Iterator2Iterable.make(getStatementsThatUse(v))) {
+      if (!(s instanceof AssignEquation)) {
+        addToWorkList(s);
+      }
+    }
+    if (v.hasDelta()) {
+      pendingDeltas.add(v);
+    }
+  }
+
+  @Override
+  protected void beforeReorder(List<AbstractStatement<?, ?>> pending) {
+    if (!cycleElimination) {
+      return;
+    }
+    Collection<PointsToSetVariable> reps = collapseAssignmentCycles();
+    if (reps.isEmpty()) {
+      return;
+    }
+    // unification replaced the statements that mention a unified variable, so drop the stale ones.
+    // The replacements are scheduled below: those that def a representative may stand in for a
+    // pending statement, and those that use one have not seen the contents it absorbed.
+    pending.removeIf(s -> !containsStatement(s));
+    for (PointsToSetVariable rep : reps) {
+      for (AbstractStatement<?, ?> s : Iterator2Iterable.make(getStatementsThatDef(rep))) {
+        pending.add(s);
+      }
+      for (AbstractStatement<?, ?> s : Iterator2Iterable.make(getStatementsThatUse(rep))) {
+        pending.add(s);
+      }
+    }
+  }
+
+  /** every statement of this system is over points-to set variables */
+  @SuppressWarnings("unchecked")
+  private boolean containsStatement(AbstractStatement<?, ?> s) {
+    return flowGraph.containsStatement((AbstractStatement<PointsToSetVariable, ?>) s);
+  }
+
+  /**
+   * Unify the variables on each non-trivial strongly connected component of the assignment graph.
+   *
+   * <p>Variables whose pointer key carries, or may later acquire, a type filter are left alone:
+   * unifying them would impose the filter on every member of the component. Unifying the
+   * remaining members of a component is still sound, since they all have the same solution.
+   *
+   * @return the representative variable of each unified component
+   */
+  private Collection<PointsToSetVariable> collapseAssignmentCycles() {
+    List<Set<PointsToSetVariable>> components = new ArrayList<>();
+    for (Set<PointsToSetVariable> scc :
+        Iterator2Iterable.make(new SCCIterator<>(flowGraph.getAssignmentGraph()))) {
+      if (scc.size() > 1) {
+        scc.removeIf(v -> !isCollapsible(v.getPointerKey()));
+        if (scc.size() > 1) {
+          components.add(scc);
+        }
+      }
+    }
+
+    List<PointsToSetVariable> reps = new ArrayList<>(components.size());
+    boolean rehash = false;
+    for (Set<PointsToSetVariable> scc : components) {
+      MutableIntSet members = IntSetUtil.make();
+      for (PointsToSetVariable v : scc) {
+        members.add(pointsToMap.getIndex(v.getPointerKey()));
+      }
+      rehash |= unifyVariables(members);
+      PointsToSetVariable rep = pointsToMap.getPointsToSet(members.intIterator().next());
+      for (PointsToSetVariable v : scc) {
+        if (v != rep) {
+          pendingDeltas.remove(v);
+        }
+      }
+      reps.add(rep);
+    }
+    if (rehash) {
+      flowGraph.rehashStatements();
+    }
+    return reps;
+  }
+
+  private static boolean isCollapsible(PointerKey key) {
+    if (key instanceof FilteredPointerKey || key instanceof ReturnValueKey) {
+      return false;
+    }
+    // the callee side of a call may later look up a parameter with a type filter
+    return !(key instanceof LocalPointerKey) || !((LocalPointerKey) key).isParameter();
+  }
+
+  @Override
+  public boolean solve(IProgressMonitor monitor) throws CancelException {
+    if (numberOfSolverThreads <= 1) {
+      return differencePropagation ? solveWithDeltas(monitor) : super.solve(monitor);
+    }
+    ExecutorService pool = Executors.newFixedThreadPool(numberOfSolverThreads);
+    try {
+      return solveInBatches(pool, monitor);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Sequential worklist loop for difference propagation. Pending deltas are pushed before the next
+   * statement is evaluated, so that complex statements see copies that are as complete as
+   * possible.
+   */
+  private boolean solveWithDeltas(IProgressMonitor monitor) throws CancelException {
+    boolean globalChange = false;
+
+    if (isFirstSolve()) {
+      initForFirstSolve();
+    }
+
+    while (!workList.isEmpty() || !pendingDeltas.isEmpty()) {
+      MonitorUtil.throwExceptionIfCanceled(monitor);
+      if (!pendingDeltas.isEmpty()) {
+        Iterator<PointsToSetVariable> it = pendingDeltas.iterator();
+        PointsToSetVariable v = it.next();
+        it.remove();
+        globalChange |= propagateDelta(v);
+      } else {
+        orderStatements();
+        globalChange |= evaluate(workList.takeStatement());
+      }
+    }
+    return globalChange;
+  }
+
+  /**
+   * Add the instance keys recently added to v to the left-hand side of each assignment using v.
+   *
+   * @return true iff some variable changed
+   */
+  private boolean propagateDelta(PointsToSetVariable v) {
+    MutableIntSet delta = v.takeDelta();
+    if (delta == null) {
+      return false;
+    }
+    boolean changed = false;
+    for (AbstractStatement<?, ?> s : Iterator2Iterable.make(getStatementsThatUse(v))) {
+      if (s instanceof AssignEquation) {
+        PointsToSetVariable lhs = ((AssignEquation) s).getLHS();
+        incNumberOfEvaluations();
+        if (lhs.addAll(delta)) {
+          changed = true;
+          changedVariable(lhs);
+        }
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * Evaluate a statement taken from the worklist and update the worklist accordingly.
+   *
+   * @return true iff the statement changed its left-hand side
+   */
+  @SuppressWarnings("unchecked")
+  private boolean evaluate(AbstractStatement<?, ?> s) {
+    byte code = s.evaluate();
+    incNumberOfEvaluations();
+    boolean changed = isChanged(code);
+    if (changed && s.getLHS() != null) {
+      changedVariable((PointsToSetVariable) s.getLHS());
+    }
+    if (isFixed(code)) {
+      removeStatement((AbstractStatement<PointsToSetVariable, ?>) s);
+    }
+    return changed;
+  }
+
+  /**
+   * Multi-threaded variant of the worklist loop.
+   *
+   * <p>Each round drains the worklist. The {@link AssignEquation}s in the batch, which dominate
+   * most pointer analyses, are grouped by left-hand side and evaluated in two parallel phases: the
+   * first only reads points-to sets and computes, for each left-hand side, the bits it is missing;
+   * the second only writes, each left-hand side being owned by exactly one task. Neither phase
+   * needs locks on the variables. With difference propagation, the pending deltas are drained into
+   * the same groups. All other statements may call back into the builder, so they are evaluated
+   * sequentially afterwards, in worklist order.
+   *
+   * <p>Batch contents and the order in which changes are pushed back to the worklist do not depend
+   * on thread scheduling, so the computed solution (including call graph node numbering) is the
+   * same for any number of threads.
+   */
+  private boolean solveInBatches(ExecutorService pool, IProgressMonitor monitor)
+      throws CancelException {
+    boolean globalChange = false;
+
+    if (isFirstSolve()) {
+      initForFirstSolve();
+    }
+
+    while (!workList.isEmpty() || !pendingDeltas.isEmpty()) {
+      MonitorUtil.throwExceptionIfCanceled(monitor);
+      orderStatements();
+
+      // map from left-hand side to the sets that must be added to it
+      Map<PointsToSetVariable, List<IntSet>> sources = HashMapFactory.make();
+      for (PointsToSetVariable v : pendingDeltas) {
+        MutableIntSet delta = v.takeDelta();
+        if (delta != null) {
+          for (AbstractStatement<?, ?> s : Iterator2Iterable.make(getStatementsThatUse(v))) {
+            if (s instanceof AssignEquation) {
+              PointsToSetVariable lhs = ((AssignEquation) s).getLHS();
+              sources.computeIfAbsent(lhs, k -> new ArrayList<>()).add(delta);
+              incNumberOfEvaluations();
+            }
+          }
+        }
+      }
+      pendingDeltas.clear();
+      List<AbstractStatement<?, ?>> others = new ArrayList<>();
+      while (!workList.isEmpty()) {
+        AbstractStatement<?, ?> s = workList.takeStatement();
+        if (s instanceof AssignEquation) {
+          AssignEquation a = (AssignEquation) s;
+          IntSet rhs = a.getRightHandSide().getValue();
+          if (rhs != null) {
+            sources.computeIfAbsent(a.getLHS(), k -> new ArrayList<>()).add(rhs);
+          }
+          incNumberOfEvaluations();
+        } else {
+          others.add(s);
+        }
+      }
+
+      if (!sources.isEmpty()) {
+        List<PointsToSetVariable> lhss = new ArrayList<>(sources.keySet());
+        MutableIntSet[] deltas = new MutableIntSet[lhss.size()];
+        runPartitioned(
+            pool,
+            lhss.size(),
+            i -> deltas[i] = computeMissingBits(lhss.get(i), sources.get(lhss.get(i))));
+        runPartitioned(
+            pool,
+            lhss.size(),
+            i -> {
+              if (deltas[i] != null && !lhss.get(i).addAll(deltas[i])) {
+                deltas[i] = null;
+              }
+            });
+        for (int i = 0; i < lhss.size(); i++) {
+          if (deltas[i] != null) {
+            globalChange = true;
+            changedVariable(lhss.get(i));
+          }
+        }
+      }
+
+      for (AbstractStatement<?, ?> s : others) {
+        globalChange |= evaluate(s);
+      }
+    }
+    return globalChange;
+  }
+
+  /**
+   * @return the elements of the given sets that are not yet in lhs, or null if there are none.
+   *     Does not modify any variable.
+   */
+  private static MutableIntSet computeMissingBits(PointsToSetVariable lhs, List<IntSet> sources) {
+    MutableIntSet result = null;
+    IntSet current = lhs.getValue();
+    for (IntSet rhs : sources) {
+      if (rhs.isEmpty()) {
+        continue;
+      }
+      if (result == null) {
+        result = IntSetUtil.getDefaultIntSetFactory().make();
+      }
+      if (current == null) {
+        result.addAll(rhs);
+      } else {
+        rhs.foreachExcluding(current, result::add);
+      }
+    }
+    return result == null || result.isEmpty() ? null : result;
+  }
+
+  private interface IndexedTask {
+    void run(int i);
+  }
+
+  /**
+   * Run task on each index in [0, n), splitting the range in contiguous chunks, one per solver
+   * thread. Small ranges are run on the calling thread.
+   */
+  private void runPartitioned(ExecutorService pool, int n, IndexedTask task)
+      throws CancelException {
+    if (n < MIN_PARALLEL_BATCH) {
+      for (int i = 0; i < n; i++) {
+        task.run(i);
+      }
+      return;
+    }
+    int chunk = (n + numberOfSolverThreads - 1) / numberOfSolverThreads;
+    List<Callable<Object>> tasks = new ArrayList<>(numberOfSolverThreads);
+    for (int start = 0; start < n; start += chunk) {
+      final int from = start;
+      final int to = Math.min(n, start + chunk);
+      tasks.add(
+          () -> {
+            for (int i = from; i < to; i++) {
+              task.run(i);
+            }
+            return null;
+          });
+    }
+    try {
+      for (Future<Object> f : pool.invokeAll(tasks)) {
+        f.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw CancelException.make("interrupted while solving");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      } else {
+        throw new IllegalStateException(cause);
+      }
+    }
+  }
+
   /**
    * @return an object that encapsulates the pointer analysis results
    */
@@ -745,6 +1215,19 @@ public class PropagationSystem extends DefaultFixedPointSolver<PointsToSetVariab
     if (s == null) {
       throw new IllegalArgumentException("s is null");
     }
+    if (unifyVariables(s)) {
+      flowGraph.rehashStatements();
+    }
+  }
+
+  /**
+   * Unify the points-to-sets for the variables identified by the set s, without rebuilding the
+   * statement index of the flow graph
+   *
+   * @return true iff the fixed set of some side effect changed, so that the statement index must
+   *     be rebuilt
+   */
+  private boolean unifyVariables(IntSet s) {
     // cache the variables represented
     HashSet<PointsToSetVariable> cache = HashSetFactory.make(s.size());
     for (IntIterator it = s.intIterator(); it.hasNext(); ) {
@@ -759,8 +1242,14 @@ public class PropagationSystem extends DefaultFixedPointSolver<PointsToSetVariab
     // clean up the equations
     updateEquationsForUnification(cache, rep);
 
-    // special logic to clean up side effects
+    // special logic to clean up side effects; these hash on their fixed set
+    PointsToSetVariable pRef = pointsToMap.getPointsToSet(rep);
+    boolean fixedSetChanged = false;
+    for (PointsToSetVariable p : cache) {
+      fixedSetChanged |= p != pRef && fixedSetMap.containsKey(p);
+    }
     updateSideEffectsForUnification(cache, rep);
+    return fixedSetChanged;
   }
 
   /**
@@ -27,28 +27,33 @@ import com.ibm.wala.fixpoint.AbstractOperator;
 import com.ibm.wala.fixpoint.IVariable;
 import com.ibm.wala.ipa.callgraph.AnalysisOptions;
 import com.ibm.wala.ipa.callgraph.CGNode;
+import com.ibm.wala.ipa.callgraph.CallGraphBuilderCancelException;
 import com.ibm.wala.ipa.callgraph.ContextKey;
 import com.ibm.wala.ipa.callgraph.ContextSelector;
 import com.ibm.wala.ipa.callgraph.Entrypoint;
 import com.ibm.wala.ipa.callgraph.IAnalysisCacheView;
 import com.ibm.wala.ipa.callgraph.impl.AbstractRootMethod;
 import com.ibm.wala.ipa.callgraph.impl.DefaultEntrypoint;
+import com.ibm.wala.ipa.callgraph.impl.Everywhere;
 import com.ibm.wala.ipa.callgraph.impl.ExplicitCallGraph;
 import com.ibm.wala.ipa.cha.IClassHierarchy;
 import com.ibm.wala.shrike.shrikeBT.ConditionalBranchInstruction;
 import com.ibm.wala.shrike.shrikeBT.IInvokeInstruction;
 import com.ibm.wala.ssa.DefUse;
+import com.ibm.wala.ssa.IR;
 import com.ibm.wala.ssa.IRView;
 import com.ibm.wala.ssa.ISSABasicBlock;
 import com.ibm.wala.ssa.SSAAbstractInvokeInstruction;
 import com.ibm.wala.ssa.SSAAbstractThrowInstruction;
 import com.ibm.wala.ssa.SSAArrayLoadInstruction;
+import com.ibm.wala.ssa.SSAArrayReferenceInstruction;
 import com.ibm.wala.ssa.SSAArrayStoreInstruction;
 import com.ibm.wala.ssa.SSACFG;
 import com.ibm.wala.ssa.SSACFG.BasicBlock;
 import com.ibm.wala.ssa.SSACFG.ExceptionHandlerBasicBlock;
 import com.ibm.wala.ssa.SSACheckCastInstruction;
 import com.ibm.wala.ssa.SSAConditionalBranchInstruction;
+import com.ibm.wala.ssa.SSAFieldAccessInstruction;
 import com.ibm.wala.ssa.SSAGetCaughtExceptionInstruction;
 import com.ibm.wala.ssa.SSAGetInstruction;
 import com.ibm.wala.ssa.SSAInstanceofInstruction;
@@ -69,6 +74,7 @@ import com.ibm.wala.types.TypeReference;
 import com.ibm.wala.util.CancelException;
 import com.ibm.wala.util.MonitorUtil;
 import com.ibm.wala.util.MonitorUtil.IProgressMonitor;
+import com.ibm.wala.util.collections.HashMapFactory;
 import com.ibm.wala.util.collections.HashSetFactory;
 import com.ibm.wala.util.collections.Iterator2Iterable;
 import com.ibm.wala.util.debug.Assertions;
@@ -85,6 +91,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 
@@ -149,6 +156,12 @@ public abstract class SSAPropagationCallGraphBuilder extends PropagationCallGrap
 
   public IProgressMonitor monitor;
 
+  /**
+   * For incremental updates: a fingerprint of the instructions from which the constraints of each
+   * node were generated, or null if we do not support incremental updates
+   */
+  private Map<CGNode, int[]> instructionFingerprints;
+
   protected SSAPropagationCallGraphBuilder(
       IMethod abstractRootMethod,
       AnalysisOptions options,
@@ -158,6 +171,212 @@ public abstract class SSAPropagationCallGraphBuilder extends PropagationCallGrap
     // this.usePreTransitiveSolver = options.usePreTransitiveSolver();
   }
 
+  /**
+   * Should this builder support {@link #updateCallGraph(Collection, IProgressMonitor)}? This must
+   * be set before the call graph is built, since it makes the builder keep a fingerprint of the
+   * instructions of each node.
+   */
+  public void setIncrementalMode(boolean incremental) {
+    instructionFingerprints = incremental ? HashMapFactory.make() : null;
+  }
+
+  public boolean isIncrementalMode() {
+    return instructionFingerprints != null;
+  }
+
+  /**
+   * Update the call graph after the code of some methods changed, re-solving only from the nodes of
+   * those methods. This requires {@link #setIncrementalMode(boolean) incremental mode}.
+   *
+   * <p>Changed methods are matched to nodes by their {@link MethodReference}, so a changed method
+   * may be a new version of a method of the class hierarchy of this builder, e.g. one of a class
+   * that was loaded again into a new class hierarchy. The nodes of a changed method are pointed at
+   * the new version; the constraints generated from the old code of the nodes are removed, and
+   * those of the new code are added, see {@link PropagationSystem#removeLocalConstraints(CGNode)}.
+   * Nodes created later for a changed method use the new version too.
+   *
+   * <p>Since points-to sets and call targets outside of the changed nodes are kept, the update is
+   * only done if each changed node still has all the instructions it had before, as happens when
+   * calls, allocations, or new entrypoints are added. Instance keys of allocation sites whose
+   * program counters were shifted by the new code are kept too, next to the new ones. The update is
+   * not done either if the new code refers to classes, methods or fields that only the class
+   * hierarchy of the new version has, if a changed method is not in the class hierarchy of this
+   * builder, or if cycle elimination is used. Otherwise nothing is changed, and the call graph must
+   * be rebuilt from scratch by a new builder.
+   *
+   * @param changedMethods methods whose code changed; cached IRs and def-uses of all methods with
+   *     the same references are discarded, so that a rebuild with the same cache sees the new code
+   * @return true if the call graph was updated, false if it must be rebuilt
+   * @throws IllegalStateException if not in incremental mode, or if no call graph was built yet
+   */
+  public boolean updateCallGraph(
+      Collection<? extends IMethod> changedMethods, IProgressMonitor monitor)
+      throws CallGraphBuilderCancelException {
+    if (changedMethods == null) {
+      throw new IllegalArgumentException("changedMethods is null");
+    }
+    if (instructionFingerprints == null) {
+      throw new IllegalStateException("not in incremental mode");
+    }
+    if (system == null) {
+      throw new IllegalStateException("no call graph has been built yet");
+    }
+    boolean rebuild = system.getUseCycleElimination();
+    // the methods the changed ones replace
+    List<IMethod> replaced = new ArrayList<>();
+    for (IMethod m : changedMethods) {
+      // methods of a reloaded class are equal to the old ones, so these also drop the old IRs
+      getAnalysisCache().invalidate(m, Everywhere.EVERYWHERE);
+      Set<CGNode> nodes = callGraph.getNodes(m.getReference());
+      IMethod old =
+          nodes.isEmpty()
+              ? getClassHierarchy().resolveMethod(m.getReference())
+              : nodes.iterator().next().getMethod();
+      if (old == null || !old.equals(m)) {
+        rebuild = true;
+      }
+      for (CGNode node : nodes) {
+        getAnalysisCache().invalidate(node.getMethod(), node.getContext());
+        if (!node.getMethod().equals(m)) {
+          rebuild = true;
+        }
+      }
+      replaced.add(old);
+    }
+    if (rebuild) {
+      return false;
+    }
+    List<CGNode> changedNodes = new ArrayList<>();
+    for (IMethod m : changedMethods) {
+      changedNodes.addAll(callGraph.replaceMethod(m));
+    }
+    // check all nodes before changing anything else
+    for (CGNode node : changedNodes) {
+      int[] before = instructionFingerprints.get(node);
+      IR ir = getCFAContextInterpreter().getIR(node);
+      if ((before != null && (ir == null || !includes(fingerprint(ir), before)))
+          || (ir != null && !resolvesLikeOwnHierarchy(ir, node.getMethod().getClassHierarchy()))) {
+        for (IMethod old : replaced) {
+          getAnalysisCache().invalidate(old, Everywhere.EVERYWHERE);
+          for (CGNode n : callGraph.replaceMethod(old)) {
+            getAnalysisCache().invalidate(n.getMethod(), n.getContext());
+          }
+        }
+        return false;
+      }
+    }
+    for (CGNode node : changedNodes) {
+      // call sites are keyed by program counters, which the new code may have shifted
+      ((ExplicitCallGraph.ExplicitNode) node).clearAllTargets();
+      system.removeLocalConstraints(node);
+    }
+    updateFromChangedNodes(changedNodes, monitor);
+    return true;
+  }
+
+  /**
+   * @return false if an instruction of ir refers to a class, method or field that cha has but the
+   *     class hierarchy of this builder does not, e.g. because it was added along with ir
+   */
+  private boolean resolvesLikeOwnHierarchy(IR ir, IClassHierarchy cha) {
+    if (cha == getClassHierarchy()) {
+      return true;
+    }
+    for (SSAInstruction s : Iterator2Iterable.make(ir.iterateAllInstructions())) {
+      List<TypeReference> types = new ArrayList<>();
+      if (s instanceof SSAAbstractInvokeInstruction) {
+        MethodReference target = ((SSAAbstractInvokeInstruction) s).getDeclaredTarget();
+        if (getClassHierarchy().resolveMethod(target) == null
+            && cha.resolveMethod(target) != null) {
+          return false;
+        }
+      } else if (s instanceof SSAFieldAccessInstruction) {
+        FieldReference field = ((SSAFieldAccessInstruction) s).getDeclaredField();
+        if (getClassHierarchy().resolveField(field) == null && cha.resolveField(field) != null) {
+          return false;
+        }
+      } else if (s instanceof SSANewInstruction) {
+        types.add(((SSANewInstruction) s).getConcreteType());
+      } else if (s instanceof SSACheckCastInstruction) {
+        types.addAll(Arrays.asList(((SSACheckCastInstruction) s).getDeclaredResultTypes()));
+      } else if (s instanceof SSAInstanceofInstruction) {
+        types.add(((SSAInstanceofInstruction) s).getCheckedType());
+      }
+      for (TypeReference type : types) {
+        if (getClassHierarchy().lookupClass(type) == null && cha.lookupClass(type) != null) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return sorted hash codes of the instructions of ir. An instruction is described by its kind,
+   *     the types, fields and methods it refers to, and the values of the constants it uses, but
+   *     not by its value numbers or bytecode index, which code added before it may shift.
+   */
+  private static int[] fingerprint(IR ir) {
+    SymbolTable symbolTable = ir.getSymbolTable();
+    List<String> instructions = new ArrayList<>();
+    for (SSAInstruction s : Iterator2Iterable.make(ir.iterateAllInstructions())) {
+      if (s != null) {
+        instructions.add(describe(s, symbolTable));
+      }
+    }
+    int[] result = new int[instructions.size()];
+    Arrays.setAll(result, i -> instructions.get(i).hashCode());
+    Arrays.sort(result);
+    return result;
+  }
+
+  private static String describe(SSAInstruction s, SymbolTable symbolTable) {
+    StringBuilder result = new StringBuilder(s.getClass().getName());
+    if (s instanceof SSAAbstractInvokeInstruction) {
+      SSAAbstractInvokeInstruction call = (SSAAbstractInvokeInstruction) s;
+      result.append(' ').append(call.getCallSite().getInvocationCode());
+      result.append(' ').append(call.getDeclaredTarget());
+    } else if (s instanceof SSANewInstruction) {
+      result.append(' ').append(((SSANewInstruction) s).getConcreteType());
+    } else if (s instanceof SSAFieldAccessInstruction) {
+      result.append(' ').append(((SSAFieldAccessInstruction) s).getDeclaredField());
+    } else if (s instanceof SSACheckCastInstruction) {
+      TypeReference[] types = ((SSACheckCastInstruction) s).getDeclaredResultTypes();
+      result.append(' ').append(Arrays.toString(types));
+    } else if (s instanceof SSAInstanceofInstruction) {
+      result.append(' ').append(((SSAInstanceofInstruction) s).getCheckedType());
+    } else if (s instanceof SSAArrayReferenceInstruction) {
+      result.append(' ').append(((SSAArrayReferenceInstruction) s).getElementType());
+    } else if (s instanceof SSALoadMetadataInstruction) {
+      result.append(' ').append(((SSALoadMetadataInstruction) s).getToken());
+    }
+    result.append(' ').append(s.getNumberOfUses());
+    for (int i = 0; i < s.getNumberOfUses(); i++) {
+      int use = s.getUse(i);
+      if (use > 0 && symbolTable.isConstant(use)) {
+        result.append(' ').append(i).append('=').append(symbolTable.getConstantValue(use));
+      }
+    }
+    return result.toString();
+  }
+
+  /**
+   * @return true iff the sorted array sub is included, as a multiset, in the sorted array sup
+   */
+  private static boolean includes(int[] sup, int[] sub) {
+    int i = 0;
+    for (int x : sub) {
+      while (i < sup.length && sup[i] < x) {
+        i++;
+      }
+      if (i == sup.length || sup[i] != x) {
+        return false;
+      }
+      i++;
+    }
+    return true;
+  }
+
   public SSAContextInterpreter getCFAContextInterpreter() {
     return (SSAContextInterpreter) getContextInterpreter();
   }
@@ -223,6 +442,13 @@ public abstract class SSAPropagationCallGraphBuilder extends PropagationCallGrap
       return false;
     }
 
+    if (instructionFingerprints != null) {
+      IR fullIR = getCFAContextInterpreter().getIR(node);
+      if (fullIR != null) {
+        instructionFingerprints.put(node, fingerprint(fullIR));
+      }
+    }
+
     addNodeInstructionConstraints(node, monitor);
 
     addNodeValueConstraints(node, monitor);
@@ -15,6 +15,8 @@ import com.ibm.wala.classLoader.ClassLoaderFactoryImpl;
 import com.ibm.wala.classLoader.Language;
 import com.ibm.wala.ipa.callgraph.AnalysisScope;
 import com.ibm.wala.util.MonitorUtil.IProgressMonitor;
+import java.io.File;
+import java.io.IOException;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -30,6 +32,71 @@ public class ClassHierarchyFactory {
     return make(scope, new ClassLoaderFactoryImpl(scope.getExclusions()));
   }
 
+  /**
+   * Like {@link #make(AnalysisScope)}, but the class files of each loader are parsed by nThreads
+   * threads. The classes are then linked into the hierarchy sequentially, so the result is the same
+   * as that of {@link #make(AnalysisScope)}.
+   *
+   * @param nThreads number of threads used to parse class files
+   * @return a ClassHierarchy object representing the analysis scope
+   * @throws IllegalArgumentException if nThreads &lt; 1
+   */
+  public static ClassHierarchy makeParallel(AnalysisScope scope, int nThreads)
+      throws ClassHierarchyException {
+    if (scope == null) {
+      throw new IllegalArgumentException("null scope");
+    }
+    return make(scope, new ClassLoaderFactoryImpl(scope.getExclusions(), nThreads));
+  }
+
+  /**
+   * Like {@link #make(AnalysisScope)}, but only the header of each class file is read up front; the
+   * fields and methods of a class are read when first asked for. This saves time and memory when
+   * an analysis touches only a small part of the classes in scope, e.g. of the JDK.
+   *
+   * @return a ClassHierarchy object representing the analysis scope
+   * @see com.ibm.wala.classLoader.ClassLoaderImpl#setLazy(boolean)
+   */
+  public static ClassHierarchy makeLazy(AnalysisScope scope) throws ClassHierarchyException {
+    if (scope == null) {
+      throw new IllegalArgumentException("null scope");
+    }
+    return make(scope, new ClassLoaderFactoryImpl(scope.getExclusions(), 1, null, true));
+  }
+
+  /**
+   * Like {@link #make(AnalysisScope)}, but reuse a {@link ClassHierarchySnapshot} kept in
+   * snapshotFile: the classes of the modules that did not change since the snapshot was written are
+   * created from the snapshot, without parsing their class files. If there is no usable snapshot,
+   * or if some modules changed, a new snapshot of the result is written to snapshotFile.
+   *
+   * @return a ClassHierarchy object representing the analysis scope
+   * @throws IOException if the snapshot cannot be written
+   */
+  public static ClassHierarchy makeWithSnapshot(AnalysisScope scope, File snapshotFile)
+      throws ClassHierarchyException, IOException {
+    if (scope == null) {
+      throw new IllegalArgumentException("null scope");
+    }
+    if (snapshotFile == null) {
+      throw new IllegalArgumentException("null snapshotFile");
+    }
+    ClassHierarchySnapshot snapshot = null;
+    if (snapshotFile.exists()) {
+      try {
+        snapshot = ClassHierarchySnapshot.read(snapshotFile);
+      } catch (IOException e) {
+        // unreadable or out of date; build without it, and replace it
+      }
+    }
+    ClassHierarchy cha =
+        make(scope, new ClassLoaderFactoryImpl(scope.getExclusions(), 1, snapshot));
+    if (snapshot == null || !snapshot.getStaleModules(scope).isEmpty()) {
+      ClassHierarchySnapshot.write(cha, snapshotFile);
+    }
+    return cha;
+  }
+
   /**
    * NOTE: phantom classes are a work-in-progress and this functionality has <a
    * href="https://github.com/wala/WALA/pull/335">known bugs</a>. At this point, we recommend using
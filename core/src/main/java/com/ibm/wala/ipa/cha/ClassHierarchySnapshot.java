@@ -0,0 +1,493 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.ipa.cha;
+
+import com.ibm.wala.classLoader.ClassLoaderImpl;
+import com.ibm.wala.classLoader.FileModule;
+import com.ibm.wala.classLoader.IClass;
+import com.ibm.wala.classLoader.IClassLoader;
+import com.ibm.wala.classLoader.JarFileModule;
+import com.ibm.wala.classLoader.Module;
+import com.ibm.wala.classLoader.ModuleEntry;
+import com.ibm.wala.classLoader.ShrikeClass;
+import com.ibm.wala.ipa.callgraph.AnalysisScope;
+import com.ibm.wala.shrike.shrikeCT.ClassReader;
+import com.ibm.wala.shrike.shrikeCT.InvalidClassFileException;
+import com.ibm.wala.types.ClassLoaderReference;
+import com.ibm.wala.util.collections.HashMapFactory;
+import com.ibm.wala.util.collections.HashSetFactory;
+import com.ibm.wala.util.collections.Iterator2Iterable;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A compact binary snapshot of the classes of a {@link ClassHierarchy}. For each module of the
+ * analysis scope, the snapshot records a hash of the module's contents, and the names, modifiers
+ * and supertypes of the classes loaded from it.
+ *
+ * <p>A {@link ClassLoaderImpl} given a snapshot creates the classes of each module whose contents
+ * are unchanged from the snapshot, without reading their class files until more than their
+ * supertypes is asked for. Modules that changed, or that are not in the snapshot, are read as
+ * usual. See {@link ClassHierarchyFactory#makeWithSnapshot(AnalysisScope, File)}.
+ *
+ * <p>A module that is a file is taken to be unchanged if its size and modification time are those
+ * recorded in the snapshot; only otherwise is its contents hashed. Snapshot files are
+ * memory-mapped when read, and strings are only decoded when they are asked for.
+ */
+public class ClassHierarchySnapshot {
+
+  private static final int MAGIC = 0x57414c41;
+
+  private static final int VERSION = 2;
+
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+
+  /** the contents of the snapshot file */
+  private final ByteBuffer buffer;
+
+  /** offset in buffer of each string of the string table */
+  private final int[] stringOffsets;
+
+  /** the strings of the string table decoded so far */
+  private final String[] strings;
+
+  /** loader name -&gt; module key -&gt; offset in buffer of the module */
+  private final Map<String, Map<String, Integer>> modules = HashMapFactory.make();
+
+  /** content hashes computed so far */
+  private final Map<Module, byte[]> hashes = new IdentityHashMap<>();
+
+  private ClassHierarchySnapshot(ByteBuffer buffer) throws IOException {
+    this.buffer = buffer;
+    try {
+      if (buffer.getInt() != MAGIC) {
+        throw new IOException("not a class hierarchy snapshot");
+      }
+      if (buffer.getInt() != VERSION) {
+        throw new IOException("unsupported class hierarchy snapshot version");
+      }
+      int nStrings = buffer.getInt();
+      stringOffsets = new int[nStrings];
+      strings = new String[nStrings];
+      for (int i = 0; i < nStrings; i++) {
+        stringOffsets[i] = buffer.position();
+        int length = buffer.getInt();
+        buffer.position(buffer.position() + length);
+      }
+      int nLoaders = buffer.getInt();
+      for (int i = 0; i < nLoaders; i++) {
+        Map<String, Integer> loaderModules = HashMapFactory.make();
+        modules.put(string(buffer.getInt()), loaderModules);
+        int nModules = buffer.getInt();
+        for (int j = 0; j < nModules; j++) {
+          loaderModules.put(string(buffer.getInt()), buffer.position());
+          skipModule();
+        }
+      }
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      throw new IOException("corrupt class hierarchy snapshot", e);
+    }
+  }
+
+  /** skip the module at the current position of buffer, after its key */
+  private void skipModule() {
+    // size, modification time
+    buffer.position(buffer.position() + 16);
+    int hashLength = buffer.getInt();
+    buffer.position(buffer.position() + hashLength);
+    int nClasses = buffer.getInt();
+    for (int i = 0; i < nClasses; i++) {
+      // name, super, modifiers
+      buffer.position(buffer.position() + 12);
+      int nInterfaces = buffer.getInt();
+      buffer.position(buffer.position() + 4 * nInterfaces);
+    }
+  }
+
+  private synchronized String string(int i) {
+    if (i == -1) {
+      return null;
+    }
+    String result = strings[i];
+    if (result == null) {
+      int offset = stringOffsets[i];
+      byte[] bytes = new byte[buffer.getInt(offset)];
+      ByteBuffer b = buffer.duplicate();
+      b.position(offset + 4);
+      b.get(bytes);
+      result = strings[i] = new String(bytes, StandardCharsets.UTF_8);
+    }
+    return result;
+  }
+
+  /**
+   * Read a snapshot written by {@link #write(IClassHierarchy, File)}.
+   *
+   * @throws IOException if the file cannot be read, or is not a valid snapshot
+   */
+  public static ClassHierarchySnapshot read(File file) throws IOException {
+    if (file == null) {
+      throw new IllegalArgumentException("file is null");
+    }
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      // the mapping stays valid after the channel is closed
+      return new ClassHierarchySnapshot(
+          channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Write a snapshot of the classes that the {@link ClassLoaderImpl}s of cha loaded from the
+   * modules of its analysis scope. The file is replaced atomically, so a snapshot that is still
+   * mapped from the same file is not disturbed.
+   */
+  public static void write(IClassHierarchy cha, File file) throws IOException {
+    if (cha == null) {
+      throw new IllegalArgumentException("cha is null");
+    }
+    if (file == null) {
+      throw new IllegalArgumentException("file is null");
+    }
+    Map<String, Integer> stringIndex = HashMapFactory.make();
+    List<String> stringTable = new ArrayList<>();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream body = new DataOutputStream(bytes);
+
+    List<ClassLoaderImpl> loaders = new ArrayList<>();
+    for (IClassLoader loader : cha.getLoaders()) {
+      if (loader instanceof ClassLoaderImpl) {
+        loaders.add((ClassLoaderImpl) loader);
+      }
+    }
+    body.writeInt(loaders.size());
+    for (ClassLoaderImpl loader : loaders) {
+      List<Module> loaderModules = cha.getScope().getModules(loader.getReference());
+      body.writeInt(index(loader.getReference().getName().toString(), stringIndex, stringTable));
+      body.writeInt(loaderModules.size());
+      for (Module module : loaderModules) {
+        body.writeInt(index(moduleKey(module), stringIndex, stringTable));
+        File moduleFile = moduleFile(module);
+        body.writeLong(moduleFile == null ? -1 : moduleFile.length());
+        body.writeLong(moduleFile == null ? -1 : moduleFile.lastModified());
+        byte[] hash = contentHash(module);
+        body.writeInt(hash.length);
+        body.write(hash);
+        List<ShrikeClass> classes = new ArrayList<>();
+        for (IClass klass : loader.getClasses(module)) {
+          if (klass instanceof ShrikeClass) {
+            classes.add((ShrikeClass) klass);
+          }
+        }
+        body.writeInt(classes.size());
+        for (ShrikeClass klass : classes) {
+          writeClass(klass, body, stringIndex, stringTable);
+        }
+      }
+    }
+    body.flush();
+
+    Path target = file.getAbsoluteFile().toPath();
+    Path tmp = Files.createTempFile(target.getParent(), file.getName(), ".tmp");
+    try {
+      try (OutputStream s = Files.newOutputStream(tmp);
+          DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(stringTable.size());
+        for (String str : stringTable) {
+          byte[] b = str.getBytes(StandardCharsets.UTF_8);
+          out.writeInt(b.length);
+          out.write(b);
+        }
+        bytes.writeTo(out);
+      }
+      Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  private static void writeClass(
+      ShrikeClass klass,
+      DataOutputStream out,
+      Map<String, Integer> stringIndex,
+      List<String> stringTable)
+      throws IOException {
+    ClassReader reader = klass.getReader();
+    try {
+      out.writeInt(index(reader.getName(), stringIndex, stringTable));
+      String superName = reader.getSuperName();
+      out.writeInt(superName == null ? -1 : index(superName, stringIndex, stringTable));
+      out.writeInt(reader.getAccessFlags());
+      String[] interfaceNames = reader.getInterfaceNames();
+      out.writeInt(interfaceNames.length);
+      for (String i : interfaceNames) {
+        out.writeInt(index(i, stringIndex, stringTable));
+      }
+    } catch (InvalidClassFileException e) {
+      throw new IOException("cannot read class file of " + klass, e);
+    }
+  }
+
+  private static int index(String s, Map<String, Integer> stringIndex, List<String> stringTable) {
+    Integer result = stringIndex.get(s);
+    if (result == null) {
+      result = stringTable.size();
+      stringIndex.put(s, result);
+      stringTable.add(s);
+    }
+    return result;
+  }
+
+  /** @return a key that identifies module across runs */
+  private static String moduleKey(Module module) {
+    if (module instanceof FileModule) {
+      return module.getClass().getName() + ':' + ((FileModule) module).getAbsolutePath();
+    } else {
+      return module.toString();
+    }
+  }
+
+  /**
+   * @return the file of a jar file or single file module, or null for other modules
+   */
+  private static File moduleFile(Module module) {
+    if (module instanceof JarFileModule) {
+      return new File(((JarFileModule) module).getAbsolutePath());
+    } else if (module instanceof FileModule) {
+      return new File(((FileModule) module).getAbsolutePath());
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * @return a hash of the contents of module: of the bytes of the file for a jar file or a single
+   *     file, and of the names and contents of its entries otherwise
+   */
+  private static byte[] contentHash(Module module) throws IOException {
+    MessageDigest digest = newDigest();
+    File file = moduleFile(module);
+    if (file != null) {
+      digestFile(file, digest);
+    } else {
+      // sort the entries, so that the hash does not depend on the order of iteration
+      Map<String, byte[]> entries = new TreeMap<>();
+      digestEntries(module, "", entries);
+      for (Map.Entry<String, byte[]> e : entries.entrySet()) {
+        digest.update(e.getKey().getBytes(StandardCharsets.UTF_8));
+        digest.update(e.getValue());
+      }
+    }
+    return digest.digest();
+  }
+
+  private static void digestEntries(Module module, String prefix, Map<String, byte[]> result)
+      throws IOException {
+    for (ModuleEntry entry : Iterator2Iterable.make(module.getEntries())) {
+      if (entry.isModuleFile()) {
+        digestEntries(entry.asModule(), prefix + entry.getName() + '!', result);
+      } else {
+        MessageDigest digest = newDigest();
+        try (InputStream s = entry.getInputStream()) {
+          digestStream(s, digest);
+        }
+        result.put(prefix + entry.getName(), digest.digest());
+      }
+    }
+  }
+
+  private static void digestFile(File file, MessageDigest digest) throws IOException {
+    try (InputStream s = Files.newInputStream(file.toPath())) {
+      digestStream(s, digest);
+    }
+  }
+
+  private static void digestStream(InputStream s, MessageDigest digest) throws IOException {
+    try (DigestInputStream d = new DigestInputStream(s, digest)) {
+      byte[] buffer = new byte[65536];
+      while (d.read(buffer) != -1) {
+        // just digesting
+      }
+    }
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance(DIGEST_ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private synchronized byte[] getContentHash(Module module) throws IOException {
+    byte[] result = hashes.get(module);
+    if (result == null) {
+      result = contentHash(module);
+      hashes.put(module, result);
+    }
+    return result;
+  }
+
+  /**
+   * @return the classes recorded for module of loader, or null if the snapshot has no record of
+   *     module, or if the contents of module changed since the snapshot was written
+   */
+  public ModuleSnapshot getModule(ClassLoaderReference loader, Module module) throws IOException {
+    if (loader == null) {
+      throw new IllegalArgumentException("loader is null");
+    }
+    if (module == null) {
+      throw new IllegalArgumentException("module is null");
+    }
+    Map<String, Integer> loaderModules = modules.get(loader.getName().toString());
+    if (loaderModules == null) {
+      return null;
+    }
+    Integer offset = loaderModules.get(moduleKey(module));
+    if (offset == null) {
+      return null;
+    }
+    ByteBuffer b = buffer.duplicate();
+    b.position(offset);
+    long size = b.getLong();
+    long lastModified = b.getLong();
+    byte[] hash = new byte[b.getInt()];
+    b.get(hash);
+    File file = moduleFile(module);
+    boolean unchanged =
+        file != null && size == file.length() && lastModified == file.lastModified();
+    if (!unchanged && !Arrays.equals(hash, getContentHash(module))) {
+      return null;
+    }
+    return new ModuleSnapshot(b);
+  }
+
+  /**
+   * @return the modules of scope that this snapshot has no up-to-date record of
+   */
+  public Set<Module> getStaleModules(AnalysisScope scope) throws IOException {
+    if (scope == null) {
+      throw new IllegalArgumentException("scope is null");
+    }
+    Set<Module> result = HashSetFactory.make();
+    for (ClassLoaderReference loader : scope.getLoaders()) {
+      for (Module module : scope.getModules(loader)) {
+        if (getModule(loader, module) == null) {
+          result.add(module);
+        }
+      }
+    }
+    return result;
+  }
+
+  /** The classes recorded for one module */
+  public final class ModuleSnapshot {
+
+    /** class name -&gt; offset in buffer of the class */
+    private final Map<String, Integer> classes = HashMapFactory.make();
+
+    /**
+     * @param b a view of the buffer, positioned after the hash of the module
+     */
+    private ModuleSnapshot(ByteBuffer b) {
+      int nClasses = b.getInt();
+      for (int i = 0; i < nClasses; i++) {
+        int offset = b.position();
+        classes.put(string(b.getInt()), offset);
+        b.position(b.position() + 8);
+        int nInterfaces = b.getInt();
+        b.position(b.position() + 4 * nInterfaces);
+      }
+    }
+
+    public int getNumberOfClasses() {
+      return classes.size();
+    }
+
+    public Set<String> getClassNames() {
+      return Collections.unmodifiableSet(classes.keySet());
+    }
+
+    /**
+     * @param name a class name in class file format, e.g. java/lang/Object
+     * @return the record of the class, or null if the module has no such class
+     */
+    public ClassRecord getClass(String name) {
+      Integer offset = classes.get(name);
+      return offset == null ? null : new ClassRecord(offset);
+    }
+  }
+
+  /** What a snapshot records about a class. Names are in class file format. */
+  public final class ClassRecord {
+
+    private final int offset;
+
+    private ClassRecord(int offset) {
+      this.offset = offset;
+    }
+
+    public String getName() {
+      return string(buffer.getInt(offset));
+    }
+
+    /**
+     * @return the name of the superclass, or null if there is none
+     */
+    public String getSuperName() {
+      return string(buffer.getInt(offset + 4));
+    }
+
+    public int getModifiers() {
+      return buffer.getInt(offset + 8);
+    }
+
+    public String[] getInterfaceNames() {
+      int n = buffer.getInt(offset + 12);
+      String[] result = new String[n];
+      for (int i = 0; i < n; i++) {
+        result[i] = string(buffer.getInt(offset + 16 + 4 * i));
+      }
+      return result;
+    }
+
+    @Override
+    public String toString() {
+      return "ClassRecord:" + getName();
+    }
+  }
+}
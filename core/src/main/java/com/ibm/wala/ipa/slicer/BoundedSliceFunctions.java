@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.ipa.slicer;
+
+import com.ibm.wala.dataflow.IFDS.IFlowFunction;
+import com.ibm.wala.dataflow.IFDS.IPartiallyBalancedFlowFunctions;
+import com.ibm.wala.dataflow.IFDS.IUnaryFlowFunction;
+import com.ibm.wala.util.intset.IntSet;
+import com.ibm.wala.util.intset.SparseIntSet;
+
+/**
+ * flow functions for a slicer that only follows a bounded number of dependence edges from the
+ * roots. The fact d means that a statement is reached along a realizable path of d edges of the
+ * SDG, parameter-passing edges included; an edge along which {@link SliceFunctions} lets flow pass
+ * maps d to d+1, up to the bound.
+ */
+public class BoundedSliceFunctions implements IPartiallyBalancedFlowFunctions<Statement> {
+
+  private final SliceFunctions delegate = new SliceFunctions();
+
+  /** maps d to d+1, if d+1 is within the bound */
+  private final IUnaryFlowFunction step;
+
+  /**
+   * @param maxDepth the maximal number of dependence edges from a root
+   * @throws IllegalArgumentException if maxDepth is negative
+   */
+  public BoundedSliceFunctions(int maxDepth) {
+    if (maxDepth < 0) {
+      throw new IllegalArgumentException("invalid maxDepth: " + maxDepth);
+    }
+    this.step =
+        new IUnaryFlowFunction() {
+          @Override
+          public IntSet getTargets(int d1) {
+            return d1 < maxDepth ? SparseIntSet.singleton(d1 + 1) : null;
+          }
+
+          @Override
+          public String toString() {
+            return "step to " + maxDepth;
+          }
+        };
+  }
+
+  /**
+   * @return the step function if f lets the reachability fact pass, else a function that kills
+   *     everything
+   */
+  private IUnaryFlowFunction bound(IFlowFunction f) {
+    if (f instanceof IUnaryFlowFunction) {
+      IntSet s = ((IUnaryFlowFunction) f).getTargets(0);
+      if (s == null || s.isEmpty()) {
+        return ReachabilityFunctions.KILL_FLOW;
+      }
+    }
+    return step;
+  }
+
+  @Override
+  public IUnaryFlowFunction getCallFlowFunction(Statement src, Statement dest, Statement ret) {
+    return bound(delegate.getCallFlowFunction(src, dest, ret));
+  }
+
+  @Override
+  public IUnaryFlowFunction getCallNoneToReturnFlowFunction(Statement src, Statement dest) {
+    return bound(delegate.getCallNoneToReturnFlowFunction(src, dest));
+  }
+
+  @Override
+  public IUnaryFlowFunction getCallToReturnFlowFunction(Statement src, Statement dest) {
+    return bound(delegate.getCallToReturnFlowFunction(src, dest));
+  }
+
+  @Override
+  public IUnaryFlowFunction getNormalFlowFunction(Statement src, Statement dest) {
+    return bound(delegate.getNormalFlowFunction(src, dest));
+  }
+
+  @Override
+  public IFlowFunction getReturnFlowFunction(Statement call, Statement src, Statement dest) {
+    return bound(delegate.getReturnFlowFunction(call, src, dest));
+  }
+
+  @Override
+  public IFlowFunction getUnbalancedReturnFlowFunction(Statement src, Statement dest) {
+    return bound(delegate.getUnbalancedReturnFlowFunction(src, dest));
+  }
+}
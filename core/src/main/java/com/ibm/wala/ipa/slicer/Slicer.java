@@ -10,6 +10,7 @@
  */
 package com.ibm.wala.ipa.slicer;
 
+import com.ibm.wala.core.util.CancelRuntimeException;
 import com.ibm.wala.dataflow.IFDS.BackwardsSupergraph;
 import com.ibm.wala.dataflow.IFDS.IMergeFunction;
 import com.ibm.wala.dataflow.IFDS.IPartiallyBalancedFlowFunctions;
@@ -17,8 +18,10 @@ import com.ibm.wala.dataflow.IFDS.ISupergraph;
 import com.ibm.wala.dataflow.IFDS.PartiallyBalancedTabulationProblem;
 import com.ibm.wala.dataflow.IFDS.PartiallyBalancedTabulationSolver;
 import com.ibm.wala.dataflow.IFDS.PathEdge;
+import com.ibm.wala.dataflow.IFDS.TabulationCancelException;
 import com.ibm.wala.dataflow.IFDS.TabulationDomain;
 import com.ibm.wala.dataflow.IFDS.TabulationResult;
+import com.ibm.wala.dataflow.IFDS.TabulationSummaryStore;
 import com.ibm.wala.dataflow.IFDS.UnorderedDomain;
 import com.ibm.wala.ipa.callgraph.CallGraph;
 import com.ibm.wala.ipa.callgraph.propagation.InstanceKey;
@@ -253,6 +256,28 @@ public class Slicer {
   public Collection<Statement> slice(
       SDG<?> sdg, Collection<Statement> roots, boolean backward, IProgressMonitor monitor)
       throws CancelException {
+    return slice(sdg, roots, backward, monitor, null);
+  }
+
+  /**
+   * Main driver logic, reusing the tabulation of procedures from earlier slices. Repeated queries
+   * over the same SDG then only explore the procedures that no earlier slice entered.
+   *
+   * @param sdg governing system dependence graph
+   * @param roots set of roots to slice from
+   * @param backward do a backwards slice?
+   * @param monitor to cancel analysis if needed
+   * @param summaries the tabulation of procedures kept across slices, which must all be over sdg
+   *     and in the same direction; null to compute everything
+   * @return the {@link Statement}s found by the slicer
+   */
+  public Collection<Statement> slice(
+      SDG<?> sdg,
+      Collection<Statement> roots,
+      boolean backward,
+      IProgressMonitor monitor,
+      TabulationSummaryStore<Statement> summaries)
+      throws CancelException {
     if (sdg == null) {
       throw new IllegalArgumentException("sdg cannot be null");
     }
@@ -261,6 +286,7 @@ public class Slicer {
 
     PartiallyBalancedTabulationSolver<Statement, PDG<?>, Object> solver =
         PartiallyBalancedTabulationSolver.createPartiallyBalancedTabulationSolver(p, monitor);
+    solver.setSummaryStore(summaries);
     TabulationResult<Statement, PDG<?>, Object> tr = solver.solve();
 
     Collection<Statement> slice = tr.getSupergraphNodesReached();
@@ -272,6 +298,116 @@ public class Slicer {
     return slice;
   }
 
+  /**
+   * Compute the statements reached from the roots along realizable paths of at most maxDepth
+   * edges of the SDG, parameter-passing edges included. Only the part of the SDG within the bound
+   * is explored, so this is much cheaper than a full slice when the bound is small.
+   *
+   * @param sdg governing system dependence graph
+   * @param roots set of roots to slice from
+   * @param backward do a backwards slice?
+   * @param maxDepth the maximal number of edges of the SDG from a root
+   * @param monitor to cancel analysis if needed
+   * @return the {@link Statement}s found by the slicer
+   * @throws IllegalArgumentException if maxDepth is negative
+   */
+  public Collection<Statement> slice(
+      SDG<?> sdg,
+      Collection<Statement> roots,
+      boolean backward,
+      int maxDepth,
+      IProgressMonitor monitor)
+      throws CancelException {
+    if (sdg == null) {
+      throw new IllegalArgumentException("sdg cannot be null");
+    }
+    SliceProblem p = makeBoundedSliceProblem(roots, sdg, backward, maxDepth);
+    return PartiallyBalancedTabulationSolver.createPartiallyBalancedTabulationSolver(p, monitor)
+        .solve()
+        .getSupergraphNodesReached();
+  }
+
+  /**
+   * Is target in the slice of root?
+   *
+   * @see #isInSlice(SDG, Statement, Statement, boolean, int, IProgressMonitor)
+   */
+  public boolean isInSlice(SDG<?> sdg, Statement root, Statement target, boolean backward)
+      throws CancelException {
+    return isInSlice(sdg, root, target, backward, -1, null);
+  }
+
+  /**
+   * Is target in the slice of root? Tabulation stops as soon as it reaches target, so when it is
+   * in the slice, this usually explores, and builds {@link PDG}s for, a small part of what a full
+   * slice would.
+   *
+   * @param sdg governing system dependence graph
+   * @param root the statement to slice from
+   * @param target the statement to look for
+   * @param backward look in the backwards slice?
+   * @param maxDepth if not negative, only look along realizable paths of at most this many edges
+   *     of the SDG from root, as {@link #slice(SDG, Collection, boolean, int, IProgressMonitor)}
+   * @param monitor to cancel analysis if needed
+   */
+  public boolean isInSlice(
+      SDG<?> sdg,
+      Statement root,
+      Statement target,
+      boolean backward,
+      int maxDepth,
+      IProgressMonitor monitor)
+      throws CancelException {
+    if (sdg == null) {
+      throw new IllegalArgumentException("sdg cannot be null");
+    }
+    if (target == null) {
+      throw new IllegalArgumentException("target cannot be null");
+    }
+    if (target.equals(root)) {
+      return true;
+    }
+    Collection<Statement> roots = Collections.singleton(root);
+    SliceProblem p =
+        maxDepth < 0
+            ? makeSliceProblem(roots, sdg, backward)
+            : makeBoundedSliceProblem(roots, sdg, backward, maxDepth);
+    TargetSearch search = new TargetSearch(p, monitor, target);
+    try {
+      search.solve();
+      return false;
+    } catch (TabulationCancelException e) {
+      if (search.found) {
+        return true;
+      }
+      throw e;
+    }
+  }
+
+  /** a tabulation of a slice that is canceled as soon as it reaches a target statement */
+  private static class TargetSearch
+      extends PartiallyBalancedTabulationSolver<Statement, PDG<?>, Object> {
+
+    private final Statement target;
+
+    private boolean found = false;
+
+    TargetSearch(SliceProblem p, IProgressMonitor monitor, Statement target) {
+      super(p, monitor);
+      this.target = target;
+    }
+
+    @Override
+    protected boolean propagate(Statement s_p, int i, Statement n, int j) {
+      boolean result = super.propagate(s_p, i, n, j);
+      if (result && n.equals(target)) {
+        found = true;
+        throw CancelRuntimeException.make("reached " + target);
+      }
+      return result;
+    }
+  }
+
   /**
    * Return an object which encapsulates the tabulation logic for the slice problem. Subclasses can
    * override this method to implement special semantics.
@@ -281,6 +417,15 @@ public class Slicer {
     return new SliceProblem(roots, sdgView, backward);
   }
 
+  /**
+   * Return an object which encapsulates the tabulation logic for a slice problem bounded to
+   * maxDepth edges of the SDG. Subclasses can override this method to implement special semantics.
+   */
+  protected SliceProblem makeBoundedSliceProblem(
+      Collection<Statement> roots, ISDG sdgView, boolean backward, int maxDepth) {
+    return new SliceProblem(roots, sdgView, backward, maxDepth);
+  }
+
   /**
    * @param s a statement of interest
    * @return the backward slice of s.
@@ -300,16 +445,35 @@ public class Slicer {
 
     private final ISupergraph<Statement, PDG<? extends InstanceKey>> supergraph;
 
-    private final SliceFunctions f;
+    private final IPartiallyBalancedFlowFunctions<Statement> f;
 
     private final boolean backward;
 
     public SliceProblem(Collection<Statement> roots, ISDG sdg, boolean backward) {
+      this(roots, sdg, backward, new SliceFunctions());
+    }
+
+    /**
+     * A problem whose tabulation only reaches the statements within a bounded number of
+     * dependence edges from the roots; see {@link BoundedSliceFunctions}.
+     *
+     * @param maxDepth the maximal number of edges of the SDG from a root
+     * @throws IllegalArgumentException if maxDepth is negative
+     */
+    public SliceProblem(Collection<Statement> roots, ISDG sdg, boolean backward, int maxDepth) {
+      this(roots, sdg, backward, new BoundedSliceFunctions(maxDepth));
+    }
+
+    private SliceProblem(
+        Collection<Statement> roots,
+        ISDG sdg,
+        boolean backward,
+        IPartiallyBalancedFlowFunctions<Statement> f) {
       this.roots = roots;
       this.backward = backward;
       SDGSupergraph forwards = new SDGSupergraph(sdg, backward);
       this.supergraph = backward ? BackwardsSupergraph.make(forwards) : forwards;
-      f = new SliceFunctions();
+      this.f = f;
     }
 
     /**
@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.function.Supplier;
 
 /**
  * A cache for auxiliary information based on an SSA representation
@@ -103,6 +104,17 @@ public class AuxiliaryCache implements IAuxiliaryCache {
     methodMap.put(options, ref);
   }
 
+  @Override
+  public synchronized Object findOrCreate(
+      IMethod m, Context c, SSAOptions options, Supplier<Object> factory) {
+    Object result = find(m, c, options);
+    if (result == null) {
+      result = factory.get();
+      cache(m, c, options, result);
+    }
+    return result;
+  }
+
   @Override
   public void invalidate(IMethod method, Context c) {
     dictionary.remove(Pair.make(method, c));
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.ssa;
+
+import com.ibm.wala.classLoader.IMethod;
+import com.ibm.wala.ipa.callgraph.Context;
+import com.ibm.wala.util.collections.Pair;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * An {@link IAuxiliaryCache} that holds its entries strongly, up to a budget of (estimated) bytes.
+ * When the budget is exceeded, the least recently used entries are evicted; an evicted entry is
+ * simply created again, e.g. by the {@link IRFactory}, the next time it is asked for.
+ *
+ * <p>By default, the size of an entry is estimated from the number of instructions of an {@link
+ * IR}, or the number of values and instructions of a {@link DefUse}. The estimate is rough: it is
+ * meant to keep the footprint of the cache proportional to the budget, not to account for every
+ * byte.
+ */
+public class BoundedAuxiliaryCache implements IAuxiliaryCache {
+
+  /** estimated size of an IR, apart from its instructions */
+  private static final long IR_OVERHEAD = 2048;
+
+  /** estimated size of an instruction, with its share of the CFG and symbol table */
+  private static final long BYTES_PER_INSTRUCTION = 160;
+
+  /** estimated size of a DefUse, apart from its tables */
+  private static final long DEF_USE_OVERHEAD = 128;
+
+  /** estimated size of the def and use entries of one value number */
+  private static final long BYTES_PER_VALUE = 48;
+
+  /** estimated size of an entry of unknown type */
+  private static final long DEFAULT_WEIGHT = 1024;
+
+  /** A mapping from &lt;IMethod, Context, SSAOptions&gt; -&gt; Entry, in access order */
+  private final LinkedHashMap<Pair<Pair<IMethod, Context>, SSAOptions>, Entry> dictionary =
+      new LinkedHashMap<>(16, 0.75f, true);
+
+  private final long maxBytes;
+
+  private final ToLongFunction<Object> weigher;
+
+  /** sum of the weights of the entries cached here */
+  private long currentBytes = 0;
+
+  private long hits = 0;
+
+  private long misses = 0;
+
+  private long evictions = 0;
+
+  private static final class Entry {
+    final Object value;
+
+    final long weight;
+
+    Entry(Object value, long weight) {
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+
+  /**
+   * @param maxBytes budget of estimated bytes for the entries of this cache
+   * @throws IllegalArgumentException if maxBytes &lt;= 0
+   */
+  public BoundedAuxiliaryCache(long maxBytes) {
+    this(maxBytes, BoundedAuxiliaryCache::estimateBytes);
+  }
+
+  /**
+   * @param maxBytes budget of estimated bytes for the entries of this cache
+   * @param weigher estimates the number of bytes held by an entry
+   * @throws IllegalArgumentException if maxBytes &lt;= 0
+   */
+  public BoundedAuxiliaryCache(long maxBytes, ToLongFunction<Object> weigher) {
+    if (maxBytes <= 0) {
+      throw new IllegalArgumentException("invalid budget: " + maxBytes);
+    }
+    if (weigher == null) {
+      throw new IllegalArgumentException("weigher is null");
+    }
+    this.maxBytes = maxBytes;
+    this.weigher = weigher;
+  }
+
+  /** The default estimate of the number of bytes held by an entry */
+  public static long estimateBytes(Object aux) {
+    if (aux instanceof IR) {
+      return IR_OVERHEAD + BYTES_PER_INSTRUCTION * ((IR) aux).getInstructions().length;
+    } else if (aux instanceof DefUse) {
+      // a DefUse keeps its IR alive, so count that too
+      DefUse du = (DefUse) aux;
+      return DEF_USE_OVERHEAD
+          + BYTES_PER_VALUE * (du.getMaxValueNumber() + 1)
+          + IR_OVERHEAD
+          + BYTES_PER_INSTRUCTION * du.allInstructions.size();
+    } else {
+      return DEFAULT_WEIGHT;
+    }
+  }
+
+  private static Pair<Pair<IMethod, Context>, SSAOptions> key(
+      IMethod m, Context c, SSAOptions options) {
+    return Pair.make(Pair.make(m, c), options);
+  }
+
+  @Override
+  public synchronized void wipe() {
+    dictionary.clear();
+    currentBytes = 0;
+  }
+
+  @Override
+  public synchronized Object find(IMethod m, Context c, SSAOptions options) {
+    Entry e = dictionary.get(key(m, c, options));
+    if (e == null) {
+      misses++;
+      return null;
+    } else {
+      hits++;
+      return e.value;
+    }
+  }
+
+  @Override
+  public synchronized void cache(IMethod m, Context c, SSAOptions options, Object aux) {
+    Entry e = new Entry(aux, aux == null ? 0 : weigher.applyAsLong(aux));
+    Entry old = dictionary.put(key(m, c, options), e);
+    if (old != null) {
+      currentBytes -= old.weight;
+    }
+    currentBytes += e.weight;
+    evict();
+  }
+
+  @Override
+  public synchronized Object findOrCreate(
+      IMethod m, Context c, SSAOptions options, Supplier<Object> factory) {
+    Object result = find(m, c, options);
+    if (result == null) {
+      result = factory.get();
+      if (result != null) {
+        cache(m, c, options, result);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public synchronized void invalidate(IMethod method, Context c) {
+    Pair<IMethod, Context> p = Pair.make(method, c);
+    for (Iterator<Map.Entry<Pair<Pair<IMethod, Context>, SSAOptions>, Entry>> it =
+            dictionary.entrySet().iterator();
+        it.hasNext(); ) {
+      Map.Entry<Pair<Pair<IMethod, Context>, SSAOptions>, Entry> e = it.next();
+      if (e.getKey().fst.equals(p)) {
+        currentBytes -= e.getValue().weight;
+        it.remove();
+      }
+    }
+  }
+
+  /** evict least recently used entries until we are within budget, but keep the newest entry */
+  private void evict() {
+    Iterator<Entry> it = dictionary.values().iterator();
+    while (currentBytes > maxBytes && dictionary.size() > 1) {
+      Entry e = it.next();
+      currentBytes -= e.weight;
+      it.remove();
+      evictions++;
+    }
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  /**
+   * @return the sum of the estimated sizes of the entries currently cached
+   */
+  public synchronized long getCurrentBytes() {
+    return currentBytes;
+  }
+
+  public synchronized int getNumberOfEntries() {
+    return dictionary.size();
+  }
+
+  /**
+   * @return number of lookups that found a cached entry
+   */
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * @return number of lookups that found no cached entry
+   */
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  /**
+   * @return number of entries evicted to stay within budget
+   */
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "BoundedAuxiliaryCache[entries="
+        + dictionary.size()
+        + ", bytes="
+        + currentBytes
+        + '/'
+        + maxBytes
+        + ", hits="
+        + hits
+        + ", misses="
+        + misses
+        + ", evictions="
+        + evictions
+        + ']';
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.ssa;
+
+import com.ibm.wala.classLoader.IMethod;
+import com.ibm.wala.core.util.ref.CacheReference;
+import com.ibm.wala.ipa.callgraph.Context;
+import com.ibm.wala.util.WalaRuntimeException;
+import com.ibm.wala.util.collections.Pair;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * An {@link IAuxiliaryCache} that may be shared by several threads without a global lock.
+ *
+ * <p>Each &lt;method,context,options&gt; entry is created at most once at a time: the first thread
+ * to ask for a missing entry creates it, and any other thread that asks for the same entry
+ * meanwhile waits for that result instead of creating its own. Threads asking for different
+ * entries do not wait for each other.
+ */
+public class ConcurrentAuxiliaryCache implements IAuxiliaryCache {
+
+  /**
+   * A mapping from IMethod -&gt; SSAOptions -&gt; SoftReference -&gt; IR. While an entry is being
+   * created, the innermost value is the {@link FutureTask} creating it instead.
+   */
+  private final ConcurrentHashMap<Pair<IMethod, Context>, Map<SSAOptions, Object>> dictionary =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Help out the garbage collector: clear out collected entries when the number of items is &gt;
+   * RESET_THRESHOLD
+   */
+  private static final int RESET_THRESHOLD = 2000;
+
+  /** number of items cached here since the last reset. */
+  private final AtomicInteger nItems = new AtomicInteger();
+
+  @Override
+  public void wipe() {
+    dictionary.clear();
+    nItems.set(0);
+  }
+
+  /** clear out things from which no IR is reachable */
+  private void reset() {
+    nItems.set(0);
+    for (Map<SSAOptions, Object> m : dictionary.values()) {
+      m.values().removeIf(ref -> !(ref instanceof FutureTask) && CacheReference.get(ref) == null);
+    }
+  }
+
+  @Override
+  public Object find(IMethod m, Context c, SSAOptions options) {
+    Map<SSAOptions, Object> methodMap = dictionary.get(Pair.make(m, c));
+    if (methodMap == null) {
+      return null;
+    }
+    Object ref = methodMap.get(options);
+    if (ref == null || ref instanceof FutureTask) {
+      return null;
+    }
+    return CacheReference.get(ref);
+  }
+
+  @Override
+  public void cache(IMethod m, Context c, SSAOptions options, Object aux) {
+    noteNewItem();
+    findOrCreateMethodMap(m, c).put(options, CacheReference.make(aux));
+  }
+
+  @Override
+  public Object findOrCreate(IMethod m, Context c, SSAOptions options, Supplier<Object> factory) {
+    Map<SSAOptions, Object> methodMap = findOrCreateMethodMap(m, c);
+    while (true) {
+      Object ref = methodMap.get(options);
+      if (ref instanceof FutureTask) {
+        Object result = await((FutureTask<?>) ref);
+        if (result != null) {
+          return result;
+        }
+        // the creator failed or produced nothing; try again
+        continue;
+      }
+      if (ref != null) {
+        Object result = CacheReference.get(ref);
+        if (result != null) {
+          return result;
+        }
+      }
+
+      FutureTask<Object> task = new FutureTask<>(factory::get);
+      boolean mine =
+          ref == null
+              ? methodMap.putIfAbsent(options, task) == null
+              : methodMap.replace(options, ref, task);
+      if (!mine) {
+        // somebody else got there first
+        continue;
+      }
+      task.run();
+      Object result;
+      try {
+        result = task.get();
+      } catch (InterruptedException e) {
+        // cannot happen: the task has already run
+        Thread.currentThread().interrupt();
+        throw new WalaRuntimeException("interrupted", e);
+      } catch (ExecutionException e) {
+        methodMap.remove(options, task);
+        throw rethrow(e);
+      }
+      if (result == null) {
+        methodMap.remove(options, task);
+      } else {
+        noteNewItem();
+        methodMap.replace(options, task, CacheReference.make(result));
+      }
+      return result;
+    }
+  }
+
+  @Override
+  public void invalidate(IMethod method, Context c) {
+    dictionary.remove(Pair.make(method, c));
+  }
+
+  private Map<SSAOptions, Object> findOrCreateMethodMap(IMethod m, Context c) {
+    return dictionary.computeIfAbsent(Pair.make(m, c), p -> new ConcurrentHashMap<>());
+  }
+
+  private void noteNewItem() {
+    if (nItems.incrementAndGet() > RESET_THRESHOLD) {
+      reset();
+    }
+  }
+
+  /**
+   * Wait for another thread to finish creating an entry
+   *
+   * @return the entry, or null if the other thread failed to create it
+   */
+  private static Object await(FutureTask<?> task) {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          return task.get();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          return null;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static RuntimeException rethrow(ExecutionException e) {
+    Throwable cause = e.getCause();
+    if (cause instanceof RuntimeException) {
+      return (RuntimeException) cause;
+    } else if (cause instanceof Error) {
+      throw (Error) cause;
+    } else {
+      return new WalaRuntimeException("failed to create cached entry", cause);
+    }
+  }
+}
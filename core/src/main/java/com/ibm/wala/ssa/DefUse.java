@@ -81,6 +81,14 @@ public class DefUse {
     }
   }
 
+  /**
+   * @return true iff this information was computed for exactly ir, not just for an IR of the same
+   *     method
+   */
+  boolean isFor(IR ir) {
+    return this.ir == ir;
+  }
+
   /**
    * @return the maximum value number in a particular IR
    */
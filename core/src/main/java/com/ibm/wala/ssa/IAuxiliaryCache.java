@@ -12,6 +12,7 @@ package com.ibm.wala.ssa;
 
 import com.ibm.wala.classLoader.IMethod;
 import com.ibm.wala.ipa.callgraph.Context;
+import java.util.function.Supplier;
 
 interface IAuxiliaryCache {
 
@@ -33,6 +34,18 @@ interface IAuxiliaryCache {
    */
   void cache(IMethod m, Context c, SSAOptions options, Object aux);
 
+  /**
+   * Find the object cached for an &lt;m,options&gt; pair, creating and caching it if there is
+   * none. Implementations guarantee that concurrent callers asking for the same pair do not create
+   * it more than once.
+   *
+   * @param m a method
+   * @param options options governing ssa construction
+   * @param factory creates the object if it is not cached
+   * @return the object cached for m
+   */
+  Object findOrCreate(IMethod m, Context c, SSAOptions options, Supplier<Object> factory);
+
   /** invalidate all cached information about a method */
   void invalidate(IMethod method, Context c);
 }
@@ -19,6 +19,11 @@ import com.ibm.wala.ipa.callgraph.impl.Everywhere;
  *
  * <p>This doesn't work very well ... GCs don't do such a great job with SoftReferences ... revamp
  * it.
+ *
+ * <p>This class does no locking of its own; whether it may be used from several threads depends on
+ * the {@link IAuxiliaryCache}s it is given. An {@link AuxiliaryCache} serializes all requests,
+ * while a {@link ConcurrentAuxiliaryCache} only makes concurrent requests for the same method wait
+ * for each other.
  */
 public class SSACache {
 
@@ -49,7 +54,7 @@ public class SSACache {
    * @return an IR for m, built according to the specified options. null if m is abstract or native.
    * @throws IllegalArgumentException if m is null
    */
-  public synchronized IR findOrCreateIR(final IMethod m, Context c, final SSAOptions options) {
+  public IR findOrCreateIR(final IMethod m, Context c, final SSAOptions options) {
 
     if (m == null) {
       throw new IllegalArgumentException("m is null");
@@ -58,20 +63,14 @@ public class SSACache {
       return null;
     }
 
-    if (factory.contextIsIrrelevant(m)) {
-      c = Everywhere.EVERYWHERE;
-    }
+    final Context context = factory.contextIsIrrelevant(m) ? Everywhere.EVERYWHERE : c;
 
     if (DISABLE) {
-      return factory.makeIR(m, c, options);
+      return factory.makeIR(m, context, options);
     }
 
-    IR ir = (IR) irCache.find(m, c, options);
-    if (ir == null) {
-      ir = factory.makeIR(m, c, options);
-      irCache.cache(m, c, options, ir);
-    }
-    return ir;
+    return (IR)
+        irCache.findOrCreate(m, context, options, () -> factory.makeIR(m, context, options));
   }
 
   /**
@@ -80,24 +79,16 @@ public class SSACache {
    * @return DefUse information for m, built according to the specified options. null if unavailable
    * @throws IllegalArgumentException if m is null
    */
-  public synchronized DefUse findOrCreateDU(IMethod m, Context c, SSAOptions options) {
+  public DefUse findOrCreateDU(IMethod m, Context c, SSAOptions options) {
     if (m == null) {
       throw new IllegalArgumentException("m is null");
     }
     if (m.isAbstract() || m.isNative()) {
       return null;
     }
-    if (factory.contextIsIrrelevant(m)) {
-      c = Everywhere.EVERYWHERE;
-    }
+    final Context context = factory.contextIsIrrelevant(m) ? Everywhere.EVERYWHERE : c;
 
-    DefUse du = (DefUse) duCache.find(m, c, options);
-    if (du == null) {
-      IR ir = findOrCreateIR(m, c, options);
-      du = new DefUse(ir);
-      duCache.cache(m, c, options, du);
-    }
-    return du;
+    return findOrCreateDU(m, context, options, findOrCreateIR(m, context, options));
   }
 
   /**
@@ -105,14 +96,23 @@ public class SSACache {
    *     unavailable
    * @throws IllegalArgumentException if ir is null
    */
-  public synchronized DefUse findOrCreateDU(IR ir, Context C) {
+  public DefUse findOrCreateDU(IR ir, Context C) {
     if (ir == null) {
       throw new IllegalArgumentException("ir is null");
     }
-    DefUse du = (DefUse) duCache.find(ir.getMethod(), C, ir.getOptions());
-    if (du == null) {
+    return findOrCreateDU(ir.getMethod(), C, ir.getOptions(), ir);
+  }
+
+  /**
+   * The caches may evict an IR while keeping its {@link DefUse}, and then build a new IR for the
+   * same method. A cached {@link DefUse} is only returned if it was computed for ir itself, since
+   * it refers to the instructions of the IR it was computed for.
+   */
+  private DefUse findOrCreateDU(IMethod m, Context c, SSAOptions options, IR ir) {
+    DefUse du = (DefUse) duCache.findOrCreate(m, c, options, () -> new DefUse(ir));
+    if (!du.isFor(ir)) {
       du = new DefUse(ir);
-      duCache.cache(ir.getMethod(), C, ir.getOptions(), du);
+      duCache.cache(m, c, options, du);
     }
     return du;
   }
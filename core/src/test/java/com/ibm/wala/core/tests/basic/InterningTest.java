@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.core.tests.basic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.ibm.wala.core.tests.util.WalaTestCase;
+import com.ibm.wala.core.util.strings.Atom;
+import com.ibm.wala.types.ClassLoaderReference;
+import com.ibm.wala.types.MethodReference;
+import com.ibm.wala.types.TypeReference;
+import com.ibm.wala.util.collections.Interner;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+/** Check that interned types stay canonical when they are created from several threads */
+public class InterningTest extends WalaTestCase {
+
+  public static void main(String[] args) {
+    justThisTest(InterningTest.class);
+  }
+
+  private static final int N_THREADS = 8;
+
+  private static final int N_NAMES = 5000;
+
+  /** intern a method reference for each name, going through atoms and type references */
+  private static List<MethodReference> internAll(String prefix) {
+    List<MethodReference> result = new ArrayList<>(N_NAMES);
+    for (int i = 0; i < N_NAMES; i++) {
+      TypeReference t =
+          TypeReference.findOrCreate(ClassLoaderReference.Application, "L" + prefix + "/C" + i);
+      result.add(MethodReference.findOrCreate(t, "m" + i, "()Ljava/lang/Object;"));
+    }
+    return result;
+  }
+
+  /** run task from N_THREADS threads at once */
+  private static <T> List<T> runConcurrently(Callable<T> task) throws Exception {
+    List<Callable<T>> tasks = new ArrayList<>();
+    for (int i = 0; i < N_THREADS; i++) {
+      tasks.add(task);
+    }
+    ExecutorService pool = Executors.newFixedThreadPool(N_THREADS);
+    try {
+      List<T> result = new ArrayList<>();
+      for (Future<T> f : pool.invokeAll(tasks)) {
+        result.add(f.get());
+      }
+      return result;
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testConcurrentIdentity() throws Exception {
+    List<List<MethodReference>> results = runConcurrently(() -> internAll("interning/identity"));
+    List<MethodReference> first = results.get(0);
+    for (List<MethodReference> refs : results) {
+      for (int i = 0; i < N_NAMES; i++) {
+        MethodReference m = refs.get(i);
+        assertSame(first.get(i), m);
+        assertSame(first.get(i).getDeclaringClass(), m.getDeclaringClass());
+        assertSame(first.get(i).getName(), m.getName());
+        assertSame(first.get(i).getDescriptor(), m.getDescriptor());
+      }
+    }
+    assertSame(first.get(0), internAll("interning/identity").get(0));
+    assertSame(Atom.findOrCreateUnicodeAtom("m0"), first.get(0).getName());
+  }
+
+  @Test
+  public void testWeakInterner() throws Exception {
+    Interner<String, Object> interner = Interner.makeWeak();
+    List<Object> held = new ArrayList<>();
+    for (int i = 0; i < N_NAMES; i++) {
+      held.add(interner.findOrCreate("k" + i, k -> new Object()));
+    }
+    List<List<Object>> results =
+        runConcurrently(
+            () -> {
+              List<Object> values = new ArrayList<>();
+              for (int i = 0; i < N_NAMES; i++) {
+                values.add(interner.findOrCreate("k" + i, k -> new Object()));
+              }
+              return values;
+            });
+    for (List<Object> values : results) {
+      for (int i = 0; i < N_NAMES; i++) {
+        assertSame(held.get(i), values.get(i));
+      }
+    }
+    assertEquals(N_NAMES, interner.size());
+  }
+}
@@ -33,7 +33,11 @@ import com.ibm.wala.util.intset.BasicNaturalRelation;
 import com.ibm.wala.util.intset.BimodalMutableIntSetFactory;
 import com.ibm.wala.util.intset.BitVector;
 import com.ibm.wala.util.intset.BitVectorBase;
+import com.ibm.wala.util.intset.BitVectorIntSet;
 import com.ibm.wala.util.intset.BitVectorIntSetFactory;
+import com.ibm.wala.util.intset.BitVectorRepository;
+import com.ibm.wala.util.intset.CompressedBitmapIntSet;
+import com.ibm.wala.util.intset.CompressedBitmapIntSetFactory;
 import com.ibm.wala.util.intset.IBinaryNaturalRelation;
 import com.ibm.wala.util.intset.IntPair;
 import com.ibm.wala.util.intset.IntSet;
@@ -53,10 +57,15 @@ import com.ibm.wala.util.intset.SemiSparseMutableIntSet;
 import com.ibm.wala.util.intset.SemiSparseMutableIntSetFactory;
 import com.ibm.wala.util.intset.SparseIntSet;
 import com.ibm.wala.util.intset.SparseLongSet;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.Test;
 
 /** JUnit tests for some primitive operations. */
@@ -361,6 +370,168 @@ public class PrimitivesTest extends WalaTestCase {
     doMutableIntSet(new SemiSparseMutableIntSetFactory());
   }
 
+  /** Test the CompressedBitmapIntSet implementation */
+  @Test
+  public void testCompressedBitmapIntSet() {
+    doMutableIntSet(new CompressedBitmapIntSetFactory());
+  }
+
+  /**
+   * Compare CompressedBitmapIntSets with BitVectorIntSets on sets large enough to need several
+   * chunks and every kind of container
+   */
+  @Test
+  public void testCompressedBitmapIntSetContainers() {
+    Random r = new Random(17);
+    for (int round = 0; round < 20; round++) {
+      CompressedBitmapIntSet a = new CompressedBitmapIntSet();
+      CompressedBitmapIntSet b = new CompressedBitmapIntSet();
+      BitVectorIntSet ea = new BitVectorIntSet();
+      BitVectorIntSet eb = new BitVectorIntSet();
+      for (int chunk = 0; chunk < 4; chunk++) {
+        int base = chunk << 16;
+        // sparse, dense, and run-like chunks
+        int n = r.nextInt(3) == 0 ? 100 : 6000;
+        for (int i = 0; i < n; i++) {
+          int x = base + r.nextInt(1 << 16);
+          a.add(x);
+          ea.add(x);
+          int y = base + (round % 2 == 0 ? r.nextInt(1 << 16) : i);
+          b.add(y);
+          eb.add(y);
+        }
+      }
+      for (int i = 0; i < 3000; i++) {
+        int x = r.nextInt(4 << 16);
+        assertEquals(ea.remove(x), a.remove(x));
+      }
+      if (round % 3 == 0) {
+        a.runOptimize();
+        b.runOptimize();
+      }
+      assertTrue(a.sameValue(ea));
+      assertEquals(ea.size(), a.size());
+      assertEquals(ea.max(), a.max());
+      assertTrue(b.sameValue(eb));
+      assertEquals(ea.containsAny(eb), a.containsAny(b));
+      assertTrue(a.intersection(b).sameValue(ea.intersection(eb)));
+      assertTrue(a.intersection(eb).sameValue(ea.intersection(eb)));
+      assertTrue(a.union(b).sameValue(ea.union(eb)));
+      assertTrue(a.intersection(b).isSubset(a));
+      assertEquals(ea.isSubset(eb), a.isSubset(b));
+
+      CompressedBitmapIntSet c = new CompressedBitmapIntSet(a);
+      BitVectorIntSet ec = new BitVectorIntSet(ea);
+      assertEquals(ec.addAll(eb), c.addAll(b));
+      assertTrue(c.sameValue(ec));
+      assertFalse(c.addAll(b));
+      assertTrue(b.isSubset(c));
+      c.add(5 << 16);
+      assertTrue(c.contains(5 << 16));
+      assertFalse(a.contains(5 << 16));
+      c.intersectWith(b);
+      ec.intersectWith(eb);
+      assertTrue(c.sameValue(ec));
+    }
+  }
+
+  /** Check that the other int sets accept CompressedBitmapIntSets as arguments */
+  @Test
+  public void testCompressedBitmapIntSetMixed() {
+    MutableIntSetFactory<?>[] factories = {
+      new BitVectorIntSetFactory(),
+      new MutableSparseIntSetFactory(),
+      new MutableSharedBitVectorIntSetFactory(),
+      new BimodalMutableIntSetFactory(),
+      new SemiSparseMutableIntSetFactory()
+    };
+    Random r = new Random(23);
+    for (MutableIntSetFactory<?> factory : factories) {
+      for (int round = 0; round < 10; round++) {
+        CompressedBitmapIntSet c = new CompressedBitmapIntSet();
+        BitVectorIntSet ec = new BitVectorIntSet();
+        MutableIntSet s = factory.make();
+        BitVectorIntSet es = new BitVectorIntSet();
+        for (int i = 0; i < 200; i++) {
+          int x = r.nextInt(1000);
+          c.add(x);
+          ec.add(x);
+          int y = r.nextInt(1000);
+          s.add(y);
+          es.add(y);
+        }
+        String kind = s.getClass().getSimpleName();
+        assertFalse(s.sameValue(c), kind);
+        assertTrue(factory.makeCopy(c).sameValue(c), kind);
+        assertTrue(IntSetUtil.makeMutableCopy(c).sameValue(ec), kind);
+        assertEquals(es.containsAny(ec), s.containsAny(c), kind);
+        assertEquals(es.isSubset(ec), s.isSubset(c), kind);
+        assertTrue(s.intersection(c).sameValue(es.intersection(ec)), kind);
+        assertTrue(s.union(c).sameValue(es.union(ec)), kind);
+        assertEquals(es.sameValue(ec), new SparseIntSet(s).sameValue(c), kind);
+
+        MutableIntSet u = factory.makeCopy(s);
+        u.intersectWith(c);
+        assertTrue(u.sameValue(es.intersection(ec)), kind);
+
+        MutableIntSet t = factory.makeCopy(s);
+        t.addAll(c);
+        assertTrue(t.sameValue(es.union(ec)), kind);
+        t.intersectWith(c);
+        assertTrue(t.sameValue(ec), kind);
+        t.copySet(c);
+        assertTrue(t.sameValue(c), kind);
+        assertTrue(c.sameValue(t), kind);
+      }
+    }
+  }
+
+  /** Check that shared subsets are found again, and are subsets also when looked up concurrently */
+  @Test
+  public void testBitVectorRepository() throws Exception {
+    BitVectorIntSet v = new BitVectorIntSet();
+    for (int i = 0; i < 1000; i += 3) {
+      v.add(100_000 + i);
+    }
+    BitVectorIntSet shared = BitVectorRepository.findOrCreateSharedSubset(v);
+    assertTrue(shared.sameValue(v));
+    assertSame(shared, BitVectorRepository.findOrCreateSharedSubset(new BitVectorIntSet(v)));
+    BitVectorIntSet w = new BitVectorIntSet(v);
+    w.add(7);
+    w.add(8);
+    assertSame(shared, BitVectorRepository.findOrCreateSharedSubset(w));
+
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        int seed = t;
+        results.add(
+            pool.submit(
+                () -> {
+                  Random r = new Random(seed);
+                  for (int i = 0; i < 2000; i++) {
+                    BitVectorIntSet s = new BitVectorIntSet();
+                    int n = 20 + r.nextInt(10);
+                    for (int j = 0; j < n; j++) {
+                      s.add(r.nextInt(64));
+                    }
+                    BitVectorIntSet sub = BitVectorRepository.findOrCreateSharedSubset(s);
+                    if (!sub.isSubset(s) || sub.size() <= s.size() - 5) {
+                      return false;
+                    }
+                  }
+                  return true;
+                }));
+      }
+      for (Future<Boolean> f : results) {
+        assertTrue(f.get());
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
   /** Test the MutableSparseIntSet implementation */
   private static void doMutableLongSet(MutableLongSetFactory factory) {
     MutableLongSet v = factory.parse("{9,17}");
@@ -906,6 +1077,39 @@ public class PrimitivesTest extends WalaTestCase {
     testSingleBitVector(new BitVector());
   }
 
+  /** Check bits on either side of word boundaries, in vectors of different lengths */
+  @Test
+  public void testBitVectorWordBoundaries() {
+    BitVector small = new BitVector();
+    BitVector large = new BitVector(200);
+    for (int bit : new int[] {0, 31, 32, 63}) {
+      small.set(bit);
+    }
+    for (int bit : new int[] {31, 32, 63, 64, 127, 128, 191}) {
+      large.set(bit);
+    }
+    assertEquals(63, small.max());
+    assertEquals(191, large.max());
+    assertEquals(64, large.nextSetBit(64));
+    assertEquals(127, large.nextSetBit(65));
+    assertEquals(-1, large.nextSetBit(192));
+    assertFalse(small.isSubset(large));
+    assertFalse(small.intersectionEmpty(large));
+
+    BitVector union = new BitVector(small);
+    assertEquals(4, union.orWithDelta(large));
+    assertEquals(8, union.populationCount());
+    assertTrue(small.isSubset(union));
+    assertTrue(large.isSubset(union));
+
+    BitVector diff = BitVector.andNot(union, large);
+    assertTrue(diff.sameBits(new BitVector(BitVector.andNot(small, large))));
+    assertEquals(1, diff.populationCount());
+    assertTrue(diff.get(0));
+    assertTrue(BitVector.and(union, small).sameBits(small));
+    assertTrue(BitVector.and(small, union).sameBits(small));
+  }
+
   @Test
   public void testOffsetBitVector0_10() {
     testSingleBitVector(new OffsetBitVector(0, 10));
@@ -1383,4 +1587,40 @@ public class PrimitivesTest extends WalaTestCase {
     v1.add(344);
     v1.add(397);
   }
+
+  /** the dense part, whose offset is rounded down to a word, must not hide sparse elements */
+  @Test
+  public void testSemiSparseMutableIntSetDenseRange() {
+    MutableIntSet s = new SemiSparseMutableIntSetFactory().make();
+    int[] elements = {212, 256, 133, 124, 211, 250, 215, 296, 121, 68, 272};
+    for (int e : elements) {
+      s.add(e);
+    }
+    assertEquals(elements.length, s.size());
+    for (int e : elements) {
+      assertTrue(s.contains(e), "missing " + e);
+    }
+
+    // every element can end up in the dense part, leaving the sparse part empty
+    MutableIntSet range = new SemiSparseMutableIntSetFactory().make();
+    for (int e = 1000; e <= 1600; e += 3) {
+      range.add(e);
+    }
+    assertEquals(201, range.size());
+    assertEquals(1600, range.max());
+
+    for (int seed = 0; seed < 500; seed++) {
+      Random r = new Random(seed);
+      MutableIntSet set = new SemiSparseMutableIntSetFactory().make();
+      Collection<Integer> expected = new HashSet<>();
+      for (int i = 0; i < 40; i++) {
+        int e = r.nextInt(400);
+        assertEquals(expected.add(e), set.add(e));
+      }
+      assertEquals(expected.size(), set.size());
+      for (int e : expected) {
+        assertTrue(set.contains(e), "seed " + seed + " missing " + e);
+      }
+    }
+  }
 }
@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.core.tests.callGraph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ibm.wala.classLoader.IClass;
+import com.ibm.wala.classLoader.IMethod;
+import com.ibm.wala.classLoader.JarFileModule;
+import com.ibm.wala.classLoader.Language;
+import com.ibm.wala.classLoader.Module;
+import com.ibm.wala.core.tests.util.TestConstants;
+import com.ibm.wala.core.tests.util.WalaTestCase;
+import com.ibm.wala.core.util.config.AnalysisScopeReader;
+import com.ibm.wala.core.util.io.FileProvider;
+import com.ibm.wala.ipa.callgraph.AnalysisCacheImpl;
+import com.ibm.wala.ipa.callgraph.AnalysisOptions;
+import com.ibm.wala.ipa.callgraph.AnalysisScope;
+import com.ibm.wala.ipa.callgraph.CGNode;
+import com.ibm.wala.ipa.callgraph.CallGraph;
+import com.ibm.wala.ipa.callgraph.Entrypoint;
+import com.ibm.wala.ipa.callgraph.IAnalysisCacheView;
+import com.ibm.wala.ipa.callgraph.impl.AbstractRootMethod;
+import com.ibm.wala.ipa.callgraph.impl.DefaultEntrypoint;
+import com.ibm.wala.ipa.callgraph.impl.Util;
+import com.ibm.wala.ipa.callgraph.propagation.IncrementalCallGraphUpdater;
+import com.ibm.wala.ipa.callgraph.propagation.InstanceKey;
+import com.ibm.wala.ipa.callgraph.propagation.LocalPointerKey;
+import com.ibm.wala.ipa.callgraph.propagation.PointerAnalysis;
+import com.ibm.wala.ipa.callgraph.propagation.PointerKey;
+import com.ibm.wala.ipa.callgraph.propagation.SSAPropagationCallGraphBuilder;
+import com.ibm.wala.ipa.cha.ClassHierarchy;
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.ipa.cha.ClassHierarchyFactory;
+import com.ibm.wala.shrike.shrikeBT.DupInstruction;
+import com.ibm.wala.shrike.shrikeBT.IInvokeInstruction;
+import com.ibm.wala.shrike.shrikeBT.InvokeInstruction;
+import com.ibm.wala.shrike.shrikeBT.MethodData;
+import com.ibm.wala.shrike.shrikeBT.MethodEditor;
+import com.ibm.wala.shrike.shrikeBT.NewInstruction;
+import com.ibm.wala.shrike.shrikeBT.PopInstruction;
+import com.ibm.wala.shrike.shrikeBT.shrikeCT.ClassInstrumenter;
+import com.ibm.wala.shrike.shrikeBT.shrikeCT.OfflineInstrumenter;
+import com.ibm.wala.shrike.shrikeCT.InvalidClassFileException;
+import com.ibm.wala.ssa.SSAAbstractInvokeInstruction;
+import com.ibm.wala.types.ClassLoaderReference;
+import com.ibm.wala.util.CancelException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Check that incremental call graph updates compute the same result as a fresh build */
+public class IncrementalCallGraphTest extends WalaTestCase {
+
+  public static void main(String[] args) {
+    justThisTest(IncrementalCallGraphTest.class);
+  }
+
+  private AnalysisScope scope;
+
+  private ClassHierarchy cha;
+
+  private IAnalysisCacheView cache;
+
+  /** the main entrypoint of JLex */
+  private Entrypoint main;
+
+  /** an entrypoint for an application method that main does not reach */
+  private Entrypoint other;
+
+  @BeforeEach
+  public void setUp()
+      throws ClassHierarchyException, IOException, IllegalArgumentException, CancelException {
+    scope =
+        CallGraphTestUtil.makeJ2SEAnalysisScope(
+            TestConstants.JLEX, CallGraphTestUtil.REGRESSION_EXCLUSIONS);
+    cha = ClassHierarchyFactory.make(scope);
+    cache = new AnalysisCacheImpl();
+    main = Util.makeMainEntrypoints(cha, TestConstants.JLEX_MAIN).iterator().next();
+
+    CallGraph cg = build(Collections.singletonList(main));
+    Set<String> reached = new TreeSet<>();
+    for (CGNode n : cg) {
+      reached.add(n.getMethod().getSignature());
+    }
+    Map<String, IMethod> unreached = new TreeMap<>();
+    for (IClass klass : cha) {
+      if (klass.getClassLoader().getReference().equals(ClassLoaderReference.Application)) {
+        for (IMethod m : klass.getDeclaredMethods()) {
+          if (!m.isAbstract() && !reached.contains(m.getSignature())) {
+            unreached.put(m.getSignature(), m);
+          }
+        }
+      }
+    }
+    assertFalse(unreached.isEmpty(), "main reaches all methods");
+    other = new DefaultEntrypoint(unreached.values().iterator().next(), cha);
+  }
+
+  private AnalysisOptions makeOptions(List<Entrypoint> entrypoints) {
+    return CallGraphTestUtil.makeAnalysisOptions(scope, entrypoints);
+  }
+
+  private SSAPropagationCallGraphBuilder makeBuilder(AnalysisOptions options) {
+    return Util.makeZeroCFABuilder(Language.JAVA, options, cache, cha);
+  }
+
+  private CallGraph build(List<Entrypoint> entrypoints)
+      throws IllegalArgumentException, CancelException {
+    AnalysisOptions options = makeOptions(entrypoints);
+    return makeBuilder(options).makeCallGraph(options, null);
+  }
+
+  /**
+   * nodes of the call graph, and points-to sets of pointer keys; locals of the synthetic root
+   * methods are skipped, since their value numbers depend on the order in which calls were added.
+   * The classes that summarize lambdas, and their fields, are made for each class hierarchy, and
+   * print their identity hash codes, so these are dropped, and the points-to sets of keys that only
+   * differed by them are merged.
+   */
+  private static Map<String, Set<String>> describe(
+      CallGraph cg, PointerAnalysis<InstanceKey> pa) {
+    Map<String, Set<String>> result = new TreeMap<>();
+    Set<String> nodes = new TreeSet<>();
+    for (CGNode n : cg) {
+      nodes.add(withoutIdentities(n.toString()));
+    }
+    result.put("nodes", nodes);
+    for (PointerKey k : pa.getPointerKeys()) {
+      if (k instanceof LocalPointerKey
+          && ((LocalPointerKey) k).getNode().getMethod() instanceof AbstractRootMethod) {
+        continue;
+      }
+      Set<String> types = new TreeSet<>();
+      for (InstanceKey ik : pa.getPointsToSet(k)) {
+        types.add(ik.getConcreteType().getName().toString());
+      }
+      result.merge(
+          withoutIdentities(k.toString()),
+          types,
+          (x, y) -> {
+            x.addAll(y);
+            return x;
+          });
+    }
+    return result;
+  }
+
+  private static String withoutIdentities(String s) {
+    return s.replaceAll("(LambdaSummaryClass(\\$\\d+)?)@\\p{XDigit}+", "$1");
+  }
+
+  @Test
+  public void testAddEntrypoint() throws IllegalArgumentException, CancelException {
+    AnalysisOptions options = makeOptions(new ArrayList<>(Collections.singletonList(main)));
+    IncrementalCallGraphUpdater updater =
+        new IncrementalCallGraphUpdater(() -> makeBuilder(options), options);
+    CallGraph cg = updater.build(null);
+    int before = cg.getNumberOfNodes();
+
+    IMethod fakeRoot = cg.getFakeRootNode().getMethod();
+    assertNotNull(other.addCall((AbstractRootMethod) fakeRoot));
+    assertSame(cg, updater.update(Collections.singleton(fakeRoot), null));
+    assertTrue(updater.wasLastUpdateIncremental());
+    assertTrue(cg.getNumberOfNodes() > before);
+
+    AnalysisOptions freshOptions = makeOptions(Arrays.asList(main, other));
+    SSAPropagationCallGraphBuilder fresh = makeBuilder(freshOptions);
+    CallGraph freshCG = fresh.makeCallGraph(freshOptions, null);
+    assertEquals(
+        describe(freshCG, fresh.getPointerAnalysis()),
+        describe(cg, updater.getPointerAnalysis()));
+  }
+
+  @Test
+  public void testRemoveEntrypoint() throws IllegalArgumentException, CancelException {
+    AnalysisOptions options = makeOptions(Arrays.asList(main, other));
+    IncrementalCallGraphUpdater updater =
+        new IncrementalCallGraphUpdater(() -> makeBuilder(options), options);
+    CallGraph cg = updater.build(null);
+
+    // drop the call to the other entrypoint; later builds only call main
+    AbstractRootMethod fakeRoot = (AbstractRootMethod) cg.getFakeRootNode().getMethod();
+    assertTrue(
+        fakeRoot.statements.removeIf(
+            s ->
+                s instanceof SSAAbstractInvokeInstruction
+                    && ((SSAAbstractInvokeInstruction) s)
+                        .getDeclaredTarget()
+                        .equals(other.getMethod().getReference())));
+    options.setEntrypoints(Collections.singletonList(main));
+    CallGraph updated = updater.update(Collections.singleton(fakeRoot), null);
+    assertFalse(updater.wasLastUpdateIncremental());
+
+    AnalysisOptions freshOptions = makeOptions(Collections.singletonList(main));
+    SSAPropagationCallGraphBuilder fresh = makeBuilder(freshOptions);
+    CallGraph freshCG = fresh.makeCallGraph(freshOptions, null);
+    assertEquals(
+        describe(freshCG, fresh.getPointerAnalysis()),
+        describe(updated, updater.getPointerAnalysis()));
+  }
+
+  @Test
+  public void testChangeUnreachedMethod() throws IllegalArgumentException, CancelException {
+    AnalysisOptions options = makeOptions(Collections.singletonList(main));
+    IncrementalCallGraphUpdater updater =
+        new IncrementalCallGraphUpdater(() -> makeBuilder(options), options);
+    CallGraph cg = updater.build(null);
+    Map<String, Set<String>> before = describe(cg, updater.getPointerAnalysis());
+    // the call graph has no node for the method yet, so only later nodes see the change
+    assertSame(cg, updater.update(Collections.singleton(other.getMethod()), null));
+    assertTrue(updater.wasLastUpdateIncremental());
+    assertEquals(before, describe(cg, updater.getPointerAnalysis()));
+  }
+
+  /**
+   * Copy the JLex jar to edited, adding an allocation of an Object at the start of main
+   *
+   * @return the analysis scope of the copy
+   */
+  private AnalysisScope editMain(Path edited)
+      throws IOException, InvalidClassFileException, IllegalStateException {
+    Module jlex = scope.getModules(ClassLoaderReference.Application).get(0);
+    OfflineInstrumenter instrumenter = new OfflineInstrumenter();
+    instrumenter.addInputJar(new File(((JarFileModule) jlex).getAbsolutePath()));
+    instrumenter.setPassUnmodifiedClasses(true);
+    instrumenter.setOutputJar(edited.toFile());
+    instrumenter.beginTraversal();
+    ClassInstrumenter ci;
+    while ((ci = instrumenter.nextClass()) != null) {
+      for (int i = 0; i < ci.getReader().getMethodCount(); i++) {
+        MethodData md = ci.visitMethod(i);
+        if (md.getClassType().equals(TestConstants.JLEX_MAIN + ';')
+            && md.getName().equals("main")) {
+          MethodEditor me = new MethodEditor(md);
+          me.beginPass();
+          me.insertAtStart(
+              new MethodEditor.Patch() {
+                @Override
+                public void emitTo(MethodEditor.Output w) {
+                  w.emit(NewInstruction.make("Ljava/lang/Object;", 0));
+                  w.emit(DupInstruction.make(0));
+                  w.emit(
+                      InvokeInstruction.make(
+                          "()V",
+                          "Ljava/lang/Object;",
+                          "<init>",
+                          IInvokeInstruction.Dispatch.SPECIAL));
+                  w.emit(PopInstruction.make(1));
+                }
+              });
+          me.applyPatches();
+          me.endPass();
+        }
+      }
+      if (ci.isChanged()) {
+        instrumenter.outputModifiedClass(ci, ci.emitClass());
+      }
+    }
+    instrumenter.close();
+    return AnalysisScopeReader.instance.makeJavaBinaryAnalysisScope(
+        edited.toString(), new FileProvider().getFile(CallGraphTestUtil.REGRESSION_EXCLUSIONS));
+  }
+
+  @Test
+  public void testEditApplicationMethod(@TempDir Path tmpDir)
+      throws IllegalArgumentException, CancelException, IOException, InvalidClassFileException,
+          ClassHierarchyException {
+    ClassHierarchy[] current = {cha};
+    AnalysisOptions options = makeOptions(Collections.singletonList(main));
+    IncrementalCallGraphUpdater updater =
+        new IncrementalCallGraphUpdater(
+            () -> Util.makeZeroCFABuilder(Language.JAVA, options, cache, current[0]), options);
+    CallGraph cg = updater.build(null);
+    Map<String, Set<String>> before = describe(cg, updater.getPointerAnalysis());
+
+    // load the edited main into a new class hierarchy
+    AnalysisScope editedScope = editMain(tmpDir.resolve("edited.jar"));
+    current[0] = ClassHierarchyFactory.make(editedScope);
+    Entrypoint editedMain =
+        Util.makeMainEntrypoints(current[0], TestConstants.JLEX_MAIN).iterator().next();
+    options.setEntrypoints(Collections.singletonList(editedMain));
+    CallGraph updated = updater.update(Collections.singleton(editedMain.getMethod()), null);
+    assertSame(cg, updated);
+    assertTrue(updater.wasLastUpdateIncremental());
+    Map<String, Set<String>> after = describe(updated, updater.getPointerAnalysis());
+    assertNotEquals(before, after);
+
+    AnalysisOptions freshOptions = makeOptions(Collections.singletonList(editedMain));
+    SSAPropagationCallGraphBuilder fresh =
+        Util.makeZeroCFABuilder(
+            Language.JAVA, freshOptions, new AnalysisCacheImpl(), current[0]);
+    CallGraph freshCG = fresh.makeCallGraph(freshOptions, null);
+    assertEquals(describe(freshCG, fresh.getPointerAnalysis()), after);
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.core.tests.callGraph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.ibm.wala.classLoader.Language;
+import com.ibm.wala.core.tests.util.TestConstants;
+import com.ibm.wala.core.tests.util.WalaTestCase;
+import com.ibm.wala.ipa.callgraph.AnalysisCacheImpl;
+import com.ibm.wala.ipa.callgraph.AnalysisOptions;
+import com.ibm.wala.ipa.callgraph.AnalysisScope;
+import com.ibm.wala.ipa.callgraph.CGNode;
+import com.ibm.wala.ipa.callgraph.CallGraph;
+import com.ibm.wala.ipa.callgraph.CallGraphBuilder;
+import com.ibm.wala.ipa.callgraph.Entrypoint;
+import com.ibm.wala.ipa.callgraph.impl.Util;
+import com.ibm.wala.ipa.callgraph.propagation.InstanceKey;
+import com.ibm.wala.ipa.callgraph.propagation.PointerAnalysis;
+import com.ibm.wala.ipa.callgraph.propagation.PointerKey;
+import com.ibm.wala.ipa.cha.ClassHierarchy;
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.ipa.cha.ClassHierarchyFactory;
+import com.ibm.wala.util.CancelException;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+/** Check that the optional modes of the pointer analysis solver compute the same result */
+public class ParallelSolverTest extends WalaTestCase {
+
+  public static void main(String[] args) {
+    justThisTest(ParallelSolverTest.class);
+  }
+
+  @Test
+  public void testJLex()
+      throws ClassHierarchyException, IllegalArgumentException, CancelException, IOException {
+    AnalysisScope scope =
+        CallGraphTestUtil.makeJ2SEAnalysisScope(
+            TestConstants.JLEX, CallGraphTestUtil.REGRESSION_EXCLUSIONS);
+    ClassHierarchy cha = ClassHierarchyFactory.make(scope);
+    Iterable<Entrypoint> entrypoints = Util.makeMainEntrypoints(cha, TestConstants.JLEX_MAIN);
+
+    Map<String, Integer> sequential = new TreeMap<>();
+    int sequentialSize = buildZeroOneCFA(scope, cha, entrypoints, 1, false, false, sequential);
+    Map<String, Integer> parallel = new TreeMap<>();
+    int parallelSize = buildZeroOneCFA(scope, cha, entrypoints, 4, false, false, parallel);
+
+    assertEquals(sequential, parallel);
+    assertEquals(sequentialSize, parallelSize);
+  }
+
+  @Test
+  public void testJLexDifferencePropagation()
+      throws ClassHierarchyException, IllegalArgumentException, CancelException, IOException {
+    AnalysisScope scope =
+        CallGraphTestUtil.makeJ2SEAnalysisScope(
+            TestConstants.JLEX, CallGraphTestUtil.REGRESSION_EXCLUSIONS);
+    ClassHierarchy cha = ClassHierarchyFactory.make(scope);
+    Iterable<Entrypoint> entrypoints = Util.makeMainEntrypoints(cha, TestConstants.JLEX_MAIN);
+
+    Map<String, Integer> full = new TreeMap<>();
+    int fullSize = buildZeroOneCFA(scope, cha, entrypoints, 1, false, false, full);
+    Map<String, Integer> deltas = new TreeMap<>();
+    int deltasSize = buildZeroOneCFA(scope, cha, entrypoints, 1, true, false, deltas);
+    Map<String, Integer> parallelDeltas = new TreeMap<>();
+    int parallelDeltasSize =
+        buildZeroOneCFA(scope, cha, entrypoints, 4, true, false, parallelDeltas);
+
+    assertEquals(full, deltas);
+    assertEquals(fullSize, deltasSize);
+    assertEquals(full, parallelDeltas);
+    assertEquals(fullSize, parallelDeltasSize);
+  }
+
+  @Test
+  public void testJLexCycleElimination()
+      throws ClassHierarchyException, IllegalArgumentException, CancelException, IOException {
+    AnalysisScope scope =
+        CallGraphTestUtil.makeJ2SEAnalysisScope(
+            TestConstants.JLEX, CallGraphTestUtil.REGRESSION_EXCLUSIONS);
+    ClassHierarchy cha = ClassHierarchyFactory.make(scope);
+    Iterable<Entrypoint> entrypoints = Util.makeMainEntrypoints(cha, TestConstants.JLEX_MAIN);
+
+    Map<String, Integer> plain = new TreeMap<>();
+    int plainSize = buildZeroOneCFA(scope, cha, entrypoints, 1, false, false, plain);
+    Map<String, Integer> collapsed = new TreeMap<>();
+    int collapsedSize = buildZeroOneCFA(scope, cha, entrypoints, 1, false, true, collapsed);
+    Map<String, Integer> collapsedDeltas = new TreeMap<>();
+    int collapsedDeltasSize =
+        buildZeroOneCFA(scope, cha, entrypoints, 4, true, true, collapsedDeltas);
+
+    assertEquals(plain, collapsed);
+    assertEquals(plainSize, collapsedSize);
+    assertEquals(plain, collapsedDeltas);
+    assertEquals(plainSize, collapsedDeltasSize);
+  }
+
+  /**
+   * Build a 0-1-CFA call graph, recording the number of callees of each node in calleeCounts.
+   *
+   * @return the sum of the sizes of all points-to sets
+   */
+  private static int buildZeroOneCFA(
+      AnalysisScope scope,
+      ClassHierarchy cha,
+      Iterable<Entrypoint> entrypoints,
+      int threads,
+      boolean differencePropagation,
+      boolean cycleElimination,
+      Map<String, Integer> calleeCounts)
+      throws IllegalArgumentException, CancelException {
+    AnalysisOptions options = CallGraphTestUtil.makeAnalysisOptions(scope, entrypoints);
+    options.setNumberOfSolverThreads(threads);
+    options.setUseDifferencePropagation(differencePropagation);
+    options.setUseCycleElimination(cycleElimination);
+    CallGraphBuilder<InstanceKey> builder =
+        Util.makeZeroOneCFABuilder(Language.JAVA, options, new AnalysisCacheImpl(), cha);
+    CallGraph cg = builder.makeCallGraph(options, null);
+    for (CGNode n : cg) {
+      calleeCounts.put(n.toString(), cg.getSuccNodeCount(n));
+    }
+    PointerAnalysis<InstanceKey> pa = builder.getPointerAnalysis();
+    int size = 0;
+    for (PointerKey k : pa.getPointerKeys()) {
+      size += pa.getPointsToSet(k).size();
+    }
+    return size;
+  }
+}
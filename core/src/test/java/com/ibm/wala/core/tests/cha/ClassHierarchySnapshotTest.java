@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.core.tests.cha;
+
+import static com.ibm.wala.core.tests.cha.ParallelClassHierarchyTest.describe;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ibm.wala.classLoader.IClass;
+import com.ibm.wala.classLoader.JarFileModule;
+import com.ibm.wala.classLoader.Module;
+import com.ibm.wala.core.tests.callGraph.CallGraphTestUtil;
+import com.ibm.wala.core.tests.util.TestConstants;
+import com.ibm.wala.core.tests.util.WalaTestCase;
+import com.ibm.wala.core.util.config.AnalysisScopeReader;
+import com.ibm.wala.core.util.io.FileProvider;
+import com.ibm.wala.ipa.callgraph.AnalysisScope;
+import com.ibm.wala.ipa.cha.ClassHierarchy;
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.ipa.cha.ClassHierarchyFactory;
+import com.ibm.wala.ipa.cha.ClassHierarchySnapshot;
+import com.ibm.wala.types.ClassLoaderReference;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Check that a class hierarchy built from a snapshot is the same as one built from class files */
+public class ClassHierarchySnapshotTest extends WalaTestCase {
+
+  public static void main(String[] args) {
+    justThisTest(ClassHierarchySnapshotTest.class);
+  }
+
+  private static AnalysisScope makeJLexScope() throws IOException {
+    return CallGraphTestUtil.makeJ2SEAnalysisScope(
+        TestConstants.JLEX, CallGraphTestUtil.REGRESSION_EXCLUSIONS);
+  }
+
+  private static AnalysisScope makeScope(Path jar) throws IOException {
+    return AnalysisScopeReader.instance.makeJavaBinaryAnalysisScope(
+        jar.toString(), new FileProvider().getFile(CallGraphTestUtil.REGRESSION_EXCLUSIONS));
+  }
+
+  @Test
+  public void testRoundTrip(@TempDir Path tmpDir) throws ClassHierarchyException, IOException {
+    Path file = tmpDir.resolve("cha.snapshot");
+    ClassHierarchy original =
+        ClassHierarchyFactory.makeWithSnapshot(makeJLexScope(), file.toFile());
+    assertTrue(Files.exists(file));
+
+    AnalysisScope scope = makeJLexScope();
+    ClassHierarchySnapshot snapshot = ClassHierarchySnapshot.read(file.toFile());
+    assertEquals(Collections.emptySet(), snapshot.getStaleModules(scope));
+    ClassHierarchy reloaded = ClassHierarchyFactory.makeWithSnapshot(scope, file.toFile());
+    assertEquals(describe(original), describe(reloaded));
+
+    // the snapshot records the supertypes of the application classes
+    Module jlex = scope.getModules(ClassLoaderReference.Application).get(0);
+    ClassHierarchySnapshot.ModuleSnapshot records =
+        snapshot.getModule(ClassLoaderReference.Application, jlex);
+    assertNotNull(records);
+    int count = 0;
+    for (IClass klass : reloaded) {
+      if (klass.getClassLoader().getReference().equals(ClassLoaderReference.Application)) {
+        ClassHierarchySnapshot.ClassRecord record =
+            records.getClass(klass.getName().toString().substring(1));
+        assertNotNull(record, klass.toString());
+        assertEquals(
+            klass.getSuperclass().getName().toString().substring(1), record.getSuperName());
+        Set<String> interfaces = new HashSet<>();
+        for (IClass i : klass.getDirectInterfaces()) {
+          interfaces.add(i.getName().toString().substring(1));
+        }
+        assertEquals(interfaces, new HashSet<>(Arrays.asList(record.getInterfaceNames())));
+        count++;
+      }
+    }
+    assertEquals(count, records.getNumberOfClasses());
+  }
+
+  @Test
+  public void testChangedModule(@TempDir Path tmpDir) throws ClassHierarchyException, IOException {
+    Path file = tmpDir.resolve("cha.snapshot");
+    Module jlex = makeJLexScope().getModules(ClassLoaderReference.Application).get(0);
+    Path jar = tmpDir.resolve("app.jar");
+    Files.copy(Paths.get(((JarFileModule) jlex).getAbsolutePath()), jar);
+    ClassHierarchyFactory.makeWithSnapshot(makeScope(jar), file.toFile());
+
+    // a jar with a new modification time but the same contents is hashed, and still up to date
+    FileTime touched = FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() - 60_000);
+    Files.setLastModifiedTime(jar, touched);
+    assertEquals(
+        Collections.emptySet(),
+        ClassHierarchySnapshot.read(file.toFile()).getStaleModules(makeScope(jar)));
+
+    // change the contents of the jar, but not its classes
+    Path changed = tmpDir.resolve("changed.jar");
+    try (JarFile in = new JarFile(jar.toFile());
+        JarOutputStream out = new JarOutputStream(Files.newOutputStream(changed))) {
+      for (JarEntry e : Collections.list(in.entries())) {
+        out.putNextEntry(new JarEntry(e.getName()));
+        try (InputStream s = in.getInputStream(e)) {
+          s.transferTo(out);
+        }
+      }
+      out.putNextEntry(new JarEntry("changed.txt"));
+      out.write(42);
+    }
+    Files.move(changed, jar, StandardCopyOption.REPLACE_EXISTING);
+
+    AnalysisScope scope = makeScope(jar);
+    Set<Module> stale = ClassHierarchySnapshot.read(file.toFile()).getStaleModules(scope);
+    assertEquals(1, stale.size());
+    Module app = stale.iterator().next();
+    assertTrue(scope.getModules(ClassLoaderReference.Application).contains(app));
+
+    ClassHierarchy reloaded = ClassHierarchyFactory.makeWithSnapshot(scope, file.toFile());
+    ClassHierarchy fresh = ClassHierarchyFactory.make(makeScope(jar));
+    assertEquals(describe(fresh), describe(reloaded));
+    assertEquals(
+        Collections.emptySet(), ClassHierarchySnapshot.read(file.toFile()).getStaleModules(scope));
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.core.tests.cha;
+
+import static com.ibm.wala.core.tests.cha.ParallelClassHierarchyTest.describe;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.ibm.wala.classLoader.IClass;
+import com.ibm.wala.classLoader.Language;
+import com.ibm.wala.classLoader.ShrikeClass;
+import com.ibm.wala.core.tests.callGraph.CallGraphTestUtil;
+import com.ibm.wala.core.tests.util.TestConstants;
+import com.ibm.wala.core.tests.util.WalaTestCase;
+import com.ibm.wala.core.util.shrike.ShrikeClassReaderHandle;
+import com.ibm.wala.ipa.callgraph.AnalysisCacheImpl;
+import com.ibm.wala.ipa.callgraph.AnalysisOptions;
+import com.ibm.wala.ipa.callgraph.AnalysisScope;
+import com.ibm.wala.ipa.callgraph.CallGraph;
+import com.ibm.wala.ipa.callgraph.impl.Util;
+import com.ibm.wala.ipa.cha.ClassHierarchy;
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.ipa.cha.ClassHierarchyFactory;
+import com.ibm.wala.ipa.cha.IClassHierarchy;
+import com.ibm.wala.shrike.shrikeCT.ClassHeaderReader;
+import com.ibm.wala.shrike.shrikeCT.ClassReader;
+import com.ibm.wala.shrike.shrikeCT.InvalidClassFileException;
+import com.ibm.wala.types.ClassLoaderReference;
+import com.ibm.wala.util.CancelException;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/** Check that a class hierarchy that reads class files lazily is the same as an eager one */
+public class LazyClassHierarchyTest extends WalaTestCase {
+
+  public static void main(String[] args) {
+    justThisTest(LazyClassHierarchyTest.class);
+  }
+
+  private static AnalysisScope makeJLexScope() throws IOException {
+    return CallGraphTestUtil.makeJ2SEAnalysisScope(
+        TestConstants.JLEX, CallGraphTestUtil.REGRESSION_EXCLUSIONS);
+  }
+
+  /** the methods in the call graph, and its number of nodes */
+  private static Set<String> makeCallGraph(AnalysisScope scope, IClassHierarchy cha)
+      throws IllegalArgumentException, CancelException {
+    AnalysisOptions options =
+        CallGraphTestUtil.makeAnalysisOptions(
+            scope, Util.makeMainEntrypoints(cha, TestConstants.JLEX_MAIN));
+    CallGraph cg =
+        Util.makeZeroCFABuilder(Language.JAVA, options, new AnalysisCacheImpl(), cha)
+            .makeCallGraph(options, null);
+    // contexts of lambdas print differently in each run, so compare methods only
+    Set<String> result = new HashSet<>();
+    cg.forEach(n -> result.add(n.getMethod().getSignature()));
+    result.add("nodes: " + cg.getNumberOfNodes());
+    return result;
+  }
+
+  @Test
+  public void testHeaders()
+      throws ClassHierarchyException, IOException, InvalidClassFileException {
+    ClassHierarchy cha = ClassHierarchyFactory.make(makeJLexScope());
+    int count = 0;
+    for (IClass klass : cha) {
+      if (klass instanceof ShrikeClass
+          && klass.getClassLoader().getReference().equals(ClassLoaderReference.Application)) {
+        ShrikeClassReaderHandle handle =
+            new ShrikeClassReaderHandle(((ShrikeClass) klass).getModuleEntry());
+        ClassHeaderReader header = handle.getHeader();
+        ClassReader reader = handle.get();
+        assertEquals(reader.getName(), header.getName());
+        assertEquals(reader.getAccessFlags(), header.getAccessFlags());
+        assertEquals(reader.getSuperName(), header.getSuperName());
+        assertArrayEquals(reader.getInterfaceNames(), header.getInterfaceNames());
+        count++;
+      }
+    }
+    assertEquals(cha.getLoader(ClassLoaderReference.Application).getNumberOfClasses(), count);
+  }
+
+  @Tag("slow")
+  @Test
+  public void testLazy()
+      throws ClassHierarchyException, IOException, IllegalArgumentException, CancelException {
+    AnalysisScope scope = makeJLexScope();
+    ClassHierarchy eager = ClassHierarchyFactory.make(scope);
+    ClassHierarchy lazy = ClassHierarchyFactory.makeLazy(scope);
+    assertEquals(describe(eager), describe(lazy));
+    assertEquals(makeCallGraph(scope, eager), makeCallGraph(scope, lazy));
+  }
+}
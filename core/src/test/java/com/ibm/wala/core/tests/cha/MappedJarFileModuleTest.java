@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.core.tests.cha;
+
+import static com.ibm.wala.core.tests.cha.ParallelClassHierarchyTest.describe;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ibm.wala.classLoader.JarFileEntry;
+import com.ibm.wala.classLoader.JarFileModule;
+import com.ibm.wala.classLoader.MappedJarFileModule;
+import com.ibm.wala.classLoader.ModuleEntry;
+import com.ibm.wala.core.tests.callGraph.CallGraphTestUtil;
+import com.ibm.wala.core.tests.util.TestConstants;
+import com.ibm.wala.core.tests.util.WalaTestCase;
+import com.ibm.wala.core.util.config.AnalysisScopeReader;
+import com.ibm.wala.core.util.io.FileProvider;
+import com.ibm.wala.ipa.callgraph.AnalysisScope;
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.ipa.cha.ClassHierarchyFactory;
+import com.ibm.wala.types.ClassLoaderReference;
+import com.ibm.wala.util.PlatformUtil;
+import com.ibm.wala.util.collections.Iterator2Iterable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Check that a {@link MappedJarFileModule} reads the same entries as a {@link JarFileModule} */
+public class MappedJarFileModuleTest extends WalaTestCase {
+
+  public static void main(String[] args) {
+    justThisTest(MappedJarFileModuleTest.class);
+  }
+
+  private static String getJLexPath() throws IOException {
+    AnalysisScope scope =
+        CallGraphTestUtil.makeJ2SEAnalysisScope(
+            TestConstants.JLEX, CallGraphTestUtil.REGRESSION_EXCLUSIONS);
+    return ((JarFileModule) scope.getModules(ClassLoaderReference.Application).get(0))
+        .getAbsolutePath();
+  }
+
+  private static void assertSameEntries(String path) throws IOException {
+    JarFileModule expected = new JarFileModule(new JarFile(path, false));
+    MappedJarFileModule actual = new MappedJarFileModule(new JarFile(path, false));
+    List<String> names = new ArrayList<>();
+    for (ModuleEntry e : Iterator2Iterable.make(expected.getEntries())) {
+      names.add(e.getName());
+    }
+    List<String> mappedNames = new ArrayList<>();
+    for (ModuleEntry e : Iterator2Iterable.make(actual.getEntries())) {
+      mappedNames.add(e.getName());
+      byte[] contents;
+      try (InputStream s = e.getInputStream()) {
+        contents = s.readAllBytes();
+      }
+      MappedJarFileModule.Entry m = (MappedJarFileModule.Entry) e;
+      assertEquals(contents.length, m.getSize());
+      try (InputStream s = expected.getJarFile().getInputStream(new JarEntry(e.getName()))) {
+        assertArrayEquals(s.readAllBytes(), contents, e.getName());
+      }
+      assertArrayEquals(contents, m.getContents());
+      ByteBuffer b = m.getByteBuffer();
+      byte[] fromBuffer = new byte[b.remaining()];
+      b.get(fromBuffer);
+      assertArrayEquals(contents, fromBuffer);
+      assertEquals(((JarFileEntry) e).getSize(), contents.length);
+    }
+    assertEquals(names, mappedNames);
+    assertNull(actual.getEntry("no/such/Entry.class"));
+  }
+
+  @Test
+  public void testJar() throws IOException {
+    assertSameEntries(getJLexPath());
+  }
+
+  @Test
+  public void testJMod() throws IOException {
+    // the zip data in a jmod file follows a header
+    assertSameEntries(PlatformUtil.getPathForJDKModule("java.sql").toString());
+  }
+
+  @Test
+  public void testStoredEntries(@TempDir Path tmpDir) throws IOException {
+    Path jar = tmpDir.resolve("stored.jar");
+    byte[] data = "stored, not deflated".getBytes(StandardCharsets.UTF_8);
+    try (OutputStream f = Files.newOutputStream(jar);
+        JarOutputStream out = new JarOutputStream(f)) {
+      JarEntry stored = new JarEntry("a/stored.txt");
+      stored.setMethod(JarEntry.STORED);
+      stored.setSize(data.length);
+      CRC32 crc = new CRC32();
+      crc.update(data);
+      stored.setCrc(crc.getValue());
+      out.putNextEntry(stored);
+      out.write(data);
+      out.putNextEntry(new JarEntry("a/empty.txt"));
+      out.putNextEntry(new JarEntry("a/deflated.txt"));
+      for (int i = 0; i < 1000; i++) {
+        out.write(data);
+      }
+    }
+    assertSameEntries(jar.toString());
+    MappedJarFileModule m = new MappedJarFileModule(new JarFile(jar.toFile(), false));
+    assertTrue(m.getEntry("a/stored.txt").getByteBuffer().isReadOnly());
+    assertEquals(1000 * data.length, m.getEntry("a/deflated.txt").getSize());
+  }
+
+  @Test
+  public void testClassHierarchy() throws ClassHierarchyException, IOException {
+    String jlex = getJLexPath();
+    AnalysisScope scope =
+        AnalysisScopeReader.instance.makeJavaBinaryAnalysisScope(
+            jlex, new FileProvider().getFile(CallGraphTestUtil.REGRESSION_EXCLUSIONS));
+    AnalysisScope mappedScope =
+        AnalysisScopeReader.instance.makePrimordialScope(
+            new FileProvider().getFile(CallGraphTestUtil.REGRESSION_EXCLUSIONS));
+    mappedScope.addMappedJarToScope(
+        mappedScope.getLoader(AnalysisScope.APPLICATION), new JarFile(jlex, false));
+    assertEquals(
+        describe(ClassHierarchyFactory.make(scope)),
+        describe(ClassHierarchyFactory.make(mappedScope)));
+  }
+}
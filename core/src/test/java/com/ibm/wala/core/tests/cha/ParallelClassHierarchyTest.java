@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.core.tests.cha;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.ibm.wala.classLoader.IClass;
+import com.ibm.wala.classLoader.IClassLoader;
+import com.ibm.wala.classLoader.IField;
+import com.ibm.wala.classLoader.IMethod;
+import com.ibm.wala.core.tests.callGraph.CallGraphTestUtil;
+import com.ibm.wala.core.tests.util.TestConstants;
+import com.ibm.wala.core.tests.util.WalaTestCase;
+import com.ibm.wala.ipa.callgraph.AnalysisScope;
+import com.ibm.wala.ipa.cha.ClassHierarchy;
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.ipa.cha.ClassHierarchyFactory;
+import com.ibm.wala.util.collections.Iterator2Iterable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+/** Check that parsing class files in parallel builds the same class hierarchy */
+public class ParallelClassHierarchyTest extends WalaTestCase {
+
+  public static void main(String[] args) {
+    justThisTest(ParallelClassHierarchyTest.class);
+  }
+
+  private static AnalysisScope makeScope() throws IOException {
+    return CallGraphTestUtil.makeJ2SEAnalysisScope(
+        TestConstants.JLEX, CallGraphTestUtil.REGRESSION_EXCLUSIONS);
+  }
+
+  /** a description of each class of cha, by loader and name */
+  static Map<String, String> describe(ClassHierarchy cha) {
+    Map<String, String> result = new TreeMap<>();
+    for (IClassLoader loader : cha.getLoaders()) {
+      for (IClass klass : Iterator2Iterable.make(loader.iterateAllClasses())) {
+        StringBuilder s = new StringBuilder();
+        IClass superclass = klass.getSuperclass();
+        s.append("super ").append(superclass == null ? null : superclass.getReference());
+        s.append(" modifiers ").append(klass.getModifiers());
+        TreeSet<String> members = new TreeSet<>();
+        for (IClass i : klass.getDirectInterfaces()) {
+          members.add("implements " + i.getReference());
+        }
+        for (IField f : klass.getDeclaredInstanceFields()) {
+          members.add("field " + f.getReference());
+        }
+        for (IField f : klass.getDeclaredStaticFields()) {
+          members.add("static field " + f.getReference());
+        }
+        for (IMethod m : klass.getDeclaredMethods()) {
+          members.add("method " + m.getReference());
+        }
+        s.append(' ').append(members);
+        result.put(klass.getReference().toString(), s.toString());
+      }
+    }
+    return result;
+  }
+
+  @Test
+  public void testSameHierarchy() throws ClassHierarchyException, IOException {
+    ClassHierarchy sequential = ClassHierarchyFactory.make(makeScope());
+    ClassHierarchy parallel = ClassHierarchyFactory.makeParallel(makeScope(), 4);
+    assertEquals(sequential.getNumberOfClasses(), parallel.getNumberOfClasses());
+    assertEquals(describe(sequential), describe(parallel));
+    for (IClass klass : parallel) {
+      assertNotNull(sequential.lookupClass(klass.getReference()), klass.toString());
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.core.tests.ir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ibm.wala.classLoader.IClass;
+import com.ibm.wala.classLoader.IClassLoader;
+import com.ibm.wala.classLoader.IMethod;
+import com.ibm.wala.core.tests.callGraph.CallGraphTestUtil;
+import com.ibm.wala.core.tests.util.TestConstants;
+import com.ibm.wala.core.tests.util.WalaTestCase;
+import com.ibm.wala.ipa.callgraph.AnalysisScope;
+import com.ibm.wala.ipa.callgraph.BoundedAnalysisCacheImpl;
+import com.ibm.wala.ipa.cha.ClassHierarchy;
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.ipa.cha.ClassHierarchyFactory;
+import com.ibm.wala.ssa.BoundedAuxiliaryCache;
+import com.ibm.wala.ssa.DefUse;
+import com.ibm.wala.ssa.IR;
+import com.ibm.wala.ssa.SSAInstruction;
+import com.ibm.wala.types.ClassLoaderReference;
+import com.ibm.wala.util.collections.Iterator2Iterable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Check that a {@link BoundedAnalysisCacheImpl} stays within budget and rebuilds evicted IRs */
+public class BoundedAnalysisCacheTest extends WalaTestCase {
+
+  public static void main(String[] args) {
+    justThisTest(BoundedAnalysisCacheTest.class);
+  }
+
+  /** the concrete methods of the application classes of JLex */
+  private static List<IMethod> jlexMethods() throws ClassHierarchyException, IOException {
+    AnalysisScope scope =
+        CallGraphTestUtil.makeJ2SEAnalysisScope(
+            TestConstants.JLEX, CallGraphTestUtil.REGRESSION_EXCLUSIONS);
+    ClassHierarchy cha = ClassHierarchyFactory.make(scope);
+    IClassLoader app = cha.getLoader(ClassLoaderReference.Application);
+    List<IMethod> methods = new ArrayList<>();
+    for (IClass klass : Iterator2Iterable.make(app.iterateAllClasses())) {
+      for (IMethod m : klass.getDeclaredMethods()) {
+        if (!m.isAbstract() && !m.isNative()) {
+          methods.add(m);
+        }
+      }
+    }
+    assertTrue(methods.size() > 1, "too few methods");
+    return methods;
+  }
+
+  @Test
+  public void testEviction() throws ClassHierarchyException, IOException {
+    List<IMethod> methods = jlexMethods();
+
+    // room for a single entry
+    long budget = 1;
+    BoundedAnalysisCacheImpl cache = new BoundedAnalysisCacheImpl(budget, budget);
+    BoundedAuxiliaryCache irs = cache.getIRCache();
+    List<String> texts = new ArrayList<>();
+    for (IMethod m : methods) {
+      IR ir = cache.getIR(m);
+      assertSame(ir, cache.getIR(m));
+      cache.getDefUse(ir);
+      texts.add(ir.toString());
+      assertEquals(1, irs.getNumberOfEntries(), irs.toString());
+    }
+    assertTrue(irs.getEvictions() > 0, irs.toString());
+    assertTrue(cache.getDefUseCache().getEvictions() > 0, cache.getDefUseCache().toString());
+    assertEquals(methods.size(), irs.getHits());
+
+    // the first IR has been evicted by now; it is rebuilt with the same contents
+    long misses = irs.getMisses();
+    IR first = cache.getIR(methods.get(0));
+    assertEquals(misses + 1, irs.getMisses());
+    assertEquals(texts.get(0), first.toString());
+  }
+
+  /** A DefUse that outlives its IR must not be returned for the IR that replaces it */
+  @Test
+  public void testDefUseOfRebuiltIR() throws ClassHierarchyException, IOException {
+    List<IMethod> methods = jlexMethods();
+    // room for a single IR, but for all DefUses
+    BoundedAnalysisCacheImpl cache = new BoundedAnalysisCacheImpl(1, Long.MAX_VALUE);
+    IR first = cache.getIR(methods.get(0));
+    DefUse firstDU = cache.getDefUse(first);
+    assertSame(firstDU, cache.getDefUse(first));
+    cache.getIR(methods.get(1));
+
+    IR rebuilt = cache.getIR(methods.get(0));
+    assertNotSame(first, rebuilt);
+    DefUse du = cache.getDefUse(rebuilt);
+    assertNotSame(firstDU, du);
+    assertSame(du, cache.getDefUse(rebuilt));
+    for (SSAInstruction inst : Iterator2Iterable.make(rebuilt.iterateAllInstructions())) {
+      for (int i = 0; i < inst.getNumberOfDefs(); i++) {
+        assertSame(inst, du.getDef(inst.getDef(i)));
+      }
+    }
+  }
+}
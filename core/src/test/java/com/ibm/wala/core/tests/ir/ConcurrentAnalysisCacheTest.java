@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.core.tests.ir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ibm.wala.classLoader.IClass;
+import com.ibm.wala.classLoader.IMethod;
+import com.ibm.wala.core.tests.callGraph.CallGraphTestUtil;
+import com.ibm.wala.core.tests.util.TestConstants;
+import com.ibm.wala.core.tests.util.WalaTestCase;
+import com.ibm.wala.ipa.callgraph.AnalysisCacheImpl;
+import com.ibm.wala.ipa.callgraph.AnalysisScope;
+import com.ibm.wala.ipa.callgraph.ConcurrentAnalysisCacheImpl;
+import com.ibm.wala.ipa.callgraph.Context;
+import com.ibm.wala.ipa.cha.ClassHierarchy;
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.ipa.cha.ClassHierarchyFactory;
+import com.ibm.wala.ssa.DefaultIRFactory;
+import com.ibm.wala.ssa.IR;
+import com.ibm.wala.ssa.SSAOptions;
+import com.ibm.wala.types.ClassLoaderReference;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+/** Check that a {@link ConcurrentAnalysisCacheImpl} builds each IR once, whatever the threading */
+public class ConcurrentAnalysisCacheTest extends WalaTestCase {
+
+  public static void main(String[] args) {
+    justThisTest(ConcurrentAnalysisCacheTest.class);
+  }
+
+  private static final Predicate<IMethod> APPLICATION =
+      m ->
+          m.getDeclaringClass()
+              .getClassLoader()
+              .getReference()
+              .equals(ClassLoaderReference.Application);
+
+  /** An IR factory that counts how many times it built the IR of each method */
+  private static class CountingIRFactory extends DefaultIRFactory {
+    private final Map<IMethod, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+    @Override
+    public IR makeIR(IMethod method, Context c, SSAOptions options) {
+      counts.computeIfAbsent(method, m -> new AtomicInteger()).incrementAndGet();
+      return super.makeIR(method, c, options);
+    }
+  }
+
+  private static ClassHierarchy makeJLexCHA() throws ClassHierarchyException, IOException {
+    AnalysisScope scope =
+        CallGraphTestUtil.makeJ2SEAnalysisScope(
+            TestConstants.JLEX, CallGraphTestUtil.REGRESSION_EXCLUSIONS);
+    return ClassHierarchyFactory.make(scope);
+  }
+
+  @Test
+  public void testPrewarm() throws ClassHierarchyException, IOException, InterruptedException {
+    ClassHierarchy cha = makeJLexCHA();
+    CountingIRFactory factory = new CountingIRFactory();
+    ConcurrentAnalysisCacheImpl cache = new ConcurrentAnalysisCacheImpl(factory);
+
+    int built = cache.prewarmIRs(cha, APPLICATION, 4);
+    assertTrue(built > 0, "no IR built");
+    assertEquals(built, factory.counts.size());
+
+    AnalysisCacheImpl sequential = new AnalysisCacheImpl();
+    for (IClass klass : cha) {
+      for (IMethod m : klass.getDeclaredMethods()) {
+        if (!m.isAbstract() && !m.isNative() && APPLICATION.test(m)) {
+          IR ir = cache.getIR(m);
+          assertNotNull(ir, m.toString());
+          assertEquals(sequential.getIR(m).toString(), ir.toString());
+        }
+      }
+    }
+    for (Map.Entry<IMethod, AtomicInteger> e : factory.counts.entrySet()) {
+      assertEquals(1, e.getValue().get(), e.getKey().toString());
+    }
+  }
+
+  @Test
+  public void testSameMethod() throws Exception {
+    ClassHierarchy cha = makeJLexCHA();
+    List<IMethod> methods = new ArrayList<>();
+    for (IClass klass : cha) {
+      for (IMethod m : klass.getDeclaredMethods()) {
+        if (!m.isAbstract() && !m.isNative() && APPLICATION.test(m)) {
+          methods.add(m);
+        }
+      }
+    }
+    CountingIRFactory factory = new CountingIRFactory();
+    ConcurrentAnalysisCacheImpl cache = new ConcurrentAnalysisCacheImpl(factory);
+
+    // every thread asks for every method, in the same order, so that requests collide
+    int nThreads = 8;
+    List<Callable<List<IR>>> tasks = new ArrayList<>();
+    for (int i = 0; i < nThreads; i++) {
+      tasks.add(
+          () -> {
+            List<IR> irs = new ArrayList<>();
+            for (IMethod m : methods) {
+              irs.add(cache.getIR(m));
+              cache.getDefUse(cache.getIR(m));
+            }
+            return irs;
+          });
+    }
+    ExecutorService pool = Executors.newFixedThreadPool(nThreads);
+    try {
+      List<Future<List<IR>>> results = pool.invokeAll(tasks);
+      List<IR> first = results.get(0).get();
+      for (Future<List<IR>> f : results) {
+        List<IR> irs = f.get();
+        for (int i = 0; i < methods.size(); i++) {
+          assertSame(first.get(i), irs.get(i), methods.get(i).toString());
+        }
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    for (Map.Entry<IMethod, AtomicInteger> e : factory.counts.entrySet()) {
+      assertEquals(1, e.getValue().get(), e.getKey().toString());
+    }
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.core.tests.shrike;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ibm.wala.core.tests.util.WalaTestCase;
+import com.ibm.wala.shrike.cg.CallGraphTraceReader;
+import com.ibm.wala.shrike.cg.Runtime;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Check that the binary trace format of {@link Runtime} has the same edges as the text format */
+public class CallGraphTraceTest extends WalaTestCase {
+
+  public static void main(String[] args) {
+    justThisTest(CallGraphTraceTest.class);
+  }
+
+  private static final String TRACED = Traced.class.getName().replace('.', '/');
+
+  /** calls Runtime as the code that OfflineDynamicCallGraph instruments does */
+  public static class Traced {
+    static class Init {
+      static {
+        Runtime.execution(TRACED + "$Init", "<clinit>()V", Runtime.NULL_TAG);
+        Runtime.termination(TRACED + "$Init", "<clinit>()V", Runtime.NULL_TAG, false);
+      }
+
+      static void init() {}
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+      Runtime.execution(TRACED, "main([Ljava/lang/String;)V", Runtime.NULL_TAG);
+      Init.init();
+      // the same edges, called directly and as a callback from code that is not traced, in
+      // either order
+      Collections.singletonList(0).forEach(i -> callbackFirst());
+      callbackFirst();
+      directFirst();
+      Collections.singletonList(0).forEach(i -> directFirst());
+      Thread[] threads = new Thread[4];
+      for (int i = 0; i < threads.length; i++) {
+        threads[i] = new Thread(Traced::work);
+        threads[i].start();
+      }
+      for (Thread t : threads) {
+        t.join();
+      }
+      Runtime.termination(TRACED, "main([Ljava/lang/String;)V", Runtime.NULL_TAG, false);
+    }
+
+    static void work() {
+      Runtime.execution(TRACED, "work()V", Runtime.NULL_TAG);
+      for (int i = 0; i < 100; i++) {
+        fib(10);
+        deep(200);
+      }
+      Runtime.termination(TRACED, "work()V", Runtime.NULL_TAG, false);
+    }
+
+    static void callbackFirst() {
+      Runtime.execution(TRACED, "callbackFirst()V", Runtime.NULL_TAG);
+      Runtime.termination(TRACED, "callbackFirst()V", Runtime.NULL_TAG, false);
+    }
+
+    static void directFirst() {
+      Runtime.execution(TRACED, "directFirst()V", Runtime.NULL_TAG);
+      Runtime.termination(TRACED, "directFirst()V", Runtime.NULL_TAG, false);
+    }
+
+    static int fib(int n) {
+      Runtime.execution(TRACED, "fib(I)I", Runtime.NULL_TAG);
+      int result = n < 2 ? n : fib(n - 1) + fib(n - 2);
+      Runtime.termination(TRACED, "fib(I)I", Runtime.NULL_TAG, false);
+      return result;
+    }
+
+    static void deep(int n) {
+      Runtime.execution(TRACED, "deep(I)V", Runtime.NULL_TAG);
+      if (n > 0) {
+        deep(n - 1);
+      }
+      Runtime.termination(TRACED, "deep(I)V", Runtime.NULL_TAG, false);
+    }
+  }
+
+  /**
+   * @return the edges of the trace, as often as the trace has them
+   */
+  private static List<String> trace(Path file, String... properties)
+      throws IOException, InterruptedException {
+    List<String> command = new ArrayList<>();
+    command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add("-DdynamicCGFile=" + file);
+    for (String property : properties) {
+      command.add("-D" + property);
+    }
+    command.add(Traced.class.getName());
+    Process p = new ProcessBuilder(command).inheritIO().start();
+    assertEquals(0, p.waitFor());
+    List<String> edges = new ArrayList<>();
+    CallGraphTraceReader.read(
+        file,
+        (callerClass, callerMethod, calleeClass, calleeMethod) ->
+            edges.add(
+                callerClass + ' ' + callerMethod + " -> " + calleeClass + ' ' + calleeMethod));
+    return edges;
+  }
+
+  @Test
+  public void testSameEdges(@TempDir Path tmpDir) throws IOException, InterruptedException {
+    List<String> text = trace(tmpDir.resolve("cg.txt.gz"));
+    List<String> binary = trace(tmpDir.resolve("cg.bin"), "dynamicCGFormat=binary");
+    List<String> unchecked =
+        trace(
+            tmpDir.resolve("unchecked.bin"),
+            "dynamicCGFormat=binary",
+            "dynamicCGCheckEveryCall=false");
+    Set<String> edges = new HashSet<>(binary);
+    assertEquals(new HashSet<>(text), edges);
+    assertTrue(edges.containsAll(unchecked));
+    // each edge once
+    assertEquals(edges.size(), binary.size());
+    assertTrue(text.size() > binary.size());
+    assertTrue(edges.contains("root null -> " + TRACED + " main([Ljava/lang/String;)V"));
+    assertTrue(edges.contains("clinit null -> " + TRACED + "$Init <clinit>()V"));
+    assertTrue(edges.contains("callbacks null -> " + TRACED + " work()V"));
+    assertTrue(edges.contains(TRACED + " fib(I)I -> " + TRACED + " fib(I)I"));
+    String main = TRACED + " main([Ljava/lang/String;)V -> ";
+    for (String method : new String[] {"callbackFirst()V", "directFirst()V"}) {
+      assertTrue(edges.contains(main + TRACED + ' ' + method), method);
+      assertTrue(edges.contains("callbacks null -> " + TRACED + ' ' + method), method);
+    }
+    assertTrue(Files.size(tmpDir.resolve("cg.bin")) < Files.size(tmpDir.resolve("cg.txt.gz")));
+  }
+}
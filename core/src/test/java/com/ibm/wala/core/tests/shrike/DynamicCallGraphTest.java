@@ -69,6 +69,24 @@ public abstract class DynamicCallGraphTest extends DynamicCallGraphTestBase {
     checkEdges(staticCG);
   }
 
+  @Test
+  public void testBinaryTrace()
+      throws IOException,
+          ClassNotFoundException,
+          InvalidClassFileException,
+          FailureException,
+          SecurityException,
+          IllegalArgumentException,
+          ClassHierarchyException,
+          CancelException,
+          InterruptedException {
+    testBinaryTrace = true;
+    instrument(testJarLocation);
+    run("dynamicCG.MainClass", null);
+    CallGraph staticCG = staticCG("LdynamicCG/MainClass", null);
+    checkEdges(staticCG);
+  }
+
   @Test
   public void testCallbacks()
       throws IOException,
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.core.tests.shrike;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ibm.wala.classLoader.JarFileModule;
+import com.ibm.wala.core.tests.callGraph.CallGraphTestUtil;
+import com.ibm.wala.core.tests.util.TestConstants;
+import com.ibm.wala.core.tests.util.WalaTestCase;
+import com.ibm.wala.ipa.callgraph.AnalysisScope;
+import com.ibm.wala.shrike.shrikeBT.ConstantInstruction;
+import com.ibm.wala.shrike.shrikeBT.MethodData;
+import com.ibm.wala.shrike.shrikeBT.MethodEditor;
+import com.ibm.wala.shrike.shrikeBT.PopInstruction;
+import com.ibm.wala.shrike.shrikeBT.shrikeCT.ClassInstrumenter;
+import com.ibm.wala.shrike.shrikeBT.shrikeCT.OfflineInstrumenter;
+import com.ibm.wala.shrike.shrikeCT.ClassWriter;
+import com.ibm.wala.shrike.shrikeCT.InvalidClassFileException;
+import com.ibm.wala.types.ClassLoaderReference;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Check that {@link OfflineInstrumenter#instrumentClasses} writes the same jar as a sequential loop
+ * over the classes
+ */
+public class ParallelInstrumenterTest extends WalaTestCase {
+
+  public static void main(String[] args) {
+    justThisTest(ParallelInstrumenterTest.class);
+  }
+
+  private static File getJLexJar() throws IOException {
+    AnalysisScope scope =
+        CallGraphTestUtil.makeJ2SEAnalysisScope(
+            TestConstants.JLEX, CallGraphTestUtil.REGRESSION_EXCLUSIONS);
+    return new File(
+        ((JarFileModule) scope.getModules(ClassLoaderReference.Application).get(0))
+            .getAbsolutePath());
+  }
+
+  /** push and pop the class name at the start of each method of the JLex classes */
+  private static ClassWriter instrument(ClassInstrumenter ci) throws InvalidClassFileException {
+    String name = ci.getReader().getName();
+    if (!name.startsWith("JLex/")) {
+      return null;
+    }
+    for (int i = 0; i < ci.getReader().getMethodCount(); i++) {
+      MethodData d = ci.visitMethod(i);
+      if (d != null) {
+        MethodEditor me = new MethodEditor(d);
+        me.beginPass();
+        me.insertAtStart(
+            new MethodEditor.Patch() {
+              @Override
+              public void emitTo(MethodEditor.Output w) {
+                w.emit(ConstantInstruction.makeString(name));
+                w.emit(PopInstruction.make(1));
+              }
+            });
+        me.applyPatches();
+        me.endPass();
+      }
+    }
+    return ci.emitClass();
+  }
+
+  private static OfflineInstrumenter makeInstrumenter(File input, File output, boolean pass)
+      throws IOException {
+    OfflineInstrumenter instrumenter = new OfflineInstrumenter();
+    instrumenter.addInputJar(input);
+    instrumenter.setOutputJar(output);
+    instrumenter.setPassUnmodifiedClasses(pass);
+    instrumenter.beginTraversal();
+    return instrumenter;
+  }
+
+  /** the names and contents of the entries of a jar, in order */
+  private static List<Object> readJar(File f) throws IOException {
+    List<Object> result = new ArrayList<>();
+    try (JarFile jar = new JarFile(f, false)) {
+      for (JarEntry e : Collections.list(jar.entries())) {
+        result.add(e.getName());
+        try (InputStream s = jar.getInputStream(e)) {
+          result.add(s.readAllBytes());
+        }
+      }
+    }
+    return result;
+  }
+
+  private static void assertSameJars(File expected, File actual) throws IOException {
+    List<Object> e = readJar(expected);
+    List<Object> a = readJar(actual);
+    assertEquals(e.size(), a.size());
+    for (int i = 0; i < e.size(); i += 2) {
+      assertEquals(e.get(i), a.get(i));
+      assertArrayEquals((byte[]) e.get(i + 1), (byte[]) a.get(i + 1), (String) e.get(i));
+    }
+  }
+
+  @Test
+  public void testSameOutput(@TempDir Path tmpDir)
+      throws IOException, InvalidClassFileException {
+    File jlex = getJLexJar();
+    for (boolean pass : new boolean[] {false, true}) {
+      File sequential = tmpDir.resolve("sequential" + pass + ".jar").toFile();
+      OfflineInstrumenter instrumenter = makeInstrumenter(jlex, sequential, pass);
+      ClassInstrumenter ci;
+      while ((ci = instrumenter.nextClass()) != null) {
+        ClassWriter cw = instrument(ci);
+        if (cw != null) {
+          instrumenter.outputModifiedClass(ci, cw);
+        }
+      }
+      instrumenter.close();
+      for (int threads : new int[] {1, 4}) {
+        File parallel = tmpDir.resolve("parallel" + pass + threads + ".jar").toFile();
+        instrumenter = makeInstrumenter(jlex, parallel, pass);
+        instrumenter.instrumentClasses(threads, ParallelInstrumenterTest::instrument);
+        instrumenter.close();
+        assertSameJars(sequential, parallel);
+      }
+      assertTrue(readJar(sequential).contains("JLex/Main.class"));
+    }
+  }
+
+  @Test
+  public void testFailure(@TempDir Path tmpDir) throws IOException {
+    OfflineInstrumenter instrumenter =
+        makeInstrumenter(getJLexJar(), tmpDir.resolve("out.jar").toFile(), false);
+    assertThrows(
+        IllegalArgumentException.class, () -> instrumenter.instrumentClasses(0, ci -> null));
+    IllegalStateException e =
+        assertThrows(
+            IllegalStateException.class,
+            () ->
+                instrumenter.instrumentClasses(
+                    2,
+                    ci -> {
+                      throw new IllegalStateException("failed");
+                    }));
+    assertEquals("failed", e.getMessage());
+    instrumenter.close();
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.core.tests.shrike;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ibm.wala.classLoader.JarFileModule;
+import com.ibm.wala.core.tests.callGraph.CallGraphTestUtil;
+import com.ibm.wala.core.tests.util.TestConstants;
+import com.ibm.wala.core.tests.util.WalaTestCase;
+import com.ibm.wala.ipa.callgraph.AnalysisScope;
+import com.ibm.wala.shrike.shrikeBT.ConstantInstruction;
+import com.ibm.wala.shrike.shrikeBT.IInstruction;
+import com.ibm.wala.shrike.shrikeBT.IInvokeInstruction;
+import com.ibm.wala.shrike.shrikeBT.MethodData;
+import com.ibm.wala.shrike.shrikeBT.MethodEditor;
+import com.ibm.wala.shrike.shrikeBT.PopInstruction;
+import com.ibm.wala.shrike.shrikeBT.ReturnInstruction;
+import com.ibm.wala.shrike.shrikeBT.analysis.ClassHierarchy;
+import com.ibm.wala.shrike.shrikeBT.analysis.ClassHierarchyCache;
+import com.ibm.wala.shrike.shrikeBT.analysis.ClassHierarchyProvider;
+import com.ibm.wala.shrike.shrikeBT.analysis.ClassHierarchyStore;
+import com.ibm.wala.shrike.shrikeBT.shrikeCT.CTUtils;
+import com.ibm.wala.shrike.shrikeBT.shrikeCT.ClassInstrumenter;
+import com.ibm.wala.shrike.shrikeCT.ClassReader;
+import com.ibm.wala.shrike.shrikeCT.InvalidClassFileException;
+import com.ibm.wala.types.ClassLoaderReference;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link ClassHierarchyCache} and incrementally computed stack map frames */
+public class StackMapFramesTest extends WalaTestCase {
+
+  public static void main(String[] args) {
+    justThisTest(StackMapFramesTest.class);
+  }
+
+  /** class file name -&gt; contents, for the test data */
+  private static final Map<String, byte[]> classes = new LinkedHashMap<>();
+
+  /** the test data, and the JDK classes they refer to, read when they are first needed */
+  private static final ClassHierarchyProvider hierarchy =
+      new ClassHierarchyProvider() {
+        private final ClassHierarchyStore store = new ClassHierarchyStore();
+
+        private synchronized ClassHierarchyStore load(String cl) {
+          if (!store.containsClass(cl) && cl.startsWith("L")) {
+            String name = cl.substring(1, cl.length() - 1) + ".class";
+            try {
+              byte[] bytes = classes.get(name);
+              if (bytes == null) {
+                try (InputStream s = ClassLoader.getSystemResourceAsStream(name)) {
+                  bytes = s == null ? null : s.readAllBytes();
+                }
+              }
+              if (bytes != null) {
+                CTUtils.addClassToHierarchy(store, new ClassReader(bytes));
+              }
+            } catch (IOException | InvalidClassFileException e) {
+              // leave the class unknown
+            }
+          }
+          return store;
+        }
+
+        @Override
+        public String getSuperClass(String cl) {
+          return load(cl).getSuperClass(cl);
+        }
+
+        @Override
+        public String[] getSuperInterfaces(String cl) {
+          return load(cl).getSuperInterfaces(cl);
+        }
+
+        @Override
+        public String[] getSubClasses(String cl) {
+          return load(cl).getSubClasses(cl);
+        }
+
+        @Override
+        public int isInterface(String cl) {
+          return load(cl).isInterface(cl);
+        }
+      };
+
+  @BeforeAll
+  public static void readTestData() throws IOException {
+    AnalysisScope scope =
+        CallGraphTestUtil.makeJ2SEAnalysisScope(
+            TestConstants.WALA_TESTDATA, CallGraphTestUtil.REGRESSION_EXCLUSIONS);
+    String path =
+        ((JarFileModule) scope.getModules(ClassLoaderReference.Application).get(0))
+            .getAbsolutePath();
+    try (JarFile jar = new JarFile(path, false)) {
+      for (JarEntry e : Collections.list(jar.entries())) {
+        if (e.getName().endsWith(".class")) {
+          try (InputStream s = jar.getInputStream(e)) {
+            classes.put(e.getName(), s.readAllBytes());
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCache() throws InvalidClassFileException {
+    List<String> types = new ArrayList<>();
+    for (byte[] bytes : classes.values()) {
+      types.add('L' + new ClassReader(bytes).getName() + ';');
+    }
+    types.addAll(
+        Arrays.asList(
+            "Ljava/lang/Object;",
+            "Ljava/lang/Exception;",
+            "Ljava/lang/Runnable;",
+            "Ljava/util/ArrayList;",
+            "Ljava/util/Collection;",
+            "[Ljava/lang/String;"));
+    ClassHierarchyCache cache = new ClassHierarchyCache(hierarchy);
+    for (int round = 0; round < 2; round++) {
+      for (int i = 0; i < types.size(); i += 7) {
+        for (int j = 0; j < types.size(); j += 5) {
+          String t1 = types.get(i);
+          String t2 = types.get(j);
+          assertEquals(
+              ClassHierarchy.isSubtypeOf(hierarchy, t1, t2),
+              ClassHierarchy.isSubtypeOf(cache, t1, t2));
+          assertEquals(
+              ClassHierarchy.findCommonSupertype(hierarchy, t1, t2),
+              ClassHierarchy.findCommonSupertype(cache, t1, t2));
+        }
+      }
+    }
+  }
+
+  /** add code, without branches, at the start of each method and before each call and return */
+  private static byte[] instrument(byte[] bytes, ClassHierarchyProvider cha, boolean incremental)
+      throws InvalidClassFileException {
+    ClassInstrumenter ci = new ClassInstrumenter("test", bytes, cha);
+    if (incremental) {
+      ci.enableIncrementalStackMaps();
+    }
+    String name = ci.getReader().getName();
+    for (int i = 0; i < ci.getReader().getMethodCount(); i++) {
+      MethodData d = ci.visitMethod(i);
+      if (d != null) {
+        MethodEditor me = new MethodEditor(d);
+        me.beginPass();
+        me.insertAtStart(
+            new MethodEditor.Patch() {
+              @Override
+              public void emitTo(MethodEditor.Output w) {
+                w.emit(ConstantInstruction.makeString(name));
+                w.emit(PopInstruction.make(1));
+              }
+            });
+        IInstruction[] instructions = d.getInstructions();
+        for (int k = 0; k < instructions.length; k++) {
+          if (instructions[k] instanceof IInvokeInstruction
+              || instructions[k] instanceof ReturnInstruction) {
+            me.insertBefore(
+                k,
+                new MethodEditor.Patch() {
+                  @Override
+                  public void emitTo(MethodEditor.Output w) {
+                    w.emit(ConstantInstruction.make(1));
+                    w.emit(PopInstruction.make(1));
+                  }
+                });
+          }
+        }
+        me.applyPatches();
+        me.endPass();
+      }
+    }
+    return ci.emitClass().makeBytes();
+  }
+
+  /**
+   * @return the classes that the JVM fails to verify
+   */
+  private static Set<String> verify(Map<String, byte[]> instrumented) {
+    ClassLoader loader =
+        new ClassLoader(StackMapFramesTest.class.getClassLoader()) {
+          @Override
+          protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = instrumented.get(name.replace('.', '/') + ".class");
+            if (bytes == null) {
+              throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, bytes, 0, bytes.length);
+          }
+        };
+    Set<String> failed = new TreeSet<>();
+    for (String entry : instrumented.keySet()) {
+      String name = entry.substring(0, entry.length() - ".class".length()).replace('/', '.');
+      try {
+        // links the class, and so verifies it, without initializing it
+        Class.forName(name, false, loader).getDeclaredMethods();
+      } catch (VerifyError e) {
+        failed.add(name);
+      } catch (ClassNotFoundException | LinkageError e) {
+        // e.g. a class the test data refers to is missing
+      }
+    }
+    return failed;
+  }
+
+  @Test
+  public void testIncremental() throws InvalidClassFileException {
+    ClassHierarchyCache cache = new ClassHierarchyCache(hierarchy);
+    Map<String, byte[]> full = new LinkedHashMap<>();
+    Map<String, byte[]> incremental = new LinkedHashMap<>();
+    int same = 0;
+    for (Map.Entry<String, byte[]> e : classes.entrySet()) {
+      full.put(e.getKey(), instrument(e.getValue(), hierarchy, false));
+      incremental.put(e.getKey(), instrument(e.getValue(), cache, true));
+      if (Arrays.equals(full.get(e.getKey()), incremental.get(e.getKey()))) {
+        same++;
+      }
+    }
+    // the frames of some methods come from the original code
+    assertNotEquals(classes.size(), same);
+    Set<String> failed = verify(full);
+    assertTrue(failed.size() < classes.size() / 10, "too many failures: " + failed);
+    assertEquals(failed, verify(incremental));
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.core.tests.slicer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ibm.wala.classLoader.Language;
+import com.ibm.wala.core.tests.callGraph.CallGraphTestUtil;
+import com.ibm.wala.core.tests.util.TestConstants;
+import com.ibm.wala.core.tests.util.WalaTestCase;
+import com.ibm.wala.dataflow.IFDS.CallFlowEdges;
+import com.ibm.wala.dataflow.IFDS.CompactCallFlowEdges;
+import com.ibm.wala.dataflow.IFDS.CompactLocalPathEdges;
+import com.ibm.wala.dataflow.IFDS.LocalPathEdges;
+import com.ibm.wala.dataflow.IFDS.PartiallyBalancedTabulationSolver;
+import com.ibm.wala.dataflow.IFDS.TabulationResult;
+import com.ibm.wala.ipa.callgraph.AnalysisCacheImpl;
+import com.ibm.wala.ipa.callgraph.AnalysisOptions;
+import com.ibm.wala.ipa.callgraph.AnalysisScope;
+import com.ibm.wala.ipa.callgraph.CGNode;
+import com.ibm.wala.ipa.callgraph.CallGraph;
+import com.ibm.wala.ipa.callgraph.CallGraphBuilder;
+import com.ibm.wala.ipa.callgraph.impl.Util;
+import com.ibm.wala.ipa.callgraph.propagation.InstanceKey;
+import com.ibm.wala.ipa.callgraph.util.CallGraphSearchUtil;
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.ipa.cha.ClassHierarchyFactory;
+import com.ibm.wala.ipa.cha.IClassHierarchy;
+import com.ibm.wala.ipa.slicer.MethodEntryStatement;
+import com.ibm.wala.ipa.slicer.PDG;
+import com.ibm.wala.ipa.slicer.SDG;
+import com.ibm.wala.ipa.slicer.Slicer;
+import com.ibm.wala.ipa.slicer.Slicer.ControlDependenceOptions;
+import com.ibm.wala.ipa.slicer.Slicer.DataDependenceOptions;
+import com.ibm.wala.ipa.slicer.SlicerUtil;
+import com.ibm.wala.ipa.slicer.Statement;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.intset.IntSet;
+import com.ibm.wala.util.intset.IntSetUtil;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Check that the compact representation of path edges and call flow edges, and spilling path
+ * edges to disk, do not change results
+ */
+public class CompactEdgesTest extends WalaTestCase {
+
+  public static void main(String[] args) {
+    justThisTest(CompactEdgesTest.class);
+  }
+
+  /** the empty set and null both mean no facts */
+  private static void assertSameFacts(IntSet expected, IntSet actual) {
+    if (expected == null || expected.isEmpty()) {
+      assertTrue(actual == null || actual.isEmpty(), "expected no facts, got " + actual);
+    } else {
+      assertTrue(
+          actual != null && IntSetUtil.makeMutableCopy(expected).sameValue(actual),
+          "expected " + expected + ", got " + actual);
+    }
+  }
+
+  private static void checkPathEdges(boolean fastMerge) {
+    Random r = new Random(17);
+    LocalPathEdges expected = new LocalPathEdges(fastMerge);
+    LocalPathEdges actual = new CompactLocalPathEdges(fastMerge);
+    for (int k = 0; k < 5000; k++) {
+      // small facts, so that the special cases d1 == 0 and d1 == d2 are frequent
+      int d1 = r.nextInt(6);
+      int d2 = r.nextBoolean() ? d1 : r.nextInt(6);
+      int n = r.nextInt(300);
+      assertEquals(expected.contains(d1, n, d2), actual.contains(d1, n, d2));
+      expected.addPathEdge(d1, n, d2);
+      actual.addPathEdge(d1, n, d2);
+      assertTrue(actual.contains(d1, n, d2));
+    }
+    for (int n = 0; n < 320; n++) {
+      assertSameFacts(expected.getReachable(n), actual.getReachable(n));
+      for (int d = 0; d < 7; d++) {
+        assertSameFacts(expected.getInverse(n, d), actual.getInverse(n, d));
+        assertSameFacts(expected.getReachable(n, d), actual.getReachable(n, d));
+        for (int d2 = 0; d2 < 7; d2++) {
+          assertEquals(expected.contains(d, n, d2), actual.contains(d, n, d2));
+        }
+      }
+    }
+    assertSameFacts(expected.getReachedNodeNumbers(), actual.getReachedNodeNumbers());
+    assertThrows(IllegalArgumentException.class, () -> actual.contains(0, -1, 0));
+  }
+
+  @Test
+  public void testPathEdges() {
+    checkPathEdges(false);
+  }
+
+  @Test
+  public void testPathEdgesFastMerge() {
+    checkPathEdges(true);
+  }
+
+  @Test
+  public void testCallFlowEdges() {
+    Random r = new Random(17);
+    CallFlowEdges expected = new CallFlowEdges();
+    CallFlowEdges actual = new CompactCallFlowEdges();
+    for (int k = 0; k < 2000; k++) {
+      int d1 = r.nextInt(6);
+      int d2 = r.nextBoolean() ? d1 : r.nextInt(6);
+      // call nodes have global numbers, which are sparse
+      int c = r.nextInt(50) * 1009;
+      expected.addCallEdge(c, d1, d2);
+      actual.addCallEdge(c, d1, d2);
+    }
+    for (int d2 = 0; d2 < 7; d2++) {
+      assertSameFacts(expected.getCallFlowSourceNodes(d2), actual.getCallFlowSourceNodes(d2));
+      for (int c = 0; c < 51 * 1009; c += 1009) {
+        assertSameFacts(expected.getCallFlowSources(c, d2), actual.getCallFlowSources(c, d2));
+      }
+    }
+  }
+
+  private static PartiallyBalancedTabulationSolver<Statement, PDG<?>, Object> makeSolver(
+      SDG<InstanceKey> sdg, Collection<Statement> roots, boolean backward) {
+    return PartiallyBalancedTabulationSolver.createPartiallyBalancedTabulationSolver(
+        new Slicer.SliceProblem(roots, sdg, backward), null);
+  }
+
+  private static Set<Statement> slice(
+      SDG<InstanceKey> sdg, Collection<Statement> roots, boolean backward, boolean compact)
+      throws CancelException {
+    PartiallyBalancedTabulationSolver<Statement, PDG<?>, Object> solver =
+        makeSolver(sdg, roots, backward);
+    solver.setCompactEdges(compact);
+    assertEquals(compact, solver.isCompactEdges());
+    return new HashSet<>(solver.solve().getSupergraphNodesReached());
+  }
+
+  /**
+   * slice with path edges spilled to disk beyond a small budget, checking that the result can be
+   * read from the file until the solver closes it, and that no file is left in dir
+   */
+  private static Set<Statement> spilledSlice(
+      SDG<InstanceKey> sdg, Collection<Statement> roots, boolean backward, Path dir)
+      throws CancelException, IOException {
+    PartiallyBalancedTabulationSolver<Statement, PDG<?>, Object> solver =
+        makeSolver(sdg, roots, backward);
+    solver.setPathEdgeSpilling(1 << 16, dir.toFile());
+    TabulationResult<Statement, PDG<?>, Object> result = solver.solve();
+    assertTrue(solver.getPathEdgeBytesSpilled() > 0);
+    Set<Statement> reached = new HashSet<>(result.getSupergraphNodesReached());
+    assertEquals(reached, new HashSet<>(result.getSupergraphNodesReached()));
+    solver.closePathEdgeSpilling();
+    try (Stream<Path> files = Files.list(dir)) {
+      assertEquals(0, files.count());
+    }
+    assertThrows(IllegalStateException.class, result::getSupergraphNodesReached);
+    return reached;
+  }
+
+  @Tag("slow")
+  @Test
+  public void testSlices(@TempDir Path tmpDir)
+      throws ClassHierarchyException, IOException, IllegalArgumentException, CancelException {
+    AnalysisScope scope =
+        CallGraphTestUtil.makeJ2SEAnalysisScope(
+            TestConstants.JLEX, CallGraphTestUtil.REGRESSION_EXCLUSIONS);
+    IClassHierarchy cha = ClassHierarchyFactory.make(scope);
+    AnalysisOptions options =
+        CallGraphTestUtil.makeAnalysisOptions(
+            scope, Util.makeMainEntrypoints(cha, TestConstants.JLEX_MAIN));
+    CallGraphBuilder<InstanceKey> builder =
+        Util.makeZeroCFABuilder(Language.JAVA, options, new AnalysisCacheImpl(), cha);
+    CallGraph cg = builder.makeCallGraph(options, null);
+    SDG<InstanceKey> sdg =
+        new SDG<>(
+            cg,
+            builder.getPointerAnalysis(),
+            DataDependenceOptions.NO_HEAP,
+            ControlDependenceOptions.FULL);
+    CGNode main = CallGraphSearchUtil.findMainMethod(cg);
+
+    Collection<Statement> backwardRoots =
+        Collections.singleton(SlicerUtil.findCallTo(main, "println"));
+    Set<Statement> expected = slice(sdg, backwardRoots, true, false);
+    assertFalse(expected.isEmpty());
+    assertEquals(expected, slice(sdg, backwardRoots, true, true));
+    assertEquals(expected, spilledSlice(sdg, backwardRoots, true, tmpDir));
+
+    Collection<Statement> forwardRoots = Collections.singleton(new MethodEntryStatement(main));
+    expected = slice(sdg, forwardRoots, false, false);
+    assertFalse(expected.isEmpty());
+    assertEquals(expected, slice(sdg, forwardRoots, false, true));
+    assertEquals(expected, spilledSlice(sdg, forwardRoots, false, tmpDir));
+
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            PartiallyBalancedTabulationSolver.createPartiallyBalancedTabulationSolver(
+                    new Slicer.SliceProblem(forwardRoots, sdg, false), null, 2)
+                .setPathEdgeSpilling(1 << 16, null));
+  }
+}
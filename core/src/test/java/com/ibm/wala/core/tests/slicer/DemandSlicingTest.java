@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.core.tests.slicer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ibm.wala.classLoader.Language;
+import com.ibm.wala.core.tests.callGraph.CallGraphTestUtil;
+import com.ibm.wala.core.tests.util.TestConstants;
+import com.ibm.wala.core.tests.util.WalaTestCase;
+import com.ibm.wala.ipa.callgraph.AnalysisCacheImpl;
+import com.ibm.wala.ipa.callgraph.AnalysisOptions;
+import com.ibm.wala.ipa.callgraph.AnalysisScope;
+import com.ibm.wala.ipa.callgraph.CGNode;
+import com.ibm.wala.ipa.callgraph.CallGraph;
+import com.ibm.wala.ipa.callgraph.CallGraphBuilder;
+import com.ibm.wala.ipa.callgraph.impl.Util;
+import com.ibm.wala.ipa.callgraph.propagation.InstanceKey;
+import com.ibm.wala.ipa.callgraph.util.CallGraphSearchUtil;
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.ipa.cha.ClassHierarchyFactory;
+import com.ibm.wala.ipa.cha.IClassHierarchy;
+import com.ibm.wala.ipa.slicer.MethodEntryStatement;
+import com.ibm.wala.ipa.slicer.SDG;
+import com.ibm.wala.ipa.slicer.Slicer;
+import com.ibm.wala.ipa.slicer.Slicer.ControlDependenceOptions;
+import com.ibm.wala.ipa.slicer.Slicer.DataDependenceOptions;
+import com.ibm.wala.ipa.slicer.SlicerUtil;
+import com.ibm.wala.ipa.slicer.Statement;
+import com.ibm.wala.util.CancelException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/** Check point queries and bounded slices against full slices */
+public class DemandSlicingTest extends WalaTestCase {
+
+  public static void main(String[] args) {
+    justThisTest(DemandSlicingTest.class);
+  }
+
+  /** every step-th element of c */
+  private static List<Statement> sample(Collection<Statement> c, int step) {
+    List<Statement> result = new ArrayList<>();
+    int i = 0;
+    for (Statement s : c) {
+      if (i++ % step == 0) {
+        result.add(s);
+      }
+    }
+    return result;
+  }
+
+  @Tag("slow")
+  @Test
+  public void testSlices()
+      throws ClassHierarchyException, IOException, IllegalArgumentException, CancelException {
+    AnalysisScope scope =
+        CallGraphTestUtil.makeJ2SEAnalysisScope(
+            TestConstants.JLEX, CallGraphTestUtil.REGRESSION_EXCLUSIONS);
+    IClassHierarchy cha = ClassHierarchyFactory.make(scope);
+    AnalysisOptions options =
+        CallGraphTestUtil.makeAnalysisOptions(
+            scope, Util.makeMainEntrypoints(cha, TestConstants.JLEX_MAIN));
+    CallGraphBuilder<InstanceKey> builder =
+        Util.makeZeroCFABuilder(Language.JAVA, options, new AnalysisCacheImpl(), cha);
+    CallGraph cg = builder.makeCallGraph(options, null);
+    SDG<InstanceKey> sdg =
+        new SDG<>(
+            cg,
+            builder.getPointerAnalysis(),
+            DataDependenceOptions.NO_HEAP,
+            ControlDependenceOptions.FULL);
+    CGNode main = CallGraphSearchUtil.findMainMethod(cg);
+    Statement root = SlicerUtil.findCallTo(main, "println");
+    Slicer slicer = new Slicer();
+    Set<Statement> full =
+        new HashSet<>(slicer.slice(sdg, Collections.singleton(root), true, null));
+
+    // point queries
+    for (Statement s : sample(full, full.size() / 20)) {
+      assertTrue(slicer.isInSlice(sdg, root, s, true), s + " should be in the slice");
+    }
+    Set<Statement> outside =
+        new HashSet<>(
+            slicer.slice(sdg, Collections.singleton(new MethodEntryStatement(main)), false, null));
+    outside.removeAll(full);
+    assertFalse(outside.isEmpty());
+    for (Statement s : sample(outside, outside.size() / 2)) {
+      assertFalse(slicer.isInSlice(sdg, root, s, true), s + " should not be in the slice");
+    }
+
+    // bounded slices grow with the bound, and stay within the full slice
+    Set<Statement> previous = Collections.singleton(root);
+    assertEquals(
+        previous, new HashSet<>(slicer.slice(sdg, Collections.singleton(root), true, 0, null)));
+    for (int depth = 1; depth <= 6; depth++) {
+      Set<Statement> bounded =
+          new HashSet<>(slicer.slice(sdg, Collections.singleton(root), true, depth, null));
+      assertTrue(bounded.containsAll(previous), "slice to depth " + depth + " shrank");
+      assertTrue(full.containsAll(bounded), "slice to depth " + depth + " is too big");
+      for (Statement s : sample(bounded, Math.max(1, bounded.size() / 5))) {
+        assertTrue(slicer.isInSlice(sdg, root, s, true, depth, null));
+      }
+      previous = bounded;
+    }
+    assertTrue(previous.size() > 1);
+    assertTrue(previous.size() < full.size());
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> slicer.slice(sdg, Collections.singleton(root), true, -1, null));
+  }
+}
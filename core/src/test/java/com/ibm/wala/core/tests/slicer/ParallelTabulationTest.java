@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.core.tests.slicer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.ibm.wala.classLoader.Language;
+import com.ibm.wala.core.tests.callGraph.CallGraphTestUtil;
+import com.ibm.wala.core.tests.util.TestConstants;
+import com.ibm.wala.core.tests.util.WalaTestCase;
+import com.ibm.wala.dataflow.IFDS.PartiallyBalancedTabulationSolver;
+import com.ibm.wala.dataflow.IFDS.TabulationResult;
+import com.ibm.wala.ipa.callgraph.AnalysisCacheImpl;
+import com.ibm.wala.ipa.callgraph.AnalysisOptions;
+import com.ibm.wala.ipa.callgraph.AnalysisScope;
+import com.ibm.wala.ipa.callgraph.CGNode;
+import com.ibm.wala.ipa.callgraph.CallGraph;
+import com.ibm.wala.ipa.callgraph.CallGraphBuilder;
+import com.ibm.wala.ipa.callgraph.Entrypoint;
+import com.ibm.wala.ipa.callgraph.impl.Util;
+import com.ibm.wala.ipa.callgraph.propagation.InstanceKey;
+import com.ibm.wala.ipa.callgraph.util.CallGraphSearchUtil;
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.ipa.cha.ClassHierarchyFactory;
+import com.ibm.wala.ipa.cha.IClassHierarchy;
+import com.ibm.wala.ipa.slicer.MethodEntryStatement;
+import com.ibm.wala.ipa.slicer.SDG;
+import com.ibm.wala.ipa.slicer.Slicer;
+import com.ibm.wala.ipa.slicer.Slicer.ControlDependenceOptions;
+import com.ibm.wala.ipa.slicer.Slicer.DataDependenceOptions;
+import com.ibm.wala.ipa.slicer.SlicerUtil;
+import com.ibm.wala.ipa.slicer.Statement;
+import com.ibm.wala.util.CancelException;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/** Check that tabulating with several threads computes the same result as with one */
+public class ParallelTabulationTest extends WalaTestCase {
+
+  public static void main(String[] args) {
+    justThisTest(ParallelTabulationTest.class);
+  }
+
+  private static SDG<InstanceKey> sdg;
+
+  /** a call to println in main */
+  private static Collection<Statement> backwardRoots;
+
+  /** the entry of main */
+  private static Collection<Statement> forwardRoots;
+
+  @BeforeAll
+  public static void beforeClass()
+      throws ClassHierarchyException, IOException, IllegalArgumentException, CancelException {
+    AnalysisScope scope =
+        CallGraphTestUtil.makeJ2SEAnalysisScope(
+            TestConstants.JLEX, CallGraphTestUtil.REGRESSION_EXCLUSIONS);
+    IClassHierarchy cha = ClassHierarchyFactory.make(scope);
+    Iterable<Entrypoint> entrypoints = Util.makeMainEntrypoints(cha, TestConstants.JLEX_MAIN);
+    AnalysisOptions options = CallGraphTestUtil.makeAnalysisOptions(scope, entrypoints);
+    CallGraphBuilder<InstanceKey> builder =
+        Util.makeZeroCFABuilder(Language.JAVA, options, new AnalysisCacheImpl(), cha);
+    CallGraph cg = builder.makeCallGraph(options, null);
+    sdg =
+        new SDG<>(
+            cg,
+            builder.getPointerAnalysis(),
+            DataDependenceOptions.NO_HEAP,
+            ControlDependenceOptions.FULL);
+    CGNode main = CallGraphSearchUtil.findMainMethod(cg);
+    backwardRoots = Collections.singleton(SlicerUtil.findCallTo(main, "println"));
+    forwardRoots = Collections.singleton(new MethodEntryStatement(main));
+  }
+
+  private static Set<Statement> solve(boolean backward, int numberOfThreads)
+      throws CancelException {
+    TabulationResult<Statement, ?, Object> result =
+        PartiallyBalancedTabulationSolver.createPartiallyBalancedTabulationSolver(
+                new Slicer.SliceProblem(backward ? backwardRoots : forwardRoots, sdg, backward),
+                null,
+                numberOfThreads)
+            .solve();
+    return new HashSet<>(result.getSupergraphNodesReached());
+  }
+
+  private static void check(boolean backward) throws CancelException {
+    // the SDG is built lazily, and not safe to build from several threads; solving with one thread
+    // first builds all of it the solver will see
+    Set<Statement> expected = solve(backward, 1);
+    assertFalse(expected.isEmpty());
+    for (int numberOfThreads : new int[] {2, 4}) {
+      assertEquals(expected, solve(backward, numberOfThreads));
+    }
+  }
+
+  @Tag("slow")
+  @Test
+  public void testBackwardSlice() throws CancelException {
+    check(true);
+  }
+
+  @Tag("slow")
+  @Test
+  public void testForwardSlice() throws CancelException {
+    check(false);
+  }
+}
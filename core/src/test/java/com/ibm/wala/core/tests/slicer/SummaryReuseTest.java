@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.core.tests.slicer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ibm.wala.classLoader.Language;
+import com.ibm.wala.core.tests.callGraph.CallGraphTestUtil;
+import com.ibm.wala.core.tests.util.TestConstants;
+import com.ibm.wala.core.tests.util.WalaTestCase;
+import com.ibm.wala.dataflow.IFDS.PartiallyBalancedTabulationSolver;
+import com.ibm.wala.dataflow.IFDS.TabulationSummaryStore;
+import com.ibm.wala.ipa.callgraph.AnalysisCacheImpl;
+import com.ibm.wala.ipa.callgraph.AnalysisOptions;
+import com.ibm.wala.ipa.callgraph.AnalysisScope;
+import com.ibm.wala.ipa.callgraph.CGNode;
+import com.ibm.wala.ipa.callgraph.CallGraph;
+import com.ibm.wala.ipa.callgraph.CallGraphBuilder;
+import com.ibm.wala.ipa.callgraph.impl.Util;
+import com.ibm.wala.ipa.callgraph.propagation.InstanceKey;
+import com.ibm.wala.ipa.callgraph.util.CallGraphSearchUtil;
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.ipa.cha.ClassHierarchyFactory;
+import com.ibm.wala.ipa.cha.IClassHierarchy;
+import com.ibm.wala.ipa.slicer.MethodEntryStatement;
+import com.ibm.wala.ipa.slicer.NormalStatement;
+import com.ibm.wala.ipa.slicer.PDG;
+import com.ibm.wala.ipa.slicer.SDG;
+import com.ibm.wala.ipa.slicer.Slicer;
+import com.ibm.wala.ipa.slicer.Slicer.ControlDependenceOptions;
+import com.ibm.wala.ipa.slicer.Slicer.DataDependenceOptions;
+import com.ibm.wala.ipa.slicer.Statement;
+import com.ibm.wala.ssa.IR;
+import com.ibm.wala.ssa.SSAAbstractInvokeInstruction;
+import com.ibm.wala.ssa.SSAInstruction;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.collections.Iterator2Iterable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/** Check that reusing summaries across slices over the same SDG does not change results */
+public class SummaryReuseTest extends WalaTestCase {
+
+  public static void main(String[] args) {
+    justThisTest(SummaryReuseTest.class);
+  }
+
+  /** statements calling methods in n, at most max of them */
+  private static List<Statement> findCalls(CGNode n, int max) {
+    List<Statement> result = new ArrayList<>();
+    IR ir = n.getIR();
+    SSAInstruction[] instructions = ir.getInstructions();
+    for (int i = 0; i < instructions.length && result.size() < max; i++) {
+      if (instructions[i] instanceof SSAAbstractInvokeInstruction) {
+        result.add(new NormalStatement(n, i));
+      }
+    }
+    return result;
+  }
+
+  /** slice from each root in turn, with and without reusing summaries */
+  private static void checkSlices(
+      SDG<InstanceKey> sdg, Collection<Statement> roots, boolean backward)
+      throws CancelException {
+    TabulationSummaryStore<Statement> store = new TabulationSummaryStore<>();
+    int reused = 0;
+    for (Statement root : roots) {
+      Collection<Statement> r = Collections.singleton(root);
+      HashSet<Statement> expected = new HashSet<>(new Slicer().slice(sdg, r, backward, null));
+      PartiallyBalancedTabulationSolver<Statement, PDG<?>, Object> solver =
+          PartiallyBalancedTabulationSolver.createPartiallyBalancedTabulationSolver(
+              new Slicer.SliceProblem(r, sdg, backward), null);
+      solver.setSummaryStore(store);
+      assertEquals(expected, new HashSet<>(solver.solve().getSupergraphNodesReached()));
+      reused += solver.getNumberOfReusedSummaries();
+      // the same query again, through the slicer
+      assertEquals(expected, new HashSet<>(new Slicer().slice(sdg, r, backward, null, store)));
+    }
+    assertFalse(store.size() == 0);
+    assertTrue(reused > 0, "no summaries were reused");
+  }
+
+  @Tag("slow")
+  @Test
+  public void testSlices()
+      throws ClassHierarchyException, IOException, IllegalArgumentException, CancelException {
+    AnalysisScope scope =
+        CallGraphTestUtil.makeJ2SEAnalysisScope(
+            TestConstants.JLEX, CallGraphTestUtil.REGRESSION_EXCLUSIONS);
+    IClassHierarchy cha = ClassHierarchyFactory.make(scope);
+    AnalysisOptions options =
+        CallGraphTestUtil.makeAnalysisOptions(
+            scope, Util.makeMainEntrypoints(cha, TestConstants.JLEX_MAIN));
+    CallGraphBuilder<InstanceKey> builder =
+        Util.makeZeroCFABuilder(Language.JAVA, options, new AnalysisCacheImpl(), cha);
+    CallGraph cg = builder.makeCallGraph(options, null);
+    SDG<InstanceKey> sdg =
+        new SDG<>(
+            cg,
+            builder.getPointerAnalysis(),
+            DataDependenceOptions.NO_HEAP,
+            ControlDependenceOptions.FULL);
+    CGNode main = CallGraphSearchUtil.findMainMethod(cg);
+
+    checkSlices(sdg, findCalls(main, 6), true);
+
+    List<Statement> forwardRoots = new ArrayList<>();
+    forwardRoots.add(new MethodEntryStatement(main));
+    for (CGNode n : Iterator2Iterable.make(cg.getSuccNodes(main))) {
+      forwardRoots.add(new MethodEntryStatement(n));
+      if (forwardRoots.size() == 4) {
+        break;
+      }
+    }
+    checkSlices(sdg, forwardRoots, false);
+
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            PartiallyBalancedTabulationSolver.createPartiallyBalancedTabulationSolver(
+                    new Slicer.SliceProblem(forwardRoots, sdg, false), null, 2)
+                .setSummaryStore(new TabulationSummaryStore<>()));
+  }
+}
@@ -18,6 +18,7 @@ import com.ibm.wala.core.tests.util.WalaTestCase;
 import com.ibm.wala.ipa.callgraph.CGNode;
 import com.ibm.wala.ipa.callgraph.CallGraph;
 import com.ibm.wala.properties.WalaProperties;
+import com.ibm.wala.shrike.cg.CallGraphTraceReader;
 import com.ibm.wala.shrike.cg.OfflineDynamicCallGraph;
 import com.ibm.wala.shrike.shrikeBT.analysis.Analyzer.FailureException;
 import com.ibm.wala.shrike.shrikeCT.InvalidClassFileException;
@@ -28,18 +29,14 @@ import com.ibm.wala.types.TypeReference;
 import com.ibm.wala.util.collections.HashSetFactory;
 import com.ibm.wala.util.collections.Pair;
 import com.ibm.wala.util.io.TemporaryFile;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
-import java.util.StringTokenizer;
 import java.util.function.Predicate;
-import java.util.zip.GZIPInputStream;
 import org.apache.tools.ant.Project;
 import org.apache.tools.ant.taskdefs.Java;
 import org.apache.tools.ant.types.Path;
@@ -49,6 +46,9 @@ public abstract class DynamicCallGraphTestBase extends WalaTestCase {
 
   protected boolean testPatchCalls = false;
 
+  /** trace in the binary format of {@link com.ibm.wala.shrike.cg.Runtime}, rather than as text */
+  protected boolean testBinaryTrace = false;
+
   private boolean instrumentedJarBuilt = false;
 
   private java.nio.file.Path instrumentedJarLocation;
@@ -117,6 +117,9 @@ public abstract class DynamicCallGraphTestBase extends WalaTestCase {
 
     String jvmArgs =
         "-noverify -Xmx500M -DdynamicCGFile=" + cgLocation + " -DdynamicCGHandleMissing=true";
+    if (testBinaryTrace) {
+      jvmArgs += " -DdynamicCGFormat=binary";
+    }
     if (exclusionsFile != null) {
       File tmpFile =
           TemporaryFile.urlToFile(
@@ -198,55 +201,42 @@ public abstract class DynamicCallGraphTestBase extends WalaTestCase {
 
   protected void check(CallGraph staticCG, EdgesTest test, Predicate<MethodReference> filter)
       throws IOException {
-    int lines = 0;
-    try (final BufferedReader dynamicEdgesFile =
-        new BufferedReader(
-            new InputStreamReader(new GZIPInputStream(Files.newInputStream(cgLocation))))) {
-      String line;
-      loop:
-      while ((line = dynamicEdgesFile.readLine()) != null) {
-        if (line.startsWith("call to") || line.startsWith("return from")) {
-          continue;
-        }
-
-        lines++;
-        StringTokenizer edge = new StringTokenizer(line, "\t");
-
-        CGNode caller;
-        String callerClass = edge.nextToken();
-        if ("root".equals(callerClass)) {
-          caller = staticCG.getFakeRootNode();
-        } else if ("clinit".equals(callerClass)) {
-          caller = staticCG.getFakeWorldClinitNode();
-        } else if ("callbacks".equals(callerClass)) {
-          continue loop;
-        } else {
-          String callerMethod = edge.nextToken();
-          if (callerMethod.startsWith("lambda$")) {
-            continue loop;
-          }
-          MethodReference callerRef =
-              MethodReference.findOrCreate(
-                  TypeReference.findOrCreate(ClassLoaderReference.Application, 'L' + callerClass),
-                  Selector.make(callerMethod));
-          Set<CGNode> nodes = staticCG.getNodes(callerRef);
-          if (!filter.test(callerRef)) {
-            continue loop;
+    int[] edges = {0};
+    CallGraphTraceReader.read(
+        cgLocation,
+        (callerClass, callerMethod, calleeClass, calleeMethod) -> {
+          edges[0]++;
+
+          CGNode caller;
+          if ("root".equals(callerClass)) {
+            caller = staticCG.getFakeRootNode();
+          } else if ("clinit".equals(callerClass)) {
+            caller = staticCG.getFakeWorldClinitNode();
+          } else if ("callbacks".equals(callerClass)) {
+            return;
+          } else {
+            if (callerMethod.startsWith("lambda$")) {
+              return;
+            }
+            MethodReference callerRef =
+                MethodReference.findOrCreate(
+                    TypeReference.findOrCreate(ClassLoaderReference.Application, 'L' + callerClass),
+                    Selector.make(callerMethod));
+            Set<CGNode> nodes = staticCG.getNodes(callerRef);
+            if (!filter.test(callerRef)) {
+              return;
+            }
+            assertEquals(1, nodes.size(), callerRef::toString);
+            caller = nodes.iterator().next();
           }
-          assertEquals(1, nodes.size(), callerRef::toString);
-          caller = nodes.iterator().next();
-        }
 
-        String calleeClass = edge.nextToken();
-        String calleeMethod = edge.nextToken();
-        MethodReference callee = callee(calleeClass, calleeMethod);
-        if (!filter.test(callee)) {
-          continue loop;
-        }
-        test.edgesTest(staticCG, caller, callee);
-      }
-    }
+          MethodReference callee = callee(calleeClass, calleeMethod);
+          if (!filter.test(callee)) {
+            return;
+          }
+          test.edgesTest(staticCG, caller, callee);
+        });
 
-    assertTrue(lines > 0, "more than one edge");
+    assertTrue(edges[0] > 0, "more than one edge");
   }
 }
@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.shrike.cg;
+
+import com.ibm.wala.util.config.SetOfClasses;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * The binary trace format of {@link Runtime}, selected with -DdynamicCGFormat=binary. Rather than
+ * a line of text for every call, the trace holds each method once, as a number, and each call
+ * graph edge between those numbers once:
+ *
+ * <ul>
+ *   <li>the int {@link #MAGIC}
+ *   <li>{@link #METHOD} records: the byte METHOD, the int id of the method, and the class and the
+ *       method as UTF strings. A method is written before the first edge that uses it.
+ *   <li>{@link #EDGE} records: the byte EDGE and the int ids of the caller and the callee. The ids
+ *       {@link #ROOT}, {@link #CLINIT} and {@link #CALLBACKS} stand for the pseudo callers of the
+ *       text format.
+ * </ul>
+ *
+ * <p>Each thread keeps its call stack as an array of numbered methods and collects its edges in a
+ * buffer of its own, so calls do not take a lock. An edge that was seen before, by any thread, is
+ * found in a lock-free hash table and not written again. As in the text format, the stack is
+ * walked at every call, to check for calls from code that is not traced. With
+ * -DdynamicCGCheckEveryCall=false, the same table remembers which method called which, so that the
+ * stack is walked only the first time; this is much faster, but may leave out edges. {@link
+ * CallGraphTraceReader} reads both formats.
+ */
+final class BinaryTraceWriter {
+
+  static final int MAGIC = 0x57434731;
+
+  static final byte METHOD = 1;
+
+  static final byte EDGE = 2;
+
+  static final int ROOT = 0;
+
+  static final int CLINIT = 1;
+
+  static final int CALLBACKS = 2;
+
+  private static final int FIRST_METHOD = 3;
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private static final int EDGE_SIZE = 9;
+
+  private static final long CALL = 1L << 63;
+
+  /** the frames of the instrumented method and of its caller, i.e. below this and Runtime */
+  private static final Function<Stream<StackWalker.StackFrame>, StackWalker.StackFrame[]>
+      CALLEE_AND_CALLER = s -> s.skip(2).limit(2).toArray(StackWalker.StackFrame[]::new);
+
+  private static final StackWalker walker = StackWalker.getInstance();
+
+  private static final class ClassInfo {
+    private final String descriptor;
+
+    private final boolean excluded;
+
+    private final ConcurrentHashMap<String, MethodInfo> methods = new ConcurrentHashMap<>();
+
+    private ClassInfo(String descriptor, boolean excluded) {
+      this.descriptor = descriptor;
+      this.excluded = excluded;
+    }
+  }
+
+  private static final class MethodInfo {
+    private final int id;
+
+    private final boolean clinit;
+
+    /** class and method as they show in stack frames, to check for the expected caller */
+    private final String frameText;
+
+    private MethodInfo(int id, boolean clinit, String frameText) {
+      this.id = id;
+      this.clinit = clinit;
+      this.frameText = frameText;
+    }
+  }
+
+  private static final MethodInfo ROOT_METHOD = new MethodInfo(ROOT, false, "root");
+
+  /** the call stack and the pending edges of one thread */
+  private final class ThreadTrace {
+    private MethodInfo[] stack = new MethodInfo[64];
+
+    private int depth = 1;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private int size = 0;
+
+    private boolean registered = false;
+
+    private ThreadTrace() {
+      stack[0] = ROOT_METHOD;
+    }
+
+    private void push(MethodInfo m) {
+      if (depth == stack.length) {
+        stack = Arrays.copyOf(stack, 2 * depth);
+      }
+      stack[depth++] = m;
+    }
+
+    private synchronized void add(int caller, int callee) {
+      if (size + EDGE_SIZE > buffer.length) {
+        flush();
+      }
+      buffer[size] = EDGE;
+      putInt(size + 1, caller);
+      putInt(size + 5, callee);
+      size += EDGE_SIZE;
+      if (!registered) {
+        registered = true;
+        pending.add(this);
+      }
+    }
+
+    private void putInt(int i, int v) {
+      buffer[i] = (byte) (v >>> 24);
+      buffer[i + 1] = (byte) (v >>> 16);
+      buffer[i + 2] = (byte) (v >>> 8);
+      buffer[i + 3] = (byte) v;
+    }
+
+    /** write the pending edges; the lock of the thread is always taken before that of the trace */
+    private synchronized void flush() {
+      if (size > 0) {
+        write(buffer, size);
+      }
+      size = 0;
+      registered = false;
+      pending.remove(this);
+    }
+  }
+
+  private final SetOfClasses filter;
+
+  private final Runtime.Policy policy;
+
+  private final boolean checkEveryCall;
+
+  private DataOutputStream output;
+
+  private volatile boolean closed;
+
+  private int nextId = FIRST_METHOD;
+
+  private final ConcurrentHashMap<String, ClassInfo> classes = new ConcurrentHashMap<>();
+
+  private final ThreadLocal<ThreadTrace> threads = ThreadLocal.withInitial(ThreadTrace::new);
+
+  /** threads with pending edges, to be written at the latest by {@link #close} */
+  private final Set<ThreadTrace> pending = ConcurrentHashMap.newKeySet();
+
+  /**
+   * caller and callee ids of the edges written so far, and with {@link #CALL} of the methods on top
+   * of the call stack that have called a method; 0 is an empty slot
+   */
+  private final AtomicLongArray edges;
+
+  private final AtomicInteger edgeCount = new AtomicInteger();
+
+  /** more edges than this are written without being remembered, which may repeat them */
+  private final int maxEdges;
+
+  /**
+   * @param policy what to do about calls that do not come from the method on top of the call
+   *     stack, or null to write them as edges from {@link #CALLBACKS}, {@link #CLINIT} or {@link
+   *     #ROOT} as the text format does
+   * @param checkEveryCall whether to walk the stack at every call to check that it comes from the
+   *     method on top of the call stack, rather than only the first time that method calls the
+   *     callee. Checking the first time only is much faster, but a method that calls another both
+   *     directly and through code that is not traced has only the edge of the first call in the
+   *     trace, so the trace may have fewer edges than the text format. Calls are always checked
+   *     with a policy.
+   * @param tableSize the least number of edges to remember; edges beyond that are written whether
+   *     or not they were seen before
+   */
+  BinaryTraceWriter(
+      String fileName,
+      SetOfClasses filter,
+      Runtime.Policy policy,
+      boolean checkEveryCall,
+      int tableSize)
+      throws IOException {
+    this.filter = filter;
+    this.policy = policy;
+    this.checkEveryCall = checkEveryCall || policy != null;
+    int capacity = Integer.highestOneBit(Math.max(2 * tableSize - 1, 16));
+    edges = new AtomicLongArray(capacity);
+    maxEdges = capacity / 4 * 3;
+    output =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName), 1 << 16));
+    output.writeInt(MAGIC);
+  }
+
+  private ClassInfo getClass(String klass) {
+    ClassInfo info = classes.get(klass);
+    if (info == null) {
+      info =
+          classes.computeIfAbsent(
+              klass,
+              k -> {
+                String descriptor = Runtime.bashToDescriptor(k);
+                return new ClassInfo(descriptor, filter != null && filter.contains(descriptor));
+              });
+    }
+    return info;
+  }
+
+  private MethodInfo getMethod(ClassInfo cls, String method) {
+    MethodInfo info = cls.methods.get(method);
+    if (info == null) {
+      info = cls.methods.computeIfAbsent(method, m -> define(cls.descriptor, m));
+    }
+    return info;
+  }
+
+  /** number a new method, and write it out before any edge can use the number */
+  private synchronized MethodInfo define(String descriptor, String method) {
+    int id = nextId++;
+    if (output != null) {
+      try {
+        output.writeByte(METHOD);
+        output.writeInt(id);
+        output.writeUTF(descriptor);
+        output.writeUTF(method);
+      } catch (IOException e) {
+        fail(e);
+      }
+    }
+    String frameText = descriptor.replace('/', '.') + '\t' + method;
+    return new MethodInfo(id, method.contains("<clinit>"), frameText);
+  }
+
+  void execution(String klass, String method, Object receiver) {
+    ClassInfo cls = getClass(klass);
+    MethodInfo callee = getMethod(cls, method);
+    ThreadTrace thread = threads.get();
+    MethodInfo caller = thread.stack[thread.depth - 1];
+    if (!cls.excluded
+        && !closed
+        && (checkEveryCall || remember(CALL | key(caller.id, callee.id)))) {
+      // frames: this(0), Runtime.execution(1), callee(2), caller(3)
+      StackWalker.StackFrame[] frames = walker.walk(CALLEE_AND_CALLER);
+      if (frames.length > 1
+          && !frames[1].getMethodName().startsWith("$")
+          && (!caller.frameText.contains(frames[1].getMethodName())
+              || !caller.frameText.contains(frames[1].getClassName()))) {
+        if (policy == null) {
+          String name = frames[0].getMethodName();
+          add(
+              thread,
+              "<clinit>".equals(name) ? CLINIT : "finalize".equals(name) ? ROOT : CALLBACKS,
+              callee.id);
+        } else {
+          StackTraceElement[] stack = new Throwable().getStackTrace();
+          policy.callback(Arrays.copyOfRange(stack, 1, stack.length), klass, method, receiver);
+        }
+      } else {
+        add(thread, callee.clinit ? CLINIT : caller.id, callee.id);
+      }
+    }
+    thread.push(callee);
+  }
+
+  void termination() {
+    ThreadTrace thread = threads.get();
+    if (thread.depth > 1) {
+      thread.depth--;
+    }
+    if (thread.depth == 1 && thread.registered) {
+      // e.g. the run method of the thread returned, so write its edges while it is known
+      thread.flush();
+    }
+  }
+
+  private void add(ThreadTrace thread, int caller, int callee) {
+    if (remember(key(caller, callee))) {
+      thread.add(caller, callee);
+    }
+  }
+
+  private static long key(int caller, int callee) {
+    // callee is never ROOT, so no key is 0
+    return ((long) caller << 32) | callee;
+  }
+
+  /**
+   * @return true unless the key was seen before
+   */
+  private boolean remember(long key) {
+    int mask = edges.length() - 1;
+    long h = key * 0x9E3779B97F4A7C15L;
+    int i = (int) (h ^ (h >>> 32)) & mask;
+    while (true) {
+      long k = edges.get(i);
+      if (k == key) {
+        return false;
+      } else if (k == 0) {
+        if (edgeCount.get() >= maxEdges) {
+          return true;
+        } else if (edges.compareAndSet(i, 0, key)) {
+          edgeCount.incrementAndGet();
+          return true;
+        } else if (edges.get(i) == key) {
+          return false;
+        }
+      }
+      i = (i + 1) & mask;
+    }
+  }
+
+  private synchronized void write(byte[] bytes, int length) {
+    if (output != null) {
+      try {
+        output.write(bytes, 0, length);
+      } catch (IOException e) {
+        fail(e);
+      }
+    }
+  }
+
+  private void fail(IOException e) {
+    e.printStackTrace();
+    closed = true;
+    output = null;
+  }
+
+  void close() {
+    closed = true;
+    for (ThreadTrace thread : pending.toArray(new ThreadTrace[0])) {
+      thread.flush();
+    }
+    synchronized (this) {
+      if (output != null) {
+        try {
+          output.close();
+        } catch (IOException e) {
+          e.printStackTrace();
+        }
+        output = null;
+      }
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.shrike.cg;
+
+import com.ibm.wala.util.collections.HashMapFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.StringTokenizer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads the call graph edges of a trace that {@link Runtime} wrote, in either the text or the
+ * binary format. The text format repeats an edge for every call, while the binary format has each
+ * edge once, or a few times when it saw more edges than it could remember.
+ */
+public final class CallGraphTraceReader {
+
+  public interface EdgeVisitor {
+    /**
+     * @param callerClass the class of the calling method, or one of "root", "clinit" or
+     *     "callbacks" for calls from outside the traced code
+     * @param callerMethod the name and descriptor of the calling method, or null for "root",
+     *     "clinit" and "callbacks"
+     * @param calleeClass the class of the called method
+     * @param calleeMethod the name and descriptor of the called method
+     */
+    void edge(String callerClass, String callerMethod, String calleeClass, String calleeMethod);
+  }
+
+  private CallGraphTraceReader() {}
+
+  /** call visitor for each edge of the trace in file */
+  public static void read(Path file, EdgeVisitor visitor) throws IOException {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+      in.mark(4);
+      DataInputStream data = new DataInputStream(in);
+      int magic = data.readInt();
+      if (magic == BinaryTraceWriter.MAGIC) {
+        readBinary(data, visitor);
+      } else {
+        in.reset();
+        readText(new GZIPInputStream(in), visitor);
+      }
+    }
+  }
+
+  private static void readText(InputStream in, EdgeVisitor visitor) throws IOException {
+    BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    String line;
+    while ((line = lines.readLine()) != null) {
+      if (line.startsWith("call to") || line.startsWith("return from")) {
+        continue;
+      }
+      StringTokenizer edge = new StringTokenizer(line, "\t");
+      String callerClass = edge.nextToken();
+      String callerMethod =
+          "root".equals(callerClass)
+                  || "clinit".equals(callerClass)
+                  || "callbacks".equals(callerClass)
+              ? null
+              : edge.nextToken();
+      visitor.edge(callerClass, callerMethod, edge.nextToken(), edge.nextToken());
+    }
+  }
+
+  private static void readBinary(DataInputStream in, EdgeVisitor visitor) throws IOException {
+    Map<Integer, String[]> methods = HashMapFactory.make();
+    methods.put(BinaryTraceWriter.ROOT, new String[] {"root", null});
+    methods.put(BinaryTraceWriter.CLINIT, new String[] {"clinit", null});
+    methods.put(BinaryTraceWriter.CALLBACKS, new String[] {"callbacks", null});
+    int tag;
+    while ((tag = in.read()) != -1) {
+      if (tag == BinaryTraceWriter.METHOD) {
+        int id = in.readInt();
+        methods.put(id, new String[] {in.readUTF(), in.readUTF()});
+      } else if (tag == BinaryTraceWriter.EDGE) {
+        String[] caller = getMethod(methods, in.readInt());
+        String[] callee = getMethod(methods, in.readInt());
+        visitor.edge(caller[0], caller[1], callee[0], callee[1]);
+      } else {
+        throw new IOException("bad record in trace: " + tag);
+      }
+    }
+  }
+
+  private static String[] getMethod(Map<Integer, String[]> methods, int id) throws IOException {
+    String[] method = methods.get(id);
+    if (method == null) {
+      throw new IOException("unknown method in trace: " + id);
+    }
+    return method;
+  }
+}
@@ -22,6 +22,12 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayDeque;
 import java.util.zip.GZIPOutputStream;
 
+/**
+ * Called by code that {@link OfflineDynamicCallGraph} instruments, to trace the call graph of a run
+ * into the file named by -DdynamicCGFile. By default, the trace is gzipped text with a line for
+ * every call; -DdynamicCGFormat=binary writes each distinct edge once instead, with numbers for
+ * methods, which is much cheaper. {@link CallGraphTraceReader} reads either.
+ */
 public class Runtime {
   public interface Policy {
     void callback(StackTraceElement[] stack, String klass, String method, Object receiver);
@@ -49,9 +55,19 @@ public class Runtime {
       new Runtime(
           System.getProperty("dynamicCGFile"),
           System.getProperty("dynamicCGFilter"),
-          System.getProperty("policyClass", "com.ibm.wala.shrike.cg.Runtime$DefaultPolicy"));
+          System.getProperty("policyClass", "com.ibm.wala.shrike.cg.Runtime$DefaultPolicy"),
+          System.getProperty("dynamicCGFormat", "text"),
+          Boolean.parseBoolean(System.getProperty("dynamicCGCheckEveryCall", "true")),
+          Integer.getInteger("dynamicCGEdgeTableSize", 1 << 18));
 
   private PrintWriter output;
+
+  /**
+   * the trace when -DdynamicCGFormat=binary, in which case output is null, unless the binary trace
+   * could not be opened
+   */
+  private BinaryTraceWriter binary;
+
   private SetOfClasses filter;
   private Policy handleCallback;
   private final ThreadLocal<String> currentSite = new ThreadLocal<>();
@@ -64,22 +80,19 @@ public class Runtime {
             return callStack;
           });
 
-  private Runtime(String fileName, String filterFileName, String policyClassName) {
+  private Runtime(
+      String fileName,
+      String filterFileName,
+      String policyClassName,
+      String format,
+      boolean checkEveryCall,
+      int edgeTableSize) {
     try (final FileInputStream in = new FileInputStream(filterFileName)) {
       filter = new FileOfClasses(in);
     } catch (Exception e) {
       filter = null;
     }
 
-    try {
-      output =
-          new PrintWriter(
-              new OutputStreamWriter(
-                  new GZIPOutputStream(new FileOutputStream(fileName)), "UTF-8"));
-    } catch (IOException e) {
-      output = new PrintWriter(System.err);
-    }
-
     try {
       handleCallback =
           (Policy) Class.forName(policyClassName).getDeclaredConstructor().newInstance();
@@ -93,10 +106,36 @@ public class Runtime {
       handleCallback = new DefaultCallbackPolicy();
     }
 
+    if ("binary".equals(format)) {
+      try {
+        binary =
+            new BinaryTraceWriter(
+                fileName,
+                filter,
+                handleCallback instanceof DefaultCallbackPolicy ? null : handleCallback,
+                checkEveryCall,
+                edgeTableSize);
+      } catch (IOException e) {
+        output = new PrintWriter(System.err);
+      }
+    } else {
+      try {
+        output =
+            new PrintWriter(
+                new OutputStreamWriter(
+                    new GZIPOutputStream(new FileOutputStream(fileName)), "UTF-8"));
+      } catch (IOException e) {
+        output = new PrintWriter(System.err);
+      }
+    }
+
     java.lang.Runtime.getRuntime().addShutdownHook(new Thread(Runtime::endTrace));
   }
 
   public static void endTrace() {
+    if (runtime.binary != null) {
+      runtime.binary.close();
+    }
     synchronized (runtime) {
       if (runtime.output != null) {
         runtime.output.close();
@@ -124,6 +163,10 @@ public class Runtime {
   }
 
   public static void execution(String klass, String method, Object receiver) {
+    if (runtime.binary != null) {
+      runtime.binary.execution(klass, method, receiver);
+      return;
+    }
     runtime.currentSite.remove();
     if (runtime.filter == null || !runtime.filter.contains(bashToDescriptor(klass))) {
       if (runtime.output != null) {
@@ -171,11 +214,16 @@ public class Runtime {
 
   @SuppressWarnings("unused")
   public static void termination(String klass, String method, Object receiver, boolean exception) {
+    if (runtime.binary != null) {
+      runtime.binary.termination();
+      return;
+    }
     runtime.callStacks.get().pop();
   }
 
   public static void pop() {
-    if (runtime.currentSite.get() != null) {
+    // the binary format has no call sites
+    if (runtime.binary == null && runtime.currentSite.get() != null) {
       synchronized (runtime) {
         if (runtime.output != null) {
           runtime.output.printf("return from " + runtime.currentSite.get() + '\n');
@@ -188,6 +236,9 @@ public class Runtime {
   }
 
   public static void addToCallStack(String klass, String method, Object receiver) {
+    if (runtime.binary != null) {
+      return;
+    }
     String callerClass =
         runtime.callStacks.get().isEmpty()
             ? "BLOB"
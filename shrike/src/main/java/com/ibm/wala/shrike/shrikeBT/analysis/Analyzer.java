@@ -74,6 +74,14 @@ public class Analyzer {
 
   protected String[][] varTypes;
 
+  /** types taken as given at some instructions, or null; see computeTypes with declared types */
+  protected String[][] declaredLocals;
+
+  protected String[][] declaredStacks;
+
+  /** whether the types flowing into instructions with declared types conform to them so far */
+  private boolean conformsToDeclared;
+
   protected static final String[] noStrings = new String[0];
 
   protected static final int[] noEdges = new int[0];
@@ -533,11 +541,53 @@ public class Analyzer {
       int curLocalsSize,
       List<PathElement> path)
       throws FailureException {
+    if (declaredStacks != null && declaredStacks[i] != null) {
+      // the types here do not change, so there is nothing to propagate
+      if (!conformsTo(curStack, curStackSize, stacks[i], true)
+          || !conformsTo(curLocals, curLocalsSize, locals[i], false)) {
+        conformsToDeclared = false;
+      }
+      return false;
+    }
     boolean a = mergeStackTypes(i, curStack, curStackSize, path);
     boolean b = mergeLocalTypes(i, curLocals, curLocalsSize);
     return a || b;
   }
 
+  /**
+   * @return whether the first size types of cur can be used where declared is expected, as in a
+   *     stack map frame: a stack must have the same size, and a local declared as null (top)
+   *     accepts anything
+   */
+  private boolean conformsTo(String[] cur, int size, String[] declared, boolean stack) {
+    if (stack && size != declared.length) {
+      return false;
+    }
+    for (int j = 0; j < declared.length; j++) {
+      if (!isAssignable(j < size ? cur[j] : null, declared[j])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isAssignable(String from, String to) {
+    if (to == null || to.equals(from)) {
+      return true;
+    } else if (from == null
+        || from == thisType
+        || to == thisType
+        || from == topType
+        || to == topType
+        || from.startsWith("#")
+        || to.startsWith("#")) {
+      return false;
+    } else {
+      // only a definite answer will do, since the declared types are not checked otherwise
+      return ClassHierarchy.isSubtypeOf(hierarchy, from, to) == ClassHierarchy.YES;
+    }
+  }
+
   private static boolean longType(String type) {
     return Constants.TYPE_long.equals(type) || Constants.TYPE_double.equals(type);
   }
@@ -844,6 +894,60 @@ public class Analyzer {
     computeTypes(0, v, makeTypesAt, wantPath ? new ArrayList<>() : null);
   }
 
+  /**
+   * Verify the method and compute types at every program point, taking the types at the
+   * instructions where declaredLocals and declaredStacks are not null as given, e.g. from the stack
+   * map frames of the code before it was instrumented. The types flowing into those instructions
+   * are only checked against the declared types rather than merged with them, so each basic block
+   * that starts with declared types is visited once, and only the others are computed by iterating
+   * to a fixed point.
+   *
+   * @param declaredLocals the types of the locals at each instruction, or null where they are not
+   *     declared; they can only be declared where makeTypesAt is set, and declaredStacks must not
+   *     be null there either
+   * @param declaredStacks the types of the stack at each instruction, top first, or null
+   * @return true if the types flowing into every instruction with declared types conform to them,
+   *     so that the computed types are valid; otherwise they are not, and the types should be
+   *     computed without declarations
+   * @throws FailureException the method contains invalid bytecode
+   */
+  public final boolean computeTypes(
+      TypeVisitor v, BitSet makeTypesAt, String[][] declaredLocals, String[][] declaredStacks)
+      throws FailureException {
+    if (declaredLocals == null || declaredLocals.length != instructions.length) {
+      throw new IllegalArgumentException("bad declaredLocals");
+    }
+    if (declaredStacks == null || declaredStacks.length != instructions.length) {
+      throw new IllegalArgumentException("bad declaredStacks");
+    }
+    initTypeInfo();
+    for (int i = 0; i < instructions.length; i++) {
+      if (declaredLocals[i] != null) {
+        if (i == 0 || !makeTypesAt.get(i) || declaredStacks[i].length != stackSizes[i]) {
+          return false;
+        }
+        stacks[i] = declaredStacks[i].clone();
+        locals[i] = declaredLocals[i].clone();
+        maxLocals = Math.max(maxLocals, locals[i].length);
+      }
+    }
+    this.declaredLocals = declaredLocals;
+    this.declaredStacks = declaredStacks;
+    conformsToDeclared = true;
+    try {
+      computeTypes(0, v, makeTypesAt, null);
+      for (int i = 1; i < instructions.length && conformsToDeclared; i++) {
+        if (declaredLocals[i] != null) {
+          computeTypes(i, v, makeTypesAt, null);
+        }
+      }
+      return conformsToDeclared;
+    } finally {
+      this.declaredLocals = null;
+      this.declaredStacks = null;
+    }
+  }
+
   public abstract static class TypeVisitor extends IInstruction.Visitor {
     public abstract void setState(
         int index, List<PathElement> path, String[] curStack, String[] curLocals);
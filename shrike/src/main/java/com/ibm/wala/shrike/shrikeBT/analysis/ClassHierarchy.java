@@ -135,6 +135,14 @@ public final class ClassHierarchy {
 
   private static int checkSubtypeOfHierarchy(
       ClassHierarchyProvider hierarchy, String t1, String t2) {
+    if (hierarchy instanceof ClassHierarchyCache) {
+      return ((ClassHierarchyCache) hierarchy).checkSubtypeOf(t1, t2);
+    } else {
+      return computeSubtypeOfHierarchy(hierarchy, t1, t2);
+    }
+  }
+
+  static int computeSubtypeOfHierarchy(ClassHierarchyProvider hierarchy, String t1, String t2) {
     if (t2.equals(Constants.TYPE_Object)) {
       return YES;
     } else {
@@ -280,6 +288,15 @@ public final class ClassHierarchy {
 
   private static String findCommonSupertypeHierarchy(
       ClassHierarchyProvider hierarchy, String t1, String t2) {
+    if (hierarchy instanceof ClassHierarchyCache) {
+      return ((ClassHierarchyCache) hierarchy).findCommonSupertype(t1, t2);
+    } else {
+      return computeCommonSupertypeHierarchy(hierarchy, t1, t2);
+    }
+  }
+
+  static String computeCommonSupertypeHierarchy(
+      ClassHierarchyProvider hierarchy, String t1, String t2) {
     if (isSubtypeOf(hierarchy, t1, t2) == YES) {
       return t2;
     } else if (isSubtypeOf(hierarchy, t2, t1) == YES) {
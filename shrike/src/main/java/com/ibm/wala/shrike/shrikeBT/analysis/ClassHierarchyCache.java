@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.shrike.shrikeBT.analysis;
+
+import com.ibm.wala.util.collections.Pair;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A ClassHierarchyProvider that remembers the answers of another one, together with the subtype
+ * checks and common supertypes that {@link ClassHierarchy} computes from it. Computing stack map
+ * frames asks the same questions at the control flow merges of every method of a class, so
+ * wrapping the provider given to e.g. an OfflineInstrumenter in a cache answers most of them from a
+ * table rather than by walking the hierarchy again.
+ *
+ * <p>The underlying provider must not change while the cache is in use. The cache may be shared by
+ * several threads.
+ */
+public final class ClassHierarchyCache implements ClassHierarchyProvider {
+
+  private final ClassHierarchyProvider hierarchy;
+
+  private final ConcurrentHashMap<String, Optional<String>> superClasses =
+      new ConcurrentHashMap<>();
+
+  private final ConcurrentHashMap<String, Optional<String[]>> superInterfaces =
+      new ConcurrentHashMap<>();
+
+  private final ConcurrentHashMap<String, Optional<String[]>> subClasses =
+      new ConcurrentHashMap<>();
+
+  private final ConcurrentHashMap<String, Integer> interfaces = new ConcurrentHashMap<>();
+
+  private final ConcurrentHashMap<Pair<String, String>, Integer> subtypes =
+      new ConcurrentHashMap<>();
+
+  private final ConcurrentHashMap<Pair<String, String>, String> commonSupertypes =
+      new ConcurrentHashMap<>();
+
+  /**
+   * @throws IllegalArgumentException if hierarchy is null
+   */
+  public ClassHierarchyCache(ClassHierarchyProvider hierarchy) {
+    if (hierarchy == null) {
+      throw new IllegalArgumentException("hierarchy is null");
+    }
+    this.hierarchy = hierarchy;
+  }
+
+  @Override
+  public String getSuperClass(String cl) {
+    return superClasses
+        .computeIfAbsent(cl, c -> Optional.ofNullable(hierarchy.getSuperClass(c)))
+        .orElse(null);
+  }
+
+  @Override
+  public String[] getSuperInterfaces(String cl) {
+    return superInterfaces
+        .computeIfAbsent(cl, c -> Optional.ofNullable(hierarchy.getSuperInterfaces(c)))
+        .orElse(null);
+  }
+
+  @Override
+  public String[] getSubClasses(String cl) {
+    return subClasses
+        .computeIfAbsent(cl, c -> Optional.ofNullable(hierarchy.getSubClasses(c)))
+        .orElse(null);
+  }
+
+  @Override
+  public int isInterface(String cl) {
+    return interfaces.computeIfAbsent(cl, hierarchy::isInterface);
+  }
+
+  /** {@link ClassHierarchy#isSubtypeOf} for two class types */
+  int checkSubtypeOf(String t1, String t2) {
+    // not computeIfAbsent, since computing the answer asks this cache other questions
+    Pair<String, String> key = Pair.make(t1, t2);
+    Integer result = subtypes.get(key);
+    if (result == null) {
+      result = ClassHierarchy.computeSubtypeOfHierarchy(this, t1, t2);
+      subtypes.put(key, result);
+    }
+    return result;
+  }
+
+  /** {@link ClassHierarchy#findCommonSupertype} for two class types */
+  String findCommonSupertype(String t1, String t2) {
+    Pair<String, String> key = Pair.make(t1, t2);
+    String result = commonSupertypes.get(key);
+    if (result == null) {
+      result = ClassHierarchy.computeCommonSupertypeHierarchy(this, t1, t2);
+      commonSupertypes.put(key, result);
+    }
+    return result;
+  }
+}
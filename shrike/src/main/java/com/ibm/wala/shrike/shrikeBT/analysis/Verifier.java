@@ -354,4 +354,19 @@ public final class Verifier extends Analyzer {
   public void computeTypes() throws FailureException {
     computeTypes(null, getBasicBlockStarts(), false);
   }
+
+  /**
+   * Compute types taking those at the starts of some basic blocks as given.
+   *
+   * @return true if the types flowing into the blocks conform to the declared types, and the
+   *     instructions verify with them; see {@link
+   *     Analyzer#computeTypes(TypeVisitor, BitSet, String[][], String[][])}
+   */
+  public boolean computeTypes(String[][] declaredLocals, String[][] declaredStacks)
+      throws FailureException {
+    // the declared types may be less precise than computed ones would be, so check that the
+    // instructions accept them
+    VerifyVisitor v = new VerifyVisitor();
+    return computeTypes(v, getBasicBlockStarts(), declaredLocals, declaredStacks) && v.ex == null;
+  }
 }
@@ -57,6 +57,8 @@ public final class ClassInstrumenter {
 
   private int fakeLineOffset;
 
+  private boolean incrementalStackMaps = false;
+
   private final String inputName;
 
   private final ClassHierarchyProvider cha;
@@ -83,6 +85,16 @@ public final class ClassInstrumenter {
     fakeLineOffset = offset;
   }
 
+  /**
+   * Calling this means that the stack map frames of modified methods are computed incrementally:
+   * the types at the basic blocks of the original code are taken from its frames, and only those
+   * at new blocks are computed, unless the patched code no longer conforms to the original frames.
+   * The frames may then be less precise than computed ones, but they are as valid.
+   */
+  public void enableIncrementalStackMaps() {
+    incrementalStackMaps = true;
+  }
+
   /**
    * Create a class instrumenter from a preinitialized class reader.
    *
@@ -452,7 +464,8 @@ public final class ClassInstrumenter {
             }
           }
 
-          stacks = new StackMapTableWriter(w, md, output, cha, varTypes, sm);
+          stacks =
+              new StackMapTableWriter(w, md, output, cha, varTypes, sm, incrementalStackMaps);
           codeAttrCount++;
         } catch (IOException | FailureException e) {
           // TODO Auto-generated catch block
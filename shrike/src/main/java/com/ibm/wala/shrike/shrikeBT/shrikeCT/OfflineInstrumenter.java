@@ -56,6 +56,43 @@ public final class OfflineInstrumenter extends OfflineInstrumenterBase {
     }
   }
 
+  /** The instrumentation of one class by {@link #instrumentClasses(int, ClassTransformer)} */
+  @FunctionalInterface
+  public interface ClassTransformer {
+    /**
+     * Instrument a class, e.g. with {@link ClassInstrumenter#visitMethods}. This is called from
+     * several threads at once, each on a different class, so it must not update shared state
+     * without synchronization.
+     *
+     * @return the class to output in place of ci, e.g. ci.emitClass(), or null to leave ci
+     *     unmodified
+     */
+    ClassWriter transform(ClassInstrumenter ci) throws InvalidClassFileException;
+  }
+
+  /**
+   * Instrument every class not ignored with t, and output the classes it modifies, as a loop over
+   * nextClass() and outputModifiedClass() would. The classes are decoded, transformed and
+   * serialized by numberOfThreads worker threads, while this thread reads the input and writes the
+   * output jar; its entries are in the same order whatever the number of threads.
+   *
+   * @throws IllegalArgumentException if numberOfThreads is not positive
+   */
+  public void instrumentClasses(int numberOfThreads, ClassTransformer t) throws IOException {
+    if (t == null) {
+      throw new IllegalArgumentException("t is null");
+    }
+    internalProcessClasses(
+        numberOfThreads,
+        cl -> {
+          try {
+            return t.transform((ClassInstrumenter) cl);
+          } catch (InvalidClassFileException e) {
+            throw new IOException("Invalid class file: " + e.getMessage());
+          }
+        });
+  }
+
   /** Get the next class to be instrumented. */
   public ClassInstrumenter nextClass() throws IOException {
     return (ClassInstrumenter) internalNextClass();
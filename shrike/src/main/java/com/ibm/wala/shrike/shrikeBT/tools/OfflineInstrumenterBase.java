@@ -13,17 +13,25 @@ package com.ibm.wala.shrike.shrikeBT.tools;
 import com.ibm.wala.shrike.shrikeBT.analysis.ClassHierarchyProvider;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.JarOutputStream;
@@ -368,6 +376,128 @@ public abstract class OfflineInstrumenterBase {
     }
   }
 
+  /**
+   * The work done on each class by {@link OfflineInstrumenterBase#internalProcessClasses(int,
+   * ClassProcessor)}. It is called from several threads at once, each on a different class.
+   */
+  protected interface ClassProcessor {
+    /**
+     * @return the modifications to write for cl, as passed to writeClassTo, or null if cl is not
+     *     modified
+     */
+    Object process(Object cl) throws IOException;
+  }
+
+  /** The result of processing one class in internalProcessClasses */
+  private static final class ProcessedClass {
+    private final Input in;
+
+    private final String className;
+
+    /** the bytes of the modified class, or null if it is not modified */
+    private final byte[] bytes;
+
+    ProcessedClass(Input in, String className, byte[] bytes) {
+      this.in = in;
+      this.className = className;
+      this.bytes = bytes;
+    }
+  }
+
+  /**
+   * Process every class not ignored, as a loop over internalNextClass() and
+   * internalOutputModifiedClass() would, but with a pipeline: this thread reads the classes and
+   * writes the output jar, while a pool of numberOfThreads workers parses, processes and serializes
+   * them. The entries of the output jar are in the same order as the inputs, whatever the number of
+   * threads. This does not change the position of the traversal by internalNextClass().
+   *
+   * @throws IllegalArgumentException if numberOfThreads is not positive
+   */
+  protected final void internalProcessClasses(int numberOfThreads, ClassProcessor processor)
+      throws IOException {
+    if (numberOfThreads < 1) {
+      throw new IllegalArgumentException("numberOfThreads must be positive: " + numberOfThreads);
+    }
+    if (processor == null) {
+      throw new IllegalArgumentException("processor is null");
+    }
+    // enough classes in flight to keep the workers busy while this thread reads and writes, but
+    // not so many that the whole input is in memory at once
+    int window = 4 * numberOfThreads;
+    ArrayDeque<Future<ProcessedClass>> pending = new ArrayDeque<>(window);
+    ExecutorService pool = Executors.newFixedThreadPool(numberOfThreads);
+    try {
+      int next = 0;
+      while (true) {
+        while (pending.size() < window && next < inputs.size()) {
+          Input in = inputs.get(next);
+          next++;
+          if (ignoringInputs.get(next - 1) || !in.isClass()) {
+            continue;
+          }
+          // inputs are read here, since the jar files are shared
+          byte[] bytes;
+          try (InputStream s = in.open()) {
+            bytes = s.readAllBytes();
+          }
+          pending.add(pool.submit(() -> processClass(in, bytes, processor)));
+        }
+        Future<ProcessedClass> f = pending.poll();
+        if (f == null) {
+          return;
+        }
+        ProcessedClass p = getProcessedClass(f);
+        p.in.setClassName(p.className);
+        if (p.bytes != null) {
+          makeOutputJar();
+          String name = p.in.getInputName();
+          if (!entryNames.contains(name)) {
+            putNextEntry(new ZipEntry(name));
+            outputJar.write(p.bytes);
+            outputJar.closeEntry();
+          }
+        }
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private ProcessedClass processClass(Input in, byte[] bytes, ClassProcessor processor)
+      throws IOException {
+    Object cl =
+        makeClassFromStream(
+            in.getInputName(), new BufferedInputStream(new ByteArrayInputStream(bytes)));
+    String name = getClassName(cl);
+    Object mods = processor.process(cl);
+    if (mods == null) {
+      return new ProcessedClass(in, name, null);
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
+    writeClassTo(cl, mods, out);
+    return new ProcessedClass(in, name, out.toByteArray());
+  }
+
+  private static ProcessedClass getProcessedClass(Future<ProcessedClass> f) throws IOException {
+    try {
+      return f.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted while processing classes");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      } else {
+        throw new IOException(cause);
+      }
+    }
+  }
+
   private static String toEntryName(String className) {
     return className.replace('.', '/') + ".class";
   }
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.shrike.shrikeCT;
+
+/**
+ * Reads only the header of a class file: its access flags, its name and the names of its
+ * supertypes. Unlike {@link ClassReader}, this does not look at the fields, methods and attributes
+ * past the header, so it is cheaper when that is all a client needs, e.g. to index the classes of a
+ * large library; it also means that corrupt data past the header goes unnoticed.
+ */
+public final class ClassHeaderReader implements ClassConstants {
+
+  private final int accessFlags;
+
+  private final String name;
+
+  private final String superName;
+
+  private final String[] interfaceNames;
+
+  /**
+   * @param bytes the class file data
+   * @throws InvalidClassFileException the header of the class file is corrupt
+   */
+  public ClassHeaderReader(byte[] bytes) throws InvalidClassFileException {
+    if (bytes == null) {
+      throw new IllegalArgumentException("bytes is null");
+    }
+    checkLength(bytes, 0, 10);
+    int magic = getInt(bytes, 0);
+    int majorVersion = getUShort(bytes, 6);
+    if (magic != MAGIC) {
+      throw new InvalidClassFileException(0, "bad magic number: " + magic);
+    }
+    // the same versions as ClassReader
+    if (majorVersion < 45 || majorVersion > 65) {
+      throw new InvalidClassFileException(6, "unknown class file version: " + majorVersion);
+    }
+    ConstantPoolParser cp = new ConstantPoolParser(bytes, 10, getUShort(bytes, 8));
+    int offset = 10 + cp.getRawSize();
+    checkLength(bytes, offset, 8);
+    accessFlags = getUShort(bytes, offset);
+    String n = getClass(cp, bytes, offset + 2);
+    if (n == null) {
+      throw new InvalidClassFileException(offset + 2, "Null class name not allowed");
+    }
+    name = n;
+    superName = getClass(cp, bytes, offset + 4);
+    int interfaceCount = getUShort(bytes, offset + 6);
+    offset += 8;
+    checkLength(bytes, offset, 2 * interfaceCount);
+    interfaceNames = new String[interfaceCount];
+    for (int i = 0; i < interfaceCount; i++) {
+      interfaceNames[i] = getClass(cp, bytes, offset + 2 * i);
+      if (interfaceNames[i] == null) {
+        throw new InvalidClassFileException(offset + 2 * i, "Null interface name not allowed");
+      }
+    }
+  }
+
+  private static void checkLength(byte[] bytes, int offset, int required)
+      throws InvalidClassFileException {
+    if (bytes.length < offset + required) {
+      throw new InvalidClassFileException(
+          offset,
+          "file truncated, expected " + required + " bytes, saw only " + (bytes.length - offset));
+    }
+  }
+
+  private static int getInt(byte[] bytes, int i) {
+    return (bytes[i] << 24)
+        + ((bytes[i + 1] & 0xFF) << 16)
+        + ((bytes[i + 2] & 0xFF) << 8)
+        + (bytes[i + 3] & 0xFF);
+  }
+
+  private static int getUShort(byte[] bytes, int i) {
+    return ((bytes[i] & 0xFF) << 8) + (bytes[i + 1] & 0xFF);
+  }
+
+  /** the class named by the constant pool index at offset, or null if the index is 0 */
+  private static String getClass(ConstantPoolParser cp, byte[] bytes, int offset)
+      throws InvalidClassFileException {
+    int c = getUShort(bytes, offset);
+    if (c == 0) {
+      return null;
+    }
+    try {
+      return cp.getCPClass(c);
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidClassFileException(offset, "Invalid class constant pool index: " + c);
+    }
+  }
+
+  /**
+   * @return the access flags for the class
+   */
+  public int getAccessFlags() {
+    return accessFlags;
+  }
+
+  /**
+   * @return the name of the class in JVM format (e.g., java/lang/Object)
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return the superclass name in JVM format (e.g., java/lang/Object), or null if this class is
+   *     java.lang.Object
+   */
+  public String getSuperName() {
+    return superName;
+  }
+
+  /**
+   * @return the names of the implemented interfaces in JVM format
+   */
+  public String[] getInterfaceNames() {
+    return interfaceNames.clone();
+  }
+}
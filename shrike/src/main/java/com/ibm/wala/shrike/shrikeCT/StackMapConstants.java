@@ -114,6 +114,11 @@ public class StackMapConstants {
       this.type = type;
     }
 
+    /** the class name, as in the constant pool */
+    String getType() {
+      return type;
+    }
+
     @Override
     public int size() {
       return Item.ITEM_Object.size();
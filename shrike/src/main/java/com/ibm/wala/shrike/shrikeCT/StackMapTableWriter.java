@@ -10,6 +10,7 @@ import com.ibm.wala.shrike.shrikeBT.Compiler.Output;
 import com.ibm.wala.shrike.shrikeBT.GotoInstruction;
 import com.ibm.wala.shrike.shrikeBT.IInstruction;
 import com.ibm.wala.shrike.shrikeBT.MethodData;
+import com.ibm.wala.shrike.shrikeBT.Util;
 import com.ibm.wala.shrike.shrikeBT.analysis.Analyzer;
 import com.ibm.wala.shrike.shrikeBT.analysis.Analyzer.FailureException;
 import com.ibm.wala.shrike.shrikeBT.analysis.ClassHierarchyProvider;
@@ -75,6 +76,18 @@ public class StackMapTableWriter extends Element {
     this(writer, stackMapTable(method, output, cha, vars, reuseFrames));
   }
 
+  public StackMapTableWriter(
+      ClassWriter writer,
+      MethodData method,
+      Output output,
+      ClassHierarchyProvider cha,
+      String[][] vars,
+      List<StackMapFrame> reuseFrames,
+      boolean incremental)
+      throws FailureException, IOException {
+    this(writer, stackMapTable(method, output, cha, vars, reuseFrames, incremental));
+  }
+
   private static List<StackMapFrame> remapStackFrames(
       List<StackMapFrame> sm, int[] newBytecodesToOldBytecodes) {
     // mapping to new bytecode
@@ -212,6 +225,143 @@ public class StackMapTableWriter extends Element {
     return false;
   }
 
+  /** stands for a type that the analyzer has no name for, i.e. an uninitialized object */
+  private static final String UNINITIALIZED = "#uninitialized";
+
+  private static String analyzerType(StackMapType type) {
+    if (type == Item.ITEM_Top) {
+      return null;
+    } else if (type == Item.ITEM_Integer) {
+      return TYPE_int;
+    } else if (type == Item.ITEM_Float) {
+      return TYPE_float;
+    } else if (type == Item.ITEM_Double) {
+      return TYPE_double;
+    } else if (type == Item.ITEM_Long) {
+      return TYPE_long;
+    } else if (type == Item.ITEM_Null) {
+      return TYPE_null;
+    } else if (type == Item.ITEM_UninitializedThis) {
+      return Analyzer.thisType;
+    } else if (type instanceof ObjectType) {
+      String name = ((ObjectType) type).getType();
+      return name.startsWith("[") ? name : 'L' + name + ';';
+    } else {
+      return UNINITIALIZED;
+    }
+  }
+
+  /**
+   * Expand the frames of a stack map table, which may each be relative to the previous one, into
+   * the types at each frame in the form the analyzer uses: locals by slot, with null for top and
+   * for the second slot of a long or double, and the stack top first.
+   *
+   * @return the locals and the stack at each bytecode offset with a frame, leaving out frames with
+   *     uninitialized objects, or null if the frames are malformed
+   */
+  private static Map<Integer, String[][]> expandFrames(
+      MethodData method, List<StackMapFrame> frames) {
+    boolean isConstructor = method.getName().equals("<init>");
+    String[] params =
+        Util.getParamsTypesInLocals(
+            method.getIsStatic()
+                ? null
+                : isConstructor ? Analyzer.thisType : method.getClassType(),
+            method.getSignature());
+    // the locals of the current frame, one entry for each verification type
+    List<String> locals = new ArrayList<>();
+    for (int j = 0; j < params.length; j++) {
+      locals.add(params[j]);
+      if (TYPE_long.equals(params[j]) || TYPE_double.equals(params[j])) {
+        j++;
+      }
+    }
+
+    Map<Integer, String[][]> result = HashMapFactory.make();
+    int offset = -1;
+    for (StackMapFrame frame : frames) {
+      offset += frame.getOffset() + 1;
+      int frameType = frame.getFrameType();
+      StackMapType[] stack = frame.getStackTypes();
+      if (frameType < 128 || frameType == 247 || frameType == 251) {
+        // same locals, with zero or one stack item
+      } else if (frameType >= 248 && frameType <= 250) {
+        int chopped = 251 - frameType;
+        if (chopped > locals.size()) {
+          return null;
+        }
+        locals.subList(locals.size() - chopped, locals.size()).clear();
+      } else if (frameType >= 252 && frameType <= 254) {
+        for (StackMapType t : frame.getLocalTypes()) {
+          locals.add(analyzerType(t));
+        }
+      } else if (frameType == 255) {
+        locals.clear();
+        for (StackMapType t : frame.getLocalTypes()) {
+          locals.add(analyzerType(t));
+        }
+      } else {
+        return null;
+      }
+
+      if (locals.contains(UNINITIALIZED)) {
+        continue;
+      }
+      List<String> slots = new ArrayList<>();
+      for (String t : locals) {
+        slots.add(t);
+        if (TYPE_long.equals(t) || TYPE_double.equals(t)) {
+          slots.add(null);
+        }
+      }
+      while (!slots.isEmpty() && slots.get(slots.size() - 1) == null) {
+        slots.remove(slots.size() - 1);
+      }
+      String[] stackTypes = new String[stack.length];
+      boolean uninitialized = false;
+      for (int j = 0; j < stack.length; j++) {
+        // frames list the stack bottom first
+        stackTypes[stack.length - 1 - j] = analyzerType(stack[j]);
+        uninitialized |= stackTypes[stack.length - 1 - j] == UNINITIALIZED;
+      }
+      if (!uninitialized) {
+        result.put(offset, new String[][] {slots.toArray(new String[0]), stackTypes});
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Compute the types of the instrumented method, taking those at each basic block that starts
+   * where a frame of the original code was as given by that frame; a patch inserted at the start
+   * of such a block is attributed to the same original bytecode, so the frame still applies to it.
+   *
+   * @return whether the types were computed; if not, some of the types flowing into the blocks do
+   *     not conform to the original frames
+   */
+  private static boolean computeTypesIncrementally(
+      Verifier typeChecker, MethodData method, List<StackMapFrame> originalFrames)
+      throws FailureException {
+    Map<Integer, String[][]> original = expandFrames(method, originalFrames);
+    if (original == null) {
+      return false;
+    }
+    int[] originalBytecodes = method.getInstructionsToBytecodes();
+    int n = method.getInstructions().length;
+    String[][] declaredLocals = new String[n][];
+    String[][] declaredStacks = new String[n][];
+    BitSet bbs = typeChecker.getBasicBlockStarts();
+    for (int i = bbs.nextSetBit(1); i >= 0; i = bbs.nextSetBit(i + 1)) {
+      int bc = originalBytecodes[i];
+      String[][] types = original.get(bc);
+      if (types != null && originalBytecodes[i - 1] != bc) {
+        declaredLocals[i] = types[0];
+        declaredStacks[i] = types[1];
+      }
+    }
+    return typeChecker.computeTypes(declaredLocals, declaredStacks);
+  }
+
   public static List<StackMapFrame> stackMapTable(
       MethodData method,
       Output output,
@@ -219,6 +369,23 @@ public class StackMapTableWriter extends Element {
       String[][] vars,
       List<StackMapFrame> reuseFrames)
       throws FailureException {
+    return stackMapTable(method, output, cha, vars, reuseFrames, false);
+  }
+
+  /**
+   * @param reuseFrames the frames of the original code, or null
+   * @param incremental whether to take the types at the blocks of the original code from
+   *     reuseFrames, rather than computing all of them, as long as the instrumented code still
+   *     conforms to them
+   */
+  public static List<StackMapFrame> stackMapTable(
+      MethodData method,
+      Output output,
+      ClassHierarchyProvider cha,
+      String[][] vars,
+      List<StackMapFrame> reuseFrames,
+      boolean incremental)
+      throws FailureException {
     int idx = 0;
 
     List<StackMapFrame> frames = new ArrayList<>();
@@ -230,7 +397,11 @@ public class StackMapTableWriter extends Element {
     if (cha != null) {
       typeChecker.setClassHierarchy(cha);
     }
-    typeChecker.computeTypes();
+    if (!incremental
+        || reuseFrames == null
+        || !computeTypesIncrementally(typeChecker, method, reuseFrames)) {
+      typeChecker.computeTypes();
+    }
     BitSet bbs = typeChecker.getBasicBlockStarts();
 
     int offset = 0;
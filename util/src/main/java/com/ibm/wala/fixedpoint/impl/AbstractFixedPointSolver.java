@@ -105,6 +105,13 @@ public abstract class AbstractFixedPointSolver<T extends IVariable<T>>
     firstSolve = false;
   }
 
+  /**
+   * @return true iff {@link #initForFirstSolve()} has not been performed yet
+   */
+  protected boolean isFirstSolve() {
+    return firstSolve;
+  }
+
   /**
    * @return true iff work list is empty
    */
@@ -491,13 +498,16 @@ public abstract class AbstractFixedPointSolver<T extends IVariable<T>>
   /** Re-order the step definitions. */
   private void reorder() {
     // drain the worklist
-    List<AbstractStatement> temp = new ArrayList<>();
+    List<AbstractStatement<?, ?>> temp = new ArrayList<>();
     while (!workList.isEmpty()) {
       AbstractStatement eq = workList.takeStatement();
       temp.add(eq);
     }
     workList = new Worklist();
 
+    // give subclasses a chance to simplify the system before it is re-ordered
+    beforeReorder(temp);
+
     // compute new ordering
     getFixedPointSystem().reorder();
 
@@ -507,6 +517,17 @@ public abstract class AbstractFixedPointSolver<T extends IVariable<T>>
     }
   }
 
+  /**
+   * Hook invoked while the system is being re-ordered, after the worklist has been drained and
+   * before the new ordering is computed. Subclasses may rewrite the system here; they are
+   * responsible for removing statements that no longer belong to the system from {@code pending},
+   * and for adding any statements that must be re-evaluated.
+   *
+   * @param pending the statements that were on the worklist; these are re-inserted after the
+   *     system is re-ordered
+   */
+  protected void beforeReorder(List<AbstractStatement<?, ?>> pending) {}
+
   public static boolean isChanged(byte code) {
     return (code & CHANGED_MASK) != 0;
   }
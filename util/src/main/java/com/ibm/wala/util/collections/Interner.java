@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.util.collections;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A thread-safe table of canonical values, such as the tables behind the {@code findOrCreate}
+ * methods of interned types. For each key, all callers get the same value, without taking a global
+ * lock.
+ *
+ * <p>A strong interner keeps its values forever. A weak interner refers to its values through weak
+ * references, so that a value is dropped once nothing else refers to it; this bounds the size of
+ * the table in a long-lived process. Identity is preserved either way: a value is only replaced
+ * once it is unreachable, so no one can tell the replacement from the original.
+ *
+ * <p>In a weak interner, keys must not refer to their values, or the values are never dropped.
+ */
+public abstract class Interner<K, V> {
+
+  /** system property that makes {@link #make()} create weak interners */
+  public static final String WEAK_PROPERTY = "com.ibm.wala.weakInterning";
+
+  private static final boolean WEAK_BY_DEFAULT = Boolean.getBoolean(WEAK_PROPERTY);
+
+  /**
+   * @return a strong interner, or a weak one if the system property {@link #WEAK_PROPERTY} is true
+   */
+  public static <K, V> Interner<K, V> make() {
+    return WEAK_BY_DEFAULT ? makeWeak() : makeStrong();
+  }
+
+  public static <K, V> Interner<K, V> makeStrong() {
+    return new Strong<>();
+  }
+
+  public static <K, V> Interner<K, V> makeWeak() {
+    return new Weak<>();
+  }
+
+  /**
+   * @return the canonical value for key, creating it with factory if there is none yet. If several
+   *     threads race to create the value, only one of the created values is ever returned.
+   */
+  public abstract V findOrCreate(K key, Function<? super K, ? extends V> factory);
+
+  /**
+   * @return the canonical value for key, or null if there is none
+   */
+  public abstract @Nullable V find(K key);
+
+  /**
+   * @return the number of values in the table; for a weak interner, this may include values that
+   *     have been collected but not yet expunged
+   */
+  public abstract int size();
+
+  private static final class Strong<K, V> extends Interner<K, V> {
+    private final ConcurrentHashMap<K, V> map = new ConcurrentHashMap<>();
+
+    @Override
+    public V findOrCreate(K key, Function<? super K, ? extends V> factory) {
+      V result = map.get(key);
+      if (result == null) {
+        V v = factory.apply(key);
+        result = map.putIfAbsent(key, v);
+        if (result == null) {
+          result = v;
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public @Nullable V find(K key) {
+      return map.get(key);
+    }
+
+    @Override
+    public int size() {
+      return map.size();
+    }
+  }
+
+  private static final class Weak<K, V> extends Interner<K, V> {
+    private final ConcurrentHashMap<K, WeakValue<K, V>> map = new ConcurrentHashMap<>();
+
+    private final ReferenceQueue<V> queue = new ReferenceQueue<>();
+
+    private static final class WeakValue<K, V> extends WeakReference<V> {
+      final K key;
+
+      WeakValue(K key, V value, ReferenceQueue<V> queue) {
+        super(value, queue);
+        this.key = key;
+      }
+    }
+
+    @Override
+    public V findOrCreate(K key, Function<? super K, ? extends V> factory) {
+      expunge();
+      while (true) {
+        WeakValue<K, V> ref = map.get(key);
+        if (ref != null) {
+          V result = ref.get();
+          if (result != null) {
+            return result;
+          }
+        }
+        V v = factory.apply(key);
+        WeakValue<K, V> newRef = new WeakValue<>(key, v, queue);
+        if (ref == null ? map.putIfAbsent(key, newRef) == null : map.replace(key, ref, newRef)) {
+          return v;
+        }
+        // lost a race; use the winner's value
+      }
+    }
+
+    @Override
+    public @Nullable V find(K key) {
+      WeakValue<K, V> ref = map.get(key);
+      return ref == null ? null : ref.get();
+    }
+
+    @Override
+    public int size() {
+      expunge();
+      return map.size();
+    }
+
+    /** drop the entries whose values have been collected */
+    @SuppressWarnings("unchecked")
+    private void expunge() {
+      for (Object ref; (ref = queue.poll()) != null; ) {
+        WeakValue<K, V> w = (WeakValue<K, V>) ref;
+        map.remove(w.key, w);
+      }
+    }
+  }
+}
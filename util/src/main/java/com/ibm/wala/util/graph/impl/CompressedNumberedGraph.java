@@ -0,0 +1,395 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.util.graph.impl;
+
+import com.ibm.wala.util.collections.HashMapFactory;
+import com.ibm.wala.util.graph.AbstractNumberedGraph;
+import com.ibm.wala.util.graph.INodeWithNumber;
+import com.ibm.wala.util.graph.NumberedEdgeManager;
+import com.ibm.wala.util.graph.NumberedGraph;
+import com.ibm.wala.util.graph.NumberedNodeManager;
+import com.ibm.wala.util.intset.EmptyIntSet;
+import com.ibm.wala.util.intset.IntIterator;
+import com.ibm.wala.util.intset.IntSet;
+import com.ibm.wala.util.intset.SparseIntSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An immutable graph of numbered nodes, whose edges are kept in compressed sparse row form: the
+ * successors of all nodes in one array, ordered by node number, with an array of offsets into it,
+ * and the same for predecessors. For a graph that no longer changes, such as a call graph once
+ * built, this takes far less space than {@link SparseNumberedEdgeManager}, and traversals read
+ * consecutive memory instead of per-node sets.
+ *
+ * <p>Use {@link #freeze(NumberedGraph)} to build one. Nodes keep their numbers from the original
+ * graph; all methods that would change the graph throw {@link UnsupportedOperationException}.
+ * Algorithms that work on node numbers can read the edges without allocating, through {@link
+ * #getSuccNodeNumber(int, int)} and {@link #getPredNodeNumber(int, int)}.
+ */
+public class CompressedNumberedGraph<T> extends AbstractNumberedGraph<T> {
+
+  private final Nodes<T> nodeManager;
+
+  private final Edges<T> edgeManager;
+
+  private CompressedNumberedGraph(NumberedGraph<T> g) {
+    nodeManager = new Nodes<>(g);
+    edgeManager = new Edges<>(g, nodeManager);
+  }
+
+  /**
+   * @return an immutable copy of g, in which nodes have the same numbers as in g
+   * @throws IllegalArgumentException if g is null
+   */
+  public static <T> CompressedNumberedGraph<T> freeze(NumberedGraph<T> g) {
+    if (g == null) {
+      throw new IllegalArgumentException("g is null");
+    }
+    if (g instanceof CompressedNumberedGraph) {
+      return (CompressedNumberedGraph<T>) g;
+    }
+    return new CompressedNumberedGraph<>(g);
+  }
+
+  /**
+   * @return the number of successors of the node with the given number; unlike {@link
+   *     #getSuccNodeCount(Object)}, this cannot be confused with a node when nodes are integers
+   */
+  public int getSuccNodeNumberCount(int number) {
+    return edgeManager.succOffsets[number + 1] - edgeManager.succOffsets[number];
+  }
+
+  /**
+   * @return the number of the i-th successor, in increasing order of numbers, of the node with the
+   *     given number
+   */
+  public int getSuccNodeNumber(int number, int i) {
+    return edgeManager.succs[edgeManager.succOffsets[number] + i];
+  }
+
+  /**
+   * @return the number of predecessors of the node with the given number
+   */
+  public int getPredNodeNumberCount(int number) {
+    return edgeManager.predOffsets[number + 1] - edgeManager.predOffsets[number];
+  }
+
+  /**
+   * @return the number of the i-th predecessor, in increasing order of numbers, of the node with
+   *     the given number
+   */
+  public int getPredNodeNumber(int number, int i) {
+    return edgeManager.preds[edgeManager.predOffsets[number] + i];
+  }
+
+  @Override
+  protected NumberedNodeManager<T> getNodeManager() {
+    return nodeManager;
+  }
+
+  @Override
+  protected NumberedEdgeManager<T> getEdgeManager() {
+    return edgeManager;
+  }
+
+  /** the nodes, in an array indexed by number */
+  private static final class Nodes<T> implements NumberedNodeManager<T> {
+
+    /** number -&gt; node, or null if no node has the number */
+    private final @Nullable Object[] nodes;
+
+    /** node -&gt; number; null if each node is an {@link INodeWithNumber} with its number as id */
+    private final @Nullable Map<T, Integer> numbers;
+
+    private final int count;
+
+    Nodes(NumberedGraph<T> g) {
+      nodes = new Object[g.getMaxNumber() + 1];
+      boolean numberedById = true;
+      int c = 0;
+      for (T n : g) {
+        int number = g.getNumber(n);
+        nodes[number] = n;
+        c++;
+        numberedById &=
+            n instanceof INodeWithNumber && ((INodeWithNumber) n).getGraphNodeId() == number;
+      }
+      count = c;
+      if (numberedById) {
+        numbers = null;
+      } else {
+        numbers = HashMapFactory.make(count);
+        for (int i = 0; i < nodes.length; i++) {
+          if (nodes[i] != null) {
+            numbers.put(getNode(i), i);
+          }
+        }
+      }
+    }
+
+    @Override
+    public int getNumber(@Nullable T N) {
+      if (N == null) {
+        throw new IllegalArgumentException("N is null");
+      }
+      if (numbers != null) {
+        Integer number = numbers.get(N);
+        return number == null ? -1 : number;
+      }
+      if (!(N instanceof INodeWithNumber)) {
+        return -1;
+      }
+      int number = ((INodeWithNumber) N).getGraphNodeId();
+      return number >= 0 && number < nodes.length && N.equals(nodes[number]) ? number : -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T getNode(int number) {
+      if (number < 0 || number >= nodes.length) {
+        throw new IllegalArgumentException("Invalid number " + number);
+      }
+      return (T) nodes[number];
+    }
+
+    @Override
+    public int getMaxNumber() {
+      return nodes.length - 1;
+    }
+
+    @Override
+    public Iterator<T> iterateNodes(IntSet s) {
+      return new NumberedNodeIterator<>(s, this);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Stream<T> stream() {
+      return Arrays.stream(nodes).filter(Objects::nonNull).map(n -> (T) n);
+    }
+
+    @Override
+    public int getNumberOfNodes() {
+      return count;
+    }
+
+    @Override
+    public void addNode(T n) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void removeNode(T n) throws UnsupportedOperationException {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean containsNode(@Nullable T n) {
+      return n != null && getNumber(n) >= 0;
+    }
+  }
+
+  /** the edges, in compressed sparse row form */
+  private static final class Edges<T> implements NumberedEdgeManager<T> {
+
+    private final Nodes<T> nodes;
+
+    /**
+     * the successors of node number n are succs[succOffsets[n]] .. succs[succOffsets[n+1]-1], in
+     * increasing order
+     */
+    private final int[] succOffsets;
+
+    private final int[] succs;
+
+    /** the predecessors of nodes, as {@link #succOffsets} and {@link #succs} */
+    private final int[] predOffsets;
+
+    private final int[] preds;
+
+    Edges(NumberedGraph<T> g, Nodes<T> nodes) {
+      this.nodes = nodes;
+      int size = nodes.getMaxNumber() + 1;
+      succOffsets = new int[size + 1];
+      int[] buffer = new int[16];
+      int edges = 0;
+      for (int n = 0; n < size; n++) {
+        succOffsets[n] = edges;
+        if (nodes.nodes[n] != null) {
+          IntSet s = g.getSuccNodeNumbers(nodes.getNode(n));
+          if (s != null) {
+            int from = edges;
+            for (IntIterator it = s.intIterator(); it.hasNext(); ) {
+              if (edges == buffer.length) {
+                buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+              }
+              buffer[edges++] = it.next();
+            }
+            // not all sets iterate in order
+            Arrays.sort(buffer, from, edges);
+          }
+        }
+      }
+      succOffsets[size] = edges;
+      succs = Arrays.copyOf(buffer, edges);
+
+      // the predecessors are the transpose of the successors; filling the rows by increasing
+      // source number leaves each of them sorted
+      predOffsets = new int[size + 1];
+      for (int e = 0; e < edges; e++) {
+        predOffsets[succs[e] + 1]++;
+      }
+      for (int n = 0; n < size; n++) {
+        predOffsets[n + 1] += predOffsets[n];
+      }
+      preds = new int[edges];
+      int[] next = Arrays.copyOf(predOffsets, size);
+      for (int n = 0; n < size; n++) {
+        for (int e = succOffsets[n]; e < succOffsets[n + 1]; e++) {
+          preds[next[succs[e]]++] = n;
+        }
+      }
+    }
+
+    private int number(@Nullable T n) {
+      int number = nodes.getNumber(n);
+      if (number < 0) {
+        throw new IllegalArgumentException(n + " is not in graph");
+      }
+      return number;
+    }
+
+    @Override
+    public Iterator<T> getPredNodes(@Nullable T n) {
+      int number = number(n);
+      return new RowIterator<>(nodes, preds, predOffsets[number], predOffsets[number + 1]);
+    }
+
+    @Override
+    public int getPredNodeCount(T n) {
+      int number = number(n);
+      return predOffsets[number + 1] - predOffsets[number];
+    }
+
+    @Override
+    public Iterator<T> getSuccNodes(@Nullable T n) {
+      int number = number(n);
+      return new RowIterator<>(nodes, succs, succOffsets[number], succOffsets[number + 1]);
+    }
+
+    @Override
+    public int getSuccNodeCount(T n) {
+      int number = number(n);
+      return succOffsets[number + 1] - succOffsets[number];
+    }
+
+    @Override
+    public IntSet getSuccNodeNumbers(@Nullable T node) {
+      int number = number(node);
+      return row(succs, succOffsets[number], succOffsets[number + 1]);
+    }
+
+    @Override
+    public IntSet getPredNodeNumbers(@Nullable T node) {
+      int number = number(node);
+      return row(preds, predOffsets[number], predOffsets[number + 1]);
+    }
+
+    private static IntSet row(int[] a, int from, int to) {
+      return from == to ? EmptyIntSet.instance : new Row(Arrays.copyOfRange(a, from, to));
+    }
+
+    @Override
+    public boolean hasEdge(@Nullable T src, @Nullable T dst) {
+      if (src == null || dst == null) {
+        return false;
+      }
+      int s = nodes.getNumber(src);
+      int d = nodes.getNumber(dst);
+      return s >= 0
+          && d >= 0
+          && Arrays.binarySearch(succs, succOffsets[s], succOffsets[s + 1], d) >= 0;
+    }
+
+    @Override
+    public void addEdge(T src, T dst) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void removeEdge(T src, T dst) throws UnsupportedOperationException {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void removeAllIncidentEdges(T node) throws UnsupportedOperationException {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void removeIncomingEdges(T node) throws UnsupportedOperationException {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void removeOutgoingEdges(T node) throws UnsupportedOperationException {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /** a sorted copy of one row */
+  private static final class Row extends SparseIntSet {
+
+    private static final long serialVersionUID = -2470283414163549574L;
+
+    Row(int[] elements) {
+      super(elements);
+    }
+  }
+
+  /** iterates over the nodes with the numbers in one row */
+  private static final class RowIterator<T> implements Iterator<T> {
+
+    private final Nodes<T> nodes;
+
+    private final int[] row;
+
+    private int next;
+
+    private final int end;
+
+    RowIterator(Nodes<T> nodes, int[] row, int from, int to) {
+      this.nodes = nodes;
+      this.row = row;
+      this.next = from;
+      this.end = to;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < end;
+    }
+
+    @Override
+    public T next() {
+      if (next >= end) {
+        throw new NoSuchElementException();
+      }
+      return nodes.getNode(row[next++]);
+    }
+  }
+}
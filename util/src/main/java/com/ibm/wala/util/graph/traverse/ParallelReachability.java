@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.util.graph.traverse;
+
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.MonitorUtil;
+import com.ibm.wala.util.MonitorUtil.IProgressMonitor;
+import com.ibm.wala.util.collections.HashSetFactory;
+import com.ibm.wala.util.graph.GraphReachability;
+import com.ibm.wala.util.graph.NumberedGraph;
+import com.ibm.wala.util.graph.impl.CompressedNumberedGraph;
+import com.ibm.wala.util.intset.BitVector;
+import com.ibm.wala.util.intset.BitVectorIntSet;
+import com.ibm.wala.util.intset.MutableMapping;
+import com.ibm.wala.util.intset.OrdinalSet;
+import com.ibm.wala.util.intset.OrdinalSetMapping;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Reachability over a {@link NumberedGraph}, computed by several threads.
+ *
+ * <p>{@link #getReachableNodes(NumberedGraph, Collection, int)} finds the nodes reachable from a
+ * set of roots, like {@link DFS#getReachableNodes(com.ibm.wala.util.graph.Graph, Collection)}, by
+ * a breadth-first search that expands each level in parallel.
+ *
+ * <p>An instance computes, like {@link GraphReachability}, the set of "interesting" nodes reachable
+ * from each node. Nodes in one strongly connected component reach the same nodes, so this keeps one
+ * set per component of the {@link ParallelSCC}, and computes the sets of all components with the
+ * same height in the condensation in parallel, lowest first.
+ */
+public class ParallelReachability<T, S> {
+
+  /** ranges of at most this many elements are processed by one thread */
+  private static final int SEQUENTIAL_THRESHOLD = 256;
+
+  /** the governing graph */
+  private final CompressedNumberedGraph<T> g;
+
+  private final int numberOfThreads;
+
+  /** set of "interesting" nodes, in order of node numbers */
+  final OrdinalSetMapping<S> domain;
+
+  /** component number -&gt; interesting nodes reachable from the component; null before solve() */
+  private BitVector @Nullable [] reachable;
+
+  @Nullable private ParallelSCC<T> sccs;
+
+  /**
+   * @param g graph to analyze
+   * @param filter "interesting" node definition
+   * @param numberOfThreads the number of threads to solve with
+   * @throws IllegalArgumentException if g is null, or numberOfThreads is not positive
+   */
+  public ParallelReachability(
+      NumberedGraph<T> g, Predicate<? super T> filter, int numberOfThreads) {
+    if (g == null) {
+      throw new IllegalArgumentException("g is null");
+    }
+    if (numberOfThreads < 1) {
+      throw new IllegalArgumentException("invalid numberOfThreads: " + numberOfThreads);
+    }
+    this.g = CompressedNumberedGraph.freeze(g);
+    this.numberOfThreads = numberOfThreads;
+    List<T> interesting = new ArrayList<>();
+    for (int n = 0; n <= this.g.getMaxNumber(); n++) {
+      T node = this.g.getNode(n);
+      if (node != null && filter.test(node)) {
+        interesting.add(node);
+      }
+    }
+    domain = new MutableMapping<>(interesting.toArray());
+  }
+
+  /**
+   * @return the set of interesting nodes reachable from n
+   * @throws IllegalStateException if {@link #solve(IProgressMonitor)} has not been called
+   */
+  public OrdinalSet<S> getReachableSet(Object n) throws IllegalStateException {
+    if (reachable == null || sccs == null) {
+      throw new IllegalStateException("must call solve() before calling getReachableSet()");
+    }
+    @SuppressWarnings("unchecked")
+    int number = g.getNumber((T) n);
+    if (number < 0) {
+      throw new IllegalArgumentException(n + " is not in graph");
+    }
+    BitVector v = reachable[sccs.componentOf(number)];
+    return v.isZero() ? OrdinalSet.empty() : new OrdinalSet<>(new BitVectorIntSet(v), domain);
+  }
+
+  /** compute the reachable sets of all nodes */
+  public void solve(@Nullable IProgressMonitor monitor) throws CancelException {
+    ParallelSCC<T> sccs = ParallelSCC.compute(g, numberOfThreads);
+    int components = sccs.getNumberOfComponents();
+
+    // the height of a component is the length of the longest path from it in the condensation;
+    // the components are numbered in topological order, so the last ones come first
+    int[] height = new int[components];
+    int maxHeight = 0;
+    for (int c = components - 1; c >= 0; c--) {
+      for (int i = 0; i < sccs.getComponentSize(c); i++) {
+        int n = sccs.getComponentMember(c, i);
+        for (int j = 0; j < g.getSuccNodeNumberCount(n); j++) {
+          int d = sccs.componentOf(g.getSuccNodeNumber(n, j));
+          if (d != c) {
+            height[c] = Math.max(height[c], height[d] + 1);
+          }
+        }
+      }
+      maxHeight = Math.max(maxHeight, height[c]);
+    }
+    int[] levelOffsets = new int[maxHeight + 2];
+    for (int h : height) {
+      levelOffsets[h + 1]++;
+    }
+    for (int h = 0; h <= maxHeight; h++) {
+      levelOffsets[h + 1] += levelOffsets[h];
+    }
+    int[] levels = new int[components];
+    int[] next = Arrays.copyOf(levelOffsets, maxHeight + 1);
+    for (int c = 0; c < components; c++) {
+      levels[next[height[c]]++] = c;
+    }
+
+    BitVector[] result = new BitVector[components];
+    ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+    try {
+      for (int h = 0; h <= maxHeight; h++) {
+        MonitorUtil.throwExceptionIfCanceled(monitor);
+        forEach(
+            pool,
+            levels,
+            levelOffsets[h],
+            levelOffsets[h + 1],
+            c -> {
+              // all successor components are lower, so their sets are complete
+              BitVector v = new BitVector(domain.getSize());
+              for (int i = 0; i < sccs.getComponentSize(c); i++) {
+                int n = sccs.getComponentMember(c, i);
+                int index = domain.getMappedIndex(g.getNode(n));
+                if (index >= 0) {
+                  v.set(index);
+                }
+                for (int j = 0; j < g.getSuccNodeNumberCount(n); j++) {
+                  int d = sccs.componentOf(g.getSuccNodeNumber(n, j));
+                  if (d != c) {
+                    v.or(result[d]);
+                  }
+                }
+              }
+              result[c] = v;
+            });
+      }
+    } finally {
+      pool.shutdown();
+    }
+    this.sccs = sccs;
+    this.reachable = result;
+  }
+
+  /**
+   * Perform a breadth-first search from the given roots, expanding each level with several threads,
+   * and return the set of all nodes visited.
+   *
+   * @param roots collection of nodes to start from
+   * @param numberOfThreads the number of threads to search with
+   * @throws IllegalArgumentException if g or roots is null, if a root is not in g, or if
+   *     numberOfThreads is not positive
+   */
+  public static <T> Set<T> getReachableNodes(
+      NumberedGraph<T> g, Collection<? extends T> roots, int numberOfThreads) {
+    if (g == null) {
+      throw new IllegalArgumentException("g is null");
+    }
+    if (roots == null) {
+      throw new IllegalArgumentException("roots is null");
+    }
+    if (numberOfThreads < 1) {
+      throw new IllegalArgumentException("invalid numberOfThreads: " + numberOfThreads);
+    }
+    CompressedNumberedGraph<T> frozen = CompressedNumberedGraph.freeze(g);
+    AtomicLongArray visited = new AtomicLongArray((frozen.getMaxNumber() >> 6) + 1);
+    int[] frontier = new int[roots.size()];
+    int size = 0;
+    for (T root : roots) {
+      int n = frozen.getNumber(root);
+      if (n < 0) {
+        throw new IllegalArgumentException(root + " is not in graph");
+      }
+      if (mark(visited, n)) {
+        frontier[size++] = n;
+      }
+    }
+    Set<T> result = HashSetFactory.make();
+    ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+    try {
+      while (size > 0) {
+        int[] current = frontier;
+        // each node is marked by one thread only, so the next level has room for every successor
+        int bound = 0;
+        for (int i = 0; i < size; i++) {
+          result.add(frozen.getNode(current[i]));
+          bound += frozen.getSuccNodeNumberCount(current[i]);
+        }
+        int[] found = new int[bound];
+        AtomicInteger count = new AtomicInteger();
+        forEach(
+            pool,
+            current,
+            0,
+            size,
+            n -> {
+              for (int j = 0; j < frozen.getSuccNodeNumberCount(n); j++) {
+                int s = frozen.getSuccNodeNumber(n, j);
+                if (mark(visited, s)) {
+                  found[count.getAndIncrement()] = s;
+                }
+              }
+            });
+        frontier = found;
+        size = count.get();
+      }
+    } finally {
+      pool.shutdown();
+    }
+    return result;
+  }
+
+  /**
+   * @return true iff this call set bit n, which was not set before
+   */
+  private static boolean mark(AtomicLongArray bits, int n) {
+    int word = n >> 6;
+    long mask = 1L << n;
+    while (true) {
+      long old = bits.get(word);
+      if ((old & mask) != 0) {
+        return false;
+      }
+      if (bits.compareAndSet(word, old, old | mask)) {
+        return true;
+      }
+    }
+  }
+
+  /** apply f to a[from] .. a[to-1] in pool, and wait until it is done */
+  private static void forEach(ForkJoinPool pool, int[] a, int from, int to, IntConsumer f) {
+    if (to - from <= SEQUENTIAL_THRESHOLD) {
+      for (int i = from; i < to; i++) {
+        f.accept(a[i]);
+      }
+    } else {
+      pool.invoke(new ForEach(a, from, to, f));
+    }
+  }
+
+  @SuppressWarnings("serial")
+  private static final class ForEach extends RecursiveAction {
+
+    private final int[] a;
+
+    private final int from;
+
+    private final int to;
+
+    private final IntConsumer f;
+
+    ForEach(int[] a, int from, int to, IntConsumer f) {
+      this.a = a;
+      this.from = from;
+      this.to = to;
+      this.f = f;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= SEQUENTIAL_THRESHOLD) {
+        for (int i = from; i < to; i++) {
+          f.accept(a[i]);
+        }
+      } else {
+        int middle = (from + to) >>> 1;
+        invokeAll(new ForEach(a, from, middle, f), new ForEach(a, middle, to, f));
+      }
+    }
+  }
+}
@@ -0,0 +1,508 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.util.graph.traverse;
+
+import com.ibm.wala.util.collections.HashSetFactory;
+import com.ibm.wala.util.graph.NumberedGraph;
+import com.ibm.wala.util.graph.impl.CompressedNumberedGraph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The strongly connected components of a {@link NumberedGraph}, computed by several threads with
+ * the forward-backward algorithm of Fleischer, Hendrickson and Pinar: the nodes reachable both from
+ * and to a pivot form its component, and the nodes reachable only from it, only to it, or neither
+ * form three subgraphs that contain no component in common, and are decomposed in parallel. Nodes
+ * that have no predecessors or no successors are split off first, and small subgraphs are left to
+ * Tarjan's algorithm.
+ *
+ * <p>The components are the same as those of {@link SCCIterator}, and are numbered in topological
+ * order: if there is an edge from a node in one component to a node in another, the number of the
+ * first is less. The numbering depends only on the graph, not on the number of threads.
+ */
+public class ParallelSCC<T> implements Iterable<Set<T>> {
+
+  /** subgraphs of at most this many nodes are decomposed sequentially */
+  private static final int SEQUENTIAL_THRESHOLD = 1024;
+
+  /** the color of nodes that are not in the graph, or whose component is known */
+  private static final int DONE = -1;
+
+  private final CompressedNumberedGraph<T> g;
+
+  /** node number -&gt; component number, or -1 if no node has the number */
+  private final int[] component;
+
+  /**
+   * the numbers of the nodes in component c are members[offsets[c]] .. members[offsets[c+1]-1],
+   * in increasing order
+   */
+  private final int[] offsets;
+
+  private final int[] members;
+
+  private ParallelSCC(CompressedNumberedGraph<T> g, int[] component, int components) {
+    this.g = g;
+    this.component = component;
+    this.offsets = new int[components + 1];
+    this.members = new int[g.getNumberOfNodes()];
+    for (int c : component) {
+      if (c >= 0) {
+        offsets[c + 1]++;
+      }
+    }
+    for (int c = 0; c < components; c++) {
+      offsets[c + 1] += offsets[c];
+    }
+    int[] next = Arrays.copyOf(offsets, components);
+    for (int n = 0; n < component.length; n++) {
+      if (component[n] >= 0) {
+        members[next[component[n]]++] = n;
+      }
+    }
+  }
+
+  /**
+   * @param numberOfThreads the number of threads to decompose the graph with
+   * @return the strongly connected components of g
+   * @throws IllegalArgumentException if g is null, or numberOfThreads is not positive
+   */
+  public static <T> ParallelSCC<T> compute(NumberedGraph<T> g, int numberOfThreads) {
+    if (g == null) {
+      throw new IllegalArgumentException("g is null");
+    }
+    if (numberOfThreads < 1) {
+      throw new IllegalArgumentException("invalid numberOfThreads: " + numberOfThreads);
+    }
+    CompressedNumberedGraph<T> frozen = CompressedNumberedGraph.freeze(g);
+    Decomposition d = new Decomposition(frozen);
+    int[] live = d.trim();
+    if (live.length > 0) {
+      ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+      try {
+        pool.invoke(d.new Split(0, live));
+      } finally {
+        pool.shutdown();
+      }
+    }
+    int components = d.nextComponent.get();
+    return new ParallelSCC<>(frozen, d.sortTopologically(components), components);
+  }
+
+  /**
+   * @return the graph whose components these are, as a {@link CompressedNumberedGraph}
+   */
+  public CompressedNumberedGraph<T> getGraph() {
+    return g;
+  }
+
+  public int getNumberOfComponents() {
+    return offsets.length - 1;
+  }
+
+  /**
+   * @return the number of the component that contains n
+   * @throws IllegalArgumentException if n is not in the graph
+   */
+  public int getComponentNumber(T n) {
+    int number = g.getNumber(n);
+    if (number < 0) {
+      throw new IllegalArgumentException(n + " is not in graph");
+    }
+    return component[number];
+  }
+
+  /**
+   * @return the number of the component that contains the node with the given number
+   */
+  int componentOf(int nodeNumber) {
+    return component[nodeNumber];
+  }
+
+  /**
+   * @return the number of nodes in component c
+   */
+  int getComponentSize(int c) {
+    return offsets[c + 1] - offsets[c];
+  }
+
+  /**
+   * @return the number of the i-th node, in increasing order of numbers, in component c
+   */
+  int getComponentMember(int c, int i) {
+    return members[offsets[c] + i];
+  }
+
+  /**
+   * @return the nodes in component c
+   * @throws IllegalArgumentException if there is no component c
+   */
+  public Set<T> getComponent(int c) {
+    if (c < 0 || c >= getNumberOfComponents()) {
+      throw new IllegalArgumentException("invalid component " + c);
+    }
+    Set<T> result = HashSetFactory.make(getComponentSize(c));
+    for (int i = offsets[c]; i < offsets[c + 1]; i++) {
+      result.add(g.getNode(members[i]));
+    }
+    return result;
+  }
+
+  /** iterates over the components in order of their numbers */
+  @Override
+  public Iterator<Set<T>> iterator() {
+    return new Iterator<>() {
+      private int next = 0;
+
+      @Override
+      public boolean hasNext() {
+        return next < getNumberOfComponents();
+      }
+
+      @Override
+      public Set<T> next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return getComponent(next++);
+      }
+    };
+  }
+
+  /** the state of one decomposition */
+  private static final class Decomposition {
+
+    private final CompressedNumberedGraph<?> g;
+
+    /**
+     * node number -&gt; the subgraph the node is in; each subgraph belongs to one task, which
+     * alone changes the colors of its nodes, so tasks only see the colors of others' nodes change
+     * from one value that is not theirs to another
+     */
+    private final int[] color;
+
+    /** node number -&gt; component number, in order of discovery until sorted */
+    private final int[] component;
+
+    /** Tarjan's index and low link, by node number */
+    private final int[] index;
+
+    private final int[] low;
+
+    private final AtomicInteger nextColor = new AtomicInteger(1);
+
+    private final AtomicInteger nextComponent = new AtomicInteger();
+
+    Decomposition(CompressedNumberedGraph<?> g) {
+      this.g = g;
+      int size = g.getMaxNumber() + 1;
+      color = new int[size];
+      component = new int[size];
+      index = new int[size];
+      low = new int[size];
+      Arrays.fill(color, DONE);
+      Arrays.fill(component, -1);
+      for (int n = 0; n < size; n++) {
+        if (g.getNode(n) != null) {
+          color[n] = 0;
+        }
+      }
+    }
+
+    private void assign(int n, int c) {
+      component[n] = c;
+      color[n] = DONE;
+    }
+
+    /**
+     * make each node that has no predecessors or no successors among the remaining nodes a
+     * component of its own, until there are no such nodes
+     *
+     * @return the numbers of the remaining nodes
+     */
+    int[] trim() {
+      int size = color.length;
+      int[] in = new int[size];
+      int[] out = new int[size];
+      int[] queue = new int[size];
+      int head = 0;
+      int tail = 0;
+      for (int n = 0; n < size; n++) {
+        if (color[n] == 0) {
+          in[n] = g.getPredNodeNumberCount(n);
+          out[n] = g.getSuccNodeNumberCount(n);
+          if (in[n] == 0 || out[n] == 0) {
+            assign(n, nextComponent.getAndIncrement());
+            queue[tail++] = n;
+          }
+        }
+      }
+      while (head < tail) {
+        int n = queue[head++];
+        for (int i = 0; i < g.getSuccNodeNumberCount(n); i++) {
+          int s = g.getSuccNodeNumber(n, i);
+          if (color[s] == 0 && --in[s] == 0) {
+            assign(s, nextComponent.getAndIncrement());
+            queue[tail++] = s;
+          }
+        }
+        for (int i = 0; i < g.getPredNodeNumberCount(n); i++) {
+          int p = g.getPredNodeNumber(n, i);
+          if (color[p] == 0 && --out[p] == 0) {
+            assign(p, nextComponent.getAndIncrement());
+            queue[tail++] = p;
+          }
+        }
+      }
+      int[] live = new int[size - tail - (size - g.getNumberOfNodes())];
+      int k = 0;
+      for (int n = 0; n < size; n++) {
+        if (color[n] == 0) {
+          live[k++] = n;
+        }
+      }
+      return live;
+    }
+
+    /** decomposes the subgraph of the given color */
+    @SuppressWarnings("serial")
+    final class Split extends RecursiveAction {
+
+      private final int c;
+
+      /** the numbers of the nodes of color c */
+      private final int[] nodes;
+
+      Split(int c, int[] nodes) {
+        this.c = c;
+        this.nodes = nodes;
+      }
+
+      @Override
+      protected void compute() {
+        if (nodes.length <= SEQUENTIAL_THRESHOLD) {
+          tarjan(c, nodes);
+          return;
+        }
+        int pivot = nodes[0];
+        int fw = nextColor.getAndIncrement();
+        int bw = nextColor.getAndIncrement();
+        int[] stack = new int[nodes.length];
+
+        // forward from the pivot, within the subgraph
+        int top = 0;
+        color[pivot] = fw;
+        stack[top++] = pivot;
+        while (top > 0) {
+          int n = stack[--top];
+          for (int i = 0; i < g.getSuccNodeNumberCount(n); i++) {
+            int s = g.getSuccNodeNumber(n, i);
+            if (color[s] == c) {
+              color[s] = fw;
+              stack[top++] = s;
+            }
+          }
+        }
+
+        // backward from the pivot: nodes reached forward as well form its component
+        int scc = nextComponent.getAndIncrement();
+        assign(pivot, scc);
+        stack[top++] = pivot;
+        while (top > 0) {
+          int n = stack[--top];
+          for (int i = 0; i < g.getPredNodeNumberCount(n); i++) {
+            int p = g.getPredNodeNumber(n, i);
+            if (color[p] == fw) {
+              assign(p, scc);
+              stack[top++] = p;
+            } else if (color[p] == c) {
+              color[p] = bw;
+              stack[top++] = p;
+            }
+          }
+        }
+
+        List<Split> parts = new ArrayList<>(3);
+        addPart(parts, c);
+        addPart(parts, fw);
+        addPart(parts, bw);
+        invokeAll(parts);
+      }
+
+      private void addPart(List<Split> parts, int part) {
+        int count = 0;
+        for (int n : nodes) {
+          if (color[n] == part) {
+            count++;
+          }
+        }
+        if (count > 0) {
+          int[] partNodes = new int[count];
+          int k = 0;
+          for (int n : nodes) {
+            if (color[n] == part) {
+              partNodes[k++] = n;
+            }
+          }
+          parts.add(new Split(part, partNodes));
+        }
+      }
+    }
+
+    /** Tarjan's algorithm on the subgraph of color c, without recursion */
+    void tarjan(int c, int[] nodes) {
+      // index[n] == 0 means n is not yet visited
+      int[] stack = new int[nodes.length];
+      int top = 0;
+      int[] callNode = new int[nodes.length];
+      int[] callEdge = new int[nodes.length];
+      int depth = 0;
+      int counter = 0;
+      for (int root : nodes) {
+        if (color[root] != c || index[root] != 0) {
+          continue;
+        }
+        index[root] = low[root] = ++counter;
+        stack[top++] = root;
+        callNode[0] = root;
+        callEdge[0] = 0;
+        depth = 1;
+        while (depth > 0) {
+          int n = callNode[depth - 1];
+          int e = callEdge[depth - 1];
+          if (e < g.getSuccNodeNumberCount(n)) {
+            callEdge[depth - 1]++;
+            int s = g.getSuccNodeNumber(n, e);
+            if (color[s] != c) {
+              continue;
+            }
+            if (index[s] == 0) {
+              index[s] = low[s] = ++counter;
+              stack[top++] = s;
+              callNode[depth] = s;
+              callEdge[depth] = 0;
+              depth++;
+            } else {
+              // s is on the stack, since nodes leave it by leaving color c
+              low[n] = Math.min(low[n], index[s]);
+            }
+          } else {
+            depth--;
+            if (depth > 0) {
+              int parent = callNode[depth - 1];
+              low[parent] = Math.min(low[parent], low[n]);
+            }
+            if (low[n] == index[n]) {
+              int scc = nextComponent.getAndIncrement();
+              int m;
+              do {
+                m = stack[--top];
+                assign(m, scc);
+              } while (m != n);
+            }
+          }
+        }
+      }
+    }
+
+    /**
+     * renumber the components in topological order; ties are broken by the smallest node number
+     * in each component, so the result does not depend on the order in which they were found
+     *
+     * @return node number -&gt; component number
+     */
+    int[] sortTopologically(int components) {
+      // first renumber by smallest member
+      int[] byMember = new int[components];
+      Arrays.fill(byMember, -1);
+      int k = 0;
+      for (int c : component) {
+        if (c >= 0 && byMember[c] < 0) {
+          byMember[c] = k++;
+        }
+      }
+      for (int n = 0; n < component.length; n++) {
+        if (component[n] >= 0) {
+          component[n] = byMember[component[n]];
+        }
+      }
+
+      // nodes of each component, as in ParallelSCC
+      int[] offsets = new int[components + 1];
+      for (int c : component) {
+        if (c >= 0) {
+          offsets[c + 1]++;
+        }
+      }
+      for (int c = 0; c < components; c++) {
+        offsets[c + 1] += offsets[c];
+      }
+      int[] members = new int[offsets[components]];
+      int[] next = Arrays.copyOf(offsets, components);
+      for (int n = 0; n < component.length; n++) {
+        if (component[n] >= 0) {
+          members[next[component[n]]++] = n;
+        }
+      }
+
+      // Kahn's algorithm on the condensation, counting an edge once for each edge between nodes
+      int[] in = new int[components];
+      for (int n = 0; n < component.length; n++) {
+        if (component[n] >= 0) {
+          for (int i = 0; i < g.getSuccNodeNumberCount(n); i++) {
+            int s = g.getSuccNodeNumber(n, i);
+            if (component[s] != component[n]) {
+              in[component[s]]++;
+            }
+          }
+        }
+      }
+      int[] order = new int[components];
+      int head = 0;
+      int tail = 0;
+      for (int c = 0; c < components; c++) {
+        if (in[c] == 0) {
+          order[tail++] = c;
+        }
+      }
+      while (head < tail) {
+        int c = order[head++];
+        for (int j = offsets[c]; j < offsets[c + 1]; j++) {
+          int n = members[j];
+          for (int i = 0; i < g.getSuccNodeNumberCount(n); i++) {
+            int s = g.getSuccNodeNumber(n, i);
+            if (component[s] != c && --in[component[s]] == 0) {
+              order[tail++] = component[s];
+            }
+          }
+        }
+      }
+      assert tail == components : "condensation is not acyclic";
+      int[] rank = new int[components];
+      for (int i = 0; i < components; i++) {
+        rank[order[i]] = i;
+      }
+      for (int n = 0; n < component.length; n++) {
+        if (component[n] >= 0) {
+          component[n] = rank[component[n]];
+        }
+      }
+      return component;
+    }
+  }
+}
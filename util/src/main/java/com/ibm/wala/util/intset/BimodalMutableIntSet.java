@@ -10,7 +10,6 @@
  */
 package com.ibm.wala.util.intset;
 
-import com.ibm.wala.util.debug.Assertions;
 import com.ibm.wala.util.debug.UnimplementedError;
 import org.jspecify.annotations.NullUnmarked;
 import org.jspecify.annotations.Nullable;
@@ -40,7 +39,8 @@ public class BimodalMutableIntSet implements MutableIntSet {
     } else if (set instanceof MutableSharedBitVectorIntSet) {
       impl = IntSetUtil.makeMutableCopy(((MutableSharedBitVectorIntSet) set).makeSparseCopy());
     } else {
-      Assertions.UNREACHABLE("Unexpected type " + set.getClass());
+      impl = MutableSparseIntSet.makeEmpty();
+      impl.addAll(set);
     }
     assert impl instanceof BitVectorIntSet || impl instanceof MutableSparseIntSet;
   }
@@ -102,7 +102,8 @@ public class BimodalMutableIntSet implements MutableIntSet {
       // don't bother
       return;
     }
-    int bvSize = BitVectorBase.subscript(impl.max()) + 1;
+    // size of a bit vector for impl, in ints
+    int bvSize = 2 * (BitVectorBase.subscript(impl.max()) + 1);
     if (sparseSize > bvSize) {
       if (!(impl instanceof BitVectorIntSet)) {
         impl = new BitVectorIntSet(impl);
@@ -140,7 +141,7 @@ public class BimodalMutableIntSet implements MutableIntSet {
       BimodalMutableIntSet that = (BimodalMutableIntSet) set;
       impl.intersectWith(that.impl);
     } else {
-      Assertions.UNREACHABLE();
+      impl.intersectWith(set);
     }
   }
 
@@ -162,11 +163,8 @@ public class BimodalMutableIntSet implements MutableIntSet {
     if (that instanceof BimodalMutableIntSet) {
       BimodalMutableIntSet b = (BimodalMutableIntSet) that;
       return impl.intersection(b.impl);
-    } else if (that instanceof BitVectorIntSet) {
-      return impl.intersection(that);
     } else {
-      Assertions.UNREACHABLE("Unexpected: " + that);
-      return null;
+      return impl.intersection(that);
     }
   }
 
@@ -247,11 +245,16 @@ public class BimodalMutableIntSet implements MutableIntSet {
       result.impl = IntSetUtil.makeMutableCopy(s.makeSparseCopy());
       assert result.impl instanceof BitVectorIntSet || result.impl instanceof MutableSparseIntSet;
       return result;
-    } else {
+    } else if (B instanceof BitVectorIntSet || B instanceof SparseIntSet) {
       BimodalMutableIntSet result = new BimodalMutableIntSet();
       result.impl = IntSetUtil.makeMutableCopy(B);
       assert result.impl instanceof BitVectorIntSet || result.impl instanceof MutableSparseIntSet;
       return result;
+    } else {
+      BimodalMutableIntSet result = new BimodalMutableIntSet();
+      result.impl.addAll(B);
+      assert result.impl instanceof BitVectorIntSet || result.impl instanceof MutableSparseIntSet;
+      return result;
     }
   }
 
@@ -327,13 +330,8 @@ public class BimodalMutableIntSet implements MutableIntSet {
     if (that instanceof BimodalMutableIntSet) {
       BimodalMutableIntSet b = (BimodalMutableIntSet) that;
       return impl.containsAny(b.impl);
-    } else if (that instanceof SparseIntSet) {
-      return impl.containsAny(that);
-    } else if (that instanceof BitVectorIntSet) {
-      return impl.containsAny(that);
     } else {
-      Assertions.UNREACHABLE("unsupported " + that.getClass());
-      return false;
+      return impl.containsAny(that);
     }
   }
 
@@ -15,7 +15,7 @@ import java.util.Arrays;
 /** */
 public class BitVector extends BitVectorBase<BitVector> {
 
-  private static final long serialVersionUID = 9087259335807761617L;
+  private static final long serialVersionUID = -3342317474853532452L;
 
   private static final int MAX_BITS = Integer.MAX_VALUE / 4;
 
@@ -32,7 +32,7 @@ public class BitVector extends BitVectorBase<BitVector> {
     if (nbits > MAX_BITS || nbits < 0) {
       throw new IllegalArgumentException("invalid nbits: " + nbits);
     }
-    bits = new int[subscript(nbits) + 1];
+    bits = new long[subscript(nbits) + 1];
   }
 
   /** Expand this bit vector to size newCapacity. */
@@ -50,7 +50,6 @@ public class BitVector extends BitVectorBase<BitVector> {
     if (s == null) {
       throw new IllegalArgumentException("s is null");
     }
-    bits = new int[s.bits.length];
     copyBits(s);
   }
 
@@ -68,7 +67,7 @@ public class BitVector extends BitVectorBase<BitVector> {
     }
 
     try {
-      bits[subscript] |= (1 << shiftBits);
+      bits[subscript] |= (1L << shiftBits);
     } catch (RuntimeException e) {
       // TODO Auto-generated catch block
       e.printStackTrace();
@@ -90,7 +89,7 @@ public class BitVector extends BitVectorBase<BitVector> {
       return;
     }
     int shiftBits = bit & LOW_MASK;
-    bits[ss] &= ~(1 << shiftBits);
+    bits[ss] &= ~(1L << shiftBits);
   }
 
   /**
@@ -108,7 +107,7 @@ public class BitVector extends BitVectorBase<BitVector> {
       return false;
     }
     int shiftBits = bit & LOW_MASK;
-    return ((bits[ss] & (1 << shiftBits)) != 0);
+    return ((bits[ss] & (1L << shiftBits)) != 0);
   }
 
   /** Return the NOT of a bit string */
@@ -131,14 +130,12 @@ public class BitVector extends BitVectorBase<BitVector> {
     if (this == set) {
       return;
     }
-    int n = Math.min(bits.length, set.bits.length);
-    for (int i = n - 1; i >= 0; ) {
-      bits[i] &= set.bits[i];
-      i--;
-    }
-    for (int i = n; i < bits.length; i++) {
-      bits[i] = 0;
+    long[] otherBits = set.bits;
+    int n = Math.min(bits.length, otherBits.length);
+    for (int i = 0; i < n; i++) {
+      bits[i] &= otherBits[i];
     }
+    Arrays.fill(bits, n, bits.length, 0);
   }
 
   /** Return a new bit string as the AND of two others. */
@@ -168,10 +165,9 @@ public class BitVector extends BitVectorBase<BitVector> {
       return;
     }
     ensureCapacity(set);
-    int n = Math.min(bits.length, set.bits.length);
-    for (int i = n - 1; i >= 0; ) {
-      bits[i] |= set.bits[i];
-      i--;
+    long[] otherBits = set.bits;
+    for (int i = 0; i < otherBits.length; i++) {
+      bits[i] |= otherBits[i];
     }
   }
 
@@ -195,18 +191,14 @@ public class BitVector extends BitVectorBase<BitVector> {
     int delta = 0;
 
     ensureCapacity(set);
-    int[] otherBits = set.bits;
-    int n = Math.min(bits.length, otherBits.length);
-    for (int i = n - 1; i >= 0; ) {
-      int v1 = bits[i];
-      int v2 = otherBits[i];
-      if (v1 != v2) {
-        delta -= Bits.populationCount(v1);
-        int v3 = v1 | v2;
-        delta += Bits.populationCount(v3);
-        bits[i] = v3;
-      }
-      i--;
+    long[] bits = this.bits;
+    long[] otherBits = set.bits;
+    for (int i = 0; i < otherBits.length; i++) {
+      long v1 = bits[i];
+      long v3 = v1 | otherBits[i];
+      // counting the new bits directly avoids a branch per word
+      delta += Long.bitCount(v3 & ~v1);
+      bits[i] = v3;
     }
     return delta;
   }
@@ -249,10 +241,9 @@ public class BitVector extends BitVectorBase<BitVector> {
       throw new IllegalArgumentException("set is null");
     }
     ensureCapacity(set);
-    int n = Math.min(bits.length, set.bits.length);
-    for (int i = n - 1; i >= 0; ) {
-      bits[i] ^= set.bits[i];
-      i--;
+    long[] otherBits = set.bits;
+    for (int i = 0; i < otherBits.length; i++) {
+      bits[i] ^= otherBits[i];
     }
   }
 
@@ -267,12 +258,12 @@ public class BitVector extends BitVectorBase<BitVector> {
     if (other == null) {
       throw new IllegalArgumentException("other is null");
     }
-    int n = Math.min(bits.length, other.bits.length);
-    for (int i = n - 1; i >= 0; ) {
-      if ((bits[i] & other.bits[i]) != 0) {
+    long[] otherBits = other.bits;
+    int n = Math.min(bits.length, otherBits.length);
+    for (int i = 0; i < n; i++) {
+      if ((bits[i] & otherBits[i]) != 0) {
         return false;
       }
-      i--;
     }
     return true;
   }
@@ -310,13 +301,7 @@ public class BitVector extends BitVectorBase<BitVector> {
         if (B.bits[i] != 0) return false;
       }
     }
-    for (int i = n - 1; i >= 0; ) {
-      if (bits[i] != B.bits[i]) {
-        return false;
-      }
-      i--;
-    }
-    return true;
+    return Arrays.equals(bits, 0, n, B.bits, 0, n);
   }
 
   /**
@@ -330,15 +315,16 @@ public class BitVector extends BitVectorBase<BitVector> {
     if (this == other) { // should help alias analysis
       return true;
     }
-    for (int i = 0; i < bits.length; i++) {
-      if (i >= other.bits.length) {
-        if (bits[i] != 0) {
-          return false;
-        }
-      } else {
-        if ((bits[i] & ~other.bits[i]) != 0) {
-          return false;
-        }
+    long[] otherBits = other.bits;
+    int n = Math.min(bits.length, otherBits.length);
+    for (int i = 0; i < n; i++) {
+      if ((bits[i] & ~otherBits[i]) != 0) {
+        return false;
+      }
+    }
+    for (int i = n; i < bits.length; i++) {
+      if (bits[i] != 0) {
+        return false;
       }
     }
     return true;
@@ -349,8 +335,10 @@ public class BitVector extends BitVectorBase<BitVector> {
     if (vector == null) {
       throw new IllegalArgumentException("null vector");
     }
-    for (int ai = 0, bi = 0; ai < bits.length && bi < vector.bits.length; ai++, bi++) {
-      bits[ai] &= ~vector.bits[bi];
+    long[] otherBits = vector.bits;
+    int n = Math.min(bits.length, otherBits.length);
+    for (int i = 0; i < n; i++) {
+      bits[i] &= ~otherBits[i];
     }
   }
 
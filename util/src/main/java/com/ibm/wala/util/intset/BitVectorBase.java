@@ -13,24 +13,28 @@ package com.ibm.wala.util.intset;
 import java.io.Serializable;
 import java.util.Arrays;
 
-/** Abstract base class for implementations of bitvectors */
+/**
+ * Abstract base class for implementations of bitvectors. Bits are kept in 64-bit words, so that the
+ * bulk operations touch half as many words as with 32-bit units; the loops over words are kept
+ * simple, without early exits where possible, so that the JIT can unroll and vectorize them.
+ */
 @SuppressWarnings("rawtypes")
 public abstract class BitVectorBase<T extends BitVectorBase> implements Cloneable, Serializable {
 
-  private static final long serialVersionUID = 1151811022797406841L;
+  private static final long serialVersionUID = -2364851738227315917L;
 
   protected static final boolean DEBUG = false;
 
-  protected static final int LOG_BITS_PER_UNIT = 5;
+  protected static final int LOG_BITS_PER_UNIT = 6;
 
-  protected static final int BITS_PER_UNIT = 32;
+  protected static final int BITS_PER_UNIT = 64;
 
-  protected static final int MASK = 0xffffffff;
+  protected static final long MASK = 0xffffffffffffffffL;
 
-  protected static final int LOW_MASK = 0x1f;
+  protected static final int LOW_MASK = 0x3f;
 
   @SuppressWarnings("NullAway.Init")
-  protected int bits[];
+  protected long bits[];
 
   public abstract void set(int bit);
 
@@ -68,7 +72,8 @@ public abstract class BitVectorBase<T extends BitVectorBase> implements Cloneabl
   public int hashCode() {
     int h = 1234;
     for (int i = bits.length - 1; i >= 0; ) {
-      h ^= bits[i] * (i + 1);
+      long w = bits[i] * (i + 1);
+      h ^= (int) (w ^ (w >>> 32));
       i--;
     }
     return h;
@@ -77,19 +82,18 @@ public abstract class BitVectorBase<T extends BitVectorBase> implements Cloneabl
   /** How many bits are set? */
   public final int populationCount() {
     int count = 0;
-    for (int bit : bits) {
-      count += Bits.populationCount(bit);
+    for (long bit : bits) {
+      count += Long.bitCount(bit);
     }
     return count;
   }
 
   public boolean isZero() {
-    int setLength = bits.length;
-    for (int i = setLength - 1; i >= 0; ) {
-      if (bits[i] != 0) return false;
-      i--;
+    long or = 0;
+    for (long bit : bits) {
+      or |= bit;
     }
-    return true;
+    return or == 0;
   }
 
   @Override
@@ -102,8 +106,7 @@ public abstract class BitVectorBase<T extends BitVectorBase> implements Cloneabl
       // this shouldn't happen, since we are Cloneable
       throw new InternalError();
     }
-    result.bits = new int[bits.length];
-    System.arraycopy(bits, 0, result.bits, 0, result.bits.length);
+    result.bits = bits.clone();
     return result;
   }
 
@@ -134,41 +137,6 @@ public abstract class BitVectorBase<T extends BitVectorBase> implements Cloneabl
     return get(i);
   }
 
-  private static final int[][] masks =
-      new int[][] {
-        {0xFFFF0000},
-        {0xFF000000, 0x0000FF00},
-        {0xF0000000, 0x00F00000, 0x0000F000, 0x000000F0},
-        {
-          0xC0000000,
-          0x0C000000,
-          0x00C00000,
-          0x000C0000,
-          0x0000C000,
-          0x00000C00,
-          0x000000C0,
-          0x0000000C
-        },
-        {
-          0x80000000,
-          0x20000000,
-          0x08000000,
-          0x02000000,
-          0x00800000,
-          0x00200000,
-          0x00080000,
-          0x00020000,
-          0x00008000,
-          0x00002000,
-          0x00000800,
-          0x00000200,
-          0x00000080,
-          0x00000020,
-          0x00000008,
-          0x00000002
-        }
-      };
-
   public int max() {
     int lastWord = bits.length - 1;
 
@@ -176,21 +144,8 @@ public abstract class BitVectorBase<T extends BitVectorBase> implements Cloneabl
 
     if (lastWord < 0) return -1;
 
-    int count = lastWord * BITS_PER_UNIT;
-
-    int top = bits[lastWord];
-
-    int j = 0;
-    for (int[] mask2 : masks) {
-      if ((top & mask2[j]) != 0) {
-        j <<= 1;
-      } else {
-        j <<= 1;
-        j++;
-      }
-    }
-
-    return count + (31 - j);
+    return lastWord * BITS_PER_UNIT
+        + (BITS_PER_UNIT - 1 - Long.numberOfLeadingZeros(bits[lastWord]));
   }
 
   /**
@@ -201,23 +156,18 @@ public abstract class BitVectorBase<T extends BitVectorBase> implements Cloneabl
       throw new IllegalArgumentException("illegal start: " + start);
     }
     int word = subscript(start);
-    int bit = (1 << (start & LOW_MASK));
-    while (word < bits.length) {
-      if (bits[word] != 0) {
-        do {
-          if ((bits[word] & bit) != 0) return start;
-          bit <<= 1;
-          start++;
-        } while (bit != 0);
-      } else {
-        start += (BITS_PER_UNIT - (start & LOW_MASK));
+    if (word >= bits.length) {
+      return -1;
+    }
+    // ignore the bits below start in the first word
+    long w = bits[word] & (MASK << start);
+    while (w == 0) {
+      if (++word >= bits.length) {
+        return -1;
       }
-
-      word++;
-      bit = 1;
+      w = bits[word];
     }
-
-    return -1;
+    return word * BITS_PER_UNIT + Long.numberOfTrailingZeros(w);
   }
 
   /**
@@ -230,11 +180,6 @@ public abstract class BitVectorBase<T extends BitVectorBase> implements Cloneabl
     if (set == null) {
       throw new IllegalArgumentException("set is null");
     }
-    int setLength = set.bits.length;
-    bits = new int[setLength];
-    for (int i = setLength - 1; i >= 0; ) {
-      bits[i] = set.bits[i];
-      i--;
-    }
+    bits = set.bits.clone();
   }
 }
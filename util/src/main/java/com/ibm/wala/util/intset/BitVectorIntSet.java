@@ -10,7 +10,6 @@
  */
 package com.ibm.wala.util.intset;
 
-import com.ibm.wala.util.debug.Assertions;
 import com.ibm.wala.util.debug.UnimplementedError;
 import org.jspecify.annotations.NullUnmarked;
 import org.jspecify.annotations.Nullable;
@@ -280,33 +279,25 @@ public final class BitVectorIntSet implements MutableIntSet {
 
   /** internal optimized form */
   private void fastForeachExcluding(BitVectorIntSet X, IntSetAction action) {
-    int[] bits = bitVector.bits;
-    int[] xbits = X.bitVector.bits;
+    long[] bits = bitVector.bits;
+    long[] xbits = X.bitVector.bits;
 
     int w = 0;
     while (w < xbits.length && w < bits.length) {
-      int b = bits[w] & ~xbits[w];
-      actOnWord(action, w << 5, b);
+      long b = bits[w] & ~xbits[w];
+      actOnWord(action, w << 6, b);
       w++;
     }
     while (w < bits.length) {
-      actOnWord(action, w << 5, bits[w]);
+      actOnWord(action, w << 6, bits[w]);
       w++;
     }
   }
 
-  private static void actOnWord(IntSetAction action, int startingIndex, int word) {
-    if (word != 0) {
-      if ((word & 0x1) != 0) {
-        action.act(startingIndex);
-      }
-      for (int i = 0; i < 31; i++) {
-        startingIndex++;
-        word >>>= 1;
-        if ((word & 0x1) != 0) {
-          action.act(startingIndex);
-        }
-      }
+  private static void actOnWord(IntSetAction action, int startingIndex, long word) {
+    while (word != 0) {
+      action.act(startingIndex + Long.numberOfTrailingZeros(word));
+      word &= word - 1;
     }
   }
 
@@ -354,8 +345,8 @@ public final class BitVectorIntSet implements MutableIntSet {
     } else if (that instanceof MutableSharedBitVectorIntSet) {
       return sameValue(((MutableSharedBitVectorIntSet) that).makeDenseCopy());
     } else {
-      Assertions.UNREACHABLE("unexpected argument type " + that.getClass());
-      return false;
+      // really slow. optimize as needed.
+      return size() == that.size() && isSubset(that);
     }
   }
 
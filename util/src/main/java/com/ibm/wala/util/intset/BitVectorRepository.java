@@ -10,28 +10,68 @@
  */
 package com.ibm.wala.util.intset;
 
-import com.ibm.wala.util.collections.HashMapFactory;
 import java.lang.ref.WeakReference;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
 
-/** A repository for shared bit vectors as described by Heintze */
-@SuppressWarnings("Java8MapApi")
+/**
+ * A repository for shared bit vectors as described by Heintze.
+ *
+ * <p>The repository may be used from several threads at once; lookups do not lock. Shared
+ * vectors are indexed by their size, and each carries a 64-bit sketch of its bits such that the
+ * sketch of a subset is a subset of the sketch; candidates whose sketch rules them out are skipped
+ * without looking at their bits. Each lookup probes at most {@link #MAX_PROBES} candidates of each
+ * size, most recently created first, and entries for collected vectors are swept out every {@link
+ * #CLEANUP_INTERVAL} creations.
+ */
 public class BitVectorRepository {
 
   private static final boolean STATS = false;
 
   private static final int STATS_WINDOW = 100;
 
-  private static int queries = 0;
+  private static final AtomicInteger queries = new AtomicInteger();
 
-  private static int hits = 0;
+  private static final AtomicInteger hits = new AtomicInteger();
 
   private static final int SUBSET_DELTA = 5;
 
-  private static final Map<Integer, LinkedList<WeakReference<BitVectorIntSet>>> buckets =
-      HashMapFactory.make();
+  /** maximum number of candidates examined in each bucket per lookup */
+  private static final int MAX_PROBES = 64;
+
+  /** number of shared vectors created between sweeps of dead entries */
+  private static final int CLEANUP_INTERVAL = 1 << 12;
+
+  private static final AtomicInteger creations = new AtomicInteger();
+
+  /** shared vectors, by size */
+  private static final ConcurrentHashMap<Integer, ConcurrentLinkedDeque<Entry>> buckets =
+      new ConcurrentHashMap<>();
+
+  /** A shared vector, and the sketch of its bits */
+  private static final class Entry extends WeakReference<BitVectorIntSet> {
+    private final long sketch;
+
+    Entry(BitVectorIntSet referent, long sketch) {
+      super(referent);
+      this.sketch = sketch;
+    }
+  }
+
+  /**
+   * @return a 64-bit summary of the bits of s, such that sketch(a) has no bits outside sketch(b)
+   *     whenever a is a subset of b
+   */
+  private static long sketch(BitVectorIntSet s) {
+    long[] bits = s.getBitVector().bits;
+    long result = 0;
+    for (int i = 0; i < bits.length; i++) {
+      result |= Long.rotateLeft(bits[i], 29 * i);
+    }
+    return result;
+  }
 
   /**
    * @return the BitVector in this repository which is the canonical shared subset representative of
@@ -39,56 +79,76 @@ public class BitVectorRepository {
    *     SUBSET_DELTA bits.
    * @throws IllegalArgumentException if value is null
    */
-  public static synchronized BitVectorIntSet findOrCreateSharedSubset(BitVectorIntSet value) {
+  public static BitVectorIntSet findOrCreateSharedSubset(BitVectorIntSet value) {
     if (value == null) {
       throw new IllegalArgumentException("value is null");
     }
     if (STATS) {
-      queries++;
-      if (queries % STATS_WINDOW == 0) {
+      if (queries.incrementAndGet() % STATS_WINDOW == 0) {
         reportStats();
       }
     }
     int size = value.size();
+    long sketch = sketch(value);
     for (int i = size; i > size - SUBSET_DELTA; i--) {
-      LinkedList<WeakReference<BitVectorIntSet>> m = buckets.get(i);
+      ConcurrentLinkedDeque<Entry> m = buckets.get(i);
       if (m != null) {
-        Iterator<WeakReference<BitVectorIntSet>> it = m.iterator();
-        while (it.hasNext()) {
-          WeakReference<BitVectorIntSet> wr = it.next();
-          BitVectorIntSet bv = wr.get();
-          if (bv != null) {
-            if (bv.isSubset(value)) {
+        int probes = 0;
+        Iterator<Entry> it = m.iterator();
+        while (it.hasNext() && probes < MAX_PROBES) {
+          Entry e = it.next();
+          BitVectorIntSet bv = e.get();
+          if (bv == null) {
+            // remove the weak reference to avoid leaks
+            it.remove();
+          } else {
+            probes++;
+            if ((e.sketch & ~sketch) == 0 && bv.isSubset(value)) {
               // FOUND ONE!
               if (STATS) {
-                hits++;
+                hits.incrementAndGet();
               }
               return bv;
             }
-          } else {
-            // remove the weak reference to avoid leaks
-            it.remove();
           }
         }
       }
     }
-    // didn't find one. create one.
-    LinkedList<WeakReference<BitVectorIntSet>> m;
-    m = buckets.get(size);
-    if (m == null) {
-      @SuppressWarnings("JdkObsolete") // performance-tuned
-      LinkedList<WeakReference<BitVectorIntSet>> tmp = new LinkedList<>();
-      m = tmp;
-      buckets.put(size, m);
-    }
+    // didn't find one. create one. Another thread may create an equal one concurrently; that
+    // costs some sharing, but is harmless.
     BitVectorIntSet bv = new BitVectorIntSet(value);
-    m.add(new WeakReference<>(bv));
+    Entry e = new Entry(bv, sketch);
+    // add the entry inside compute(), so that cleanup() cannot drop the bucket in between
+    buckets.compute(
+        size,
+        (k, m) -> {
+          if (m == null) {
+            m = new ConcurrentLinkedDeque<>();
+          }
+          m.addFirst(e);
+          return m;
+        });
+    if (creations.incrementAndGet() % CLEANUP_INTERVAL == 0) {
+      cleanup();
+    }
     return bv;
   }
 
+  /** remove the entries of vectors that have been collected, and the buckets left empty */
+  private static void cleanup() {
+    for (Integer size : buckets.keySet()) {
+      buckets.computeIfPresent(
+          size,
+          (k, m) -> {
+            m.removeIf(e -> e.get() == null);
+            return m.isEmpty() ? null : m;
+          });
+    }
+  }
+
   /** */
   private static void reportStats() {
-    double percent = 100.0 * hits / queries;
+    double percent = 100.0 * hits.get() / queries.get();
     System.err.println(("BitVectorRepository: queries " + queries + " hits " + percent));
     System.err.println(("                     entries " + countEntries()));
   }
@@ -96,7 +156,7 @@ public class BitVectorRepository {
   /** */
   private static int countEntries() {
     int result = 0;
-    for (LinkedList<WeakReference<BitVectorIntSet>> l : buckets.values()) {
+    for (ConcurrentLinkedDeque<Entry> l : buckets.values()) {
       // don't worry about cleared WeakReferences; count will be rough
       result += l.size();
     }
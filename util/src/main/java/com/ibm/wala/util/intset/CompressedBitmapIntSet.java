@@ -0,0 +1,1221 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.util.intset;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A compressed bitmap {@link MutableIntSet}, in the style of Roaring bitmaps. The integers are
+ * split into chunks of 2^16 values that share their high 16 bits, and the low 16 bits of the
+ * elements of each chunk are held in a container whose representation suits its contents:
+ *
+ * <ul>
+ *   <li>an <em>array</em> container holds up to {@link #ARRAY_MAX} sorted values;
+ *   <li>a <em>bitmap</em> container holds a bit vector of 2^16 bits, for denser chunks;
+ *   <li>a <em>run</em> container holds sorted intervals of consecutive values. Run containers are
+ *       only made by {@link #runOptimize()}; they are unpacked again when they are modified.
+ * </ul>
+ *
+ * So a set of a few scattered elements takes a few bytes per element, as a {@link
+ * MutableSparseIntSet} does, and a large clustered set takes at most a bit per possible element in
+ * its chunks, as a {@link BitVectorIntSet} does. Each chunk switches representation as it grows or
+ * shrinks. Operations with another CompressedBitmapIntSet work chunk by chunk, and skip chunks that
+ * only one of the sets has.
+ */
+public class CompressedBitmapIntSet implements MutableIntSet {
+
+  private static final long serialVersionUID = -2871508167624455162L;
+
+  /** maximum number of values in an array container: past this, a bitmap takes less space */
+  static final int ARRAY_MAX = 4096;
+
+  /** number of longs in a bitmap container */
+  private static final int BITMAP_WORDS = 1 << 10;
+
+  private static final int[] NO_KEYS = new int[0];
+
+  private static final Container[] NO_CONTAINERS = new Container[0];
+
+  /** high 16 bits of the elements of each chunk, in increasing order */
+  private int[] keys = NO_KEYS;
+
+  /** the low 16 bits of the elements of each chunk; never empty */
+  private Container[] containers = NO_CONTAINERS;
+
+  /** number of chunks in use */
+  private int nChunks = 0;
+
+  /** number of elements */
+  private int size = 0;
+
+  public CompressedBitmapIntSet() {}
+
+  /**
+   * @throws IllegalArgumentException if set is null
+   */
+  public CompressedBitmapIntSet(IntSet set) {
+    copySet(set);
+  }
+
+  private static int highBits(int i) {
+    return i >> 16;
+  }
+
+  private static char lowBits(int i) {
+    return (char) i;
+  }
+
+  /**
+   * @return index of the chunk with the given key, or (-(insertion point) - 1) if there is none
+   */
+  private int indexOf(int key) {
+    return Arrays.binarySearch(keys, 0, nChunks, key);
+  }
+
+  private void insertChunk(int pos, int key, Container c) {
+    if (nChunks == keys.length) {
+      int newLength = Math.max(4, 2 * nChunks);
+      keys = Arrays.copyOf(keys, newLength);
+      containers = Arrays.copyOf(containers, newLength);
+    }
+    System.arraycopy(keys, pos, keys, pos + 1, nChunks - pos);
+    System.arraycopy(containers, pos, containers, pos + 1, nChunks - pos);
+    keys[pos] = key;
+    containers[pos] = c;
+    nChunks++;
+  }
+
+  private void removeChunk(int pos) {
+    System.arraycopy(keys, pos + 1, keys, pos, nChunks - pos - 1);
+    System.arraycopy(containers, pos + 1, containers, pos, nChunks - pos - 1);
+    nChunks--;
+    containers[nChunks] = null;
+  }
+
+  @Override
+  public boolean contains(int i) {
+    int pos = indexOf(highBits(i));
+    return pos >= 0 && containers[pos].contains(lowBits(i));
+  }
+
+  @Override
+  public boolean add(int i) {
+    int pos = indexOf(highBits(i));
+    if (pos < 0) {
+      insertChunk(-pos - 1, highBits(i), new ArrayContainer(lowBits(i)));
+      size++;
+      return true;
+    }
+    Container c = containers[pos];
+    int before = c.cardinality();
+    c = c.add(lowBits(i));
+    containers[pos] = c;
+    if (c.cardinality() == before) {
+      return false;
+    }
+    size++;
+    return true;
+  }
+
+  @Override
+  public boolean remove(int i) {
+    int pos = indexOf(highBits(i));
+    if (pos < 0) {
+      return false;
+    }
+    Container c = containers[pos];
+    int before = c.cardinality();
+    c = c.remove(lowBits(i));
+    if (c.cardinality() == before) {
+      return false;
+    }
+    size--;
+    if (c.cardinality() == 0) {
+      removeChunk(pos);
+    } else {
+      containers[pos] = c;
+    }
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    keys = NO_KEYS;
+    containers = NO_CONTAINERS;
+    nChunks = 0;
+    size = 0;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the largest element, or -1 if this set is empty
+   */
+  @Override
+  public int max() {
+    if (nChunks == 0) {
+      return -1;
+    }
+    return (keys[nChunks - 1] << 16) | containers[nChunks - 1].last();
+  }
+
+  /**
+   * @throws IllegalArgumentException if set is null
+   */
+  @Override
+  public void copySet(IntSet set) {
+    if (set == null) {
+      throw new IllegalArgumentException("set is null");
+    }
+    if (set == this) {
+      return;
+    }
+    if (set instanceof CompressedBitmapIntSet) {
+      CompressedBitmapIntSet that = (CompressedBitmapIntSet) set;
+      keys = Arrays.copyOf(that.keys, that.nChunks);
+      containers = new Container[that.nChunks];
+      for (int i = 0; i < that.nChunks; i++) {
+        containers[i] = that.containers[i].copy();
+      }
+      nChunks = that.nChunks;
+      size = that.size;
+    } else {
+      clear();
+      addAll(set);
+    }
+  }
+
+  /**
+   * @throws IllegalArgumentException if set is null
+   */
+  @Override
+  public boolean addAll(IntSet set) {
+    if (set == null) {
+      throw new IllegalArgumentException("set is null");
+    }
+    if (set instanceof CompressedBitmapIntSet) {
+      return addAll((CompressedBitmapIntSet) set);
+    }
+    boolean changed = false;
+    for (IntIterator it = set.intIterator(); it.hasNext(); ) {
+      changed |= add(it.next());
+    }
+    return changed;
+  }
+
+  private boolean addAll(CompressedBitmapIntSet that) {
+    if (that == this || that.nChunks == 0) {
+      return false;
+    }
+    int oldSize = size;
+    // count the chunks of that which we lack, to merge the key arrays at most once
+    int missing = 0;
+    for (int i = 0, j = 0; j < that.nChunks; ) {
+      if (i < nChunks && keys[i] < that.keys[j]) {
+        i++;
+      } else if (i < nChunks && keys[i] == that.keys[j]) {
+        i++;
+        j++;
+      } else {
+        missing++;
+        j++;
+      }
+    }
+    if (missing == 0) {
+      for (int i = 0, j = 0; j < that.nChunks; i++) {
+        if (keys[i] == that.keys[j]) {
+          size -= containers[i].cardinality();
+          containers[i] = orInPlace(containers[i], that.containers[j++]);
+          size += containers[i].cardinality();
+        }
+      }
+    } else {
+      int n = nChunks + missing;
+      int[] newKeys = new int[n];
+      Container[] newContainers = new Container[n];
+      int i = 0;
+      int j = 0;
+      for (int k = 0; k < n; k++) {
+        if (j == that.nChunks || (i < nChunks && keys[i] < that.keys[j])) {
+          newKeys[k] = keys[i];
+          newContainers[k] = containers[i++];
+        } else if (i == nChunks || that.keys[j] < keys[i]) {
+          newKeys[k] = that.keys[j];
+          newContainers[k] = that.containers[j++].copy();
+          size += newContainers[k].cardinality();
+        } else {
+          newKeys[k] = keys[i];
+          size -= containers[i].cardinality();
+          newContainers[k] = orInPlace(containers[i++], that.containers[j++]);
+          size += newContainers[k].cardinality();
+        }
+      }
+      keys = newKeys;
+      containers = newContainers;
+      nChunks = n;
+    }
+    return size != oldSize;
+  }
+
+  /**
+   * @throws IllegalArgumentException if other or filter is null
+   */
+  @Override
+  public boolean addAllInIntersection(IntSet other, IntSet filter) {
+    if (other == null) {
+      throw new IllegalArgumentException("other is null");
+    }
+    if (filter == null) {
+      throw new IllegalArgumentException("filter is null");
+    }
+    if (other instanceof CompressedBitmapIntSet && filter instanceof CompressedBitmapIntSet) {
+      return addAll(((CompressedBitmapIntSet) other).intersection(filter));
+    }
+    boolean changed = false;
+    for (IntIterator it = other.intIterator(); it.hasNext(); ) {
+      int i = it.next();
+      if (filter.contains(i)) {
+        changed |= add(i);
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * @throws IllegalArgumentException if set is null
+   */
+  @Override
+  public void intersectWith(IntSet set) {
+    if (set == null) {
+      throw new IllegalArgumentException("set is null");
+    }
+    if (set == this) {
+      return;
+    }
+    if (set instanceof CompressedBitmapIntSet) {
+      CompressedBitmapIntSet that = (CompressedBitmapIntSet) set;
+      int k = 0;
+      size = 0;
+      for (int i = 0, j = 0; i < nChunks && j < that.nChunks; ) {
+        if (keys[i] < that.keys[j]) {
+          i++;
+        } else if (keys[i] > that.keys[j]) {
+          j++;
+        } else {
+          Container c = and(containers[i], that.containers[j]);
+          if (c.cardinality() > 0) {
+            keys[k] = keys[i];
+            containers[k++] = c;
+            size += c.cardinality();
+          }
+          i++;
+          j++;
+        }
+      }
+      Arrays.fill(containers, k, nChunks, null);
+      nChunks = k;
+    } else {
+      CompressedBitmapIntSet result = new CompressedBitmapIntSet();
+      for (IntIterator it = intIterator(); it.hasNext(); ) {
+        int i = it.next();
+        if (set.contains(i)) {
+          result.add(i);
+        }
+      }
+      keys = result.keys;
+      containers = result.containers;
+      nChunks = result.nChunks;
+      size = result.size;
+    }
+  }
+
+  /**
+   * @throws IllegalArgumentException if that is null
+   */
+  @Override
+  public CompressedBitmapIntSet intersection(IntSet that) {
+    if (that == null) {
+      throw new IllegalArgumentException("that is null");
+    }
+    CompressedBitmapIntSet result = new CompressedBitmapIntSet(this);
+    result.intersectWith(that);
+    return result;
+  }
+
+  /**
+   * @throws IllegalArgumentException if that is null
+   */
+  @Override
+  public CompressedBitmapIntSet union(IntSet that) {
+    if (that == null) {
+      throw new IllegalArgumentException("that is null");
+    }
+    CompressedBitmapIntSet result = new CompressedBitmapIntSet(this);
+    result.addAll(that);
+    return result;
+  }
+
+  /**
+   * @throws IllegalArgumentException if set is null
+   */
+  @Override
+  public boolean containsAny(IntSet set) {
+    if (set == null) {
+      throw new IllegalArgumentException("set is null");
+    }
+    if (set instanceof CompressedBitmapIntSet) {
+      CompressedBitmapIntSet that = (CompressedBitmapIntSet) set;
+      for (int i = 0, j = 0; i < nChunks && j < that.nChunks; ) {
+        if (keys[i] < that.keys[j]) {
+          i++;
+        } else if (keys[i] > that.keys[j]) {
+          j++;
+        } else if (intersects(containers[i++], that.containers[j++])) {
+          return true;
+        }
+      }
+      return false;
+    }
+    // probe the larger set with the elements of the smaller one
+    IntSet probes = size <= set.size() ? this : set;
+    IntSet probed = probes == this ? set : this;
+    for (IntIterator it = probes.intIterator(); it.hasNext(); ) {
+      if (probed.contains(it.next())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @throws IllegalArgumentException if that is null
+   */
+  @Override
+  public boolean isSubset(IntSet that) {
+    if (that == null) {
+      throw new IllegalArgumentException("that is null");
+    }
+    if (size > that.size()) {
+      return false;
+    }
+    if (that instanceof CompressedBitmapIntSet) {
+      CompressedBitmapIntSet other = (CompressedBitmapIntSet) that;
+      int j = 0;
+      for (int i = 0; i < nChunks; i++) {
+        while (j < other.nChunks && other.keys[j] < keys[i]) {
+          j++;
+        }
+        if (j == other.nChunks
+            || other.keys[j] != keys[i]
+            || !isSubset(containers[i], other.containers[j])) {
+          return false;
+        }
+      }
+      return true;
+    }
+    for (IntIterator it = intIterator(); it.hasNext(); ) {
+      if (!that.contains(it.next())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @throws IllegalArgumentException if that is null
+   */
+  @Override
+  public boolean sameValue(IntSet that) {
+    if (that == null) {
+      throw new IllegalArgumentException("that is null");
+    }
+    return size == that.size() && isSubset(that);
+  }
+
+  @Override
+  public IntIterator intIterator() {
+    return new IntIterator() {
+      private int chunk = 0;
+
+      private IntIterator values = nChunks == 0 ? EMPTY : containers[0].intIterator();
+
+      @Override
+      public boolean hasNext() {
+        while (!values.hasNext()) {
+          if (++chunk >= nChunks) {
+            return false;
+          }
+          values = containers[chunk].intIterator();
+        }
+        return true;
+      }
+
+      @Override
+      public int next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return (keys[chunk] << 16) | values.next();
+      }
+    };
+  }
+
+  @Override
+  public void foreach(IntSetAction action) {
+    if (action == null) {
+      throw new IllegalArgumentException("null action");
+    }
+    for (int i = 0; i < nChunks; i++) {
+      containers[i].foreach(keys[i] << 16, action);
+    }
+  }
+
+  @Override
+  public void foreachExcluding(IntSet X, IntSetAction action) {
+    if (X == null) {
+      throw new IllegalArgumentException("null X");
+    }
+    if (action == null) {
+      throw new IllegalArgumentException("null action");
+    }
+    foreach(
+        i -> {
+          if (!X.contains(i)) {
+            action.act(i);
+          }
+        });
+  }
+
+  /**
+   * Turn the chunks that are made of long runs of consecutive values into run containers, and run
+   * containers that no longer pay off back into arrays or bitmaps. Call this on a set that is
+   * unlikely to change again, e.g. once a fixed point has been reached.
+   */
+  public void runOptimize() {
+    for (int i = 0; i < nChunks; i++) {
+      containers[i] = containers[i].runOptimize();
+    }
+  }
+
+  /**
+   * @return a rough estimate of the number of bytes held by this set
+   */
+  public long getMemoryEstimate() {
+    long result = 32 + 8L * keys.length;
+    for (int i = 0; i < nChunks; i++) {
+      result += 16 + containers[i].sizeInBytes();
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder(6 * Math.min(size, 1000));
+    sb.append("{ ");
+    foreach(
+        i -> {
+          sb.append(i);
+          sb.append(' ');
+        });
+    sb.append('}');
+    return sb.toString();
+  }
+
+  ////////////////////////////////////////////////////////////////////////
+  //
+  //  operations on containers
+  //
+
+  /**
+   * @return the union of a and b; this may be a itself, updated in place
+   */
+  private static Container orInPlace(Container a, Container b) {
+    if (a instanceof BitmapContainer) {
+      ((BitmapContainer) a).orWith(b);
+      return a;
+    }
+    if (a instanceof ArrayContainer && b instanceof ArrayContainer) {
+      return ((ArrayContainer) a).or((ArrayContainer) b);
+    }
+    BitmapContainer result = b.toBitmap();
+    result.orWith(a);
+    return result.shrinkIfSparse();
+  }
+
+  /**
+   * @return the intersection of a and b, as a new container, which may be empty
+   */
+  private static Container and(Container a, Container b) {
+    if (a instanceof ArrayContainer) {
+      return ((ArrayContainer) a).filter(b);
+    } else if (b instanceof ArrayContainer) {
+      return ((ArrayContainer) b).filter(a);
+    } else {
+      return asBitmap(a).and(asBitmap(b)).shrinkIfSparse();
+    }
+  }
+
+  private static boolean intersects(Container a, Container b) {
+    if (b instanceof ArrayContainer || (a.cardinality() > b.cardinality())) {
+      Container t = a;
+      a = b;
+      b = t;
+    }
+    if (a instanceof BitmapContainer && b instanceof BitmapContainer) {
+      return ((BitmapContainer) a).intersects((BitmapContainer) b);
+    }
+    for (IntIterator it = a.intIterator(); it.hasNext(); ) {
+      if (b.contains((char) it.next())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return true iff a is a subset of b
+   */
+  private static boolean isSubset(Container a, Container b) {
+    if (a.cardinality() > b.cardinality()) {
+      return false;
+    }
+    if (a instanceof BitmapContainer && !(b instanceof ArrayContainer)) {
+      return ((BitmapContainer) a).isSubset(asBitmap(b));
+    }
+    for (IntIterator it = a.intIterator(); it.hasNext(); ) {
+      if (!b.contains((char) it.next())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return c if it is a bitmap, or else a new bitmap with the values of c
+   */
+  private static BitmapContainer asBitmap(Container c) {
+    return c instanceof BitmapContainer ? (BitmapContainer) c : c.toBitmap();
+  }
+
+  private static final IntIterator EMPTY =
+      new IntIterator() {
+        @Override
+        public boolean hasNext() {
+          return false;
+        }
+
+        @Override
+        public int next() {
+          throw new NoSuchElementException();
+        }
+      };
+
+  /** The low 16 bits of the elements of one chunk */
+  private abstract static class Container implements Serializable {
+
+    private static final long serialVersionUID = 3153441012516390147L;
+
+    abstract int cardinality();
+
+    abstract boolean contains(char x);
+
+    /**
+     * @return a container with the values of this and x; this may be this container, updated in
+     *     place
+     */
+    abstract Container add(char x);
+
+    /**
+     * @return a container with the values of this but x; this may be this container, updated in
+     *     place
+     */
+    abstract Container remove(char x);
+
+    /**
+     * @return the largest value; the container must not be empty
+     */
+    abstract int last();
+
+    abstract Container copy();
+
+    /**
+     * @return a new bitmap with the values of this
+     */
+    abstract BitmapContainer toBitmap();
+
+    /**
+     * @return an iterator over the values, in increasing order
+     */
+    abstract IntIterator intIterator();
+
+    /** invoke action on (high | v) for each value v, in increasing order */
+    abstract void foreach(int high, IntSetAction action);
+
+    abstract int numberOfRuns();
+
+    abstract int sizeInBytes();
+
+    /**
+     * @return the smallest of this container as it is, or as a run container
+     */
+    Container runOptimize() {
+      int runs = numberOfRuns();
+      if (RunContainer.sizeInBytes(runs) < sizeInBytes()) {
+        return RunContainer.fromValues(intIterator(), runs, cardinality());
+      }
+      return this;
+    }
+  }
+
+  private static final class ArrayContainer extends Container {
+
+    private static final long serialVersionUID = -4011416004652106407L;
+
+    private char[] values;
+
+    private int cardinality;
+
+    ArrayContainer(char x) {
+      values = new char[] {x};
+      cardinality = 1;
+    }
+
+    ArrayContainer(char[] values, int cardinality) {
+      this.values = values;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    boolean contains(char x) {
+      return Arrays.binarySearch(values, 0, cardinality, x) >= 0;
+    }
+
+    @Override
+    Container add(char x) {
+      int pos = Arrays.binarySearch(values, 0, cardinality, x);
+      if (pos >= 0) {
+        return this;
+      }
+      if (cardinality == ARRAY_MAX) {
+        BitmapContainer result = toBitmap();
+        result.add(x);
+        return result;
+      }
+      pos = -pos - 1;
+      if (cardinality == values.length) {
+        values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, 2 * cardinality)));
+      }
+      System.arraycopy(values, pos, values, pos + 1, cardinality - pos);
+      values[pos] = x;
+      cardinality++;
+      return this;
+    }
+
+    @Override
+    Container remove(char x) {
+      int pos = Arrays.binarySearch(values, 0, cardinality, x);
+      if (pos >= 0) {
+        System.arraycopy(values, pos + 1, values, pos, cardinality - pos - 1);
+        cardinality--;
+      }
+      return this;
+    }
+
+    @Override
+    int last() {
+      return values[cardinality - 1];
+    }
+
+    @Override
+    Container copy() {
+      return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+    }
+
+    @Override
+    BitmapContainer toBitmap() {
+      BitmapContainer result = new BitmapContainer();
+      for (int i = 0; i < cardinality; i++) {
+        result.words[values[i] >>> 6] |= 1L << values[i];
+      }
+      result.cardinality = cardinality;
+      return result;
+    }
+
+    /**
+     * @return the union of this and that, as a new container
+     */
+    Container or(ArrayContainer that) {
+      char[] result = new char[cardinality + that.cardinality];
+      int i = 0;
+      int j = 0;
+      int k = 0;
+      while (i < cardinality && j < that.cardinality) {
+        char x = values[i];
+        char y = that.values[j];
+        if (x < y) {
+          result[k++] = x;
+          i++;
+        } else if (x > y) {
+          result[k++] = y;
+          j++;
+        } else {
+          result[k++] = x;
+          i++;
+          j++;
+        }
+      }
+      while (i < cardinality) {
+        result[k++] = values[i++];
+      }
+      while (j < that.cardinality) {
+        result[k++] = that.values[j++];
+      }
+      ArrayContainer union = new ArrayContainer(result, k);
+      return k > ARRAY_MAX ? union.toBitmap() : union;
+    }
+
+    /**
+     * @return the values of this that are in that, as a new container
+     */
+    ArrayContainer filter(Container that) {
+      char[] result = new char[cardinality];
+      int k = 0;
+      for (int i = 0; i < cardinality; i++) {
+        if (that.contains(values[i])) {
+          result[k++] = values[i];
+        }
+      }
+      return new ArrayContainer(result, k);
+    }
+
+    @Override
+    IntIterator intIterator() {
+      return new IntIterator() {
+        private int i = 0;
+
+        @Override
+        public boolean hasNext() {
+          return i < cardinality;
+        }
+
+        @Override
+        public int next() {
+          if (i >= cardinality) {
+            throw new NoSuchElementException();
+          }
+          return values[i++];
+        }
+      };
+    }
+
+    @Override
+    void foreach(int high, IntSetAction action) {
+      for (int i = 0; i < cardinality; i++) {
+        action.act(high | values[i]);
+      }
+    }
+
+    @Override
+    int numberOfRuns() {
+      int runs = cardinality == 0 ? 0 : 1;
+      for (int i = 1; i < cardinality; i++) {
+        if (values[i] != values[i - 1] + 1) {
+          runs++;
+        }
+      }
+      return runs;
+    }
+
+    @Override
+    int sizeInBytes() {
+      return 2 * values.length;
+    }
+  }
+
+  private static final class BitmapContainer extends Container {
+
+    private static final long serialVersionUID = 7398564139082437721L;
+
+    private final long[] words;
+
+    private int cardinality;
+
+    BitmapContainer() {
+      words = new long[BITMAP_WORDS];
+    }
+
+    private BitmapContainer(long[] words, int cardinality) {
+      this.words = words;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    boolean contains(char x) {
+      return (words[x >>> 6] & (1L << x)) != 0;
+    }
+
+    @Override
+    Container add(char x) {
+      long w = words[x >>> 6];
+      long bit = 1L << x;
+      if ((w & bit) == 0) {
+        words[x >>> 6] = w | bit;
+        cardinality++;
+      }
+      return this;
+    }
+
+    @Override
+    Container remove(char x) {
+      long w = words[x >>> 6];
+      long bit = 1L << x;
+      if ((w & bit) != 0) {
+        words[x >>> 6] = w & ~bit;
+        cardinality--;
+        return shrinkIfSparse();
+      }
+      return this;
+    }
+
+    @Override
+    int last() {
+      for (int i = BITMAP_WORDS - 1; i >= 0; i--) {
+        if (words[i] != 0) {
+          return (i << 6) + 63 - Long.numberOfLeadingZeros(words[i]);
+        }
+      }
+      throw new NoSuchElementException();
+    }
+
+    @Override
+    Container copy() {
+      return new BitmapContainer(words.clone(), cardinality);
+    }
+
+    @Override
+    BitmapContainer toBitmap() {
+      return new BitmapContainer(words.clone(), cardinality);
+    }
+
+    /**
+     * @return an array container with the same values if there are few enough, or else this
+     */
+    Container shrinkIfSparse() {
+      if (cardinality > ARRAY_MAX) {
+        return this;
+      }
+      char[] values = new char[cardinality];
+      int k = 0;
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        for (long w = words[i]; w != 0; w &= w - 1) {
+          values[k++] = (char) ((i << 6) + Long.numberOfTrailingZeros(w));
+        }
+      }
+      return new ArrayContainer(values, k);
+    }
+
+    /** add the values of c to this */
+    void orWith(Container c) {
+      if (c instanceof BitmapContainer) {
+        long[] other = ((BitmapContainer) c).words;
+        int count = 0;
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+          long w = words[i] | other[i];
+          words[i] = w;
+          count += Long.bitCount(w);
+        }
+        cardinality = count;
+      } else {
+        for (IntIterator it = c.intIterator(); it.hasNext(); ) {
+          add((char) it.next());
+        }
+      }
+    }
+
+    /**
+     * @return the intersection of this and that, as a new bitmap
+     */
+    BitmapContainer and(BitmapContainer that) {
+      BitmapContainer result = new BitmapContainer();
+      int count = 0;
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        long w = words[i] & that.words[i];
+        result.words[i] = w;
+        count += Long.bitCount(w);
+      }
+      result.cardinality = count;
+      return result;
+    }
+
+    boolean intersects(BitmapContainer that) {
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        if ((words[i] & that.words[i]) != 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    boolean isSubset(BitmapContainer that) {
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        if ((words[i] & ~that.words[i]) != 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /** add the values [from, to) */
+    void setRange(int from, int to) {
+      int first = from >>> 6;
+      int last = (to - 1) >>> 6;
+      long firstMask = -1L << from;
+      long lastMask = -1L >>> -to;
+      if (first == last) {
+        words[first] |= firstMask & lastMask;
+      } else {
+        words[first] |= firstMask;
+        for (int i = first + 1; i < last; i++) {
+          words[i] = -1L;
+        }
+        words[last] |= lastMask;
+      }
+    }
+
+    @Override
+    IntIterator intIterator() {
+      return new IntIterator() {
+        private int index = 0;
+
+        private long w = words[0];
+
+        @Override
+        public boolean hasNext() {
+          while (w == 0) {
+            if (++index >= BITMAP_WORDS) {
+              return false;
+            }
+            w = words[index];
+          }
+          return true;
+        }
+
+        @Override
+        public int next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          int result = (index << 6) + Long.numberOfTrailingZeros(w);
+          w &= w - 1;
+          return result;
+        }
+      };
+    }
+
+    @Override
+    void foreach(int high, IntSetAction action) {
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        for (long w = words[i]; w != 0; w &= w - 1) {
+          action.act(high | ((i << 6) + Long.numberOfTrailingZeros(w)));
+        }
+      }
+    }
+
+    @Override
+    int numberOfRuns() {
+      int runs = 0;
+      long previous = 0;
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        long w = words[i];
+        // count the bits that start a run: set, with the bit before them clear
+        runs += Long.bitCount(w & ~((w << 1) | (previous >>> 63)));
+        previous = w;
+      }
+      return runs;
+    }
+
+    @Override
+    int sizeInBytes() {
+      return 8 * BITMAP_WORDS;
+    }
+  }
+
+  private static final class RunContainer extends Container {
+
+    private static final long serialVersionUID = -6236870539183012574L;
+
+    /** first value of each run, in increasing order */
+    private final char[] starts;
+
+    /** number of values of each run, minus one */
+    private final char[] lengths;
+
+    private final int cardinality;
+
+    private RunContainer(char[] starts, char[] lengths, int cardinality) {
+      this.starts = starts;
+      this.lengths = lengths;
+      this.cardinality = cardinality;
+    }
+
+    static int sizeInBytes(int runs) {
+      return 4 * runs;
+    }
+
+    /**
+     * @param values the values of the container, in increasing order
+     */
+    static RunContainer fromValues(IntIterator values, int runs, int cardinality) {
+      char[] starts = new char[runs];
+      char[] lengths = new char[runs];
+      int k = -1;
+      int previous = -2;
+      while (values.hasNext()) {
+        int v = values.next();
+        if (v == previous + 1) {
+          lengths[k]++;
+        } else {
+          starts[++k] = (char) v;
+        }
+        previous = v;
+      }
+      return new RunContainer(starts, lengths, cardinality);
+    }
+
+    @Override
+    int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    boolean contains(char x) {
+      int pos = Arrays.binarySearch(starts, x);
+      if (pos >= 0) {
+        return true;
+      }
+      // the run starting right before x
+      pos = -pos - 2;
+      return pos >= 0 && x - starts[pos] <= lengths[pos];
+    }
+
+    /**
+     * @return an array or bitmap container with the values of this
+     */
+    private Container unpack() {
+      return cardinality > ARRAY_MAX ? toBitmap() : toBitmap().shrinkIfSparse();
+    }
+
+    @Override
+    Container add(char x) {
+      return contains(x) ? this : unpack().add(x);
+    }
+
+    @Override
+    Container remove(char x) {
+      return contains(x) ? unpack().remove(x) : this;
+    }
+
+    @Override
+    int last() {
+      return starts[starts.length - 1] + lengths[lengths.length - 1];
+    }
+
+    @Override
+    Container copy() {
+      // run containers are never updated in place
+      return this;
+    }
+
+    @Override
+    BitmapContainer toBitmap() {
+      BitmapContainer result = new BitmapContainer();
+      for (int i = 0; i < starts.length; i++) {
+        result.setRange(starts[i], starts[i] + lengths[i] + 1);
+      }
+      result.cardinality = cardinality;
+      return result;
+    }
+
+    @Override
+    IntIterator intIterator() {
+      return new IntIterator() {
+        private int run = 0;
+
+        private int offset = 0;
+
+        @Override
+        public boolean hasNext() {
+          return run < starts.length;
+        }
+
+        @Override
+        public int next() {
+          if (run >= starts.length) {
+            throw new NoSuchElementException();
+          }
+          int result = starts[run] + offset;
+          if (offset == lengths[run]) {
+            run++;
+            offset = 0;
+          } else {
+            offset++;
+          }
+          return result;
+        }
+      };
+    }
+
+    @Override
+    void foreach(int high, IntSetAction action) {
+      for (int i = 0; i < starts.length; i++) {
+        int end = starts[i] + lengths[i];
+        for (int v = starts[i]; v <= end; v++) {
+          action.act(high | v);
+        }
+      }
+    }
+
+    @Override
+    int numberOfRuns() {
+      return starts.length;
+    }
+
+    @Override
+    int sizeInBytes() {
+      return sizeInBytes(starts.length);
+    }
+
+    @Override
+    Container runOptimize() {
+      return sizeInBytes() < Math.min(2 * cardinality, 8 * BITMAP_WORDS) ? this : unpack();
+    }
+  }
+}
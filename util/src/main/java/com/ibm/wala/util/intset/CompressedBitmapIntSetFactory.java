@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.util.intset;
+
+/**
+ * Makes {@link CompressedBitmapIntSet}s. Install it with {@link
+ * IntSetUtil#setDefaultIntSetFactory(MutableIntSetFactory)}, or with the system property {@code
+ * com.ibm.wala.mutableIntSetFactory}, to have points-to sets and other dataflow variables use
+ * compressed bitmaps.
+ */
+public class CompressedBitmapIntSetFactory
+    implements MutableIntSetFactory<CompressedBitmapIntSet> {
+
+  /**
+   * @throws IllegalArgumentException if set is null
+   */
+  @Override
+  public CompressedBitmapIntSet make(int[] set) {
+    if (set == null) {
+      throw new IllegalArgumentException("set is null");
+    }
+    CompressedBitmapIntSet result = new CompressedBitmapIntSet();
+    for (int element : set) {
+      result.add(element);
+    }
+    return result;
+  }
+
+  @Override
+  public CompressedBitmapIntSet parse(String string) throws NumberFormatException {
+    return make(SparseIntSet.parseIntArray(string));
+  }
+
+  @Override
+  public CompressedBitmapIntSet makeCopy(IntSet x) {
+    return new CompressedBitmapIntSet(x);
+  }
+
+  @Override
+  public CompressedBitmapIntSet make() {
+    return new CompressedBitmapIntSet();
+  }
+}
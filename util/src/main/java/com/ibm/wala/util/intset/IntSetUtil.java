@@ -10,8 +10,6 @@
  */
 package com.ibm.wala.util.intset;
 
-import com.ibm.wala.util.debug.Assertions;
-import com.ibm.wala.util.debug.UnimplementedError;
 import java.util.Set;
 import org.jspecify.annotations.NullUnmarked;
 
@@ -68,12 +66,10 @@ public class IntSetUtil {
    * This method constructs an appropriate mutable copy of set.
    *
    * @return a new {@link MutableIntSet} object with the same value as set
-   * @throws UnimplementedError if we haven't supported the set type yet.
    * @throws IllegalArgumentException if set == null
    */
   @NullUnmarked
-  public static MutableIntSet makeMutableCopy(IntSet set)
-      throws IllegalArgumentException, UnimplementedError {
+  public static MutableIntSet makeMutableCopy(IntSet set) throws IllegalArgumentException {
     if (set == null) {
       throw new IllegalArgumentException("set == null");
     }
@@ -87,6 +83,8 @@ public class IntSetUtil {
       return new MutableSharedBitVectorIntSet((MutableSharedBitVectorIntSet) set);
     } else if (set instanceof SemiSparseMutableIntSet) {
       return new SemiSparseMutableIntSet((SemiSparseMutableIntSet) set);
+    } else if (set instanceof CompressedBitmapIntSet) {
+      return new CompressedBitmapIntSet(set);
     } else if (set instanceof DebuggingMutableIntSet) {
       MutableIntSet pCopy = makeMutableCopy(((DebuggingMutableIntSet) set).primaryImpl);
       MutableIntSet sCopy = makeMutableCopy(((DebuggingMutableIntSet) set).secondaryImpl);
@@ -94,8 +92,9 @@ public class IntSetUtil {
     } else if (set instanceof EmptyIntSet) {
       return IntSetUtil.make();
     } else {
-      Assertions.UNREACHABLE(set.getClass().toString());
-      return null;
+      MutableIntSet copy = MutableSparseIntSet.makeEmpty();
+      copy.addAll(set);
+      return copy;
     }
   }
 
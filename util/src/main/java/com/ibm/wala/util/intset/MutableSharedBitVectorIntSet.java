@@ -344,8 +344,8 @@ public class MutableSharedBitVectorIntSet implements MutableIntSet {
     } else if (that instanceof SemiSparseMutableIntSet) {
       return that.sameValue(this);
     } else {
-      Assertions.UNREACHABLE("unexpected class " + that.getClass());
-      return false;
+      // really slow. optimize as needed.
+      return size() == that.size() && isSubset(that);
     }
   }
 
@@ -826,13 +826,7 @@ public class MutableSharedBitVectorIntSet implements MutableIntSet {
     } else if (set instanceof BitVectorIntSet) {
       intersectWithInternal(new MutableSharedBitVectorIntSet((BitVectorIntSet) set));
     } else {
-      // this is really slow. optimize as needed.
-      for (IntIterator it = intIterator(); it.hasNext(); ) {
-        int x = it.next();
-        if (!set.contains(x)) {
-          remove(x);
-        }
-      }
+      intersectWithInternal(new MutableSharedBitVectorIntSet(new BitVectorIntSet(set)));
     }
     if (DEBUG) {
       if (privatePart != null && sharedPart != null)
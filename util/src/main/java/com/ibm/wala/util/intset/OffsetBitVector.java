@@ -15,7 +15,7 @@ import java.util.Arrays;
 /** */
 public final class OffsetBitVector extends BitVectorBase<OffsetBitVector> {
 
-  private static final long serialVersionUID = -5846568678514886375L;
+  private static final long serialVersionUID = 2410539262873935627L;
   int offset;
 
   private static int wordDiff(int offset1, int offset2) {
@@ -28,8 +28,8 @@ public final class OffsetBitVector extends BitVectorBase<OffsetBitVector> {
   private void expand(int newOffset, int newCapacity) {
     int wordDiff = wordDiff(newOffset, offset);
 
-    int[] oldbits = bits;
-    bits = new int[subscript(newCapacity) + 1];
+    long[] oldbits = bits;
+    bits = new long[subscript(newCapacity) + 1];
     System.arraycopy(oldbits, 0, bits, 0 - wordDiff, oldbits.length);
     offset = newOffset;
   }
@@ -58,7 +58,7 @@ public final class OffsetBitVector extends BitVectorBase<OffsetBitVector> {
     }
     offset &= ~LOW_MASK;
     this.offset = offset;
-    this.bits = new int[subscript(nbits) + 1];
+    this.bits = new long[subscript(nbits) + 1];
   }
 
   /**
@@ -88,8 +88,11 @@ public final class OffsetBitVector extends BitVectorBase<OffsetBitVector> {
     return offset;
   }
 
+  /**
+   * @return the size of the bits, in units of 32 bits, for comparison with the size of sparse sets
+   */
   int getSize() {
-    return bits.length;
+    return bits.length << 1;
   }
 
   /**
@@ -119,7 +122,7 @@ public final class OffsetBitVector extends BitVectorBase<OffsetBitVector> {
     }
 
     try {
-      bits[subscript] |= (1 << shiftBits);
+      bits[subscript] |= (1L << shiftBits);
     } catch (RuntimeException e) {
       e.printStackTrace();
       throw e;
@@ -143,7 +146,7 @@ public final class OffsetBitVector extends BitVectorBase<OffsetBitVector> {
       return;
     }
     int shiftBits = bit & LOW_MASK;
-    bits[ss] &= ~(1 << shiftBits);
+    bits[ss] &= ~(1L << shiftBits);
   }
 
   /**
@@ -166,7 +169,7 @@ public final class OffsetBitVector extends BitVectorBase<OffsetBitVector> {
       return false;
     }
     int shiftBits = bit & LOW_MASK;
-    return ((bits[ss] & (1 << shiftBits)) != 0);
+    return ((bits[ss] & (1L << shiftBits)) != 0);
   }
 
   /**
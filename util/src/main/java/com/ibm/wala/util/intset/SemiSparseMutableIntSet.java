@@ -119,6 +119,7 @@ public class SemiSparseMutableIntSet implements MutableIntSet {
             densePart.set(sparseBits.next());
           }
           sparsePart.removeAll(densePart);
+          moveSparseBitsInDenseRange();
         }
 
         assert assertDisjoint()
@@ -224,6 +225,7 @@ public class SemiSparseMutableIntSet implements MutableIntSet {
             sparsePart.remove(bits[i]);
             densePart.set(bits[i]);
           }
+          moveSparseBitsInDenseRange();
         }
 
         assert assertDisjoint()
@@ -404,6 +406,8 @@ public class SemiSparseMutableIntSet implements MutableIntSet {
   public int max() throws IllegalStateException {
     if (densePart == null) {
       return sparsePart.max();
+    } else if (sparsePart.isEmpty()) {
+      return densePart.max();
     } else {
       return Math.max(sparsePart.max(), densePart.max());
     }
@@ -498,6 +502,22 @@ public class SemiSparseMutableIntSet implements MutableIntSet {
     return densePart.getOffset() <= i && densePart.length() > i;
   }
 
+  /**
+   * Move the elements of the sparse part that the dense part covers into it. The dense part starts
+   * and ends at word boundaries, so it may cover more than the elements it was made for.
+   */
+  @NullUnmarked
+  private void moveSparseBitsInDenseRange() {
+    for (IntIterator bits = sparsePart.intIterator(); bits.hasNext(); ) {
+      int bit = bits.next();
+      if (inDenseRange(bit)) {
+        densePart.set(bit);
+      }
+    }
+
+    sparsePart.removeAll(densePart);
+  }
+
   /**
    * Add all members of set to this.
    *
@@ -520,14 +540,7 @@ public class SemiSparseMutableIntSet implements MutableIntSet {
           int oldSize = size();
           densePart = new OffsetBitVector(that.densePart);
 
-          for (IntIterator bits = sparsePart.intIterator(); bits.hasNext(); ) {
-            int bit = bits.next();
-            if (inDenseRange(bit)) {
-              densePart.set(bit);
-            }
-          }
-
-          sparsePart.removeAll(densePart);
+          moveSparseBitsInDenseRange();
           sparsePart.addAll(that.sparsePart);
 
           change = size() != oldSize;
@@ -547,14 +560,7 @@ public class SemiSparseMutableIntSet implements MutableIntSet {
 
           sparsePart.addAll(that.sparsePart);
 
-          for (IntIterator bits = sparsePart.intIterator(); bits.hasNext(); ) {
-            int bit = bits.next();
-            if (inDenseRange(bit)) {
-              densePart.set(bit);
-            }
-          }
-
-          sparsePart.removeAll(densePart);
+          moveSparseBitsInDenseRange();
 
           change = size() != oldSize;
 
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.util.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ibm.wala.util.collections.HashSetFactory;
+import com.ibm.wala.util.collections.Iterator2Collection;
+import com.ibm.wala.util.graph.NumberedGraph;
+import com.ibm.wala.util.graph.impl.CompressedNumberedGraph;
+import com.ibm.wala.util.graph.impl.NodeWithNumber;
+import com.ibm.wala.util.graph.impl.SlowSparseNumberedGraph;
+import com.ibm.wala.util.graph.impl.SparseNumberedGraph;
+import com.ibm.wala.util.graph.traverse.BFSPathFinder;
+import com.ibm.wala.util.graph.traverse.DFS;
+import com.ibm.wala.util.graph.traverse.SCCIterator;
+import com.ibm.wala.util.intset.IntSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link CompressedNumberedGraph}. */
+public class CompressedNumberedGraphTest {
+
+  /** the elements of s; null means no elements */
+  private static Set<Integer> toSet(IntSet s) {
+    Set<Integer> result = HashSetFactory.make();
+    if (s != null) {
+      s.foreach(result::add);
+    }
+    return result;
+  }
+
+  private static <T> void assertSameGraph(NumberedGraph<T> expected, NumberedGraph<T> actual) {
+    assertEquals(expected.getNumberOfNodes(), actual.getNumberOfNodes());
+    assertEquals(expected.getMaxNumber(), actual.getMaxNumber());
+    assertEquals(
+        Iterator2Collection.toSet(expected.iterator()),
+        Iterator2Collection.toSet(actual.iterator()));
+    for (T n : expected) {
+      assertTrue(actual.containsNode(n));
+      assertEquals(expected.getNumber(n), actual.getNumber(n));
+      assertSame(n, actual.getNode(expected.getNumber(n)));
+      assertEquals(
+          Iterator2Collection.toSet(expected.getSuccNodes(n)),
+          Iterator2Collection.toSet(actual.getSuccNodes(n)));
+      assertEquals(
+          Iterator2Collection.toSet(expected.getPredNodes(n)),
+          Iterator2Collection.toSet(actual.getPredNodes(n)));
+      assertEquals(expected.getSuccNodeCount(n), actual.getSuccNodeCount(n));
+      assertEquals(expected.getPredNodeCount(n), actual.getPredNodeCount(n));
+      assertEquals(toSet(expected.getSuccNodeNumbers(n)), toSet(actual.getSuccNodeNumbers(n)));
+      assertEquals(toSet(expected.getPredNodeNumbers(n)), toSet(actual.getPredNodeNumbers(n)));
+      for (T m : expected) {
+        assertEquals(expected.hasEdge(n, m), actual.hasEdge(n, m));
+      }
+    }
+  }
+
+  /** check that traversals see the same graph */
+  private static <T> void assertSameTraversals(
+      NumberedGraph<T> expected, NumberedGraph<T> actual) {
+    Set<Set<T>> expectedSCCs = HashSetFactory.make();
+    new SCCIterator<>(expected).forEachRemaining(expectedSCCs::add);
+    Set<Set<T>> actualSCCs = HashSetFactory.make();
+    new SCCIterator<>(actual).forEachRemaining(actualSCCs::add);
+    assertEquals(expectedSCCs, actualSCCs);
+    T root = expected.iterator().next();
+    // both graphs iterate successors in order of node numbers, so the orders agree as well
+    assertEquals(
+        Iterator2Collection.toList(DFS.iterateDiscoverTime(expected, root)),
+        Iterator2Collection.toList(DFS.iterateDiscoverTime(actual, root)));
+    for (T target : expected) {
+      List<T> expectedPath = new BFSPathFinder<>(expected, root, target).find();
+      List<T> actualPath = new BFSPathFinder<>(actual, root, target).find();
+      assertEquals(expectedPath == null, actualPath == null);
+      if (expectedPath != null) {
+        assertEquals(expectedPath.size(), actualPath.size());
+      }
+    }
+  }
+
+  @Test
+  public void testRandomGraph() {
+    Random r = new Random(17);
+    SlowSparseNumberedGraph<Integer> g = SlowSparseNumberedGraph.make();
+    for (int i = 0; i < 200; i++) {
+      g.addNode(i);
+    }
+    for (int e = 0; e < 600; e++) {
+      g.addEdge(r.nextInt(200), r.nextInt(200));
+    }
+    // leave some numbers unused
+    for (int i = 0; i < 200; i += 17) {
+      g.removeNodeAndEdges(i);
+    }
+    CompressedNumberedGraph<Integer> frozen = CompressedNumberedGraph.freeze(g);
+    assertSameGraph(g, frozen);
+    assertSameTraversals(g, frozen);
+    assertFalse(frozen.containsNode(0));
+    assertFalse(frozen.containsNode(1000));
+    assertSame(frozen, CompressedNumberedGraph.freeze(frozen));
+    assertThrows(UnsupportedOperationException.class, () -> frozen.addNode(1000));
+    assertThrows(UnsupportedOperationException.class, () -> frozen.addEdge(1, 2));
+    assertThrows(UnsupportedOperationException.class, () -> frozen.removeNodeAndEdges(1));
+    assertThrows(IllegalArgumentException.class, () -> frozen.getSuccNodes(1000));
+  }
+
+  @Test
+  public void testNodesWithNumbers() {
+    Random r = new Random(17);
+    SparseNumberedGraph<NodeWithNumber> g = new SparseNumberedGraph<>();
+    NodeWithNumber[] nodes = new NodeWithNumber[100];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = new NodeWithNumber();
+      g.addNode(nodes[i]);
+    }
+    for (int e = 0; e < 300; e++) {
+      g.addEdge(nodes[r.nextInt(nodes.length)], nodes[r.nextInt(nodes.length)]);
+    }
+    CompressedNumberedGraph<NodeWithNumber> frozen = CompressedNumberedGraph.freeze(g);
+    assertSameGraph(g, frozen);
+    assertSameTraversals(g, frozen);
+    assertFalse(frozen.containsNode(new NodeWithNumber()));
+  }
+}
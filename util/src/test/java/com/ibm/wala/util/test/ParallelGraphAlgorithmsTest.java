@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2026 IBM Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ */
+package com.ibm.wala.util.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.collections.HashSetFactory;
+import com.ibm.wala.util.collections.Iterator2Collection;
+import com.ibm.wala.util.graph.GraphReachability;
+import com.ibm.wala.util.graph.NumberedGraph;
+import com.ibm.wala.util.graph.impl.SlowSparseNumberedGraph;
+import com.ibm.wala.util.graph.traverse.DFS;
+import com.ibm.wala.util.graph.traverse.ParallelReachability;
+import com.ibm.wala.util.graph.traverse.ParallelSCC;
+import com.ibm.wala.util.graph.traverse.SCCIterator;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link ParallelSCC} and {@link ParallelReachability}. */
+public class ParallelGraphAlgorithmsTest {
+
+  /**
+   * a graph of random cycles of different sizes, joined by random edges, so that it has large and
+   * small components; some numbers are left unused
+   */
+  private static NumberedGraph<Integer> makeGraph(long seed, int size) {
+    Random r = new Random(seed);
+    SlowSparseNumberedGraph<Integer> g = SlowSparseNumberedGraph.make();
+    for (int i = 0; i < size; i++) {
+      g.addNode(i);
+    }
+    int n = 0;
+    while (n < size) {
+      int length = Math.min(size - n, r.nextInt(5) == 0 ? 1 + r.nextInt(size / 4) : 1);
+      for (int i = 0; i < length; i++) {
+        g.addEdge(n + i, n + (i + 1) % length);
+      }
+      n += length;
+    }
+    for (int e = 0; e < size; e++) {
+      g.addEdge(r.nextInt(size), r.nextInt(size));
+    }
+    for (int i = 0; i < size; i += 97) {
+      g.removeNodeAndEdges(i);
+    }
+    return g;
+  }
+
+  private static void checkSCCs(NumberedGraph<Integer> g, int threads) {
+    Set<Set<Integer>> expected = HashSetFactory.make();
+    new SCCIterator<>(g).forEachRemaining(expected::add);
+    ParallelSCC<Integer> sccs = ParallelSCC.compute(g, threads);
+    assertEquals(expected, Iterator2Collection.toSet(sccs.iterator()));
+    assertEquals(expected.size(), sccs.getNumberOfComponents());
+    for (Integer n : g) {
+      assertTrue(sccs.getComponent(sccs.getComponentNumber(n)).contains(n));
+      for (Integer s : Iterator2Collection.toSet(g.getSuccNodes(n))) {
+        assertTrue(
+            sccs.getComponentNumber(n) <= sccs.getComponentNumber(s),
+            "components are not in topological order");
+      }
+    }
+  }
+
+  private static void checkReachability(NumberedGraph<Integer> g, int threads)
+      throws CancelException {
+    Predicate<Integer> filter = n -> n % 3 == 0;
+    GraphReachability<Integer, Integer> expected = new GraphReachability<>(g, filter);
+    expected.solve(null);
+    ParallelReachability<Integer, Integer> actual = new ParallelReachability<>(g, filter, threads);
+    actual.solve(null);
+    for (Integer n : g) {
+      assertEquals(
+          Iterator2Collection.toSet(expected.getReachableSet(n).iterator()),
+          Iterator2Collection.toSet(actual.getReachableSet(n).iterator()));
+    }
+    Random r = new Random(threads);
+    for (int i = 0; i < 10; i++) {
+      List<Integer> roots = Arrays.asList(1 + r.nextInt(90), 100 + r.nextInt(90));
+      assertEquals(
+          DFS.getReachableNodes(g, roots),
+          ParallelReachability.getReachableNodes(g, roots, threads));
+    }
+  }
+
+  @Test
+  public void testSCCs() {
+    for (long seed = 0; seed < 3; seed++) {
+      NumberedGraph<Integer> g = makeGraph(seed, 3000);
+      checkSCCs(g, 1);
+      checkSCCs(g, 4);
+      assertEquals(
+          Iterator2Collection.toList(ParallelSCC.compute(g, 1).iterator()),
+          Iterator2Collection.toList(ParallelSCC.compute(g, 4).iterator()));
+    }
+    checkSCCs(SlowSparseNumberedGraph.make(), 2);
+    assertThrows(
+        IllegalArgumentException.class, () -> ParallelSCC.compute(makeGraph(0, 10), 0));
+  }
+
+  @Test
+  public void testReachability() throws CancelException {
+    for (long seed = 0; seed < 3; seed++) {
+      NumberedGraph<Integer> g = makeGraph(seed, 1000);
+      checkReachability(g, 1);
+      checkReachability(g, 4);
+    }
+    ParallelReachability<Integer, Integer> r =
+        new ParallelReachability<>(makeGraph(0, 10), n -> true, 2);
+    assertThrows(IllegalStateException.class, () -> r.getReachableSet(1));
+  }
+}